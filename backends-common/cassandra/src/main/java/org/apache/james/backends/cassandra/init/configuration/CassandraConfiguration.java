@@ -42,6 +42,7 @@ public class CassandraConfiguration {
     public static final int DEFAULT_ACL_MAX_RETRY = 1000;
     public static final int DEFAULT_FETCH_NEXT_PAGE_ADVANCE_IN_ROW = 100;
     public static final int DEFAULT_BLOB_PART_SIZE = 100 * 1024;
+    public static final int DEFAULT_BLOB_READ_CONCURRENCY = 4;
     public static final int DEFAULT_ATTACHMENT_V2_MIGRATION_READ_TIMEOUT = toIntExact(TimeUnit.HOURS.toMillis(1));
     public static final int DEFAULT_MESSAGE_ATTACHMENT_ID_MIGRATION_READ_TIMEOUT = toIntExact(TimeUnit.HOURS.toMillis(1));
 
@@ -55,6 +56,8 @@ public class CassandraConfiguration {
     private static final String CHUNK_SIZE_MESSAGE_READ = "chunk.size.message.read";
     private static final String CHUNK_SIZE_EXPUNGE = "chunk.size.expunge";
     private static final String BLOB_PART_SIZE = "mailbox.blob.part.size";
+    private static final String BLOB_READ_CONCURRENCY = "mailbox.blob.read.concurrency";
+    private static final String BLOB_COMPRESSION = "mailbox.blob.compression";
     private static final String ATTACHMENT_V2_MIGRATION_READ_TIMEOUT = "attachment.v2.migration.read.timeout";
     private static final String MESSAGE_ATTACHMENTID_READ_TIMEOUT = "message.attachmentids.read.timeout";
 
@@ -70,6 +73,8 @@ public class CassandraConfiguration {
         private Optional<Integer> aclMaxRetry = Optional.empty();
         private Optional<Integer> fetchNextPageInAdvanceRow = Optional.empty();
         private Optional<Integer> blobPartSize = Optional.empty();
+        private Optional<Integer> blobReadConcurrency = Optional.empty();
+        private Optional<String> blobCompression = Optional.empty();
         private Optional<Integer> attachmentV2MigrationReadTimeout = Optional.empty();
         private Optional<Integer> messageAttachmentIdsReadTimeout = Optional.empty();
 
@@ -127,6 +132,18 @@ public class CassandraConfiguration {
             return this;
         }
 
+        public Builder blobReadConcurrency(int value) {
+            Preconditions.checkArgument(value > 0, "blobReadConcurrency needs to be strictly positive");
+            this.blobReadConcurrency = Optional.of(value);
+            return this;
+        }
+
+        public Builder blobCompression(String value) {
+            Preconditions.checkNotNull(value);
+            this.blobCompression = Optional.of(value);
+            return this;
+        }
+
         public Builder attachmentV2MigrationReadTimeout(int value) {
             Preconditions.checkArgument(value > 0, "attachmentV2MigrationReadTimeout needs to be strictly positive");
             this.attachmentV2MigrationReadTimeout = Optional.of(value);
@@ -184,6 +201,16 @@ public class CassandraConfiguration {
             return this;
         }
 
+        public Builder blobReadConcurrency(Optional<Integer> value) {
+            value.ifPresent(this::blobReadConcurrency);
+            return this;
+        }
+
+        public Builder blobCompression(Optional<String> value) {
+            value.ifPresent(this::blobCompression);
+            return this;
+        }
+
         public Builder attachmentV2MigrationReadTimeout(Optional<Integer> value) {
             value.ifPresent(this::attachmentV2MigrationReadTimeout);
             return this;
@@ -204,6 +231,8 @@ public class CassandraConfiguration {
                 uidMaxRetry.orElse(DEFAULT_UID_MAX_RETRY),
                 fetchNextPageInAdvanceRow.orElse(DEFAULT_FETCH_NEXT_PAGE_ADVANCE_IN_ROW),
                 blobPartSize.orElse(DEFAULT_BLOB_PART_SIZE),
+                blobReadConcurrency.orElse(DEFAULT_BLOB_READ_CONCURRENCY),
+                blobCompression,
                 attachmentV2MigrationReadTimeout.orElse(DEFAULT_ATTACHMENT_V2_MIGRATION_READ_TIMEOUT),
                 messageAttachmentIdsReadTimeout.orElse(DEFAULT_MESSAGE_ATTACHMENT_ID_MIGRATION_READ_TIMEOUT));
         }
@@ -233,6 +262,10 @@ public class CassandraConfiguration {
                 propertiesConfiguration.getInteger(CHUNK_SIZE_EXPUNGE, null)))
             .blobPartSize(Optional.ofNullable(
                 propertiesConfiguration.getInteger(BLOB_PART_SIZE, null)))
+            .blobReadConcurrency(Optional.ofNullable(
+                propertiesConfiguration.getInteger(BLOB_READ_CONCURRENCY, null)))
+            .blobCompression(Optional.ofNullable(
+                propertiesConfiguration.getString(BLOB_COMPRESSION, null)))
             .attachmentV2MigrationReadTimeout(Optional.ofNullable(
                 propertiesConfiguration.getInteger(ATTACHMENT_V2_MIGRATION_READ_TIMEOUT, null)))
             .messageAttachmentIdsReadTimeout(Optional.ofNullable(
@@ -249,6 +282,8 @@ public class CassandraConfiguration {
     private final int aclMaxRetry;
     private final int fetchNextPageInAdvanceRow;
     private final int blobPartSize;
+    private final int blobReadConcurrency;
+    private final Optional<String> blobCompression;
     private final int attachmentV2MigrationReadTimeout;
     private final int messageAttachmentIdsReadTimeout;
 
@@ -256,7 +291,7 @@ public class CassandraConfiguration {
     CassandraConfiguration(int aclMaxRetry, int messageReadChunkSize, int expungeChunkSize,
                            int flagsUpdateMessageIdMaxRetry, int flagsUpdateMessageMaxRetry,
                            int modSeqMaxRetry, int uidMaxRetry, int fetchNextPageInAdvanceRow,
-                           int blobPartSize, final int attachmentV2MigrationReadTimeout, int messageAttachmentIdsReadTimeout) {
+                           int blobPartSize, int blobReadConcurrency, Optional<String> blobCompression, final int attachmentV2MigrationReadTimeout, int messageAttachmentIdsReadTimeout) {
         this.aclMaxRetry = aclMaxRetry;
         this.messageReadChunkSize = messageReadChunkSize;
         this.expungeChunkSize = expungeChunkSize;
@@ -266,6 +301,8 @@ public class CassandraConfiguration {
         this.uidMaxRetry = uidMaxRetry;
         this.fetchNextPageInAdvanceRow = fetchNextPageInAdvanceRow;
         this.blobPartSize = blobPartSize;
+        this.blobReadConcurrency = blobReadConcurrency;
+        this.blobCompression = blobCompression;
         this.attachmentV2MigrationReadTimeout = attachmentV2MigrationReadTimeout;
         this.messageAttachmentIdsReadTimeout = messageAttachmentIdsReadTimeout;
     }
@@ -274,6 +311,17 @@ public class CassandraConfiguration {
         return blobPartSize;
     }
 
+    public int getBlobReadConcurrency() {
+        return blobReadConcurrency;
+    }
+
+    /**
+     * Name of the algorithm used to compress blob parts, empty when blob parts are not compressed.
+     */
+    public Optional<String> getBlobCompression() {
+        return blobCompression;
+    }
+
     public int getAclMaxRetry() {
         return aclMaxRetry;
     }
@@ -328,6 +376,8 @@ public class CassandraConfiguration {
                 && Objects.equals(this.uidMaxRetry, that.uidMaxRetry)
                 && Objects.equals(this.fetchNextPageInAdvanceRow, that.fetchNextPageInAdvanceRow)
                 && Objects.equals(this.blobPartSize, that.blobPartSize)
+                && Objects.equals(this.blobReadConcurrency, that.blobReadConcurrency)
+                && Objects.equals(this.blobCompression, that.blobCompression)
                 && Objects.equals(this.attachmentV2MigrationReadTimeout, that.attachmentV2MigrationReadTimeout)
                 && Objects.equals(this.messageAttachmentIdsReadTimeout, that.messageAttachmentIdsReadTimeout);
         }
@@ -338,7 +388,7 @@ public class CassandraConfiguration {
     public final int hashCode() {
         return Objects.hash(aclMaxRetry, messageReadChunkSize, expungeChunkSize, flagsUpdateMessageIdMaxRetry,
             flagsUpdateMessageMaxRetry, modSeqMaxRetry, uidMaxRetry, fetchNextPageInAdvanceRow,
-            blobPartSize, attachmentV2MigrationReadTimeout, messageAttachmentIdsReadTimeout);
+            blobPartSize, blobReadConcurrency, blobCompression, attachmentV2MigrationReadTimeout, messageAttachmentIdsReadTimeout);
     }
 
     @Override
@@ -353,6 +403,8 @@ public class CassandraConfiguration {
             .add("fetchNextPageInAdvanceRow", fetchNextPageInAdvanceRow)
             .add("uidMaxRetry", uidMaxRetry)
             .add("blobPartSize", blobPartSize)
+            .add("blobReadConcurrency", blobReadConcurrency)
+            .add("blobCompression", blobCompression)
             .add("attachmentV2MigrationReadTimeout", attachmentV2MigrationReadTimeout)
             .add("messageAttachmentIdsReadTimeout", messageAttachmentIdsReadTimeout)
             .toString();
@@ -157,6 +157,20 @@ public class CassandraConfigurationTest {
             .isInstanceOf(IllegalArgumentException.class);
     }
 
+    @Test
+    public void blobReadConcurrencyShouldThrowOnNegativeValue() {
+        assertThatThrownBy(() -> CassandraConfiguration.builder()
+                .blobReadConcurrency(-1))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void blobReadConcurrencyShouldThrowOnZero() {
+        assertThatThrownBy(() -> CassandraConfiguration.builder()
+                .blobReadConcurrency(0))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
     @Test
     public void attachmentV2MigrationReadTimeoutShouldThrowOnZero() {
         assertThatThrownBy(() -> CassandraConfiguration.builder()
@@ -198,6 +212,8 @@ public class CassandraConfigurationTest {
         int blobPartSize = 10;
         int attachmentV2MigrationReadTimeout = 11;
         int messageAttachmentIdReadTimeout = 12;
+        int blobReadConcurrency = 13;
+        String blobCompression = "lz4";
 
         CassandraConfiguration configuration = CassandraConfiguration.builder()
             .aclMaxRetry(aclMaxRetry)
@@ -209,6 +225,8 @@ public class CassandraConfigurationTest {
             .messageReadChunkSize(messageReadChunkSize)
             .expungeChunkSize(expungeChunkSize)
             .blobPartSize(blobPartSize)
+            .blobReadConcurrency(blobReadConcurrency)
+            .blobCompression(blobCompression)
             .attachmentV2MigrationReadTimeout(attachmentV2MigrationReadTimeout)
             .messageAttachmentIdsReadTimeout(messageAttachmentIdReadTimeout)
             .build();
@@ -222,6 +240,8 @@ public class CassandraConfigurationTest {
         softly.assertThat(configuration.getMessageReadChunkSize()).isEqualTo(messageReadChunkSize);
         softly.assertThat(configuration.getExpungeChunkSize()).isEqualTo(expungeChunkSize);
         softly.assertThat(configuration.getBlobPartSize()).isEqualTo(blobPartSize);
+        softly.assertThat(configuration.getBlobReadConcurrency()).isEqualTo(blobReadConcurrency);
+        softly.assertThat(configuration.getBlobCompression()).contains(blobCompression);
         softly.assertThat(configuration.getAttachmentV2MigrationReadTimeout()).isEqualTo(attachmentV2MigrationReadTimeout);
         softly.assertThat(configuration.getMessageAttachmentIdsReadTimeout()).isEqualTo(messageAttachmentIdReadTimeout);
     }
@@ -19,6 +19,7 @@
 
 package org.apache.james.metrics.api;
 
+import java.time.Duration;
 import java.util.function.Supplier;
 
 import reactor.core.publisher.Flux;
@@ -30,6 +31,12 @@ public interface MetricFactory {
 
     TimeMetric timer(String name);
 
+    /**
+     * Publishes to the timer of the given name a duration that was not measured by a {@link TimeMetric}, for instance
+     * one computed from a stored timestamp.
+     */
+    void recordDuration(String name, Duration duration);
+
     default <T> T runPublishingTimerMetric(String name, Supplier<T> operation) {
         TimeMetric timer = timer(name);
         try {
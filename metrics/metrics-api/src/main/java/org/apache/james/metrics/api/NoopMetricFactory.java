@@ -18,6 +18,8 @@
  ****************************************************************/
 package org.apache.james.metrics.api;
 
+import java.time.Duration;
+
 public class NoopMetricFactory implements MetricFactory {
 
     @Override
@@ -49,6 +51,10 @@ public class NoopMetricFactory implements MetricFactory {
         return new NoopTimeMetric();
     }
 
+    @Override
+    public void recordDuration(String name, Duration duration) {
+    }
+
     public static class NoopTimeMetric implements TimeMetric {
 
         @Override
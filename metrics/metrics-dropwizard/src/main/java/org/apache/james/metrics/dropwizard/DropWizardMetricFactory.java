@@ -19,6 +19,9 @@
 
 package org.apache.james.metrics.dropwizard;
 
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
 import javax.inject.Inject;
@@ -52,6 +55,11 @@ public class DropWizardMetricFactory implements MetricFactory {
         return new DropWizardTimeMetric(name, metricRegistry.timer(name).time());
     }
 
+    @Override
+    public void recordDuration(String name, Duration duration) {
+        metricRegistry.timer(name).update(duration.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
     @PostConstruct
     public void start() {
         jmxReporter.start();
@@ -51,6 +51,13 @@ public class RecordingMetricFactory implements MetricFactory {
         });
     }
 
+    @Override
+    public void recordDuration(String name, Duration duration) {
+        synchronized (executionTimes) {
+            executionTimes.put(name, duration);
+        }
+    }
+
     public Collection<Duration> executionTimesFor(String name) {
         synchronized (executionTimes) {
             return executionTimes.get(name);
@@ -80,6 +80,15 @@ class RecordingMetricFactoryTest {
             .hasSize(2000);
     }
 
+    @Test
+    void executionTimesForATimeMetricShouldContainRecordedDurations() {
+        testee.recordDuration(TIME_METRIC_NAME, ONE_SECOND);
+        testee.recordDuration(TIME_METRIC_NAME, FIVE_SECONDS);
+
+        assertThat(testee.executionTimesFor(TIME_METRIC_NAME))
+            .containsExactly(ONE_SECOND, FIVE_SECONDS);
+    }
+
     @Test
     void countForAMetricShouldBeCountForIncrementMultipleTime() {
         Metric metric = testee.generate(METRIC_NAME);
@@ -0,0 +1,222 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.blob.api;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PushbackInputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.apache.commons.io.output.CloseShieldOutputStream;
+import org.apache.james.metrics.api.Metric;
+import org.apache.james.metrics.api.MetricFactory;
+
+import com.google.common.io.ByteStreams;
+import com.google.common.io.CountingOutputStream;
+import com.google.common.primitives.Bytes;
+import com.google.common.primitives.Ints;
+
+/**
+ * Compresses payloads before they get stored, and restores them upon reads.
+ *
+ * Compressed payloads are prefixed by a header made of a magic number followed by the algorithm id. Payloads not
+ * worth compressing are stored as is, unless they start with the magic number in which case they get a header
+ * marking them as stored. Payloads written before compression was enabled are thus read back unchanged.
+ *
+ * Original and stored sizes of compressed payloads are reported, allowing to compute the compression ratio.
+ */
+public class BlobCompressor {
+    static final String COMPRESSION_ORIGINAL_BYTES_METRIC_NAME = "blobStore:compression:originalBytes";
+    static final String COMPRESSION_STORED_BYTES_METRIC_NAME = "blobStore:compression:storedBytes";
+
+    // 0xF5 can not appear in UTF-8 encoded text
+    private static final byte[] MAGIC = {(byte) 0xF5, 'J', 'C', 'Z'};
+    private static final byte STORED = 0;
+    private static final int HEADER_SIZE = MAGIC.length + 1;
+
+    private final CompressionConfiguration configuration;
+    private final Metric originalBytes;
+    private final Metric storedBytes;
+
+    public BlobCompressor(CompressionConfiguration configuration, MetricFactory metricFactory) {
+        this.configuration = configuration;
+        this.originalBytes = metricFactory.generate(COMPRESSION_ORIGINAL_BYTES_METRIC_NAME);
+        this.storedBytes = metricFactory.generate(COMPRESSION_STORED_BYTES_METRIC_NAME);
+    }
+
+    public byte[] compress(byte[] data) {
+        if (!configuration.getAlgorithm().isPresent()) {
+            return store(data);
+        }
+        byte[] result = encode(configuration.getAlgorithm().get(), data);
+        record(data.length, result.length);
+        return result;
+    }
+
+    public ByteBuffer compress(ByteBuffer data) {
+        if (!configuration.getAlgorithm().isPresent() && !hasMagic(data)) {
+            return data;
+        }
+        return ByteBuffer.wrap(compress(toBytes(data)));
+    }
+
+    /**
+     * Streaming flavour of {@link #compress(byte[])}: only the beginning of the stream is buffered in order to
+     * decide whether it is worth compressing.
+     */
+    public void compress(InputStream data, OutputStream output) throws IOException {
+        byte[] head = ByteStreams.toByteArray(ByteStreams.limit(data, Math.max(configuration.getMinimumSize(), MAGIC.length)));
+        if (!configuration.getAlgorithm().isPresent()) {
+            output.write(store(head));
+            ByteStreams.copy(data, output);
+            return;
+        }
+        if (head.length < configuration.getMinimumSize()) {
+            output.write(compress(head));
+            return;
+        }
+
+        CompressionAlgorithm algorithm = configuration.getAlgorithm().get();
+        CountingOutputStream countingOutput = new CountingOutputStream(new CloseShieldOutputStream(output));
+        countingOutput.write(header(algorithm.getId()));
+        long originalSize;
+        try (OutputStream compressingOutput = algorithm.compress(countingOutput)) {
+            compressingOutput.write(head);
+            originalSize = head.length + ByteStreams.copy(data, compressingOutput);
+        }
+        record(originalSize, countingOutput.getCount());
+    }
+
+    public byte[] decompress(byte[] stored) {
+        if (!hasHeader(stored, stored.length)) {
+            return stored;
+        }
+        byte algorithmId = stored[MAGIC.length];
+        if (algorithmId == STORED) {
+            return Arrays.copyOfRange(stored, HEADER_SIZE, stored.length);
+        }
+        try (InputStream decompressed = decompressor(algorithmId, new ByteArrayInputStream(stored, HEADER_SIZE, stored.length - HEADER_SIZE))) {
+            return ByteStreams.toByteArray(decompressed);
+        } catch (IOException e) {
+            throw new ObjectStoreException("Failed to decompress blob", e);
+        }
+    }
+
+    public ByteBuffer decompress(ByteBuffer stored) {
+        if (stored.remaining() < HEADER_SIZE || !hasMagic(stored)) {
+            return stored;
+        }
+        return ByteBuffer.wrap(decompress(toBytes(stored)));
+    }
+
+    public InputStream decompress(InputStream stored) throws IOException {
+        PushbackInputStream pushbackInputStream = new PushbackInputStream(stored, HEADER_SIZE);
+        byte[] header = new byte[HEADER_SIZE];
+        int read = ByteStreams.read(pushbackInputStream, header, 0, HEADER_SIZE);
+        if (!hasHeader(header, read)) {
+            pushbackInputStream.unread(header, 0, read);
+            return pushbackInputStream;
+        }
+        byte algorithmId = header[MAGIC.length];
+        if (algorithmId == STORED) {
+            return pushbackInputStream;
+        }
+        return decompressor(algorithmId, pushbackInputStream);
+    }
+
+    private byte[] encode(CompressionAlgorithm algorithm, byte[] data) {
+        if (data.length < configuration.getMinimumSize()) {
+            return store(data);
+        }
+        ByteArrayOutputStream output = new ByteArrayOutputStream(data.length);
+        try {
+            output.write(header(algorithm.getId()));
+            try (OutputStream compressingOutput = algorithm.compress(output)) {
+                compressingOutput.write(data);
+            }
+        } catch (IOException e) {
+            throw new ObjectStoreException("Failed to compress blob", e);
+        }
+        if (output.size() >= data.length) {
+            return store(data);
+        }
+        return output.toByteArray();
+    }
+
+    private InputStream decompressor(byte algorithmId, InputStream compressed) throws IOException {
+        CompressionAlgorithm algorithm = CompressionAlgorithm.fromId(algorithmId)
+            .orElseThrow(() -> new ObjectStoreException("Unknown compression algorithm id " + algorithmId));
+        return algorithm.decompress(compressed);
+    }
+
+    private byte[] store(byte[] data) {
+        if (hasMagic(data, data.length)) {
+            return Bytes.concat(header(STORED), data);
+        }
+        return data;
+    }
+
+    private byte[] header(byte algorithmId) {
+        return Bytes.concat(MAGIC, new byte[] {algorithmId});
+    }
+
+    private boolean hasHeader(byte[] data, int length) {
+        return length >= HEADER_SIZE && hasMagic(data, length);
+    }
+
+    private boolean hasMagic(byte[] data, int length) {
+        if (length < MAGIC.length) {
+            return false;
+        }
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (data[i] != MAGIC[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean hasMagic(ByteBuffer data) {
+        if (data.remaining() < MAGIC.length) {
+            return false;
+        }
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (data.get(data.position() + i) != MAGIC[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private byte[] toBytes(ByteBuffer data) {
+        byte[] bytes = new byte[data.remaining()];
+        data.duplicate().get(bytes);
+        return bytes;
+    }
+
+    private void record(long originalSize, long storedSize) {
+        originalBytes.add(Ints.saturatedCast(originalSize));
+        storedBytes.add(Ints.saturatedCast(storedSize));
+    }
+}
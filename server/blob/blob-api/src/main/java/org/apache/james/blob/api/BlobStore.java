@@ -18,9 +18,17 @@
  ****************************************************************/
 package org.apache.james.blob.api;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.Collection;
 
+import org.apache.commons.io.IOUtils;
+
+import com.google.common.base.Preconditions;
+import com.google.common.io.ByteStreams;
+
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 public interface BlobStore {
@@ -33,6 +41,28 @@ public interface BlobStore {
 
     InputStream read(BucketName bucketName, BlobId blobId);
 
+    /**
+     * Reads at most length bytes of the blob, starting at offset.
+     *
+     * The returned stream is empty if offset is past the end of the blob, and is truncated if the requested range
+     * exceeds the end of the blob.
+     *
+     * Implementations are expected to only retrieve the requested range. This default implementation reads the whole
+     * blob and should only be relied on by test doubles.
+     */
+    default InputStream read(BucketName bucketName, BlobId blobId, long offset, long length) {
+        Preconditions.checkArgument(offset >= 0, "offset can not be negative");
+        Preconditions.checkArgument(length >= 0, "length can not be negative");
+
+        InputStream data = read(bucketName, blobId);
+        try {
+            IOUtils.skip(data, offset);
+            return ByteStreams.limit(data, length);
+        } catch (IOException e) {
+            throw new ObjectStoreException("Failed to read range of blob " + blobId.asString(), e);
+        }
+    }
+
     default Mono<BlobId> save(BucketName bucketName, String data) {
         return save(bucketName, data.getBytes(StandardCharsets.UTF_8));
     }
@@ -42,4 +72,31 @@ public interface BlobStore {
     Mono<Void> deleteBucket(BucketName bucketName);
 
     Mono<Void> delete(BucketName bucketName, BlobId blobId);
+
+    /**
+     * Deletes several blobs of a bucket. Missing blobs are ignored.
+     *
+     * Implementations are expected to rely on the batch operations of their backend. This default implementation
+     * deletes blobs one at a time and should only be relied on by test doubles.
+     */
+    default Mono<Void> delete(BucketName bucketName, Collection<BlobId> blobIds) {
+        Preconditions.checkNotNull(bucketName);
+        Preconditions.checkNotNull(blobIds);
+
+        return Flux.fromIterable(blobIds)
+            .concatMap(blobId -> delete(bucketName, blobId))
+            .then();
+    }
+
+    /**
+     * Implementations are expected to check existence without retrieving the content. This default implementation
+     * reads the whole blob and should only be relied on by test doubles.
+     */
+    default Mono<Boolean> exists(BucketName bucketName, BlobId blobId) {
+        Preconditions.checkNotNull(bucketName);
+
+        return readBytes(bucketName, blobId)
+            .map(any -> true)
+            .onErrorResume(ObjectNotFoundException.class, e -> Mono.just(false));
+    }
 }
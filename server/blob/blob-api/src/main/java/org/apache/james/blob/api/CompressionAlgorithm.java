@@ -0,0 +1,101 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.blob.api;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.apache.commons.compress.compressors.lz4.FramedLZ4CompressorInputStream;
+import org.apache.commons.compress.compressors.lz4.FramedLZ4CompressorOutputStream;
+
+import com.google.common.base.Preconditions;
+
+public enum CompressionAlgorithm {
+    DEFLATE((byte) 1) {
+        @Override
+        public OutputStream compress(OutputStream outputStream) {
+            return new DeflaterOutputStream(outputStream);
+        }
+
+        @Override
+        public InputStream decompress(InputStream inputStream) {
+            return new InflaterInputStream(inputStream);
+        }
+    },
+    LZ4((byte) 2) {
+        @Override
+        public OutputStream compress(OutputStream outputStream) throws IOException {
+            return new FramedLZ4CompressorOutputStream(outputStream);
+        }
+
+        @Override
+        public InputStream decompress(InputStream inputStream) throws IOException {
+            return new FramedLZ4CompressorInputStream(inputStream);
+        }
+    };
+
+    public static final String NONE = "none";
+
+    /**
+     * Parses a configured algorithm, {@link #NONE} denoting that compression is disabled.
+     */
+    public static Optional<CompressionAlgorithm> parseOptional(String value) {
+        Preconditions.checkNotNull(value);
+
+        if (value.trim().equalsIgnoreCase(NONE)) {
+            return Optional.empty();
+        }
+        return Optional.of(parse(value));
+    }
+
+    public static CompressionAlgorithm parse(String value) {
+        Preconditions.checkNotNull(value);
+
+        return Arrays.stream(values())
+            .filter(algorithm -> algorithm.name().equalsIgnoreCase(value.trim()))
+            .findAny()
+            .orElseThrow(() -> new IllegalArgumentException("Unknown compression algorithm '" + value + "'"));
+    }
+
+    static Optional<CompressionAlgorithm> fromId(byte id) {
+        return Arrays.stream(values())
+            .filter(algorithm -> algorithm.id == id)
+            .findAny();
+    }
+
+    private final byte id;
+
+    CompressionAlgorithm(byte id) {
+        this.id = id;
+    }
+
+    byte getId() {
+        return id;
+    }
+
+    public abstract OutputStream compress(OutputStream outputStream) throws IOException;
+
+    public abstract InputStream decompress(InputStream inputStream) throws IOException;
+}
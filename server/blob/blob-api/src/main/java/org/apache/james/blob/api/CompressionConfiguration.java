@@ -0,0 +1,113 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.blob.api;
+
+import java.util.Objects;
+import java.util.Optional;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+
+public class CompressionConfiguration {
+    public static final int DEFAULT_MINIMUM_SIZE = 1024;
+
+    public static final CompressionConfiguration DISABLED = builder().build();
+
+    public static class Builder {
+        private Optional<CompressionAlgorithm> algorithm = Optional.empty();
+        private Optional<Integer> minimumSize = Optional.empty();
+
+        public Builder algorithm(CompressionAlgorithm algorithm) {
+            Preconditions.checkNotNull(algorithm);
+            this.algorithm = Optional.of(algorithm);
+            return this;
+        }
+
+        public Builder algorithm(Optional<CompressionAlgorithm> algorithm) {
+            algorithm.ifPresent(this::algorithm);
+            return this;
+        }
+
+        public Builder minimumSize(int value) {
+            Preconditions.checkArgument(value >= 0, "minimumSize can not be negative");
+            this.minimumSize = Optional.of(value);
+            return this;
+        }
+
+        public Builder minimumSize(Optional<Integer> value) {
+            value.ifPresent(this::minimumSize);
+            return this;
+        }
+
+        public CompressionConfiguration build() {
+            return new CompressionConfiguration(algorithm, minimumSize.orElse(DEFAULT_MINIMUM_SIZE));
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    private final Optional<CompressionAlgorithm> algorithm;
+    private final int minimumSize;
+
+    private CompressionConfiguration(Optional<CompressionAlgorithm> algorithm, int minimumSize) {
+        this.algorithm = algorithm;
+        this.minimumSize = minimumSize;
+    }
+
+    /**
+     * Empty when compression is disabled.
+     */
+    public Optional<CompressionAlgorithm> getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * Payloads smaller than this size are stored as is: the gain does not make up for the CPU cost.
+     */
+    public int getMinimumSize() {
+        return minimumSize;
+    }
+
+    @Override
+    public final boolean equals(Object o) {
+        if (o instanceof CompressionConfiguration) {
+            CompressionConfiguration that = (CompressionConfiguration) o;
+
+            return Objects.equals(this.minimumSize, that.minimumSize)
+                && Objects.equals(this.algorithm, that.algorithm);
+        }
+        return false;
+    }
+
+    @Override
+    public final int hashCode() {
+        return Objects.hash(algorithm, minimumSize);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+            .add("algorithm", algorithm)
+            .add("minimumSize", minimumSize)
+            .toString();
+    }
+}
@@ -19,6 +19,7 @@
 package org.apache.james.blob.api;
 
 import java.io.InputStream;
+import java.util.Collection;
 
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -36,7 +37,10 @@ public class MetricableBlobStore implements BlobStore {
     static final String SAVE_INPUT_STREAM_TIMER_NAME = BLOB_STORE_METRIC_PREFIX + "saveInputStream";
     static final String READ_BYTES_TIMER_NAME = BLOB_STORE_METRIC_PREFIX + "readBytes";
     static final String READ_TIMER_NAME = BLOB_STORE_METRIC_PREFIX + "read";
+    static final String READ_RANGE_TIMER_NAME = BLOB_STORE_METRIC_PREFIX + "readRange";
     static final String DELETE_TIMER_NAME = BLOB_STORE_METRIC_PREFIX + "delete";
+    static final String DELETE_BATCH_TIMER_NAME = BLOB_STORE_METRIC_PREFIX + "deleteBatch";
+    static final String EXISTS_TIMER_NAME = BLOB_STORE_METRIC_PREFIX + "exists";
     static final String DELETE_BUCKET_TIMER_NAME = BLOB_STORE_METRIC_PREFIX + "deleteBucket";
 
     private final MetricFactory metricFactory;
@@ -73,6 +77,12 @@ public class MetricableBlobStore implements BlobStore {
             .runPublishingTimerMetric(READ_TIMER_NAME, () -> blobStoreImpl.read(bucketName, blobId));
     }
 
+    @Override
+    public InputStream read(BucketName bucketName, BlobId blobId, long offset, long length) {
+        return metricFactory
+            .runPublishingTimerMetric(READ_RANGE_TIMER_NAME, () -> blobStoreImpl.read(bucketName, blobId, offset, length));
+    }
+
     @Override
     public Mono<Void> deleteBucket(BucketName bucketName) {
         return metricFactory
@@ -89,4 +99,16 @@ public class MetricableBlobStore implements BlobStore {
         return metricFactory
             .runPublishingTimerMetric(DELETE_TIMER_NAME, blobStoreImpl.delete(bucketName, blobId));
     }
+
+    @Override
+    public Mono<Void> delete(BucketName bucketName, Collection<BlobId> blobIds) {
+        return metricFactory
+            .runPublishingTimerMetric(DELETE_BATCH_TIMER_NAME, blobStoreImpl.delete(bucketName, blobIds));
+    }
+
+    @Override
+    public Mono<Boolean> exists(BucketName bucketName, BlobId blobId) {
+        return metricFactory
+            .runPublishingTimerMetric(EXISTS_TIMER_NAME, blobStoreImpl.exists(bucketName, blobId));
+    }
 }
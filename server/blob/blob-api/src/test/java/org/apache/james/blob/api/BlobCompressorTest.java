@@ -0,0 +1,132 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.blob.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.james.metrics.api.NoopMetricFactory;
+import org.apache.james.metrics.tests.RecordingMetricFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import com.google.common.base.Strings;
+import com.google.common.primitives.Bytes;
+
+class BlobCompressorTest {
+    private static final byte[] TEXT = Strings.repeat("Mail bodies are mostly text, hence they compress well. ", 100)
+        .getBytes(StandardCharsets.UTF_8);
+    private static final byte[] SMALL = "small".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] MAGIC = {(byte) 0xF5, 'J', 'C', 'Z'};
+
+    private static BlobCompressor compressor(CompressionAlgorithm algorithm) {
+        return new BlobCompressor(CompressionConfiguration.builder().algorithm(algorithm).build(), new NoopMetricFactory());
+    }
+
+    private static byte[] randomBytes(int size) {
+        byte[] bytes = new byte[size];
+        new Random(42).nextBytes(bytes);
+        return bytes;
+    }
+
+    @ParameterizedTest
+    @EnumSource(CompressionAlgorithm.class)
+    void compressShouldReduceTextSize(CompressionAlgorithm algorithm) {
+        assertThat(compressor(algorithm).compress(TEXT).length).isLessThan(TEXT.length / 3);
+    }
+
+    @ParameterizedTest
+    @EnumSource(CompressionAlgorithm.class)
+    void decompressShouldRevertCompress(CompressionAlgorithm algorithm) {
+        BlobCompressor compressor = compressor(algorithm);
+
+        assertThat(compressor.decompress(compressor.compress(TEXT))).isEqualTo(TEXT);
+    }
+
+    @ParameterizedTest
+    @EnumSource(CompressionAlgorithm.class)
+    void streamingCompressionShouldBeReadable(CompressionAlgorithm algorithm) throws Exception {
+        BlobCompressor compressor = compressor(algorithm);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        compressor.compress(new ByteArrayInputStream(TEXT), output);
+
+        assertThat(output.size()).isLessThan(TEXT.length / 3);
+        assertThat(compressor.decompress(output.toByteArray())).isEqualTo(TEXT);
+        assertThat(IOUtils.toByteArray(compressor.decompress(new ByteArrayInputStream(output.toByteArray())))).isEqualTo(TEXT);
+    }
+
+    @Test
+    void compressShouldStoreSmallPayloadsAsIs() {
+        assertThat(compressor(CompressionAlgorithm.DEFLATE).compress(SMALL)).isEqualTo(SMALL);
+    }
+
+    @Test
+    void compressShouldStoreIncompressiblePayloadsAsIs() {
+        byte[] random = randomBytes(4096);
+
+        assertThat(compressor(CompressionAlgorithm.DEFLATE).compress(random)).isEqualTo(random);
+    }
+
+    @Test
+    void compressShouldBeANoopWhenDisabled() {
+        BlobCompressor compressor = new BlobCompressor(CompressionConfiguration.DISABLED, new NoopMetricFactory());
+
+        assertThat(compressor.compress(TEXT)).isEqualTo(TEXT);
+    }
+
+    @Test
+    void decompressShouldReturnUncompressedPayloadsAsIs() {
+        assertThat(compressor(CompressionAlgorithm.LZ4).decompress(TEXT)).isEqualTo(TEXT);
+    }
+
+    @Test
+    void payloadsStartingWithTheMagicNumberShouldBePreserved() throws Exception {
+        BlobCompressor compressor = new BlobCompressor(CompressionConfiguration.DISABLED, new NoopMetricFactory());
+        byte[] data = Bytes.concat(MAGIC, new byte[] {2, 3, 4});
+
+        byte[] stored = compressor.compress(data);
+
+        assertThat(compressor.decompress(stored)).isEqualTo(data);
+        assertThat(IOUtils.toByteArray(compressor.decompress(new ByteArrayInputStream(stored)))).isEqualTo(data);
+    }
+
+    @Test
+    void compressShouldRecordSizes() {
+        RecordingMetricFactory metricFactory = new RecordingMetricFactory();
+        BlobCompressor compressor = new BlobCompressor(CompressionConfiguration.builder().algorithm(CompressionAlgorithm.DEFLATE).build(), metricFactory);
+
+        byte[] stored = compressor.compress(TEXT);
+
+        assertThat(metricFactory.countFor(BlobCompressor.COMPRESSION_ORIGINAL_BYTES_METRIC_NAME)).isEqualTo(TEXT.length);
+        assertThat(metricFactory.countFor(BlobCompressor.COMPRESSION_STORED_BYTES_METRIC_NAME)).isEqualTo(stored.length);
+    }
+
+    @Test
+    void parseShouldBeCaseInsensitive() {
+        assertThat(CompressionAlgorithm.parse("lz4")).isEqualTo(CompressionAlgorithm.LZ4);
+    }
+}
@@ -33,6 +33,7 @@ import org.apache.james.util.concurrency.ConcurrentTestRunner;
 import org.junit.jupiter.api.Test;
 
 import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
 
 public interface DeleteBlobStoreContract {
 
@@ -146,6 +147,94 @@ public interface DeleteBlobStoreContract {
         assertThat(read).hasSameContentAs(new ByteArrayInputStream(SHORT_BYTEARRAY));
     }
 
+    @Test
+    default void deleteSeveralShouldDeleteAllGivenBlobs() {
+        BlobStore store = testee();
+        BucketName defaultBucketName = store.getDefaultBucketName();
+
+        BlobId blobId1 = store.save(defaultBucketName, SHORT_BYTEARRAY).block();
+        BlobId blobId2 = store.save(defaultBucketName, ELEVEN_KILOBYTES).block();
+
+        store.delete(defaultBucketName, ImmutableList.of(blobId1, blobId2)).block();
+
+        assertThatThrownBy(() -> store.read(defaultBucketName, blobId1))
+            .isInstanceOf(ObjectStoreException.class);
+        assertThatThrownBy(() -> store.read(defaultBucketName, blobId2))
+            .isInstanceOf(ObjectStoreException.class);
+    }
+
+    @Test
+    default void deleteSeveralShouldDeleteBlobsOfCustomBuckets() {
+        BlobStore store = testee();
+
+        BlobId blobId1 = store.save(CUSTOM, SHORT_BYTEARRAY).block();
+        BlobId blobId2 = store.save(CUSTOM, ELEVEN_KILOBYTES).block();
+
+        store.delete(CUSTOM, ImmutableList.of(blobId1, blobId2)).block();
+
+        assertThatThrownBy(() -> store.read(CUSTOM, blobId1))
+            .isInstanceOf(ObjectStoreException.class);
+        assertThatThrownBy(() -> store.read(CUSTOM, blobId2))
+            .isInstanceOf(ObjectStoreException.class);
+    }
+
+    @Test
+    default void deleteSeveralShouldNotDeleteOtherBlobs() {
+        BlobStore store = testee();
+        BucketName defaultBucketName = store.getDefaultBucketName();
+
+        BlobId blobIdToDelete = store.save(defaultBucketName, SHORT_BYTEARRAY).block();
+        BlobId otherBlobId = store.save(defaultBucketName, ELEVEN_KILOBYTES).block();
+
+        store.delete(defaultBucketName, ImmutableList.of(blobIdToDelete)).block();
+
+        assertThat(store.read(defaultBucketName, otherBlobId))
+            .hasSameContentAs(new ByteArrayInputStream(ELEVEN_KILOBYTES));
+    }
+
+    @Test
+    default void deleteSeveralShouldNotDeleteFromOtherBucketWhenSameBlobId() {
+        BlobStore store = testee();
+        BucketName defaultBucketName = store.getDefaultBucketName();
+
+        store.save(CUSTOM, SHORT_BYTEARRAY).block();
+        BlobId blobId = store.save(defaultBucketName, SHORT_BYTEARRAY).block();
+
+        store.delete(defaultBucketName, ImmutableList.of(blobId)).block();
+
+        assertThat(store.read(CUSTOM, blobId))
+            .hasSameContentAs(new ByteArrayInputStream(SHORT_BYTEARRAY));
+    }
+
+    @Test
+    default void deleteSeveralShouldIgnoreMissingBlobs() {
+        BlobStore store = testee();
+        BucketName defaultBucketName = store.getDefaultBucketName();
+
+        BlobId blobId = store.save(defaultBucketName, SHORT_BYTEARRAY).block();
+
+        store.delete(defaultBucketName, ImmutableList.of(blobIdFactory().randomId(), blobId)).block();
+
+        assertThatThrownBy(() -> store.read(defaultBucketName, blobId))
+            .isInstanceOf(ObjectStoreException.class);
+    }
+
+    @Test
+    default void deleteSeveralShouldNotThrowWhenNoBlobIds() {
+        BlobStore store = testee();
+        BucketName defaultBucketName = store.getDefaultBucketName();
+
+        assertThatCode(() -> store.delete(defaultBucketName, ImmutableList.of()).block())
+            .doesNotThrowAnyException();
+    }
+
+    @Test
+    default void deleteSeveralShouldThrowWhenNullBucketName() {
+        BlobStore store = testee();
+        assertThatThrownBy(() -> store.delete(null, ImmutableList.of(blobIdFactory().randomId())).block())
+            .isInstanceOf(NullPointerException.class);
+    }
+
     @Test
     default void readShouldNotReadPartiallyWhenDeletingConcurrentlyBigBlob() throws Exception {
         BlobStore store = testee();
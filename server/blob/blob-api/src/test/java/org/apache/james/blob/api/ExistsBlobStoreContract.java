@@ -0,0 +1,93 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.blob.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+public interface ExistsBlobStoreContract {
+
+    byte[] EXISTING_BYTEARRAY = "existing".getBytes(StandardCharsets.UTF_8);
+    BucketName EXISTS_CUSTOM = BucketName.of("custom");
+
+    BlobStore testee();
+
+    BlobId.Factory blobIdFactory();
+
+    @Test
+    default void existsShouldReturnTrueWhenBlobIsStored() {
+        BlobStore store = testee();
+        BucketName defaultBucketName = store.getDefaultBucketName();
+
+        BlobId blobId = store.save(defaultBucketName, EXISTING_BYTEARRAY).block();
+
+        assertThat(store.exists(defaultBucketName, blobId).block()).isTrue();
+    }
+
+    @Test
+    default void existsShouldReturnTrueWhenBlobIsStoredInCustomBucket() {
+        BlobStore store = testee();
+
+        BlobId blobId = store.save(EXISTS_CUSTOM, EXISTING_BYTEARRAY).block();
+
+        assertThat(store.exists(EXISTS_CUSTOM, blobId).block()).isTrue();
+    }
+
+    @Test
+    default void existsShouldReturnFalseWhenBlobIsMissing() {
+        BlobStore store = testee();
+        BucketName defaultBucketName = store.getDefaultBucketName();
+
+        assertThat(store.exists(defaultBucketName, blobIdFactory().randomId()).block()).isFalse();
+    }
+
+    @Test
+    default void existsShouldReturnFalseWhenBlobIsStoredInAnotherBucket() {
+        BlobStore store = testee();
+        BucketName defaultBucketName = store.getDefaultBucketName();
+
+        BlobId blobId = store.save(EXISTS_CUSTOM, EXISTING_BYTEARRAY).block();
+
+        assertThat(store.exists(defaultBucketName, blobId).block()).isFalse();
+    }
+
+    @Test
+    default void existsShouldReturnFalseWhenBlobWasDeleted() {
+        BlobStore store = testee();
+        BucketName defaultBucketName = store.getDefaultBucketName();
+
+        BlobId blobId = store.save(defaultBucketName, EXISTING_BYTEARRAY).block();
+        store.delete(defaultBucketName, blobId).block();
+
+        assertThat(store.exists(defaultBucketName, blobId).block()).isFalse();
+    }
+
+    @Test
+    default void existsShouldThrowWhenNullBucketName() {
+        BlobStore store = testee();
+
+        assertThatThrownBy(() -> store.exists(null, blobIdFactory().randomId()).block())
+            .isInstanceOf(NullPointerException.class);
+    }
+}
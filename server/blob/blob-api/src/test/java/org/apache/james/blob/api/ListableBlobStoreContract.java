@@ -0,0 +1,87 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.blob.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+public interface ListableBlobStoreContract {
+
+    byte[] SHORT_BYTEARRAY = "toto".getBytes(StandardCharsets.UTF_8);
+    byte[] OTHER_BYTEARRAY = "tata".getBytes(StandardCharsets.UTF_8);
+    BucketName CUSTOM = BucketName.of("custom");
+
+    ListableBlobStore listableBlobStore();
+
+    @Test
+    default void listBlobsShouldReturnEmptyWhenNoBlob() {
+        ListableBlobStore store = listableBlobStore();
+
+        assertThat(store.listBlobs(store.getDefaultBucketName()).collectList().block())
+            .isEmpty();
+    }
+
+    @Test
+    default void listBlobsShouldReturnSavedBlobs() {
+        ListableBlobStore store = listableBlobStore();
+        BucketName defaultBucketName = store.getDefaultBucketName();
+
+        BlobId blobId1 = store.save(defaultBucketName, SHORT_BYTEARRAY).block();
+        BlobId blobId2 = store.save(defaultBucketName, OTHER_BYTEARRAY).block();
+
+        assertThat(store.listBlobs(defaultBucketName).collectList().block())
+            .containsOnly(blobId1, blobId2);
+    }
+
+    @Test
+    default void listBlobsShouldReturnSavedBlobsOfCustomBuckets() {
+        ListableBlobStore store = listableBlobStore();
+
+        BlobId blobId = store.save(CUSTOM, SHORT_BYTEARRAY).block();
+
+        assertThat(store.listBlobs(CUSTOM).collectList().block())
+            .containsExactly(blobId);
+    }
+
+    @Test
+    default void listBlobsShouldNotReturnBlobsOfOtherBuckets() {
+        ListableBlobStore store = listableBlobStore();
+
+        store.save(CUSTOM, SHORT_BYTEARRAY).block();
+
+        assertThat(store.listBlobs(store.getDefaultBucketName()).collectList().block())
+            .isEmpty();
+    }
+
+    @Test
+    default void listBlobsShouldNotReturnDeletedBlobs() {
+        ListableBlobStore store = listableBlobStore();
+        BucketName defaultBucketName = store.getDefaultBucketName();
+
+        BlobId blobId = store.save(defaultBucketName, SHORT_BYTEARRAY).block();
+        store.delete(defaultBucketName, blobId).block();
+
+        assertThat(store.listBlobs(defaultBucketName).collectList().block())
+            .isEmpty();
+    }
+}
@@ -19,8 +19,10 @@
 
 package org.apache.james.blob.api;
 
+import static org.apache.james.blob.api.MetricableBlobStore.DELETE_BATCH_TIMER_NAME;
 import static org.apache.james.blob.api.MetricableBlobStore.DELETE_BUCKET_TIMER_NAME;
 import static org.apache.james.blob.api.MetricableBlobStore.DELETE_TIMER_NAME;
+import static org.apache.james.blob.api.MetricableBlobStore.EXISTS_TIMER_NAME;
 import static org.apache.james.blob.api.MetricableBlobStore.READ_BYTES_TIMER_NAME;
 import static org.apache.james.blob.api.MetricableBlobStore.READ_TIMER_NAME;
 import static org.apache.james.blob.api.MetricableBlobStore.SAVE_BYTES_TIMER_NAME;
@@ -36,6 +38,8 @@ import org.junit.jupiter.api.extension.BeforeEachCallback;
 import org.junit.jupiter.api.extension.ExtensionContext;
 import org.junit.jupiter.api.extension.RegisterExtension;
 
+import com.google.common.collect.ImmutableList;
+
 
 public interface MetricableBlobStoreContract extends BlobStoreContract {
 
@@ -141,4 +145,30 @@ public interface MetricableBlobStoreContract extends BlobStoreContract {
         assertThat(metricsTestExtension.getMetricFactory().executionTimesFor(DELETE_TIMER_NAME))
             .hasSize(2);
     }
-}
\ No newline at end of file
+
+    @Test
+    default void deleteSeveralShouldPublishDeleteBatchTimerMetrics() {
+        BlobStore store = testee();
+
+        BlobId blobId1 = store.save(store.getDefaultBucketName(), BYTES_CONTENT).block();
+        BlobId blobId2 = store.save(store.getDefaultBucketName(), STRING_CONTENT + "2").block();
+
+        store.delete(BucketName.DEFAULT, ImmutableList.of(blobId1, blobId2)).block();
+
+        assertThat(metricsTestExtension.getMetricFactory().executionTimesFor(DELETE_BATCH_TIMER_NAME))
+            .hasSize(1);
+    }
+
+    @Test
+    default void existsShouldPublishExistsTimerMetrics() {
+        BlobStore store = testee();
+
+        BlobId blobId = store.save(store.getDefaultBucketName(), BYTES_CONTENT).block();
+
+        store.exists(BucketName.DEFAULT, blobId).block();
+        store.exists(BucketName.DEFAULT, blobId).block();
+
+        assertThat(metricsTestExtension.getMetricFactory().executionTimesFor(EXISTS_TIMER_NAME))
+            .hasSize(2);
+    }
+}
@@ -0,0 +1,153 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.blob.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.base.Strings;
+
+public interface ReadRangeBlobStoreContract {
+
+    byte[] SHORT_RANGE_BYTEARRAY = "0123456789".getBytes(StandardCharsets.UTF_8);
+    byte[] TWO_MEGABYTES_RANGE_BYTEARRAY = Strings.repeat("0123456789\r\n", 2 * 1024 * 1024 / 12).getBytes(StandardCharsets.UTF_8);
+
+    BlobStore testee();
+
+    BlobId.Factory blobIdFactory();
+
+    @Test
+    default void readRangeShouldThrowWhenNoExisting() {
+        BlobStore store = testee();
+        BucketName defaultBucketName = store.getDefaultBucketName();
+
+        assertThatThrownBy(() -> IOUtils.toByteArray(store.read(defaultBucketName, blobIdFactory().from("unknown"), 0, 10)))
+            .isInstanceOf(ObjectNotFoundException.class);
+    }
+
+    @Test
+    default void readRangeShouldThrowOnNegativeOffset() {
+        BlobStore store = testee();
+        BucketName defaultBucketName = store.getDefaultBucketName();
+        BlobId blobId = store.save(defaultBucketName, SHORT_RANGE_BYTEARRAY).block();
+
+        assertThatThrownBy(() -> store.read(defaultBucketName, blobId, -1, 10))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    default void readRangeShouldThrowOnNegativeLength() {
+        BlobStore store = testee();
+        BucketName defaultBucketName = store.getDefaultBucketName();
+        BlobId blobId = store.save(defaultBucketName, SHORT_RANGE_BYTEARRAY).block();
+
+        assertThatThrownBy(() -> store.read(defaultBucketName, blobId, 0, -1))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    default void readRangeShouldReturnRequestedRange() throws Exception {
+        BlobStore store = testee();
+        BucketName defaultBucketName = store.getDefaultBucketName();
+        BlobId blobId = store.save(defaultBucketName, SHORT_RANGE_BYTEARRAY).block();
+
+        assertThat(IOUtils.toString(store.read(defaultBucketName, blobId, 2, 5), StandardCharsets.UTF_8))
+            .isEqualTo("23456");
+    }
+
+    @Test
+    default void readRangeShouldReturnEmptyWhenZeroLength() throws Exception {
+        BlobStore store = testee();
+        BucketName defaultBucketName = store.getDefaultBucketName();
+        BlobId blobId = store.save(defaultBucketName, SHORT_RANGE_BYTEARRAY).block();
+
+        assertThat(IOUtils.toByteArray(store.read(defaultBucketName, blobId, 2, 0)))
+            .isEmpty();
+    }
+
+    @Test
+    default void readRangeShouldTruncateWhenRangeExceedsBlob() throws Exception {
+        BlobStore store = testee();
+        BucketName defaultBucketName = store.getDefaultBucketName();
+        BlobId blobId = store.save(defaultBucketName, SHORT_RANGE_BYTEARRAY).block();
+
+        assertThat(IOUtils.toString(store.read(defaultBucketName, blobId, 7, 100), StandardCharsets.UTF_8))
+            .isEqualTo("789");
+    }
+
+    @Test
+    default void readRangeShouldReturnEmptyWhenOffsetPastTheEnd() throws Exception {
+        BlobStore store = testee();
+        BucketName defaultBucketName = store.getDefaultBucketName();
+        BlobId blobId = store.save(defaultBucketName, SHORT_RANGE_BYTEARRAY).block();
+
+        assertThat(IOUtils.toByteArray(store.read(defaultBucketName, blobId, 100, 10)))
+            .isEmpty();
+    }
+
+    @Test
+    default void readRangeShouldReturnEmptyWhenEmptyBlob() throws Exception {
+        BlobStore store = testee();
+        BucketName defaultBucketName = store.getDefaultBucketName();
+        BlobId blobId = store.save(defaultBucketName, new byte[0]).block();
+
+        assertThat(IOUtils.toByteArray(store.read(defaultBucketName, blobId, 0, 10)))
+            .isEmpty();
+    }
+
+    @Test
+    default void readRangeShouldSupportRangesSpanningLargeBlobs() throws Exception {
+        BlobStore store = testee();
+        BucketName defaultBucketName = store.getDefaultBucketName();
+        BlobId blobId = store.save(defaultBucketName, TWO_MEGABYTES_RANGE_BYTEARRAY).block();
+        int offset = 1024 * 1024 - 17;
+        int length = 300 * 1024;
+
+        assertThat(IOUtils.toByteArray(store.read(defaultBucketName, blobId, offset, length)))
+            .isEqualTo(Arrays.copyOfRange(TWO_MEGABYTES_RANGE_BYTEARRAY, offset, offset + length));
+    }
+
+    @Test
+    default void readRangeShouldSupportTrailingRangeOfLargeBlobs() throws Exception {
+        BlobStore store = testee();
+        BucketName defaultBucketName = store.getDefaultBucketName();
+        BlobId blobId = store.save(defaultBucketName, TWO_MEGABYTES_RANGE_BYTEARRAY).block();
+        int offset = TWO_MEGABYTES_RANGE_BYTEARRAY.length - 1000;
+
+        assertThat(IOUtils.toByteArray(store.read(defaultBucketName, blobId, offset, Long.MAX_VALUE)))
+            .isEqualTo(Arrays.copyOfRange(TWO_MEGABYTES_RANGE_BYTEARRAY, offset, TWO_MEGABYTES_RANGE_BYTEARRAY.length));
+    }
+
+    @Test
+    default void readRangeShouldSupportCustomBuckets() throws Exception {
+        BlobStore store = testee();
+        BucketName customBucket = BucketName.of("custom");
+        BlobId blobId = store.save(customBucket, SHORT_RANGE_BYTEARRAY).block();
+
+        assertThat(IOUtils.toString(store.read(customBucket, blobId, 2, 5), StandardCharsets.UTF_8))
+            .isEqualTo("23456");
+    }
+}
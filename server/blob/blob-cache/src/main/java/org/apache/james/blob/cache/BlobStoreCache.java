@@ -0,0 +1,38 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.blob.cache;
+
+import org.apache.james.blob.api.BlobId;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * A cache tier for small blobs.
+ *
+ * As blob ids are derived from the content, cached entries are immutable and never need to be invalidated upon
+ * writes. They only need to be removed once the blob gets deleted.
+ */
+public interface BlobStoreCache {
+    Mono<Void> cache(BlobId blobId, byte[] data);
+
+    Mono<byte[]> read(BlobId blobId);
+
+    Mono<Void> remove(BlobId blobId);
+}
@@ -0,0 +1,124 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.blob.cache;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+
+public class BlobStoreCacheConfiguration {
+    public static final int DEFAULT_SIZE_THRESHOLD_IN_BYTES = 8 * 1024;
+    public static final long DEFAULT_MEMORY_CACHE_SIZE_IN_BYTES = 50 * 1024 * 1024;
+    public static final Duration DEFAULT_TTL = Duration.ofDays(7);
+
+    public static final BlobStoreCacheConfiguration DEFAULT = builder().build();
+
+    public static class Builder {
+        private Optional<Integer> sizeThresholdInBytes = Optional.empty();
+        private Optional<Long> memoryCacheSizeInBytes = Optional.empty();
+        private Optional<Duration> ttl = Optional.empty();
+
+        public Builder sizeThresholdInBytes(int value) {
+            Preconditions.checkArgument(value >= 0, "sizeThresholdInBytes needs to be positive");
+            this.sizeThresholdInBytes = Optional.of(value);
+            return this;
+        }
+
+        public Builder memoryCacheSizeInBytes(long value) {
+            Preconditions.checkArgument(value > 0, "memoryCacheSizeInBytes needs to be strictly positive");
+            this.memoryCacheSizeInBytes = Optional.of(value);
+            return this;
+        }
+
+        public Builder ttl(Duration value) {
+            Preconditions.checkArgument(!value.isNegative() && !value.isZero(), "ttl needs to be strictly positive");
+            this.ttl = Optional.of(value);
+            return this;
+        }
+
+        public BlobStoreCacheConfiguration build() {
+            return new BlobStoreCacheConfiguration(
+                sizeThresholdInBytes.orElse(DEFAULT_SIZE_THRESHOLD_IN_BYTES),
+                memoryCacheSizeInBytes.orElse(DEFAULT_MEMORY_CACHE_SIZE_IN_BYTES),
+                ttl.orElse(DEFAULT_TTL));
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    private final int sizeThresholdInBytes;
+    private final long memoryCacheSizeInBytes;
+    private final Duration ttl;
+
+    private BlobStoreCacheConfiguration(int sizeThresholdInBytes, long memoryCacheSizeInBytes, Duration ttl) {
+        this.sizeThresholdInBytes = sizeThresholdInBytes;
+        this.memoryCacheSizeInBytes = memoryCacheSizeInBytes;
+        this.ttl = ttl;
+    }
+
+    /**
+     * Blobs strictly bigger than this threshold are never cached.
+     */
+    public int getSizeThresholdInBytes() {
+        return sizeThresholdInBytes;
+    }
+
+    public long getMemoryCacheSizeInBytes() {
+        return memoryCacheSizeInBytes;
+    }
+
+    /**
+     * Time to live of entries of persistent cache tiers.
+     */
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    @Override
+    public final boolean equals(Object o) {
+        if (o instanceof BlobStoreCacheConfiguration) {
+            BlobStoreCacheConfiguration that = (BlobStoreCacheConfiguration) o;
+
+            return Objects.equals(this.sizeThresholdInBytes, that.sizeThresholdInBytes)
+                && Objects.equals(this.memoryCacheSizeInBytes, that.memoryCacheSizeInBytes)
+                && Objects.equals(this.ttl, that.ttl);
+        }
+        return false;
+    }
+
+    @Override
+    public final int hashCode() {
+        return Objects.hash(sizeThresholdInBytes, memoryCacheSizeInBytes, ttl);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+            .add("sizeThresholdInBytes", sizeThresholdInBytes)
+            .add("memoryCacheSizeInBytes", memoryCacheSizeInBytes)
+            .add("ttl", ttl)
+            .toString();
+    }
+}
@@ -0,0 +1,227 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.blob.cache;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Optional;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import org.apache.james.blob.api.BlobId;
+import org.apache.james.blob.api.BlobStore;
+import org.apache.james.blob.api.BucketName;
+import org.apache.james.blob.api.ObjectStoreException;
+import org.apache.james.metrics.api.Metric;
+import org.apache.james.metrics.api.MetricFactory;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import com.google.common.io.ByteStreams;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Caches small blobs of the default bucket (typically message headers) in front of a potentially slow backend.
+ *
+ * Blobs bigger than the configured threshold, as well as blobs of other buckets, are directly served by the backend.
+ */
+public class CachedBlobStore implements BlobStore {
+    public static final String BACKEND = "blobStoreBackend";
+
+    static final String BLOB_STORE_CACHE_METRIC_PREFIX = "blobStoreCache:";
+    static final String HIT_METRIC_NAME = BLOB_STORE_CACHE_METRIC_PREFIX + "hit";
+    static final String MISS_METRIC_NAME = BLOB_STORE_CACHE_METRIC_PREFIX + "miss";
+
+    private final BlobStoreCache cache;
+    private final BlobStore backend;
+    private final int sizeThresholdInBytes;
+    private final Metric hitMetric;
+    private final Metric missMetric;
+
+    @Inject
+    public CachedBlobStore(BlobStoreCache cache, @Named(BACKEND) BlobStore backend,
+                           BlobStoreCacheConfiguration configuration, MetricFactory metricFactory) {
+        this.cache = cache;
+        this.backend = backend;
+        this.sizeThresholdInBytes = configuration.getSizeThresholdInBytes();
+        this.hitMetric = metricFactory.generate(HIT_METRIC_NAME);
+        this.missMetric = metricFactory.generate(MISS_METRIC_NAME);
+    }
+
+    @Override
+    public Mono<BlobId> save(BucketName bucketName, byte[] data) {
+        Preconditions.checkNotNull(data);
+
+        return backend.save(bucketName, data)
+            .flatMap(blobId -> cacheIfEligible(bucketName, blobId, data)
+                .thenReturn(blobId));
+    }
+
+    @Override
+    public Mono<BlobId> save(BucketName bucketName, InputStream data) {
+        Preconditions.checkNotNull(data);
+
+        return Mono.defer(() -> {
+            BufferedInputStream bufferedData = new BufferedInputStream(data, sizeThresholdInBytes + 1);
+            return readIfSmall(bufferedData)
+                .map(bytes -> save(bucketName, bytes))
+                .orElseGet(() -> backend.save(bucketName, bufferedData));
+        });
+    }
+
+    @Override
+    public Mono<byte[]> readBytes(BucketName bucketName, BlobId blobId) {
+        if (!isDefaultBucket(bucketName)) {
+            return backend.readBytes(bucketName, blobId);
+        }
+        return cache.read(blobId)
+            .doOnNext(any -> hitMetric.increment())
+            .switchIfEmpty(Mono.defer(() -> {
+                missMetric.increment();
+                return backend.readBytes(bucketName, blobId)
+                    .flatMap(bytes -> cacheIfEligible(bucketName, blobId, bytes)
+                        .thenReturn(bytes));
+            }));
+    }
+
+    @Override
+    public InputStream read(BucketName bucketName, BlobId blobId) {
+        if (!isDefaultBucket(bucketName)) {
+            return backend.read(bucketName, blobId);
+        }
+        Optional<byte[]> cachedData = cache.read(blobId).blockOptional();
+        if (cachedData.isPresent()) {
+            hitMetric.increment();
+            return new ByteArrayInputStream(cachedData.get());
+        }
+        missMetric.increment();
+        BufferedInputStream bufferedData = new BufferedInputStream(backend.read(bucketName, blobId), sizeThresholdInBytes + 1);
+        Optional<byte[]> smallData = readIfSmall(bufferedData);
+        if (!smallData.isPresent()) {
+            return bufferedData;
+        }
+        try (InputStream consumedData = bufferedData) {
+            cache.cache(blobId, smallData.get()).block();
+            return new ByteArrayInputStream(smallData.get());
+        } catch (IOException e) {
+            throw new ObjectStoreException("Failed to close blob content", e);
+        }
+    }
+
+    @Override
+    public InputStream read(BucketName bucketName, BlobId blobId, long offset, long length) {
+        Preconditions.checkArgument(offset >= 0, "offset can not be negative");
+        Preconditions.checkArgument(length >= 0, "length can not be negative");
+        if (!isDefaultBucket(bucketName)) {
+            return backend.read(bucketName, blobId, offset, length);
+        }
+
+        Optional<byte[]> cachedData = cache.read(blobId).blockOptional();
+        if (cachedData.isPresent()) {
+            hitMetric.increment();
+            byte[] data = cachedData.get();
+            int start = Math.toIntExact(Math.min(offset, data.length));
+            int rangeLength = Math.toIntExact(Math.min(length, data.length - start));
+            return new ByteArrayInputStream(data, start, rangeLength);
+        }
+        missMetric.increment();
+        return backend.read(bucketName, blobId, offset, length);
+    }
+
+    @Override
+    public BucketName getDefaultBucketName() {
+        return backend.getDefaultBucketName();
+    }
+
+    @Override
+    public Mono<Void> deleteBucket(BucketName bucketName) {
+        return backend.deleteBucket(bucketName);
+    }
+
+    @Override
+    public Mono<Void> delete(BucketName bucketName, BlobId blobId) {
+        if (!isDefaultBucket(bucketName)) {
+            return backend.delete(bucketName, blobId);
+        }
+        return backend.delete(bucketName, blobId)
+            .then(cache.remove(blobId));
+    }
+
+    @Override
+    public Mono<Void> delete(BucketName bucketName, Collection<BlobId> blobIds) {
+        if (!isDefaultBucket(bucketName)) {
+            return backend.delete(bucketName, blobIds);
+        }
+        return backend.delete(bucketName, blobIds)
+            .thenMany(Flux.fromIterable(blobIds))
+            .concatMap(cache::remove)
+            .then();
+    }
+
+    @Override
+    public Mono<Boolean> exists(BucketName bucketName, BlobId blobId) {
+        return backend.exists(bucketName, blobId);
+    }
+
+    /**
+     * Reads the full content if it fits within the size threshold. Otherwise the stream is rewound so that it can be
+     * consumed from its start.
+     */
+    private Optional<byte[]> readIfSmall(BufferedInputStream bufferedData) {
+        try {
+            bufferedData.mark(sizeThresholdInBytes + 1);
+            byte[] buffer = new byte[sizeThresholdInBytes + 1];
+            int readBytes = ByteStreams.read(bufferedData, buffer, 0, buffer.length);
+            if (readBytes <= sizeThresholdInBytes) {
+                return Optional.of(Arrays.copyOf(buffer, readBytes));
+            }
+            bufferedData.reset();
+            return Optional.empty();
+        } catch (IOException e) {
+            throw new ObjectStoreException("Failed to read blob content", e);
+        }
+    }
+
+    private Mono<Void> cacheIfEligible(BucketName bucketName, BlobId blobId, byte[] data) {
+        if (isDefaultBucket(bucketName) && data.length <= sizeThresholdInBytes) {
+            return cache.cache(blobId, data);
+        }
+        return Mono.empty();
+    }
+
+    private boolean isDefaultBucket(BucketName bucketName) {
+        return bucketName.equals(getDefaultBucketName());
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+            .add("cache", cache)
+            .add("backend", backend)
+            .toString();
+    }
+}
@@ -0,0 +1,76 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.blob.cache;
+
+import javax.inject.Inject;
+
+import org.apache.james.blob.api.BlobId;
+import org.apache.james.metrics.api.GaugeRegistry;
+import org.apache.james.metrics.api.Metric;
+import org.apache.james.metrics.api.MetricFactory;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalNotification;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * In-process cache tier, bounded by the overall size of its entries. Least recently used entries are evicted first.
+ */
+public class MemoryBlobStoreCache implements BlobStoreCache {
+    static final String EVICTION_METRIC_NAME = CachedBlobStore.BLOB_STORE_CACHE_METRIC_PREFIX + "memory:eviction";
+    static final String SIZE_GAUGE_NAME = CachedBlobStore.BLOB_STORE_CACHE_METRIC_PREFIX + "memory:size";
+
+    private final Cache<BlobId, byte[]> cache;
+    private final Metric evictionMetric;
+
+    @Inject
+    public MemoryBlobStoreCache(BlobStoreCacheConfiguration configuration, MetricFactory metricFactory, GaugeRegistry gaugeRegistry) {
+        this.evictionMetric = metricFactory.generate(EVICTION_METRIC_NAME);
+        this.cache = CacheBuilder.newBuilder()
+            .maximumWeight(configuration.getMemoryCacheSizeInBytes())
+            .<BlobId, byte[]>weigher((blobId, data) -> data.length)
+            .removalListener(this::recordEviction)
+            .build();
+        gaugeRegistry.register(SIZE_GAUGE_NAME, cache::size);
+    }
+
+    private void recordEviction(RemovalNotification<BlobId, byte[]> notification) {
+        if (notification.wasEvicted()) {
+            evictionMetric.increment();
+        }
+    }
+
+    @Override
+    public Mono<Void> cache(BlobId blobId, byte[] data) {
+        return Mono.fromRunnable(() -> cache.put(blobId, data));
+    }
+
+    @Override
+    public Mono<byte[]> read(BlobId blobId) {
+        return Mono.fromCallable(() -> cache.getIfPresent(blobId));
+    }
+
+    @Override
+    public Mono<Void> remove(BlobId blobId) {
+        return Mono.fromRunnable(() -> cache.invalidate(blobId));
+    }
+}
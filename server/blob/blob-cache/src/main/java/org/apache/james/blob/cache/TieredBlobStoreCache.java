@@ -0,0 +1,68 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.blob.cache;
+
+import org.apache.james.blob.api.BlobId;
+
+import com.google.common.base.MoreObjects;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Combines a fast, local cache tier with a slower, shared one. Entries found in the second tier are promoted to
+ * the first one.
+ */
+public class TieredBlobStoreCache implements BlobStoreCache {
+    private final BlobStoreCache firstTier;
+    private final BlobStoreCache secondTier;
+
+    public TieredBlobStoreCache(BlobStoreCache firstTier, BlobStoreCache secondTier) {
+        this.firstTier = firstTier;
+        this.secondTier = secondTier;
+    }
+
+    @Override
+    public Mono<Void> cache(BlobId blobId, byte[] data) {
+        return firstTier.cache(blobId, data)
+            .then(secondTier.cache(blobId, data));
+    }
+
+    @Override
+    public Mono<byte[]> read(BlobId blobId) {
+        return firstTier.read(blobId)
+            .switchIfEmpty(Mono.defer(() -> secondTier.read(blobId)
+                .flatMap(data -> firstTier.cache(blobId, data)
+                    .thenReturn(data))));
+    }
+
+    @Override
+    public Mono<Void> remove(BlobId blobId) {
+        return firstTier.remove(blobId)
+            .then(secondTier.remove(blobId));
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+            .add("firstTier", firstTier)
+            .add("secondTier", secondTier)
+            .toString();
+    }
+}
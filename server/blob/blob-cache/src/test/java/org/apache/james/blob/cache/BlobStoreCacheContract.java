@@ -0,0 +1,80 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.blob.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+
+import org.apache.james.blob.api.BlobId;
+import org.apache.james.blob.api.HashBlobId;
+import org.junit.jupiter.api.Test;
+
+public interface BlobStoreCacheContract {
+    HashBlobId.Factory BLOB_ID_FACTORY = new HashBlobId.Factory();
+    byte[] DATA = "header: value\r\n\r\n".getBytes(StandardCharsets.UTF_8);
+    BlobId BLOB_ID = BLOB_ID_FACTORY.forPayload(DATA);
+
+    BlobStoreCache testee();
+
+    @Test
+    default void readShouldReturnEmptyWhenNotCached() {
+        assertThat(testee().read(BLOB_ID).blockOptional()).isEmpty();
+    }
+
+    @Test
+    default void readShouldReturnCachedData() {
+        testee().cache(BLOB_ID, DATA).block();
+
+        assertThat(testee().read(BLOB_ID).block()).isEqualTo(DATA);
+    }
+
+    @Test
+    default void cacheShouldBeIdempotent() {
+        testee().cache(BLOB_ID, DATA).block();
+        testee().cache(BLOB_ID, DATA).block();
+
+        assertThat(testee().read(BLOB_ID).block()).isEqualTo(DATA);
+    }
+
+    @Test
+    default void readShouldReturnEmptyWhenRemoved() {
+        testee().cache(BLOB_ID, DATA).block();
+
+        testee().remove(BLOB_ID).block();
+
+        assertThat(testee().read(BLOB_ID).blockOptional()).isEmpty();
+    }
+
+    @Test
+    default void removeShouldNotFailWhenNotCached() {
+        testee().remove(BLOB_ID).block();
+
+        assertThat(testee().read(BLOB_ID).blockOptional()).isEmpty();
+    }
+
+    @Test
+    default void cacheShouldSupportEmptyData() {
+        BlobId blobId = BLOB_ID_FACTORY.forPayload(new byte[0]);
+        testee().cache(blobId, new byte[0]).block();
+
+        assertThat(testee().read(blobId).block()).isEmpty();
+    }
+}
@@ -0,0 +1,170 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.blob.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.james.blob.api.BlobId;
+import org.apache.james.blob.api.BlobStore;
+import org.apache.james.blob.api.BlobStoreContract;
+import org.apache.james.blob.api.BucketName;
+import org.apache.james.blob.api.HashBlobId;
+import org.apache.james.blob.memory.MemoryBlobStore;
+import org.apache.james.metrics.api.NoopGaugeRegistry;
+import org.apache.james.metrics.tests.RecordingMetricFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.base.Strings;
+
+class CachedBlobStoreTest implements BlobStoreContract {
+    private static final HashBlobId.Factory BLOB_ID_FACTORY = new HashBlobId.Factory();
+    private static final int SIZE_THRESHOLD = 1024;
+    private static final byte[] SMALL = "small: value\r\n\r\n".getBytes(StandardCharsets.UTF_8);
+    private static final BucketName OTHER_BUCKET = BucketName.of("other");
+    private static final byte[] BIG = Strings.repeat("0123456789\r\n", 1000).getBytes(StandardCharsets.UTF_8);
+
+    private RecordingMetricFactory metricFactory;
+    private BlobStoreCacheConfiguration configuration;
+    private MemoryBlobStore backend;
+    private BlobStoreCache cache;
+    private CachedBlobStore testee;
+
+    @BeforeEach
+    void setUp() {
+        metricFactory = new RecordingMetricFactory();
+        configuration = BlobStoreCacheConfiguration.builder()
+            .sizeThresholdInBytes(SIZE_THRESHOLD)
+            .build();
+        backend = new MemoryBlobStore(BLOB_ID_FACTORY);
+        cache = new MemoryBlobStoreCache(configuration, metricFactory, new NoopGaugeRegistry());
+        testee = new CachedBlobStore(cache, backend, configuration, metricFactory);
+    }
+
+    @Override
+    public BlobStore testee() {
+        return testee;
+    }
+
+    @Override
+    public BlobId.Factory blobIdFactory() {
+        return BLOB_ID_FACTORY;
+    }
+
+    @Test
+    void saveShouldCacheSmallBlobs() {
+        BlobId blobId = testee.save(testee.getDefaultBucketName(), SMALL).block();
+
+        assertThat(cache.read(blobId).block()).isEqualTo(SMALL);
+    }
+
+    @Test
+    void saveInputStreamShouldCacheSmallBlobs() {
+        BlobId blobId = testee.save(testee.getDefaultBucketName(), new ByteArrayInputStream(SMALL)).block();
+
+        assertThat(cache.read(blobId).block()).isEqualTo(SMALL);
+    }
+
+    @Test
+    void saveShouldNotCacheBigBlobs() {
+        BlobId blobId = testee.save(testee.getDefaultBucketName(), BIG).block();
+
+        assertThat(cache.read(blobId).blockOptional()).isEmpty();
+    }
+
+    @Test
+    void saveInputStreamShouldNotCacheBigBlobs() {
+        BlobId blobId = testee.save(testee.getDefaultBucketName(), new ByteArrayInputStream(BIG)).block();
+
+        assertThat(cache.read(blobId).blockOptional()).isEmpty();
+        assertThat(backend.readBytes(testee.getDefaultBucketName(), blobId).block()).isEqualTo(BIG);
+    }
+
+    @Test
+    void saveShouldNotCacheBlobsOfOtherBuckets() {
+        BlobId blobId = testee.save(OTHER_BUCKET, SMALL).block();
+
+        assertThat(cache.read(blobId).blockOptional()).isEmpty();
+    }
+
+    @Test
+    void readBytesShouldPopulateCacheUponMiss() {
+        BlobId blobId = backend.save(testee.getDefaultBucketName(), SMALL).block();
+
+        testee.readBytes(testee.getDefaultBucketName(), blobId).block();
+
+        assertThat(cache.read(blobId).block()).isEqualTo(SMALL);
+        assertThat(metricFactory.countFor(CachedBlobStore.MISS_METRIC_NAME)).isEqualTo(1);
+    }
+
+    @Test
+    void readShouldPopulateCacheUponMiss() throws Exception {
+        BlobId blobId = backend.save(testee.getDefaultBucketName(), SMALL).block();
+
+        assertThat(IOUtils.toByteArray(testee.read(testee.getDefaultBucketName(), blobId))).isEqualTo(SMALL);
+        assertThat(cache.read(blobId).block()).isEqualTo(SMALL);
+    }
+
+    @Test
+    void readShouldCloseTheBackendStreamOfSmallBlobs() throws Exception {
+        BlobId blobId = backend.save(testee.getDefaultBucketName(), SMALL).block();
+        InputStream backendData = spy(new ByteArrayInputStream(SMALL));
+        MemoryBlobStore spiedBackend = spy(backend);
+        doReturn(backendData).when(spiedBackend).read(testee.getDefaultBucketName(), blobId);
+
+        new CachedBlobStore(cache, spiedBackend, configuration, metricFactory).read(testee.getDefaultBucketName(), blobId);
+
+        verify(backendData).close();
+    }
+
+    @Test
+    void readShouldReturnBigBlobsWithoutCachingThem() throws Exception {
+        BlobId blobId = backend.save(testee.getDefaultBucketName(), BIG).block();
+
+        assertThat(IOUtils.toByteArray(testee.read(testee.getDefaultBucketName(), blobId))).isEqualTo(BIG);
+        assertThat(cache.read(blobId).blockOptional()).isEmpty();
+    }
+
+    @Test
+    void readBytesShouldBeServedByTheCacheUponHit() {
+        BlobId blobId = testee.save(testee.getDefaultBucketName(), SMALL).block();
+        backend.delete(testee.getDefaultBucketName(), blobId).block();
+
+        assertThat(testee.readBytes(testee.getDefaultBucketName(), blobId).block()).isEqualTo(SMALL);
+        assertThat(metricFactory.countFor(CachedBlobStore.HIT_METRIC_NAME)).isEqualTo(1);
+    }
+
+    @Test
+    void deleteShouldRemoveCachedEntry() {
+        BlobId blobId = testee.save(testee.getDefaultBucketName(), SMALL).block();
+
+        testee.delete(testee.getDefaultBucketName(), blobId).block();
+
+        assertThat(cache.read(blobId).blockOptional()).isEmpty();
+    }
+}
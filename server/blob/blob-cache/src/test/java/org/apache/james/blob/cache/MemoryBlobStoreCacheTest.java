@@ -0,0 +1,62 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.blob.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.stream.IntStream;
+
+import org.apache.james.metrics.api.NoopGaugeRegistry;
+import org.apache.james.metrics.tests.RecordingMetricFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class MemoryBlobStoreCacheTest implements BlobStoreCacheContract {
+    private RecordingMetricFactory metricFactory;
+    private MemoryBlobStoreCache testee;
+
+    @BeforeEach
+    void setUp() {
+        metricFactory = new RecordingMetricFactory();
+        testee = new MemoryBlobStoreCache(BlobStoreCacheConfiguration.DEFAULT, metricFactory, new NoopGaugeRegistry());
+    }
+
+    @Override
+    public BlobStoreCache testee() {
+        return testee;
+    }
+
+    @Test
+    void cacheShouldEvictEntriesWhenFull() {
+        MemoryBlobStoreCache smallCache = new MemoryBlobStoreCache(
+            BlobStoreCacheConfiguration.builder()
+                .memoryCacheSizeInBytes(10 * DATA.length)
+                .build(),
+            metricFactory,
+            new NoopGaugeRegistry());
+
+        IntStream.range(0, 100)
+            .mapToObj(i -> ("header: " + i + "\r\n\r\n").getBytes(StandardCharsets.UTF_8))
+            .forEach(data -> smallCache.cache(BLOB_ID_FACTORY.forPayload(data), data).block());
+
+        assertThat(metricFactory.countFor(MemoryBlobStoreCache.EVICTION_METRIC_NAME)).isGreaterThan(0);
+    }
+}
@@ -21,6 +21,7 @@ package org.apache.james.blob.cassandra;
 
 import java.io.InputStream;
 import java.nio.ByteBuffer;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
 import java.util.NoSuchElementException;
@@ -29,42 +30,61 @@ import java.util.stream.Stream;
 
 import javax.inject.Inject;
 
-import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.james.backends.cassandra.init.configuration.CassandraConfiguration;
+import org.apache.james.blob.api.BlobCompressor;
 import org.apache.james.blob.api.BlobId;
-import org.apache.james.blob.api.BlobStore;
 import org.apache.james.blob.api.BucketName;
+import org.apache.james.blob.api.CompressionAlgorithm;
+import org.apache.james.blob.api.CompressionConfiguration;
 import org.apache.james.blob.api.HashBlobId;
+import org.apache.james.blob.api.ListableBlobStore;
 import org.apache.james.blob.api.ObjectNotFoundException;
 import org.apache.james.blob.cassandra.utils.DataChunker;
+import org.apache.james.metrics.api.MetricFactory;
+import org.apache.james.metrics.api.NoopMetricFactory;
 import org.apache.james.util.ReactorUtils;
 
 import com.datastax.driver.core.Session;
+import com.github.fge.lambdas.Throwing;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
+import com.google.common.hash.Hashing;
+import com.google.common.hash.HashingInputStream;
+import com.google.common.io.ByteStreams;
+import com.google.common.io.FileBackedOutputStream;
+import com.google.common.math.LongMath;
 
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 
-public class CassandraBlobStore implements BlobStore {
+public class CassandraBlobStore implements ListableBlobStore {
 
     private static final int PREFETCH = 16;
-    private static final int MAX_CONCURRENCY = 1;
+    private static final int WRITE_CONCURRENCY = 4;
+    private static final int DELETE_CONCURRENCY = 16;
     private final CassandraDefaultBucketDAO defaultBucketDAO;
     private final CassandraBucketDAO bucketDAO;
     private final DataChunker dataChunker;
     private final CassandraConfiguration configuration;
     private final HashBlobId.Factory blobIdFactory;
+    private final BlobCompressor compressor;
 
     @Inject
-    CassandraBlobStore(CassandraDefaultBucketDAO defaultBucketDAO, CassandraBucketDAO bucketDAO, CassandraConfiguration cassandraConfiguration, HashBlobId.Factory blobIdFactory) {
+    CassandraBlobStore(CassandraDefaultBucketDAO defaultBucketDAO, CassandraBucketDAO bucketDAO, CassandraConfiguration cassandraConfiguration,
+                       HashBlobId.Factory blobIdFactory, MetricFactory metricFactory) {
         this.defaultBucketDAO = defaultBucketDAO;
         this.bucketDAO = bucketDAO;
         this.configuration = cassandraConfiguration;
         this.blobIdFactory = blobIdFactory;
         this.dataChunker = new DataChunker();
+        this.compressor = new BlobCompressor(compressionConfiguration(cassandraConfiguration), metricFactory);
+    }
+
+    @VisibleForTesting
+    CassandraBlobStore(CassandraDefaultBucketDAO defaultBucketDAO, CassandraBucketDAO bucketDAO, CassandraConfiguration cassandraConfiguration, HashBlobId.Factory blobIdFactory) {
+        this(defaultBucketDAO, bucketDAO, cassandraConfiguration, blobIdFactory, new NoopMetricFactory());
     }
 
     @VisibleForTesting
@@ -75,6 +95,12 @@ public class CassandraBlobStore implements BlobStore {
             new HashBlobId.Factory());
     }
 
+    private static CompressionConfiguration compressionConfiguration(CassandraConfiguration cassandraConfiguration) {
+        return CompressionConfiguration.builder()
+            .algorithm(cassandraConfiguration.getBlobCompression().flatMap(CompressionAlgorithm::parseOptional))
+            .build();
+    }
+
     @Override
     public Mono<BlobId> save(BucketName bucketName, byte[] data) {
         Preconditions.checkNotNull(data);
@@ -91,10 +117,14 @@ public class CassandraBlobStore implements BlobStore {
 
     private Mono<Integer> saveBlobParts(BucketName bucketName, byte[] data, BlobId blobId) {
         Stream<Pair<Integer, ByteBuffer>> chunks = dataChunker.chunk(data, configuration.getBlobPartSize());
-        return Flux.fromStream(chunks)
+        return saveBlobParts(bucketName, Flux.fromStream(chunks), blobId);
+    }
+
+    private Mono<Integer> saveBlobParts(BucketName bucketName, Flux<Pair<Integer, ByteBuffer>> chunks, BlobId blobId) {
+        return chunks
             .publishOn(Schedulers.boundedElastic(), PREFETCH)
             .flatMap(pair -> writePart(bucketName, blobId, pair.getKey(), pair.getValue())
-                .then(Mono.just(getChunkNum(pair))))
+                .then(Mono.just(getChunkNum(pair))), WRITE_CONCURRENCY)
             .collect(Collectors.maxBy(Comparator.comparingInt(x -> x)))
             .flatMap(Mono::justOrEmpty)
             .map(this::numToCount)
@@ -112,14 +142,26 @@ public class CassandraBlobStore implements BlobStore {
 
     @Override
     public Mono<byte[]> readBytes(BucketName bucketName, BlobId blobId) {
-        return readBlobParts(bucketName, blobId)
+        return readRowCount(bucketName, blobId)
+            .flatMapMany(rowCount -> readBlobParts(bucketName, blobId, rowCount))
             .collectList()
             .map(this::byteBuffersToBytesArray);
     }
 
     @Override
     public InputStream read(BucketName bucketName, BlobId blobId) {
-        return ReactorUtils.toInputStream(readBlobParts(bucketName, blobId));
+        // Synchronous API: fail fast upon missing blobs rather than upon the first read of the stream
+        Integer rowCount = readRowCount(bucketName, blobId).block();
+        return ReactorUtils.toInputStream(readBlobParts(bucketName, blobId, rowCount));
+    }
+
+    @Override
+    public InputStream read(BucketName bucketName, BlobId blobId, long offset, long length) {
+        Preconditions.checkArgument(offset >= 0, "offset can not be negative");
+        Preconditions.checkArgument(length >= 0, "length can not be negative");
+
+        Integer rowCount = readRowCount(bucketName, blobId).block();
+        return ReactorUtils.toInputStream(readBlobRange(bucketName, blobId, rowCount, offset, length));
     }
 
     @Override
@@ -127,27 +169,112 @@ public class CassandraBlobStore implements BlobStore {
         return BucketName.DEFAULT;
     }
 
-    private Flux<ByteBuffer> readBlobParts(BucketName bucketName, BlobId blobId) {
-        Integer rowCount = selectRowCount(bucketName, blobId)
-            .publishOn(Schedulers.boundedElastic())
+    private Mono<Integer> readRowCount(BucketName bucketName, BlobId blobId) {
+        return selectRowCount(bucketName, blobId)
             .single()
             .onErrorResume(NoSuchElementException.class, e -> Mono.error(
-                new ObjectNotFoundException(String.format("Could not retrieve blob metadata for %s", blobId))))
-            .block();
+                new ObjectNotFoundException(String.format("Could not retrieve blob metadata for %s", blobId))));
+    }
+
+    /**
+     * Parts are read ahead with a bounded concurrency while their order is preserved. Demand from the consumer
+     * is propagated: no more than blobReadConcurrency parts are being fetched while the consumer is not keeping up.
+     */
+    private Flux<ByteBuffer> readBlobParts(BucketName bucketName, BlobId blobId, int rowCount) {
         return Flux.range(0, rowCount)
-            .publishOn(Schedulers.boundedElastic(), PREFETCH)
-            .flatMapSequential(partIndex -> readPart(bucketName, blobId, partIndex)
-                .single()
-                .onErrorResume(NoSuchElementException.class, e -> Mono.error(
-                    new ObjectNotFoundException(String.format("Missing blob part for blobId %s and position %d", blobId, partIndex)))),
-                MAX_CONCURRENCY, PREFETCH);
+            .flatMapSequential(partIndex -> readExistingPart(bucketName, blobId, partIndex),
+                configuration.getBlobReadConcurrency(), PREFETCH);
+    }
+
+    /**
+     * Only the parts covering the requested range are read.
+     *
+     * The part size used upon writes might differ from the one currently configured, hence it is deduced from the
+     * first part: all parts but the last one have the same size.
+     */
+    private Flux<ByteBuffer> readBlobRange(BucketName bucketName, BlobId blobId, int rowCount, long offset, long length) {
+        if (rowCount == 0 || length == 0) {
+            return Flux.empty();
+        }
+        long end = LongMath.saturatedAdd(offset, length);
+        return readExistingPart(bucketName, blobId, 0)
+            .flatMapMany(firstPart -> {
+                int partSize = firstPart.remaining();
+                if (partSize == 0) {
+                    return Flux.empty();
+                }
+                long firstIndex = offset / partSize;
+                long lastIndex = Math.min((end - 1) / partSize, rowCount - 1);
+                if (firstIndex > lastIndex) {
+                    return Flux.empty();
+                }
+                return Flux.range(Math.toIntExact(firstIndex), Math.toIntExact(lastIndex - firstIndex + 1))
+                    .flatMapSequential(partIndex -> readPartForRange(bucketName, blobId, partIndex, firstPart)
+                            .map(part -> slice(part, (long) partIndex * partSize, offset, end)),
+                        configuration.getBlobReadConcurrency(), PREFETCH);
+            });
+    }
+
+    private Mono<ByteBuffer> readPartForRange(BucketName bucketName, BlobId blobId, int partIndex, ByteBuffer firstPart) {
+        if (partIndex == 0) {
+            return Mono.just(firstPart.duplicate());
+        }
+        return readExistingPart(bucketName, blobId, partIndex);
+    }
+
+    private ByteBuffer slice(ByteBuffer part, long partStart, long offset, long end) {
+        ByteBuffer slice = part.duplicate();
+        int base = slice.position();
+        int from = Math.toIntExact(Math.max(0, offset - partStart));
+        int to = Math.toIntExact(Math.min(slice.remaining(), end - partStart));
+        if (from >= to) {
+            slice.limit(base);
+            return slice;
+        }
+        slice.limit(base + to);
+        slice.position(base + from);
+        return slice;
+    }
+
+    private Mono<ByteBuffer> readExistingPart(BucketName bucketName, BlobId blobId, int partIndex) {
+        return readPart(bucketName, blobId, partIndex)
+            .single()
+            .onErrorResume(NoSuchElementException.class, e -> Mono.error(
+                new ObjectNotFoundException(String.format("Missing blob part for blobId %s and position %d", blobId, partIndex))));
     }
 
     @Override
     public Mono<BlobId> save(BucketName bucketName, InputStream data) {
         Preconditions.checkNotNull(data);
-        return Mono.fromCallable(() -> IOUtils.toByteArray(data))
-            .flatMap(bytes -> saveAsMono(bucketName, bytes));
+
+        return Mono.using(
+            () -> new FileBackedOutputStream(configuration.getBlobPartSize()),
+            spool -> spoolAndComputeId(data, spool)
+                .flatMap(blobId -> saveSpooledBlobParts(bucketName, spool, blobId)
+                    .flatMap(numberOfChunk -> saveBlobPartReference(bucketName, blobId, numberOfChunk))
+                    .thenReturn(blobId)),
+            Throwing.consumer(FileBackedOutputStream::reset).sneakyThrow())
+            .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * The blob id is the hash of the content, thus it is only known once the whole stream had been read.
+     * Content is spooled (in memory up to one blob part, on disk above) while being hashed, so that the
+     * parts can then be written one by one without ever holding the full blob on the heap.
+     */
+    private Mono<BlobId> spoolAndComputeId(InputStream data, FileBackedOutputStream spool) {
+        return Mono.fromCallable(() -> {
+            HashingInputStream hashingInputStream = new HashingInputStream(Hashing.sha256(), data);
+            ByteStreams.copy(hashingInputStream, spool);
+            return blobIdFactory.from(hashingInputStream.hash().toString());
+        });
+    }
+
+    private Mono<Integer> saveSpooledBlobParts(BucketName bucketName, FileBackedOutputStream spool, BlobId blobId) {
+        return Mono.using(
+            () -> spool.asByteSource().openStream(),
+            spooledData -> saveBlobParts(bucketName, dataChunker.chunkStream(spooledData, configuration.getBlobPartSize()), blobId),
+            Throwing.consumer(InputStream::close).sneakyThrow());
     }
 
     @Override
@@ -158,10 +285,27 @@ public class CassandraBlobStore implements BlobStore {
         return bucketDAO.listAll()
             .filter(bucketNameBlobIdPair -> bucketNameBlobIdPair.getKey().equals(bucketName))
             .map(Pair::getValue)
-            .flatMap(blobId -> delete(bucketName, blobId))
+            .flatMap(blobId -> bucketDAO.deleteBlob(bucketName, blobId), DELETE_CONCURRENCY)
             .then();
     }
 
+    /**
+     * Blobs are not indexed by bucket, thus this implies a full scan of the blob references.
+     */
+    @Override
+    public Flux<BlobId> listBlobs(BucketName bucketName) {
+        Preconditions.checkNotNull(bucketName);
+
+        if (isDefaultBucket(bucketName)) {
+            return defaultBucketDAO.listBlobIds()
+                .map(blobIdFactory::from);
+        }
+        return bucketDAO.listAll()
+            .filter(bucketNameBlobIdPair -> bucketNameBlobIdPair.getKey().equals(bucketName))
+            .map(Pair::getValue)
+            .distinctUntilChanged();
+    }
+
     @Override
     public Mono<Void> delete(BucketName bucketName, BlobId blobId) {
         if (isDefaultBucket(bucketName)) {
@@ -173,7 +317,41 @@ public class CassandraBlobStore implements BlobStore {
         }
     }
 
+    /**
+     * Each blob is deleted by an unlogged batch over its blobs and parts partitions, blobs being deleted concurrently.
+     */
+    @Override
+    public Mono<Void> delete(BucketName bucketName, Collection<BlobId> blobIds) {
+        Preconditions.checkNotNull(bucketName);
+        Preconditions.checkNotNull(blobIds);
+
+        return Flux.fromIterable(blobIds)
+            .flatMap(blobId -> deleteBlob(bucketName, blobId), DELETE_CONCURRENCY)
+            .then();
+    }
+
+    @Override
+    public Mono<Boolean> exists(BucketName bucketName, BlobId blobId) {
+        Preconditions.checkNotNull(bucketName);
+
+        return selectRowCount(bucketName, blobId)
+            .hasElement();
+    }
+
+    private Mono<Void> deleteBlob(BucketName bucketName, BlobId blobId) {
+        if (isDefaultBucket(bucketName)) {
+            return defaultBucketDAO.deleteBlob(blobId);
+        } else {
+            return bucketDAO.deleteBlob(bucketName, blobId);
+        }
+    }
+
     private Mono<ByteBuffer> readPart(BucketName bucketName, BlobId blobId, Integer partIndex) {
+        return readStoredPart(bucketName, blobId, partIndex)
+            .map(compressor::decompress);
+    }
+
+    private Mono<ByteBuffer> readStoredPart(BucketName bucketName, BlobId blobId, Integer partIndex) {
         if (isDefaultBucket(bucketName)) {
             return defaultBucketDAO.readPart(blobId, partIndex);
         } else {
@@ -197,7 +375,15 @@ public class CassandraBlobStore implements BlobStore {
         }
     }
 
+    /**
+     * Each part is compressed on its own, thus parts can still be read independently, for instance for range reads.
+     */
     private Mono<Void> writePart(BucketName bucketName, BlobId blobId, int position, ByteBuffer data) {
+        return Mono.fromCallable(() -> compressor.compress(data))
+            .flatMap(storedData -> writeStoredPart(bucketName, blobId, position, storedData));
+    }
+
+    private Mono<Void> writeStoredPart(BucketName bucketName, BlobId blobId, int position, ByteBuffer data) {
         if (isDefaultBucket(bucketName)) {
             return defaultBucketDAO.writePart(data, blobId, position);
         } else {
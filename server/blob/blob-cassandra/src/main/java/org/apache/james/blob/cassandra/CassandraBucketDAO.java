@@ -38,6 +38,7 @@ import org.apache.james.blob.api.BlobId;
 import org.apache.james.blob.api.BucketName;
 import org.apache.james.blob.cassandra.BlobTables.BucketBlobParts;
 
+import com.datastax.driver.core.BatchStatement;
 import com.datastax.driver.core.PreparedStatement;
 import com.datastax.driver.core.Row;
 import com.datastax.driver.core.Session;
@@ -168,6 +169,22 @@ class CassandraBucketDAO {
                 .setString(BucketBlobParts.ID, blobId.asString()));
     }
 
+    /**
+     * This unlogged batch spans two partitions, one in the blobs table and one in the parts table. They share the
+     * same partition key, thus the same replicas, and are deleted in a single round trip. The batch is not atomic:
+     * deleting a blob again completes a partial deletion.
+     */
+    Mono<Void> deleteBlob(BucketName bucketName, BlobId blobId) {
+        BatchStatement batch = new BatchStatement(BatchStatement.Type.UNLOGGED);
+        batch.add(delete.bind()
+            .setString(BUCKET, bucketName.asString())
+            .setString(ID, blobId.asString()));
+        batch.add(deleteParts.bind()
+            .setString(BucketBlobParts.BUCKET, bucketName.asString())
+            .setString(BucketBlobParts.ID, blobId.asString()));
+        return cassandraAsyncExecutor.executeVoid(batch);
+    }
+
     Flux<Pair<BucketName, BlobId>> listAll() {
         return cassandraAsyncExecutor.executeRows(listAll.bind())
             .map(row -> Pair.of(BucketName.of(row.getString(BUCKET)), blobIdFactory.from(row.getString(ID))));
@@ -35,11 +35,13 @@ import org.apache.james.backends.cassandra.utils.CassandraAsyncExecutor;
 import org.apache.james.blob.api.BlobId;
 import org.apache.james.blob.cassandra.BlobTables.DefaultBucketBlobParts;
 
+import com.datastax.driver.core.BatchStatement;
 import com.datastax.driver.core.PreparedStatement;
 import com.datastax.driver.core.Row;
 import com.datastax.driver.core.Session;
 import com.google.common.annotations.VisibleForTesting;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 public class CassandraDefaultBucketDAO {
@@ -50,6 +52,7 @@ public class CassandraDefaultBucketDAO {
     private final PreparedStatement selectPart;
     private final PreparedStatement delete;
     private final PreparedStatement deleteParts;
+    private final PreparedStatement listAll;
 
     @Inject
     @VisibleForTesting
@@ -61,6 +64,12 @@ public class CassandraDefaultBucketDAO {
         this.selectPart = prepareSelectPart(session);
         this.delete = prepareDelete(session);
         this.deleteParts = prepareDeleteParts(session);
+        this.listAll = prepareListAll(session);
+    }
+
+    private PreparedStatement prepareListAll(Session session) {
+        return session.prepare(select(ID)
+            .from(BlobTables.DefaultBucketBlobTable.TABLE_NAME));
     }
 
     private PreparedStatement prepareSelect(Session session) {
@@ -143,6 +152,29 @@ public class CassandraDefaultBucketDAO {
                 .setString(DefaultBucketBlobParts.ID, blobId.asString()));
     }
 
+    /**
+     * This unlogged batch spans two partitions, one in the blobs table and one in the parts table. They share the
+     * same partition key, thus the same replicas, and are deleted in a single round trip. The batch is not atomic:
+     * deleting a blob again completes a partial deletion.
+     */
+    Mono<Void> deleteBlob(BlobId blobId) {
+        BatchStatement batch = new BatchStatement(BatchStatement.Type.UNLOGGED);
+        batch.add(delete.bind()
+            .setString(ID, blobId.asString()));
+        batch.add(deleteParts.bind()
+            .setString(DefaultBucketBlobParts.ID, blobId.asString()));
+        return cassandraAsyncExecutor.executeVoid(batch);
+    }
+
+    /**
+     * Rows of a given blob are contiguous, only its first row is kept.
+     */
+    Flux<String> listBlobIds() {
+        return cassandraAsyncExecutor.executeRows(listAll.bind())
+            .map(row -> row.getString(ID))
+            .distinctUntilChanged();
+    }
+
     private ByteBuffer rowToData(Row row) {
         return row.getBytes(DefaultBucketBlobParts.DATA);
     }
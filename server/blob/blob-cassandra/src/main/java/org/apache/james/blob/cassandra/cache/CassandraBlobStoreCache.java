@@ -0,0 +1,103 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.blob.cassandra.cache;
+
+import static com.datastax.driver.core.querybuilder.QueryBuilder.bindMarker;
+import static com.datastax.driver.core.querybuilder.QueryBuilder.delete;
+import static com.datastax.driver.core.querybuilder.QueryBuilder.eq;
+import static com.datastax.driver.core.querybuilder.QueryBuilder.insertInto;
+import static com.datastax.driver.core.querybuilder.QueryBuilder.select;
+import static com.datastax.driver.core.querybuilder.QueryBuilder.ttl;
+import static org.apache.james.blob.cassandra.cache.CassandraBlobCacheModule.DATA;
+import static org.apache.james.blob.cassandra.cache.CassandraBlobCacheModule.ID;
+import static org.apache.james.blob.cassandra.cache.CassandraBlobCacheModule.TABLE_NAME;
+
+import java.nio.ByteBuffer;
+
+import javax.inject.Inject;
+
+import org.apache.james.backends.cassandra.utils.CassandraAsyncExecutor;
+import org.apache.james.blob.api.BlobId;
+import org.apache.james.blob.cache.BlobStoreCache;
+import org.apache.james.blob.cache.BlobStoreCacheConfiguration;
+
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.Row;
+import com.datastax.driver.core.Session;
+import com.google.common.primitives.Ints;
+
+import reactor.core.publisher.Mono;
+
+public class CassandraBlobStoreCache implements BlobStoreCache {
+    private static final String TTL = "ttl";
+
+    private final CassandraAsyncExecutor cassandraAsyncExecutor;
+    private final PreparedStatement insertStatement;
+    private final PreparedStatement selectStatement;
+    private final PreparedStatement deleteStatement;
+    private final int ttlInSeconds;
+
+    @Inject
+    public CassandraBlobStoreCache(Session session, BlobStoreCacheConfiguration configuration) {
+        this.cassandraAsyncExecutor = new CassandraAsyncExecutor(session);
+        this.ttlInSeconds = Ints.checkedCast(configuration.getTtl().getSeconds());
+
+        this.insertStatement = session.prepare(insertInto(TABLE_NAME)
+            .value(ID, bindMarker(ID))
+            .value(DATA, bindMarker(DATA))
+            .using(ttl(bindMarker(TTL))));
+
+        this.selectStatement = session.prepare(select(DATA)
+            .from(TABLE_NAME)
+            .where(eq(ID, bindMarker(ID))));
+
+        this.deleteStatement = session.prepare(delete()
+            .from(TABLE_NAME)
+            .where(eq(ID, bindMarker(ID))));
+    }
+
+    @Override
+    public Mono<Void> cache(BlobId blobId, byte[] data) {
+        return cassandraAsyncExecutor.executeVoid(insertStatement.bind()
+            .setString(ID, blobId.asString())
+            .setBytes(DATA, ByteBuffer.wrap(data))
+            .setInt(TTL, ttlInSeconds));
+    }
+
+    @Override
+    public Mono<byte[]> read(BlobId blobId) {
+        return cassandraAsyncExecutor.executeSingleRow(selectStatement.bind()
+                .setString(ID, blobId.asString()))
+            .map(this::toByteArray);
+    }
+
+    @Override
+    public Mono<Void> remove(BlobId blobId) {
+        return cassandraAsyncExecutor.executeVoid(deleteStatement.bind()
+            .setString(ID, blobId.asString()));
+    }
+
+    private byte[] toByteArray(Row row) {
+        ByteBuffer byteBuffer = row.getBytes(DATA);
+        byte[] data = new byte[byteBuffer.remaining()];
+        byteBuffer.get(data);
+        return data;
+    }
+}
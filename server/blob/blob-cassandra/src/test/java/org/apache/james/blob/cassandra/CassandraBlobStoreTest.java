@@ -35,6 +35,8 @@ import org.apache.james.backends.cassandra.init.configuration.CassandraConfigura
 import org.apache.james.blob.api.BlobId;
 import org.apache.james.blob.api.BlobStore;
 import org.apache.james.blob.api.HashBlobId;
+import org.apache.james.blob.api.ListableBlobStore;
+import org.apache.james.blob.api.ListableBlobStoreContract;
 import org.apache.james.blob.api.MetricableBlobStore;
 import org.apache.james.blob.api.MetricableBlobStoreContract;
 import org.apache.james.blob.api.ObjectStoreException;
@@ -49,29 +51,31 @@ import com.google.common.hash.HashingInputStream;
 
 import reactor.core.publisher.Mono;
 
-public class CassandraBlobStoreTest implements MetricableBlobStoreContract {
+public class CassandraBlobStoreTest implements MetricableBlobStoreContract, ListableBlobStoreContract {
     private static final int CHUNK_SIZE = 10240;
     private static final int MULTIPLE_CHUNK_SIZE = 3;
 
     @RegisterExtension
     static CassandraClusterExtension cassandraCluster = new CassandraClusterExtension(CassandraBlobModule.MODULE);
 
+    private CassandraBlobStore cassandraBlobStore;
     private BlobStore testee;
     private CassandraDefaultBucketDAO defaultBucketDAO;
+    private CassandraBucketDAO bucketDAO;
+    private HashBlobId.Factory blobIdFactory;
 
     @BeforeEach
     void setUp(CassandraCluster cassandra) {
-        HashBlobId.Factory blobIdFactory = new HashBlobId.Factory();
-        CassandraBucketDAO bucketDAO = new CassandraBucketDAO(blobIdFactory, cassandra.getConf());
+        blobIdFactory = new HashBlobId.Factory();
+        bucketDAO = new CassandraBucketDAO(blobIdFactory, cassandra.getConf());
         defaultBucketDAO = spy(new CassandraDefaultBucketDAO(cassandra.getConf()));
-        testee = new MetricableBlobStore(
-            metricsTestExtension.getMetricFactory(),
-            new CassandraBlobStore(defaultBucketDAO,
-                bucketDAO,
-                CassandraConfiguration.builder()
-                    .blobPartSize(CHUNK_SIZE)
-                    .build(),
-                blobIdFactory));
+        cassandraBlobStore = new CassandraBlobStore(defaultBucketDAO,
+            bucketDAO,
+            CassandraConfiguration.builder()
+                .blobPartSize(CHUNK_SIZE)
+                .build(),
+            blobIdFactory);
+        testee = new MetricableBlobStore(metricsTestExtension.getMetricFactory(), cassandraBlobStore);
     }
 
     @Override
@@ -79,6 +83,11 @@ public class CassandraBlobStoreTest implements MetricableBlobStoreContract {
         return testee;
     }
 
+    @Override
+    public ListableBlobStore listableBlobStore() {
+        return cassandraBlobStore;
+    }
+
     @Override
     public BlobId.Factory blobIdFactory() {
         return new HashBlobId.Factory();
@@ -94,6 +103,28 @@ public class CassandraBlobStoreTest implements MetricableBlobStoreContract {
         assertThat(new String(bytes, StandardCharsets.UTF_8)).isEqualTo(longString);
     }
 
+    @Test
+    void readBytesShouldPreservePartOrderingWhenReadingManyParts() {
+        int repeatCount = 20 * CHUNK_SIZE;
+        String longString = Strings.repeat("0123456789\n", repeatCount);
+        BlobId blobId = testee.save(testee.getDefaultBucketName(), longString).block();
+
+        byte[] bytes = testee.readBytes(testee.getDefaultBucketName(), blobId).block();
+
+        assertThat(new String(bytes, StandardCharsets.UTF_8)).isEqualTo(longString);
+    }
+
+    @Test
+    void readShouldPreservePartOrderingWhenReadingManyParts() throws IOException {
+        int repeatCount = 20 * CHUNK_SIZE;
+        String longString = Strings.repeat("0123456789\n", repeatCount);
+        BlobId blobId = testee.save(testee.getDefaultBucketName(), longString).block();
+
+        InputStream read = testee.read(testee.getDefaultBucketName(), blobId);
+
+        assertThat(IOUtils.toString(read, StandardCharsets.UTF_8)).isEqualTo(longString);
+    }
+
     @Test
     void readBytesShouldNotReturnInvalidResultsWhenPartialDataPresent() {
         int repeatCount = MULTIPLE_CHUNK_SIZE * CHUNK_SIZE;
@@ -140,6 +171,58 @@ public class CassandraBlobStoreTest implements MetricableBlobStoreContract {
         assertThat(readHash.hash().toString()).isEqualTo(writeHash.hash().toString());
     }
 
+    @Test
+    void compressedBlobsShouldBeReadable() {
+        BlobStore compressingBlobStore = compressingBlobStore();
+        String longString = Strings.repeat("0123456789\n", MULTIPLE_CHUNK_SIZE * CHUNK_SIZE);
+        BlobId blobId = compressingBlobStore.save(compressingBlobStore.getDefaultBucketName(), longString).block();
+
+        byte[] bytes = compressingBlobStore.readBytes(compressingBlobStore.getDefaultBucketName(), blobId).block();
+
+        assertThat(new String(bytes, StandardCharsets.UTF_8)).isEqualTo(longString);
+    }
+
+    @Test
+    void blobPartsShouldBeStoredCompressedWhenCompressionIsEnabled() {
+        BlobStore compressingBlobStore = compressingBlobStore();
+        String longString = Strings.repeat("0123456789\n", MULTIPLE_CHUNK_SIZE * CHUNK_SIZE);
+        BlobId blobId = compressingBlobStore.save(compressingBlobStore.getDefaultBucketName(), longString).block();
+
+        assertThat(defaultBucketDAO.readPart(blobId, 0).block().remaining()).isLessThan(CHUNK_SIZE / 3);
+    }
+
+    @Test
+    void uncompressedBlobsShouldRemainReadableOnceCompressionIsEnabled() {
+        String longString = Strings.repeat("0123456789\n", MULTIPLE_CHUNK_SIZE * CHUNK_SIZE);
+        BlobId blobId = testee.save(testee.getDefaultBucketName(), longString).block();
+
+        BlobStore compressingBlobStore = compressingBlobStore();
+        byte[] bytes = compressingBlobStore.readBytes(compressingBlobStore.getDefaultBucketName(), blobId).block();
+
+        assertThat(new String(bytes, StandardCharsets.UTF_8)).isEqualTo(longString);
+    }
+
+    @Test
+    void readRangeShouldWorkOnCompressedBlobs() throws IOException {
+        BlobStore compressingBlobStore = compressingBlobStore();
+        String longString = Strings.repeat("0123456789\n", MULTIPLE_CHUNK_SIZE * CHUNK_SIZE);
+        BlobId blobId = compressingBlobStore.save(compressingBlobStore.getDefaultBucketName(), longString).block();
+
+        InputStream range = compressingBlobStore.read(compressingBlobStore.getDefaultBucketName(), blobId, CHUNK_SIZE + 5, 20);
+
+        assertThat(IOUtils.toString(range, StandardCharsets.UTF_8)).isEqualTo(longString.substring(CHUNK_SIZE + 5, CHUNK_SIZE + 25));
+    }
+
+    private BlobStore compressingBlobStore() {
+        return new CassandraBlobStore(defaultBucketDAO,
+            bucketDAO,
+            CassandraConfiguration.builder()
+                .blobPartSize(CHUNK_SIZE)
+                .blobCompression("lz4")
+                .build(),
+            blobIdFactory);
+    }
+
     private void consumeStream(InputStream tmpMsgIn) throws IOException {
         byte[] discard = new byte[4096];
         while (tmpMsgIn.read(discard) != -1) {
@@ -22,6 +22,7 @@ package org.apache.james.blob.cassandra.utils;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import java.io.ByteArrayInputStream;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.stream.Stream;
@@ -107,4 +108,43 @@ public class DataChunkerTest {
                 Pair.of(1, ByteBuffer.wrap(part2))));
     }
 
+    @Test
+    public void chunkStreamShouldThrowOnNullData() {
+        assertThatThrownBy(() -> testee.chunkStream(null, CHUNK_SIZE))
+            .isInstanceOf(NullPointerException.class);
+    }
+
+    @Test
+    public void chunkStreamShouldThrowOnZeroChunkSize() {
+        int chunkSize = 0;
+        assertThatThrownBy(() -> testee.chunkStream(new ByteArrayInputStream(new byte[0]), chunkSize))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void chunkStreamShouldReturnOneEmptyArrayWhenInputEmpty() {
+        assertThat(testee.chunkStream(new ByteArrayInputStream(new byte[0]), CHUNK_SIZE).collectList().block())
+            .containsExactly(Pair.of(0, ByteBuffer.wrap(new byte[0])));
+    }
+
+    @Test
+    public void chunkStreamShouldReturnOneArrayWhenInputEqualsChunkSize() {
+        byte[] data = "1234567890".getBytes(StandardCharsets.UTF_8);
+
+        assertThat(testee.chunkStream(new ByteArrayInputStream(data), CHUNK_SIZE).collectList().block())
+            .containsExactly(Pair.of(0, ByteBuffer.wrap(data)));
+    }
+
+    @Test
+    public void chunkStreamShouldReturnSeveralArrayWhenInputBiggerThanChunkSize() {
+        byte[] part1 = "1234567890".getBytes(StandardCharsets.UTF_8);
+        byte[] part2 = "12345".getBytes(StandardCharsets.UTF_8);
+        byte[] data = Bytes.concat(part1, part2);
+
+        assertThat(testee.chunkStream(new ByteArrayInputStream(data), CHUNK_SIZE).collectList().block())
+            .containsExactly(
+                Pair.of(0, ByteBuffer.wrap(part1)),
+                Pair.of(1, ByteBuffer.wrap(part2)));
+    }
+
 }
@@ -0,0 +1,69 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.blob.file;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.james.blob.api.ObjectStoreException;
+
+/**
+ * Group commit of directory entries.
+ *
+ * A renamed file is only durable once its parent directory had been fsynced. Writers register the directory they
+ * modified then flush every registered directory under a lock: writers committing concurrently share a single fsync
+ * per directory instead of issuing one each.
+ */
+class DirectorySync {
+    private final Set<Path> dirtyDirectories;
+    private final Object lock;
+
+    DirectorySync() {
+        this.dirtyDirectories = ConcurrentHashMap.newKeySet();
+        this.lock = new Object();
+    }
+
+    void markDirty(Path directory) {
+        dirtyDirectories.add(directory);
+    }
+
+    void sync(Path directory) {
+        markDirty(directory);
+        synchronized (lock) {
+            // Another writer might have flushed our directory while we were waiting for the lock
+            for (Path dirtyDirectory : dirtyDirectories) {
+                dirtyDirectories.remove(dirtyDirectory);
+                force(dirtyDirectory);
+            }
+        }
+    }
+
+    private void force(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            throw new ObjectStoreException("Failed to sync directory " + directory, e);
+        }
+    }
+}
@@ -0,0 +1,316 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.blob.file;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.UUID;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.james.blob.api.BlobId;
+import org.apache.james.blob.api.BlobStore;
+import org.apache.james.blob.api.BucketName;
+import org.apache.james.blob.api.ObjectNotFoundException;
+import org.apache.james.blob.api.ObjectStoreException;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.escape.Escaper;
+import com.google.common.hash.Hashing;
+import com.google.common.hash.HashingInputStream;
+import com.google.common.io.ByteStreams;
+import com.google.common.net.UrlEscapers;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Stores blobs as files, one directory per bucket.
+ *
+ * Blobs are spread across two levels of sub-directories derived from a hash of their id, which keeps directories
+ * small. They are written to a temporary file, fsynced then atomically renamed to their final location, so that
+ * readers never see partial content. Fsync of the modified directories is batched across concurrent writers.
+ *
+ * Reads are served by memory mapping the file.
+ */
+public class FileBlobStore implements BlobStore {
+    private static final String BUCKETS_DIRECTORY = "buckets";
+    private static final String TEMPORARY_DIRECTORY = "tmp";
+    private static final Escaper FILE_NAME_ESCAPER = UrlEscapers.urlFormParameterEscaper();
+    private static final long MAX_MAPPED_SIZE = Integer.MAX_VALUE;
+
+    private final BlobId.Factory blobIdFactory;
+    private final BucketName defaultBucketName;
+    private final Path bucketsDirectory;
+    private final Path temporaryDirectory;
+    private final DirectorySync directorySync;
+
+    public FileBlobStore(BlobId.Factory blobIdFactory, File rootDirectory) {
+        this(blobIdFactory, BucketName.DEFAULT, rootDirectory);
+    }
+
+    @VisibleForTesting
+    public FileBlobStore(BlobId.Factory blobIdFactory, BucketName defaultBucketName, File rootDirectory) {
+        this.blobIdFactory = blobIdFactory;
+        this.defaultBucketName = defaultBucketName;
+        this.bucketsDirectory = rootDirectory.toPath().resolve(BUCKETS_DIRECTORY);
+        this.temporaryDirectory = rootDirectory.toPath().resolve(TEMPORARY_DIRECTORY);
+        this.directorySync = new DirectorySync();
+
+        try {
+            Files.createDirectories(bucketsDirectory);
+            Files.createDirectories(temporaryDirectory);
+            // Leftovers of writes interrupted by a crash
+            FileUtils.cleanDirectory(temporaryDirectory.toFile());
+        } catch (IOException e) {
+            throw new ObjectStoreException("Failed to initialize blob directory " + rootDirectory, e);
+        }
+    }
+
+    @Override
+    public Mono<BlobId> save(BucketName bucketName, byte[] data) {
+        Preconditions.checkNotNull(bucketName);
+        Preconditions.checkNotNull(data);
+
+        BlobId blobId = blobIdFactory.forPayload(data);
+
+        return Mono.fromCallable(() -> {
+            Path blobPath = blobPath(bucketName, blobId);
+            // Blobs are content addressed: an existing file already holds this content
+            if (!Files.exists(blobPath)) {
+                Path temporaryFile = newTemporaryFile();
+                try {
+                    writeTemporaryFile(temporaryFile, channel -> channel.write(ByteBuffer.wrap(data)));
+                    commit(temporaryFile, blobPath);
+                } finally {
+                    Files.deleteIfExists(temporaryFile);
+                }
+            }
+            return blobId;
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Override
+    public Mono<BlobId> save(BucketName bucketName, InputStream data) {
+        Preconditions.checkNotNull(bucketName);
+        Preconditions.checkNotNull(data);
+
+        return Mono.fromCallable(() -> {
+            Path temporaryFile = newTemporaryFile();
+            try {
+                HashingInputStream hashingInputStream = new HashingInputStream(Hashing.sha256(), data);
+                writeTemporaryFile(temporaryFile, channel -> ByteStreams.copy(hashingInputStream, Channels.newOutputStream(channel)));
+                BlobId blobId = blobIdFactory.from(hashingInputStream.hash().toString());
+                Path blobPath = blobPath(bucketName, blobId);
+                if (!Files.exists(blobPath)) {
+                    commit(temporaryFile, blobPath);
+                }
+                return blobId;
+            } finally {
+                Files.deleteIfExists(temporaryFile);
+            }
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Override
+    public Mono<byte[]> readBytes(BucketName bucketName, BlobId blobId) {
+        Preconditions.checkNotNull(bucketName);
+
+        return Mono.fromCallable(() -> {
+            Path blobPath = blobPath(bucketName, blobId);
+            try (FileChannel channel = openForRead(blobPath, blobId, bucketName)) {
+                long size = channel.size();
+                if (size > MAX_MAPPED_SIZE) {
+                    throw new ObjectStoreException("Blob " + blobId.asString() + " is too big to be read as a byte array");
+                }
+                ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                byte[] bytes = new byte[buffer.remaining()];
+                buffer.get(bytes);
+                return bytes;
+            }
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Override
+    public InputStream read(BucketName bucketName, BlobId blobId) {
+        return read(bucketName, blobId, 0, Long.MAX_VALUE);
+    }
+
+    @Override
+    public InputStream read(BucketName bucketName, BlobId blobId, long offset, long length) {
+        Preconditions.checkNotNull(bucketName);
+        Preconditions.checkArgument(offset >= 0, "offset can not be negative");
+        Preconditions.checkArgument(length >= 0, "length can not be negative");
+
+        Path blobPath = blobPath(bucketName, blobId);
+        FileChannel channel = openForRead(blobPath, blobId, bucketName);
+        try {
+            long size = channel.size();
+            long start = Math.min(offset, size);
+            long rangeLength = Math.min(length, size - start);
+            if (rangeLength > MAX_MAPPED_SIZE) {
+                channel.position(start);
+                return ByteStreams.limit(Channels.newInputStream(channel), rangeLength);
+            }
+            try {
+                // The mapping remains valid once the channel is closed
+                return new ByteBufferInputStream(channel.map(FileChannel.MapMode.READ_ONLY, start, rangeLength));
+            } finally {
+                channel.close();
+            }
+        } catch (IOException e) {
+            closeQuietly(channel);
+            throw new ObjectStoreException("Failed to read blob " + blobId.asString(), e);
+        }
+    }
+
+    @Override
+    public BucketName getDefaultBucketName() {
+        return defaultBucketName;
+    }
+
+    @Override
+    public Mono<Void> deleteBucket(BucketName bucketName) {
+        Preconditions.checkNotNull(bucketName);
+
+        return Mono.<Void>fromRunnable(() -> {
+            try {
+                FileUtils.deleteDirectory(bucketDirectory(bucketName).toFile());
+            } catch (IOException e) {
+                throw new ObjectStoreException("Failed to delete bucket " + bucketName.asString(), e);
+            }
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Override
+    public Mono<Void> delete(BucketName bucketName, BlobId blobId) {
+        Preconditions.checkNotNull(bucketName);
+        Preconditions.checkNotNull(blobId);
+
+        return Mono.<Void>fromRunnable(() -> {
+            try {
+                Files.deleteIfExists(blobPath(bucketName, blobId));
+            } catch (IOException e) {
+                throw new ObjectStoreException("Failed to delete blob " + blobId.asString(), e);
+            }
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Override
+    public Mono<Void> delete(BucketName bucketName, Collection<BlobId> blobIds) {
+        Preconditions.checkNotNull(bucketName);
+        Preconditions.checkNotNull(blobIds);
+
+        return Mono.<Void>fromRunnable(() -> {
+            for (BlobId blobId : blobIds) {
+                try {
+                    Files.deleteIfExists(blobPath(bucketName, blobId));
+                } catch (IOException e) {
+                    throw new ObjectStoreException("Failed to delete blob " + blobId.asString(), e);
+                }
+            }
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Override
+    public Mono<Boolean> exists(BucketName bucketName, BlobId blobId) {
+        Preconditions.checkNotNull(bucketName);
+        Preconditions.checkNotNull(blobId);
+
+        return Mono.fromCallable(() -> Files.exists(blobPath(bucketName, blobId)))
+            .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @FunctionalInterface
+    private interface ChannelWriter {
+        void write(FileChannel channel) throws IOException;
+    }
+
+    private Path newTemporaryFile() {
+        return temporaryDirectory.resolve(UUID.randomUUID().toString());
+    }
+
+    private void writeTemporaryFile(Path temporaryFile, ChannelWriter writer) throws IOException {
+        try (FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            writer.write(channel);
+            channel.force(true);
+        }
+    }
+
+    private void commit(Path temporaryFile, Path blobPath) throws IOException {
+        Path shardDirectory = blobPath.getParent();
+        if (!Files.isDirectory(shardDirectory)) {
+            Files.createDirectories(shardDirectory);
+            for (Path directory = shardDirectory.getParent(); !directory.equals(bucketsDirectory.getParent()); directory = directory.getParent()) {
+                directorySync.markDirty(directory);
+            }
+        }
+        Files.move(temporaryFile, blobPath, StandardCopyOption.ATOMIC_MOVE);
+        directorySync.sync(shardDirectory);
+    }
+
+    private FileChannel openForRead(Path blobPath, BlobId blobId, BucketName bucketName) {
+        try {
+            return FileChannel.open(blobPath, StandardOpenOption.READ);
+        } catch (NoSuchFileException e) {
+            throw new ObjectNotFoundException("Unable to find blob with id " + blobId.asString() + " in bucket " + bucketName.asString());
+        } catch (IOException e) {
+            throw new ObjectStoreException("Failed to read blob " + blobId.asString(), e);
+        }
+    }
+
+    private void closeQuietly(FileChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // Already failing, the original error is more relevant
+        }
+    }
+
+    private Path bucketDirectory(BucketName bucketName) {
+        return bucketsDirectory.resolve(toFileName(bucketName.asString()));
+    }
+
+    @VisibleForTesting
+    Path blobPath(BucketName bucketName, BlobId blobId) {
+        String shard = Hashing.murmur3_32().hashString(blobId.asString(), StandardCharsets.UTF_8).toString();
+        return bucketDirectory(bucketName)
+            .resolve(shard.substring(0, 2))
+            .resolve(shard.substring(2, 4))
+            .resolve(toFileName(blobId.asString()));
+    }
+
+    private String toFileName(String value) {
+        String fileName = FILE_NAME_ESCAPER.escape(value);
+        Preconditions.checkArgument(!fileName.equals(".") && !fileName.equals(".."), "'%s' can not be used as a file name", value);
+        return fileName;
+    }
+}
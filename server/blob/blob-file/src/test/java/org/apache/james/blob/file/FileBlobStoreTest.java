@@ -0,0 +1,102 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.blob.file;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.apache.james.blob.api.BlobId;
+import org.apache.james.blob.api.BlobStore;
+import org.apache.james.blob.api.BucketName;
+import org.apache.james.blob.api.HashBlobId;
+import org.apache.james.blob.api.MetricableBlobStore;
+import org.apache.james.blob.api.MetricableBlobStoreContract;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FileBlobStoreTest implements MetricableBlobStoreContract {
+
+    private static final HashBlobId.Factory BLOB_ID_FACTORY = new HashBlobId.Factory();
+    private static final byte[] DATA = "content".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    File rootDirectory;
+
+    private FileBlobStore fileBlobStore;
+    private BlobStore blobStore;
+
+    @BeforeEach
+    void setUp() {
+        fileBlobStore = new FileBlobStore(BLOB_ID_FACTORY, rootDirectory);
+        blobStore = new MetricableBlobStore(metricsTestExtension.getMetricFactory(), fileBlobStore);
+    }
+
+    @Override
+    public BlobStore testee() {
+        return blobStore;
+    }
+
+    @Override
+    public BlobId.Factory blobIdFactory() {
+        return BLOB_ID_FACTORY;
+    }
+
+    @Test
+    void blobsShouldBeShardedWithinTheirBucket() {
+        BlobId blobId = fileBlobStore.save(BucketName.DEFAULT, DATA).block();
+
+        Path blobPath = fileBlobStore.blobPath(BucketName.DEFAULT, blobId);
+        assertThat(blobPath).exists();
+        assertThat(rootDirectory.toPath().relativize(blobPath).getNameCount()).isEqualTo(5);
+    }
+
+    @Test
+    void saveShouldNotLeaveTemporaryFiles() throws Exception {
+        fileBlobStore.save(BucketName.DEFAULT, DATA).block();
+        fileBlobStore.save(BucketName.DEFAULT, new ByteArrayInputStream(DATA)).block();
+
+        assertThat(Files.list(rootDirectory.toPath().resolve("tmp"))).isEmpty();
+    }
+
+    @Test
+    void blobsShouldBeReadableByANewInstance() {
+        BlobId blobId = fileBlobStore.save(BucketName.DEFAULT, DATA).block();
+
+        FileBlobStore otherInstance = new FileBlobStore(BLOB_ID_FACTORY, rootDirectory);
+
+        assertThat(otherInstance.readBytes(BucketName.DEFAULT, blobId).block()).isEqualTo(DATA);
+    }
+
+    @Test
+    void initializationShouldCleanUpTemporaryFiles() throws Exception {
+        Path leftOver = rootDirectory.toPath().resolve("tmp").resolve("interrupted");
+        Files.write(leftOver, DATA);
+
+        new FileBlobStore(BLOB_ID_FACTORY, rootDirectory);
+
+        assertThat(leftOver).doesNotExist();
+    }
+}
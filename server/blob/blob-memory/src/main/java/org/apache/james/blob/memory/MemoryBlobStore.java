@@ -22,24 +22,27 @@ package org.apache.james.blob.memory;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Collection;
 import java.util.Optional;
 
 import javax.inject.Inject;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.james.blob.api.BlobId;
-import org.apache.james.blob.api.BlobStore;
 import org.apache.james.blob.api.BucketName;
+import org.apache.james.blob.api.ListableBlobStore;
 import org.apache.james.blob.api.ObjectNotFoundException;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.HashBasedTable;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Table;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-public class MemoryBlobStore implements BlobStore {
+public class MemoryBlobStore implements ListableBlobStore {
     private final BlobId.Factory factory;
     private final BucketName defaultBucketName;
     private final Table<BucketName, BlobId, byte[]> blobs;
@@ -95,6 +98,29 @@ public class MemoryBlobStore implements BlobStore {
         return new ByteArrayInputStream(retrieveStoredValue(bucketName, blobId));
     }
 
+    @Override
+    public InputStream read(BucketName bucketName, BlobId blobId, long offset, long length) {
+        Preconditions.checkNotNull(bucketName);
+        Preconditions.checkArgument(offset >= 0, "offset can not be negative");
+        Preconditions.checkArgument(length >= 0, "length can not be negative");
+
+        byte[] data = retrieveStoredValue(bucketName, blobId);
+        int start = Math.toIntExact(Math.min(offset, data.length));
+        int rangeLength = Math.toIntExact(Math.min(length, data.length - start));
+        return new ByteArrayInputStream(data, start, rangeLength);
+    }
+
+    @Override
+    public Flux<BlobId> listBlobs(BucketName bucketName) {
+        Preconditions.checkNotNull(bucketName);
+
+        return Flux.defer(() -> {
+            synchronized (blobs) {
+                return Flux.fromIterable(ImmutableList.copyOf(blobs.row(bucketName).keySet()));
+            }
+        });
+    }
+
     @Override
     public Mono<Void> deleteBucket(BucketName bucketName) {
         Preconditions.checkNotNull(bucketName);
@@ -130,4 +156,27 @@ public class MemoryBlobStore implements BlobStore {
         });
     }
 
+    @Override
+    public Mono<Void> delete(BucketName bucketName, Collection<BlobId> blobIds) {
+        Preconditions.checkNotNull(bucketName);
+        Preconditions.checkNotNull(blobIds);
+
+        return Mono.fromRunnable(() -> {
+            synchronized (blobs) {
+                blobIds.forEach(blobId -> blobs.remove(bucketName, blobId));
+            }
+        });
+    }
+
+    @Override
+    public Mono<Boolean> exists(BucketName bucketName, BlobId blobId) {
+        Preconditions.checkNotNull(bucketName);
+        Preconditions.checkNotNull(blobId);
+
+        return Mono.fromCallable(() -> {
+            synchronized (blobs) {
+                return blobs.contains(bucketName, blobId);
+            }
+        });
+    }
 }
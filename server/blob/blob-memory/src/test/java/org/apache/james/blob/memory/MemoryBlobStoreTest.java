@@ -22,18 +22,22 @@ package org.apache.james.blob.memory;
 import org.apache.james.blob.api.BlobId;
 import org.apache.james.blob.api.BlobStore;
 import org.apache.james.blob.api.HashBlobId;
+import org.apache.james.blob.api.ListableBlobStore;
+import org.apache.james.blob.api.ListableBlobStoreContract;
 import org.apache.james.blob.api.MetricableBlobStore;
 import org.apache.james.blob.api.MetricableBlobStoreContract;
 import org.junit.jupiter.api.BeforeEach;
 
-public class MemoryBlobStoreTest implements MetricableBlobStoreContract {
+public class MemoryBlobStoreTest implements MetricableBlobStoreContract, ListableBlobStoreContract {
 
     private static final HashBlobId.Factory BLOB_ID_FACTORY = new HashBlobId.Factory();
+    private MemoryBlobStore memoryBlobStore;
     private BlobStore blobStore;
 
     @BeforeEach
     void setUp() {
-        blobStore = new MetricableBlobStore(metricsTestExtension.getMetricFactory(), new MemoryBlobStore(BLOB_ID_FACTORY));
+        memoryBlobStore = new MemoryBlobStore(BLOB_ID_FACTORY);
+        blobStore = new MetricableBlobStore(metricsTestExtension.getMetricFactory(), memoryBlobStore);
     }
 
     @Override
@@ -41,6 +45,11 @@ public class MemoryBlobStoreTest implements MetricableBlobStoreContract {
         return blobStore;
     }
 
+    @Override
+    public ListableBlobStore listableBlobStore() {
+        return memoryBlobStore;
+    }
+
     @Override
     public BlobId.Factory blobIdFactory() {
         return BLOB_ID_FACTORY;
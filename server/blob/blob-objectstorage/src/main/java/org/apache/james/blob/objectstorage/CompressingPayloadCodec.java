@@ -0,0 +1,69 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.blob.objectstorage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.james.blob.api.BlobCompressor;
+
+import com.google.common.io.ByteSource;
+import com.google.common.io.FileBackedOutputStream;
+
+/**
+ * Compresses payloads before handing them to the underlying codec, thus before any encryption takes place.
+ */
+public class CompressingPayloadCodec implements PayloadCodec {
+    private static final BigInteger MAX_BYTES = FileUtils.ONE_MB_BI;
+
+    private final BlobCompressor compressor;
+    private final PayloadCodec underlying;
+
+    public CompressingPayloadCodec(BlobCompressor compressor, PayloadCodec underlying) {
+        this.compressor = compressor;
+        this.underlying = underlying;
+    }
+
+    @Override
+    public Payload write(byte[] bytes) {
+        return underlying.write(compressor.compress(bytes));
+    }
+
+    @Override
+    public Payload write(InputStream inputStream) {
+        try (FileBackedOutputStream outputStream = new FileBackedOutputStream(MAX_BYTES.intValue())) {
+            compressor.compress(inputStream, outputStream);
+            ByteSource compressed = outputStream.asByteSource();
+            if (compressed.size() <= MAX_BYTES.longValue()) {
+                return underlying.write(compressed.read());
+            }
+            return underlying.write(compressed.openStream());
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to build payload for object storage, failed to compress", e);
+        }
+    }
+
+    @Override
+    public InputStream read(Payload payload) throws IOException {
+        return compressor.decompress(underlying.read(payload));
+    }
+}
@@ -44,4 +44,9 @@ public class DefaultPayloadCodec implements PayloadCodec {
     public InputStream read(Payload payload) throws IOException {
         return payload.getPayload().openStream();
     }
+
+    @Override
+    public boolean isRangePreserving() {
+        return true;
+    }
 }
@@ -20,8 +20,10 @@
 package org.apache.james.blob.objectstorage;
 
 import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.function.Supplier;
 
@@ -41,11 +43,15 @@ import org.apache.james.blob.objectstorage.swift.SwiftTempAuthObjectStorage;
 import org.jclouds.blobstore.domain.Blob;
 import org.jclouds.blobstore.domain.StorageMetadata;
 import org.jclouds.blobstore.domain.StorageType;
+import org.jclouds.blobstore.options.GetOptions;
+import org.jclouds.http.HttpResponseException;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
 import com.google.common.hash.Hashing;
 import com.google.common.hash.HashingInputStream;
+import com.google.common.math.LongMath;
 
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -53,6 +59,7 @@ import reactor.core.scheduler.Schedulers;
 
 public class ObjectStorageBlobsDAO implements BlobStore {
     private static final int BUFFERED_SIZE = 256 * 1024;
+    private static final int RANGE_NOT_SATISFIABLE = 416;
 
     private final BlobId.Factory blobIdFactory;
 
@@ -95,21 +102,30 @@ public class ObjectStorageBlobsDAO implements BlobStore {
         blobStore.getContext().close();
     }
 
+    /**
+     * Blobs are content addressed: when a blob with the same id is already stored, for instance the same newsletter
+     * received by many users, the upload is skipped.
+     */
     @Override
     public Mono<BlobId> save(BucketName bucketName, byte[] data) {
         Preconditions.checkNotNull(data);
         ObjectStorageBucketName resolvedBucketName = bucketNameResolver.resolve(bucketName);
 
         BlobId blobId = blobIdFactory.forPayload(data);
+
+        return exists(resolvedBucketName, blobId)
+            .filter(alreadyStored -> !alreadyStored)
+            .flatMap(any -> Mono.<Void>fromRunnable(() -> blobPutter.putDirectly(resolvedBucketName, buildBlob(blobId, data))))
+            .thenReturn(blobId);
+    }
+
+    private Blob buildBlob(BlobId blobId, byte[] data) {
         Payload payload = payloadCodec.write(data);
 
-        Blob blob = blobStore.blobBuilder(blobId.asString())
+        return blobStore.blobBuilder(blobId.asString())
             .payload(payload.getPayload())
             .contentLength(payload.getLength().orElse(Long.valueOf(data.length)))
             .build();
-
-        return Mono.fromRunnable(() -> blobPutter.putDirectly(resolvedBucketName, blob))
-            .thenReturn(blobId);
     }
 
     @Override
@@ -177,6 +193,56 @@ public class ObjectStorageBlobsDAO implements BlobStore {
         }
     }
 
+    @Override
+    public InputStream read(BucketName bucketName, BlobId blobId, long offset, long length) {
+        Preconditions.checkArgument(offset >= 0, "offset can not be negative");
+        Preconditions.checkArgument(length >= 0, "length can not be negative");
+        if (!payloadCodec.isRangePreserving()) {
+            return BlobStore.super.read(bucketName, blobId, offset, length);
+        }
+
+        ObjectStorageBucketName resolvedBucketName = bucketNameResolver.resolve(bucketName);
+        if (length == 0) {
+            if (!blobStore.blobExists(resolvedBucketName.asString(), blobId.asString())) {
+                throw new ObjectNotFoundException("fail to load blob with id " + blobId);
+            }
+            return new ByteArrayInputStream(new byte[0]);
+        }
+        return readRange(resolvedBucketName, blobId, offset, length);
+    }
+
+    private InputStream readRange(ObjectStorageBucketName resolvedBucketName, BlobId blobId, long offset, long length) {
+        try {
+            Blob blob = blobStore.getBlob(resolvedBucketName.asString(), blobId.asString(), rangeOptions(offset, length));
+            if (blob == null) {
+                throw new ObjectNotFoundException("fail to load blob with id " + blobId);
+            }
+            return payloadCodec.read(new Payload(blob.getPayload(), Optional.empty()));
+        } catch (HttpResponseException e) {
+            if (isRangeNotSatisfiable(e)) {
+                return new ByteArrayInputStream(new byte[0]);
+            }
+            throw e;
+        } catch (IOException cause) {
+            throw new ObjectStoreException(
+                "Failed to read range of blob " + blobId.asString(),
+                cause);
+        }
+    }
+
+    private GetOptions rangeOptions(long offset, long length) {
+        long end = LongMath.saturatedAdd(offset, length);
+        if (end == Long.MAX_VALUE) {
+            return new GetOptions().startAt(offset);
+        }
+        return GetOptions.Builder.range(offset, end - 1);
+    }
+
+    private boolean isRangeNotSatisfiable(HttpResponseException e) {
+        return e.getResponse() != null
+            && e.getResponse().getStatusCode() == RANGE_NOT_SATISFIABLE;
+    }
+
     @Override
     public BucketName getDefaultBucketName() {
         return defaultBucketName;
@@ -209,4 +275,32 @@ public class ObjectStorageBlobsDAO implements BlobStore {
         return Mono.<Void>fromRunnable(() -> blobStore.removeBlob(resolvedBucketName.asString(), blobId.asString()))
             .subscribeOn(Schedulers.boundedElastic());
     }
+
+    /**
+     * Relies on the multi-object delete of the underlying object storage when it offers one.
+     */
+    @Override
+    public Mono<Void> delete(BucketName bucketName, Collection<BlobId> blobIds) {
+        Preconditions.checkNotNull(blobIds);
+        ObjectStorageBucketName resolvedBucketName = bucketNameResolver.resolve(bucketName);
+        ImmutableList<String> names = blobIds.stream()
+            .map(BlobId::asString)
+            .collect(ImmutableList.toImmutableList());
+
+        if (names.isEmpty()) {
+            return Mono.empty();
+        }
+        return Mono.<Void>fromRunnable(() -> blobStore.removeBlobs(resolvedBucketName.asString(), names))
+            .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Override
+    public Mono<Boolean> exists(BucketName bucketName, BlobId blobId) {
+        return exists(bucketNameResolver.resolve(bucketName), blobId);
+    }
+
+    private Mono<Boolean> exists(ObjectStorageBucketName resolvedBucketName, BlobId blobId) {
+        return Mono.fromCallable(() -> blobStore.blobExists(resolvedBucketName.asString(), blobId.asString()))
+            .subscribeOn(Schedulers.boundedElastic());
+    }
 }
@@ -29,5 +29,13 @@ public interface PayloadCodec {
 
     InputStream read(Payload payload) throws IOException;
 
+    /**
+     * Whether a byte range of the stored payload maps to the same byte range of the original content, allowing
+     * partial reads of stored objects.
+     */
+    default boolean isRangePreserving() {
+        return false;
+    }
+
     PayloadCodec DEFAULT_CODEC = new DefaultPayloadCodec();
 }
@@ -38,7 +38,6 @@ import org.apache.james.blob.api.BlobId;
 import org.apache.james.blob.objectstorage.BlobPutter;
 import org.apache.james.blob.objectstorage.ObjectStorageBlobsDAOBuilder;
 import org.apache.james.blob.objectstorage.ObjectStorageBucketName;
-import org.apache.james.util.Size;
 import org.apache.james.util.concurrent.NamedThreadFactory;
 import org.jclouds.ContextBuilder;
 import org.jclouds.blobstore.BlobStore;
@@ -59,6 +58,7 @@ import com.amazonaws.services.s3.transfer.TransferManager;
 import com.amazonaws.services.s3.transfer.TransferManagerBuilder;
 import com.github.fge.lambdas.Throwing;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableSet;
 import com.google.inject.Module;
 
@@ -69,27 +69,23 @@ import reactor.retry.Retry;
 public class AwsS3ObjectStorage {
 
     private static final Iterable<Module> JCLOUDS_MODULES = ImmutableSet.of(new SLF4JLoggingModule());
-    public  static final int MAX_THREADS = 5;
     private static final boolean DO_NOT_SHUTDOWN_THREAD_POOL = false;
     private static final int MAX_ERROR_RETRY = 5;
     private static final int FIRST_TRY = 0;
     private static final int MAX_RETRY_ON_EXCEPTION = 3;
-    public static Size MULTIPART_UPLOAD_THRESHOLD;
-
-    static {
-        try {
-            MULTIPART_UPLOAD_THRESHOLD = Size.parse("5M");
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
-    }
 
     private final ExecutorService executorService;
+    private final AwsS3UploadConfiguration uploadConfiguration;
 
     @Inject
+    public AwsS3ObjectStorage(AwsS3UploadConfiguration uploadConfiguration) {
+        this.uploadConfiguration = uploadConfiguration;
+        this.executorService = Executors.newFixedThreadPool(uploadConfiguration.getParallelism(), NamedThreadFactory.withClassName(AwsS3ObjectStorage.class));
+    }
+
     @VisibleForTesting
     public AwsS3ObjectStorage() {
-        executorService = Executors.newFixedThreadPool(MAX_THREADS, NamedThreadFactory.withClassName(AwsS3ObjectStorage.class));
+        this(AwsS3UploadConfiguration.DEFAULT);
     }
 
     @PreDestroy
@@ -102,7 +98,7 @@ public class AwsS3ObjectStorage {
     }
 
     public Optional<BlobPutter> putBlob(AwsS3AuthConfiguration configuration) {
-        return Optional.of(new AwsS3BlobPutter(configuration, executorService));
+        return Optional.of(new AwsS3BlobPutter(configuration, uploadConfiguration, executorService));
     }
 
     private static class BlobStoreBuilder implements Supplier<BlobStore> {
@@ -138,11 +134,13 @@ public class AwsS3ObjectStorage {
         private static final Duration FOREVER = Duration.ofMillis(Long.MAX_VALUE);
 
         private final AwsS3AuthConfiguration configuration;
-        private final ExecutorService executorService;
+        private final Supplier<AmazonS3> s3Client;
+        private final Supplier<TransferManager> transferManager;
 
-        AwsS3BlobPutter(AwsS3AuthConfiguration configuration, ExecutorService executorService) {
+        AwsS3BlobPutter(AwsS3AuthConfiguration configuration, AwsS3UploadConfiguration uploadConfiguration, ExecutorService executorService) {
             this.configuration = configuration;
-            this.executorService = executorService;
+            this.s3Client = Suppliers.memoize(() -> getS3Client(configuration, getClientConfiguration()));
+            this.transferManager = Suppliers.memoize(() -> getTransferManager(s3Client.get(), uploadConfiguration, executorService));
         }
 
         @Override
@@ -191,13 +189,13 @@ public class AwsS3ObjectStorage {
                 blob.getMetadata().getName(),
                 file);
 
-            getTransferManager(configuration)
+            transferManager.get()
                 .upload(request)
                 .waitForUploadResult();
         }
 
         private void createBucket(ObjectStorageBucketName bucketName, AwsS3AuthConfiguration configuration) {
-            getS3Client(configuration, getClientConfiguration())
+            s3Client.get()
                 .createBucket(bucketName.asString());
         }
 
@@ -211,14 +209,16 @@ public class AwsS3ObjectStorage {
             return false;
         }
 
-        private TransferManager getTransferManager(AwsS3AuthConfiguration configuration) {
-            ClientConfiguration clientConfiguration = getClientConfiguration();
-            AmazonS3 amazonS3 = getS3Client(configuration, clientConfiguration);
-
+        /**
+         * Uploads above the multipart threshold are split into parts uploaded concurrently on the executor.
+         * The client and the transfer manager are shared across uploads, avoiding to rebuild a connection pool each time.
+         */
+        private static TransferManager getTransferManager(AmazonS3 amazonS3, AwsS3UploadConfiguration uploadConfiguration, ExecutorService executorService) {
             return TransferManagerBuilder
                     .standard()
                     .withS3Client(amazonS3)
-                    .withMultipartUploadThreshold(MULTIPART_UPLOAD_THRESHOLD.getValue())
+                    .withMultipartUploadThreshold(uploadConfiguration.getMultipartThreshold())
+                    .withMinimumUploadPartSize(uploadConfiguration.getPartSize())
                     .withExecutorFactory(() -> executorService)
                     .withShutDownThreadPools(DO_NOT_SHUTDOWN_THREAD_POOL)
                     .build();
@@ -0,0 +1,138 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.blob.objectstorage.aws;
+
+import java.util.Objects;
+import java.util.Optional;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+
+/**
+ * Tunes how blobs are uploaded to S3: blobs bigger than the multipart threshold are split into parts of partSize bytes
+ * which are uploaded in parallel, using up to parallelism concurrent connections.
+ */
+public class AwsS3UploadConfiguration {
+    // S3 rejects parts smaller than 5MB, but the last one
+    public static final long MINIMUM_PART_SIZE = 5 * 1024 * 1024;
+    public static final long DEFAULT_PART_SIZE = 5 * 1024 * 1024;
+    public static final long DEFAULT_MULTIPART_THRESHOLD = 5 * 1024 * 1024;
+    public static final int DEFAULT_PARALLELISM = 5;
+
+    public static final AwsS3UploadConfiguration DEFAULT = builder().build();
+
+    public static class Builder {
+        private Optional<Long> partSize = Optional.empty();
+        private Optional<Long> multipartThreshold = Optional.empty();
+        private Optional<Integer> parallelism = Optional.empty();
+
+        public Builder partSize(long value) {
+            Preconditions.checkArgument(value >= MINIMUM_PART_SIZE, "partSize needs to be at least " + MINIMUM_PART_SIZE + " bytes");
+            this.partSize = Optional.of(value);
+            return this;
+        }
+
+        public Builder multipartThreshold(long value) {
+            Preconditions.checkArgument(value > 0, "multipartThreshold needs to be strictly positive");
+            this.multipartThreshold = Optional.of(value);
+            return this;
+        }
+
+        public Builder parallelism(int value) {
+            Preconditions.checkArgument(value > 0, "parallelism needs to be strictly positive");
+            this.parallelism = Optional.of(value);
+            return this;
+        }
+
+        public Builder partSize(Optional<Long> value) {
+            value.ifPresent(this::partSize);
+            return this;
+        }
+
+        public Builder multipartThreshold(Optional<Long> value) {
+            value.ifPresent(this::multipartThreshold);
+            return this;
+        }
+
+        public Builder parallelism(Optional<Integer> value) {
+            value.ifPresent(this::parallelism);
+            return this;
+        }
+
+        public AwsS3UploadConfiguration build() {
+            return new AwsS3UploadConfiguration(
+                partSize.orElse(DEFAULT_PART_SIZE),
+                multipartThreshold.orElse(DEFAULT_MULTIPART_THRESHOLD),
+                parallelism.orElse(DEFAULT_PARALLELISM));
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    private final long partSize;
+    private final long multipartThreshold;
+    private final int parallelism;
+
+    private AwsS3UploadConfiguration(long partSize, long multipartThreshold, int parallelism) {
+        this.partSize = partSize;
+        this.multipartThreshold = multipartThreshold;
+        this.parallelism = parallelism;
+    }
+
+    public long getPartSize() {
+        return partSize;
+    }
+
+    public long getMultipartThreshold() {
+        return multipartThreshold;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    @Override
+    public final boolean equals(Object o) {
+        if (o instanceof AwsS3UploadConfiguration) {
+            AwsS3UploadConfiguration that = (AwsS3UploadConfiguration) o;
+
+            return Objects.equals(this.partSize, that.partSize)
+                && Objects.equals(this.multipartThreshold, that.multipartThreshold)
+                && Objects.equals(this.parallelism, that.parallelism);
+        }
+        return false;
+    }
+
+    @Override
+    public final int hashCode() {
+        return Objects.hash(partSize, multipartThreshold, parallelism);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+            .add("partSize", partSize)
+            .add("multipartThreshold", multipartThreshold)
+            .add("parallelism", parallelism)
+            .toString();
+    }
+}
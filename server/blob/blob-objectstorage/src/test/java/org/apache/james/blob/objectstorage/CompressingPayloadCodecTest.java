@@ -0,0 +1,90 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.blob.objectstorage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.james.blob.api.BlobCompressor;
+import org.apache.james.blob.api.CompressionAlgorithm;
+import org.apache.james.blob.api.CompressionConfiguration;
+import org.apache.james.blob.objectstorage.crypto.CryptoConfig;
+import org.apache.james.metrics.api.NoopMetricFactory;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.base.Strings;
+
+class CompressingPayloadCodecTest implements PayloadCodecContract {
+    private static final byte[] TEXT = Strings.repeat("Mail bodies are mostly text. ", 200).getBytes(StandardCharsets.UTF_8);
+    private static final BlobCompressor COMPRESSOR = new BlobCompressor(
+        CompressionConfiguration.builder().algorithm(CompressionAlgorithm.LZ4).build(),
+        new NoopMetricFactory());
+
+    @Override
+    public PayloadCodec codec() {
+        return new CompressingPayloadCodec(COMPRESSOR, new DefaultPayloadCodec());
+    }
+
+    @Test
+    void writeShouldCompressPayload() throws Exception {
+        Payload payload = codec().write(new ByteArrayInputStream(TEXT));
+
+        assertThat(IOUtils.toByteArray(payload.getPayload().openStream()).length).isLessThan(TEXT.length / 3);
+    }
+
+    @Test
+    void readShouldDecompressBytesPayload() throws Exception {
+        PayloadCodec codec = codec();
+
+        assertThat(codec.read(codec.write(TEXT))).hasSameContentAs(new ByteArrayInputStream(TEXT));
+    }
+
+    @Test
+    void readShouldDecompressPayloadOnceCompressionIsDisabled() throws Exception {
+        Payload payload = codec().write(TEXT);
+        PayloadCodec disabledCodec = new CompressingPayloadCodec(
+            new BlobCompressor(CompressionConfiguration.DISABLED, new NoopMetricFactory()),
+            new DefaultPayloadCodec());
+
+        assertThat(disabledCodec.read(payload)).hasSameContentAs(new ByteArrayInputStream(TEXT));
+    }
+
+    @Nested
+    class ChainedWithEncryption implements PayloadCodecContract {
+        @Override
+        public PayloadCodec codec() {
+            return new CompressingPayloadCodec(COMPRESSOR, new AESPayloadCodec(
+                new CryptoConfig(
+                    "c603a7327ee3dcbc031d8d34b1096c605feca5e1",
+                    "foobar".toCharArray())));
+        }
+
+        @Test
+        void readShouldDecompressEncryptedPayload() throws Exception {
+            PayloadCodec codec = codec();
+
+            assertThat(codec.read(codec.write(new ByteArrayInputStream(TEXT)))).hasSameContentAs(new ByteArrayInputStream(TEXT));
+        }
+    }
+}
@@ -173,6 +173,19 @@ public class ObjectStorageBlobsDAOTest implements MetricableBlobStoreContract {
             .isEmpty();
     }
 
+    @Test
+    void saveBytesShouldNotUploadAgainWhenBlobIsAlreadyStored() throws IOException {
+        BlobId blobId = objectStorageBlobsDAO.save(defaultBucketName, "content").block();
+        blobStore.putBlob(defaultBucketName.asString(), blobStore.blobBuilder(blobId.asString())
+            .payload("previously stored")
+            .build());
+
+        objectStorageBlobsDAO.save(defaultBucketName, "content").block();
+
+        assertThat(IOUtils.toString(objectStorageBlobsDAO.read(defaultBucketName, blobId), StandardCharsets.UTF_8))
+            .isEqualTo("previously stored");
+    }
+
     @Test
     void saveBytesShouldNotCompleteWhenDoesNotAwait() {
         // String need to be big enough to get async thread busy hence could not return result instantly
@@ -0,0 +1,90 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.blob.union;
+
+import org.apache.james.blob.api.BlobId;
+import org.apache.james.blob.api.BlobStore;
+import org.apache.james.blob.api.BucketName;
+import org.apache.james.blob.api.ObjectStoreException;
+import org.apache.james.metrics.api.Metric;
+import org.apache.james.metrics.api.MetricFactory;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Copies blobs from the legacy {@link BlobStore} to the current one.
+ *
+ * Blob ids are derived from the content, thus a copied blob keeps its id and copying is idempotent.
+ *
+ * A blob might be deleted while being copied. {@link UnionBlobStore} deletes the legacy blob before the current one,
+ * hence the copy is deleted when the legacy blob no longer exists once copied.
+ */
+public class BlobMigrator {
+    public static final String COPIED_METRIC_NAME = "unionBlobStore:migration:copied";
+    public static final String FAILED_METRIC_NAME = "unionBlobStore:migration:failed";
+
+    private final BlobStore currentBlobStore;
+    private final BlobStore legacyBlobStore;
+    private final Metric copiedMetric;
+    private final Metric failedMetric;
+
+    public BlobMigrator(BlobStore currentBlobStore, BlobStore legacyBlobStore, MetricFactory metricFactory) {
+        this.currentBlobStore = currentBlobStore;
+        this.legacyBlobStore = legacyBlobStore;
+        this.copiedMetric = metricFactory.generate(COPIED_METRIC_NAME);
+        this.failedMetric = metricFactory.generate(FAILED_METRIC_NAME);
+    }
+
+    public Mono<Void> migrate(BucketName bucketName, BlobId blobId) {
+        return Mono.defer(() -> legacyBlobStore.readBytes(bucketName, blobId))
+            .doOnError(e -> failedMetric.increment())
+            .flatMap(data -> migrate(bucketName, blobId, data));
+    }
+
+    Mono<Void> migrate(BucketName bucketName, BlobId blobId, byte[] data) {
+        return Mono.defer(() -> currentBlobStore.save(bucketName, data))
+            .flatMap(savedBlobId -> checkSameBlobId(blobId, savedBlobId))
+            .flatMap(savedBlobId -> deleteCopyWhenLegacyWasDeleted(bucketName, savedBlobId))
+            .doOnError(e -> failedMetric.increment());
+    }
+
+    public Mono<Boolean> isMigrated(BucketName bucketName, BlobId blobId) {
+        return Mono.defer(() -> currentBlobStore.exists(bucketName, blobId));
+    }
+
+    private Mono<Void> deleteCopyWhenLegacyWasDeleted(BucketName bucketName, BlobId blobId) {
+        return legacyBlobStore.exists(bucketName, blobId)
+            .flatMap(legacyStillExists -> {
+                if (legacyStillExists) {
+                    return Mono.fromRunnable(copiedMetric::increment);
+                }
+                return currentBlobStore.delete(bucketName, blobId);
+            })
+            .then();
+    }
+
+    private Mono<BlobId> checkSameBlobId(BlobId expectedBlobId, BlobId savedBlobId) {
+        if (!expectedBlobId.equals(savedBlobId)) {
+            return Mono.error(new ObjectStoreException(String.format("Blob %s was copied as %s, current and legacy blob stores need to share the same blob ids",
+                expectedBlobId.asString(), savedBlobId.asString())));
+        }
+        return Mono.just(savedBlobId);
+    }
+}
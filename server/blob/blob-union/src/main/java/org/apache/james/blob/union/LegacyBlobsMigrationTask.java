@@ -0,0 +1,140 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.blob.union;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.james.blob.api.BlobId;
+import org.apache.james.blob.api.BucketName;
+import org.apache.james.blob.api.ListableBlobStore;
+import org.apache.james.task.Task;
+import org.apache.james.task.TaskExecutionDetails;
+import org.apache.james.task.TaskType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Preconditions;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Copies all the blobs of a bucket from the legacy blob store to the current one, so that reading them no longer
+ * requires a lookup in both blob stores.
+ *
+ * Blobs are kept in the legacy blob store. Blobs already in the current blob store are skipped.
+ */
+public class LegacyBlobsMigrationTask implements Task {
+    public static final TaskType TYPE = TaskType.of("legacyBlobsMigration");
+    public static final int DEFAULT_PARALLELISM = 4;
+
+    public static class AdditionalInformation implements TaskExecutionDetails.AdditionalInformation {
+        private final String bucketName;
+        private final int parallelism;
+        private final long migratedBlobCount;
+        private final long failedBlobCount;
+
+        public AdditionalInformation(String bucketName, int parallelism, long migratedBlobCount, long failedBlobCount) {
+            this.bucketName = bucketName;
+            this.parallelism = parallelism;
+            this.migratedBlobCount = migratedBlobCount;
+            this.failedBlobCount = failedBlobCount;
+        }
+
+        public String getBucketName() {
+            return bucketName;
+        }
+
+        public int getParallelism() {
+            return parallelism;
+        }
+
+        public long getMigratedBlobCount() {
+            return migratedBlobCount;
+        }
+
+        public long getFailedBlobCount() {
+            return failedBlobCount;
+        }
+    }
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LegacyBlobsMigrationTask.class);
+
+    private final BlobMigrator migrator;
+    private final ListableBlobStore legacyBlobStore;
+    private final BucketName bucketName;
+    private final int parallelism;
+    private final AtomicLong migratedBlobCount;
+    private final AtomicLong failedBlobCount;
+
+    public LegacyBlobsMigrationTask(BlobMigrator migrator, ListableBlobStore legacyBlobStore, BucketName bucketName, int parallelism) {
+        Preconditions.checkArgument(parallelism > 0, "parallelism needs to be strictly positive");
+
+        this.migrator = migrator;
+        this.legacyBlobStore = legacyBlobStore;
+        this.bucketName = bucketName;
+        this.parallelism = parallelism;
+        this.migratedBlobCount = new AtomicLong(0);
+        this.failedBlobCount = new AtomicLong(0);
+    }
+
+    @Override
+    public Result run() {
+        return legacyBlobStore.listBlobs(bucketName)
+            .flatMap(this::migrate, parallelism)
+            .reduce(Result.COMPLETED, Task::combine)
+            .onErrorResume(e -> {
+                LOGGER.error("Error while listing legacy blobs of bucket {}", bucketName.asString(), e);
+                return Mono.just(Result.PARTIAL);
+            })
+            .block();
+    }
+
+    private Mono<Result> migrate(BlobId blobId) {
+        return migrator.isMigrated(bucketName, blobId)
+            .filter(isMigrated -> !isMigrated)
+            .flatMap(any -> migrator.migrate(bucketName, blobId)
+                .then(Mono.fromCallable(migratedBlobCount::incrementAndGet)))
+            .thenReturn(Result.COMPLETED)
+            .onErrorResume(e -> {
+                LOGGER.error("Error while migrating blob {} of bucket {}", blobId.asString(), bucketName.asString(), e);
+                failedBlobCount.incrementAndGet();
+                return Mono.just(Result.PARTIAL);
+            });
+    }
+
+    @Override
+    public TaskType type() {
+        return TYPE;
+    }
+
+    @Override
+    public Optional<TaskExecutionDetails.AdditionalInformation> details() {
+        return Optional.of(new AdditionalInformation(bucketName.asString(), parallelism, migratedBlobCount.get(), failedBlobCount.get()));
+    }
+
+    BucketName getBucketName() {
+        return bucketName;
+    }
+
+    int getParallelism() {
+        return parallelism;
+    }
+}
@@ -0,0 +1,94 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.blob.union;
+
+import org.apache.james.json.DTOModule;
+import org.apache.james.server.task.json.dto.AdditionalInformationDTO;
+import org.apache.james.server.task.json.dto.AdditionalInformationDTOModule;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public class LegacyBlobsMigrationTaskAdditionalInformationDTO implements AdditionalInformationDTO {
+
+    private static LegacyBlobsMigrationTaskAdditionalInformationDTO fromDomainObject(LegacyBlobsMigrationTask.AdditionalInformation additionalInformation, String type) {
+        return new LegacyBlobsMigrationTaskAdditionalInformationDTO(
+            type,
+            additionalInformation.getBucketName(),
+            additionalInformation.getParallelism(),
+            additionalInformation.getMigratedBlobCount(),
+            additionalInformation.getFailedBlobCount());
+    }
+
+    public static final AdditionalInformationDTOModule<LegacyBlobsMigrationTask.AdditionalInformation, LegacyBlobsMigrationTaskAdditionalInformationDTO> MODULE =
+        DTOModule
+            .forDomainObject(LegacyBlobsMigrationTask.AdditionalInformation.class)
+            .convertToDTO(LegacyBlobsMigrationTaskAdditionalInformationDTO.class)
+            .toDomainObjectConverter(LegacyBlobsMigrationTaskAdditionalInformationDTO::toDomainObject)
+            .toDTOConverter(LegacyBlobsMigrationTaskAdditionalInformationDTO::fromDomainObject)
+            .typeName(LegacyBlobsMigrationTask.TYPE.asString())
+            .withFactory(AdditionalInformationDTOModule::new);
+
+    private final String type;
+    private final String bucketName;
+    private final int parallelism;
+    private final long migratedBlobCount;
+    private final long failedBlobCount;
+
+    public LegacyBlobsMigrationTaskAdditionalInformationDTO(@JsonProperty("type") String type,
+                                                            @JsonProperty("bucketName") String bucketName,
+                                                            @JsonProperty("parallelism") int parallelism,
+                                                            @JsonProperty("migratedBlobCount") long migratedBlobCount,
+                                                            @JsonProperty("failedBlobCount") long failedBlobCount) {
+        this.type = type;
+        this.bucketName = bucketName;
+        this.parallelism = parallelism;
+        this.migratedBlobCount = migratedBlobCount;
+        this.failedBlobCount = failedBlobCount;
+    }
+
+    @Override
+    public String getType() {
+        return type;
+    }
+
+    public String getBucketName() {
+        return bucketName;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public long getMigratedBlobCount() {
+        return migratedBlobCount;
+    }
+
+    public long getFailedBlobCount() {
+        return failedBlobCount;
+    }
+
+    private LegacyBlobsMigrationTask.AdditionalInformation toDomainObject() {
+        return new LegacyBlobsMigrationTask.AdditionalInformation(
+            bucketName,
+            parallelism,
+            migratedBlobCount,
+            failedBlobCount);
+    }
+}
@@ -0,0 +1,75 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.blob.union;
+
+import java.util.function.BiFunction;
+
+import org.apache.james.blob.api.BucketName;
+import org.apache.james.blob.api.ListableBlobStore;
+import org.apache.james.json.DTOModule;
+import org.apache.james.server.task.json.dto.TaskDTO;
+import org.apache.james.server.task.json.dto.TaskDTOModule;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public class LegacyBlobsMigrationTaskDTO implements TaskDTO {
+
+    public static final BiFunction<BlobMigrator, ListableBlobStore, TaskDTOModule<LegacyBlobsMigrationTask, LegacyBlobsMigrationTaskDTO>> MODULE = (migrator, legacyBlobStore) ->
+        DTOModule
+            .forDomainObject(LegacyBlobsMigrationTask.class)
+            .convertToDTO(LegacyBlobsMigrationTaskDTO.class)
+            .toDomainObjectConverter(dto -> dto.fromDTO(migrator, legacyBlobStore))
+            .toDTOConverter(LegacyBlobsMigrationTaskDTO::toDTO)
+            .typeName(LegacyBlobsMigrationTask.TYPE.asString())
+            .withFactory(TaskDTOModule::new);
+
+    private static LegacyBlobsMigrationTaskDTO toDTO(LegacyBlobsMigrationTask domainObject, String typeName) {
+        return new LegacyBlobsMigrationTaskDTO(typeName, domainObject.getBucketName().asString(), domainObject.getParallelism());
+    }
+
+    private final String type;
+    private final String bucketName;
+    private final int parallelism;
+
+    public LegacyBlobsMigrationTaskDTO(@JsonProperty("type") String type,
+                                       @JsonProperty("bucketName") String bucketName,
+                                       @JsonProperty("parallelism") int parallelism) {
+        this.type = type;
+        this.bucketName = bucketName;
+        this.parallelism = parallelism;
+    }
+
+    private LegacyBlobsMigrationTask fromDTO(BlobMigrator migrator, ListableBlobStore legacyBlobStore) {
+        return new LegacyBlobsMigrationTask(migrator, legacyBlobStore, BucketName.of(bucketName), parallelism);
+    }
+
+    @Override
+    public String getType() {
+        return type;
+    }
+
+    public String getBucketName() {
+        return bucketName;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+}
@@ -0,0 +1,98 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.blob.union;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.james.blob.api.BlobId;
+import org.apache.james.blob.api.BucketName;
+import org.apache.james.metrics.api.Metric;
+import org.apache.james.metrics.api.MetricFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.util.concurrent.RateLimiter;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Copies blobs read from the legacy blob store to the current one, in the background, so that later reads are served
+ * by the current blob store.
+ *
+ * Copies are best effort: they are skipped when exceeding the configured rate or number of in flight copies, as well
+ * as when a copy of the same blob is already in flight. A skipped blob will be copied upon a later read.
+ */
+class ReadThroughMigration {
+    static final String DEDUPLICATED_METRIC_NAME = "unionBlobStore:readThrough:deduplicated";
+    static final String SKIPPED_METRIC_NAME = "unionBlobStore:readThrough:skipped";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReadThroughMigration.class);
+
+    private final BlobMigrator migrator;
+    private final ReadThroughMigrationConfiguration configuration;
+    private final RateLimiter rateLimiter;
+    private final Set<Pair<BucketName, BlobId>> inFlightCopies;
+    private final Metric deduplicatedMetric;
+    private final Metric skippedMetric;
+
+    ReadThroughMigration(BlobMigrator migrator, ReadThroughMigrationConfiguration configuration, MetricFactory metricFactory) {
+        this.migrator = migrator;
+        this.configuration = configuration;
+        this.rateLimiter = RateLimiter.create(configuration.getCopiesPerSecond());
+        this.inFlightCopies = ConcurrentHashMap.newKeySet();
+        this.deduplicatedMetric = metricFactory.generate(DEDUPLICATED_METRIC_NAME);
+        this.skippedMetric = metricFactory.generate(SKIPPED_METRIC_NAME);
+    }
+
+    void copyInBackground(BucketName bucketName, BlobId blobId) {
+        copyInBackground(bucketName, blobId, () -> migrator.migrate(bucketName, blobId));
+    }
+
+    void copyInBackground(BucketName bucketName, BlobId blobId, byte[] data) {
+        copyInBackground(bucketName, blobId, () -> migrator.migrate(bucketName, blobId, data));
+    }
+
+    private void copyInBackground(BucketName bucketName, BlobId blobId, Supplier<Mono<Void>> copy) {
+        Pair<BucketName, BlobId> key = Pair.of(bucketName, blobId);
+        if (inFlightCopies.contains(key)) {
+            deduplicatedMetric.increment();
+            return;
+        }
+        if (inFlightCopies.size() >= configuration.getMaxInFlightCopies() || !rateLimiter.tryAcquire()) {
+            skippedMetric.increment();
+            return;
+        }
+        if (!inFlightCopies.add(key)) {
+            deduplicatedMetric.increment();
+            return;
+        }
+
+        Mono.defer(copy)
+            .subscribeOn(Schedulers.boundedElastic())
+            .doFinally(any -> inFlightCopies.remove(key))
+            .subscribe(
+                any -> { },
+                e -> LOGGER.warn("Failed copying blob {} of bucket {} to the current blob store", blobId.asString(), bucketName.asString(), e));
+    }
+}
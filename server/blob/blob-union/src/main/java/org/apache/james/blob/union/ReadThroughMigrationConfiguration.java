@@ -0,0 +1,116 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.blob.union;
+
+import java.util.Objects;
+import java.util.Optional;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+
+public class ReadThroughMigrationConfiguration {
+    public static final int DEFAULT_COPIES_PER_SECOND = 100;
+    public static final int DEFAULT_MAX_IN_FLIGHT_COPIES = 64;
+
+    public static final ReadThroughMigrationConfiguration DEFAULT = builder().build();
+
+    public static class Builder {
+        private Optional<Integer> copiesPerSecond = Optional.empty();
+        private Optional<Integer> maxInFlightCopies = Optional.empty();
+
+        public Builder copiesPerSecond(int value) {
+            Preconditions.checkArgument(value > 0, "copiesPerSecond needs to be strictly positive");
+            this.copiesPerSecond = Optional.of(value);
+            return this;
+        }
+
+        public Builder copiesPerSecond(Optional<Integer> value) {
+            value.ifPresent(this::copiesPerSecond);
+            return this;
+        }
+
+        public Builder maxInFlightCopies(int value) {
+            Preconditions.checkArgument(value > 0, "maxInFlightCopies needs to be strictly positive");
+            this.maxInFlightCopies = Optional.of(value);
+            return this;
+        }
+
+        public Builder maxInFlightCopies(Optional<Integer> value) {
+            value.ifPresent(this::maxInFlightCopies);
+            return this;
+        }
+
+        public ReadThroughMigrationConfiguration build() {
+            return new ReadThroughMigrationConfiguration(
+                copiesPerSecond.orElse(DEFAULT_COPIES_PER_SECOND),
+                maxInFlightCopies.orElse(DEFAULT_MAX_IN_FLIGHT_COPIES));
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    private final int copiesPerSecond;
+    private final int maxInFlightCopies;
+
+    private ReadThroughMigrationConfiguration(int copiesPerSecond, int maxInFlightCopies) {
+        this.copiesPerSecond = copiesPerSecond;
+        this.maxInFlightCopies = maxInFlightCopies;
+    }
+
+    /**
+     * Copies exceeding this rate are skipped: the blob will be copied upon a later read.
+     */
+    public int getCopiesPerSecond() {
+        return copiesPerSecond;
+    }
+
+    /**
+     * Copies are skipped while this many copies are still being performed.
+     */
+    public int getMaxInFlightCopies() {
+        return maxInFlightCopies;
+    }
+
+    @Override
+    public final boolean equals(Object o) {
+        if (o instanceof ReadThroughMigrationConfiguration) {
+            ReadThroughMigrationConfiguration that = (ReadThroughMigrationConfiguration) o;
+
+            return Objects.equals(this.copiesPerSecond, that.copiesPerSecond)
+                && Objects.equals(this.maxInFlightCopies, that.maxInFlightCopies);
+        }
+        return false;
+    }
+
+    @Override
+    public final int hashCode() {
+        return Objects.hash(copiesPerSecond, maxInFlightCopies);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+            .add("copiesPerSecond", copiesPerSecond)
+            .add("maxInFlightCopies", maxInFlightCopies)
+            .toString();
+    }
+}
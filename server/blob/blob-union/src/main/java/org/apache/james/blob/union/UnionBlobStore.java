@@ -22,6 +22,7 @@ package org.apache.james.blob.union;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.PushbackInputStream;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.function.BiFunction;
 import java.util.function.Function;
@@ -29,6 +30,7 @@ import java.util.function.Function;
 import org.apache.james.blob.api.BlobId;
 import org.apache.james.blob.api.BlobStore;
 import org.apache.james.blob.api.BucketName;
+import org.apache.james.metrics.api.MetricFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -54,16 +56,31 @@ public class UnionBlobStore implements BlobStore {
     public static class Builder {
         private final BlobStore currentBlobStore;
         private final BlobStore legacyBlobStore;
+        private Optional<ReadThroughMigration> readThroughMigration;
 
         Builder(BlobStore currentBlobStore, BlobStore legacyBlobStore) {
             this.currentBlobStore = currentBlobStore;
             this.legacyBlobStore = legacyBlobStore;
+            this.readThroughMigration = Optional.empty();
+        }
+
+        /**
+         * Blobs successfully read from the legacy blob store are then copied to the current one in the background.
+         */
+        public Builder readThroughMigration(ReadThroughMigrationConfiguration configuration, MetricFactory metricFactory) {
+            Preconditions.checkNotNull(configuration);
+            Preconditions.checkNotNull(metricFactory);
+
+            BlobMigrator migrator = new BlobMigrator(currentBlobStore, legacyBlobStore, metricFactory);
+            this.readThroughMigration = Optional.of(new ReadThroughMigration(migrator, configuration, metricFactory));
+            return this;
         }
 
         public UnionBlobStore build() {
             return new UnionBlobStore(
                 currentBlobStore,
-                legacyBlobStore);
+                legacyBlobStore,
+                readThroughMigration);
         }
     }
 
@@ -76,10 +93,12 @@ public class UnionBlobStore implements BlobStore {
 
     private final BlobStore currentBlobStore;
     private final BlobStore legacyBlobStore;
+    private final Optional<ReadThroughMigration> readThroughMigration;
 
-    private UnionBlobStore(BlobStore currentBlobStore, BlobStore legacyBlobStore) {
+    private UnionBlobStore(BlobStore currentBlobStore, BlobStore legacyBlobStore, Optional<ReadThroughMigration> readThroughMigration) {
         this.currentBlobStore = currentBlobStore;
         this.legacyBlobStore = legacyBlobStore;
+        this.readThroughMigration = readThroughMigration;
     }
 
     @Override
@@ -135,7 +154,7 @@ public class UnionBlobStore implements BlobStore {
             return readBytesFallBackIfFailsOrEmptyResult(bucketName, blobId);
         } catch (Exception e) {
             LOGGER.error("exception directly happens while readBytes, fall back to legacy blob store", e);
-            return Mono.defer(() -> legacyBlobStore.readBytes(bucketName, blobId));
+            return Mono.defer(() -> readBytesFromLegacy(bucketName, blobId));
         }
     }
 
@@ -145,30 +164,76 @@ public class UnionBlobStore implements BlobStore {
             return readFallBackIfEmptyResult(bucketName, blobId);
         } catch (Exception e) {
             LOGGER.error("exception directly happens while read, fall back to legacy blob store", e);
-            return legacyBlobStore.read(bucketName, blobId);
+            return readFromLegacy(bucketName, blobId);
+        }
+    }
+
+    @Override
+    public InputStream read(BucketName bucketName, BlobId blobId, long offset, long length) {
+        try {
+            return currentBlobStore.read(bucketName, blobId, offset, length);
+        } catch (IllegalArgumentException e) {
+            throw e;
+        } catch (Exception e) {
+            LOGGER.debug("exception happens while reading a range from current blob store, fall back to legacy blob store", e);
+            InputStream legacyData = legacyBlobStore.read(bucketName, blobId, offset, length);
+            readThroughMigration.ifPresent(migration -> migration.copyInBackground(bucketName, blobId));
+            return legacyData;
         }
     }
 
+    /**
+     * Deletions remove the legacy data before the current one, so that a blob being concurrently copied by a migration
+     * can not be recreated in the current blob store. See {@link BlobMigrator}.
+     */
     @Override
     public Mono<Void> deleteBucket(BucketName bucketName) {
-        return Mono.defer(() -> currentBlobStore.deleteBucket(bucketName))
-            .and(legacyBlobStore.deleteBucket(bucketName))
-            .onErrorResume(this::logDeleteFailureAndReturnEmpty);
+        return deleteLegacyThenCurrent(
+            legacyBlobStore.deleteBucket(bucketName),
+            Mono.defer(() -> currentBlobStore.deleteBucket(bucketName)));
     }
 
     @Override
     public Mono<Void> delete(BucketName bucketName, BlobId blobId) {
-        return Mono.defer(() -> currentBlobStore.delete(bucketName, blobId))
-            .and(legacyBlobStore.delete(bucketName, blobId))
+        return deleteLegacyThenCurrent(
+            legacyBlobStore.delete(bucketName, blobId),
+            Mono.defer(() -> currentBlobStore.delete(bucketName, blobId)));
+    }
+
+    @Override
+    public Mono<Void> delete(BucketName bucketName, Collection<BlobId> blobIds) {
+        return deleteLegacyThenCurrent(
+            legacyBlobStore.delete(bucketName, blobIds),
+            Mono.defer(() -> currentBlobStore.delete(bucketName, blobIds)));
+    }
+
+    private Mono<Void> deleteLegacyThenCurrent(Mono<Void> legacyDelete, Mono<Void> currentDelete) {
+        return legacyDelete
+            .onErrorResume(this::logDeleteFailureAndReturnEmpty)
+            .then(currentDelete)
             .onErrorResume(this::logDeleteFailureAndReturnEmpty);
     }
 
+    @Override
+    public Mono<Boolean> exists(BucketName bucketName, BlobId blobId) {
+        return Mono.defer(() -> currentBlobStore.exists(bucketName, blobId))
+            .onErrorResume(this::logAndReturnEmpty)
+            .filter(Boolean::booleanValue)
+            .switchIfEmpty(Mono.defer(() -> legacyBlobStore.exists(bucketName, blobId)));
+    }
+
     private InputStream readFallBackIfEmptyResult(BucketName bucketName, BlobId blobId) {
         return Optional.ofNullable(currentBlobStore.read(bucketName, blobId))
             .map(PushbackInputStream::new)
             .filter(Throwing.predicate(this::streamHasContent).sneakyThrow())
             .<InputStream>map(Function.identity())
-            .orElseGet(() -> legacyBlobStore.read(bucketName, blobId));
+            .orElseGet(() -> readFromLegacy(bucketName, blobId));
+    }
+
+    private InputStream readFromLegacy(BucketName bucketName, BlobId blobId) {
+        InputStream legacyData = legacyBlobStore.read(bucketName, blobId);
+        readThroughMigration.ifPresent(migration -> migration.copyInBackground(bucketName, blobId));
+        return legacyData;
     }
 
     @VisibleForTesting
@@ -184,7 +249,12 @@ public class UnionBlobStore implements BlobStore {
     private Mono<byte[]> readBytesFallBackIfFailsOrEmptyResult(BucketName bucketName, BlobId blobId) {
         return Mono.defer(() -> currentBlobStore.readBytes(bucketName, blobId))
             .onErrorResume(this::logAndReturnEmpty)
-            .switchIfEmpty(legacyBlobStore.readBytes(bucketName, blobId));
+            .switchIfEmpty(readBytesFromLegacy(bucketName, blobId));
+    }
+
+    private Mono<byte[]> readBytesFromLegacy(BucketName bucketName, BlobId blobId) {
+        return legacyBlobStore.readBytes(bucketName, blobId)
+            .doOnNext(data -> readThroughMigration.ifPresent(migration -> migration.copyInBackground(bucketName, blobId, data)));
     }
 
     private <T> Mono<BlobId> saveToCurrentFallbackIfFails(
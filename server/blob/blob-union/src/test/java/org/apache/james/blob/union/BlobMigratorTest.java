@@ -0,0 +1,100 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.blob.union;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+
+import org.apache.james.blob.api.BlobId;
+import org.apache.james.blob.api.BucketName;
+import org.apache.james.blob.api.HashBlobId;
+import org.apache.james.blob.memory.MemoryBlobStore;
+import org.apache.james.metrics.tests.RecordingMetricFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import reactor.core.publisher.Mono;
+
+class BlobMigratorTest {
+    private static final HashBlobId.Factory BLOB_ID_FACTORY = new HashBlobId.Factory();
+    private static final BucketName CUSTOM = BucketName.of("custom");
+
+    private MemoryBlobStore currentBlobStore;
+    private MemoryBlobStore legacyBlobStore;
+    private RecordingMetricFactory metricFactory;
+    private BlobMigrator testee;
+
+    @BeforeEach
+    void setUp() {
+        currentBlobStore = new MemoryBlobStore(BLOB_ID_FACTORY);
+        legacyBlobStore = new MemoryBlobStore(BLOB_ID_FACTORY);
+        metricFactory = new RecordingMetricFactory();
+        testee = new BlobMigrator(currentBlobStore, legacyBlobStore, metricFactory);
+    }
+
+    @Test
+    void migrateShouldCopyTheLegacyBlob() {
+        BlobId blobId = legacyBlobStore.save(CUSTOM, "content").block();
+
+        testee.migrate(CUSTOM, blobId).block();
+
+        assertThat(currentBlobStore.readBytes(CUSTOM, blobId).block())
+            .isEqualTo("content".getBytes(StandardCharsets.UTF_8));
+        assertThat(metricFactory.countFor(BlobMigrator.COPIED_METRIC_NAME))
+            .isEqualTo(1);
+    }
+
+    @Test
+    void migrateShouldNotRecreateABlobDeletedWhileBeingCopied() {
+        BlobId blobId = legacyBlobStore.save(CUSTOM, "content").block();
+        MemoryBlobStore currentBlobStore = new MemoryBlobStore(BLOB_ID_FACTORY) {
+            @Override
+            public Mono<BlobId> save(BucketName bucketName, byte[] data) {
+                return legacyBlobStore.delete(bucketName, blobId)
+                    .then(super.save(bucketName, data));
+            }
+        };
+
+        new BlobMigrator(currentBlobStore, legacyBlobStore, metricFactory).migrate(CUSTOM, blobId).block();
+
+        assertThat(currentBlobStore.exists(CUSTOM, blobId).block())
+            .isFalse();
+        assertThat(metricFactory.countFor(BlobMigrator.COPIED_METRIC_NAME))
+            .isEqualTo(0);
+    }
+
+    @Test
+    void isMigratedShouldReturnFalseWhenOnlyInLegacy() {
+        BlobId blobId = legacyBlobStore.save(CUSTOM, "content").block();
+
+        assertThat(testee.isMigrated(CUSTOM, blobId).block())
+            .isFalse();
+    }
+
+    @Test
+    void isMigratedShouldReturnTrueWhenInCurrent() {
+        BlobId blobId = legacyBlobStore.save(CUSTOM, "content").block();
+        currentBlobStore.save(CUSTOM, "content").block();
+
+        assertThat(testee.isMigrated(CUSTOM, blobId).block())
+            .isTrue();
+    }
+}
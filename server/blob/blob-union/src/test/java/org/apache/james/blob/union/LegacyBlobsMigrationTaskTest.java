@@ -0,0 +1,172 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.blob.union;
+
+import static net.javacrumbs.jsonunit.assertj.JsonAssertions.assertThatJson;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.apache.james.blob.api.BlobId;
+import org.apache.james.blob.api.BucketName;
+import org.apache.james.blob.api.HashBlobId;
+import org.apache.james.blob.memory.MemoryBlobStore;
+import org.apache.james.metrics.tests.RecordingMetricFactory;
+import org.apache.james.server.task.json.JsonTaskAdditionalInformationsSerializer;
+import org.apache.james.server.task.json.JsonTaskSerializer;
+import org.apache.james.task.Task;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import reactor.core.publisher.Mono;
+
+class LegacyBlobsMigrationTaskTest {
+    private static final HashBlobId.Factory BLOB_ID_FACTORY = new HashBlobId.Factory();
+    private static final BucketName CUSTOM = BucketName.of("custom");
+    private static final String SERIALIZED_TASK = "{\"type\": \"legacyBlobsMigration\", \"bucketName\": \"custom\", \"parallelism\": 8}";
+    private static final String SERIALIZED_ADDITIONAL_INFORMATION = "{\"type\": \"legacyBlobsMigration\", \"bucketName\": \"custom\", \"parallelism\": 8, \"migratedBlobCount\": 42, \"failedBlobCount\": 2}";
+
+    private MemoryBlobStore currentBlobStore;
+    private MemoryBlobStore legacyBlobStore;
+    private BlobMigrator migrator;
+
+    @BeforeEach
+    void setUp() {
+        currentBlobStore = new MemoryBlobStore(BLOB_ID_FACTORY);
+        legacyBlobStore = new MemoryBlobStore(BLOB_ID_FACTORY);
+        migrator = new BlobMigrator(currentBlobStore, legacyBlobStore, new RecordingMetricFactory());
+    }
+
+    @Test
+    void runShouldCopyAllLegacyBlobsOfTheBucket() {
+        BlobId blobId1 = legacyBlobStore.save(CUSTOM, "content 1").block();
+        BlobId blobId2 = legacyBlobStore.save(CUSTOM, "content 2").block();
+
+        Task.Result result = new LegacyBlobsMigrationTask(migrator, legacyBlobStore, CUSTOM, 2).run();
+
+        assertThat(result).isEqualTo(Task.Result.COMPLETED);
+        assertThat(currentBlobStore.listBlobs(CUSTOM).collectList().block())
+            .containsOnly(blobId1, blobId2);
+    }
+
+    @Test
+    void runShouldSkipBlobsAlreadyInTheCurrentBlobStore() {
+        legacyBlobStore.save(CUSTOM, "content 1").block();
+        legacyBlobStore.save(CUSTOM, "content 2").block();
+        currentBlobStore.save(CUSTOM, "content 1").block();
+
+        LegacyBlobsMigrationTask task = new LegacyBlobsMigrationTask(migrator, legacyBlobStore, CUSTOM, 2);
+
+        assertThat(task.run()).isEqualTo(Task.Result.COMPLETED);
+        assertThat(task.details())
+            .hasValueSatisfying(details -> assertThat((LegacyBlobsMigrationTask.AdditionalInformation) details)
+                .isEqualToComparingFieldByField(new LegacyBlobsMigrationTask.AdditionalInformation("custom", 2, 1, 0)));
+    }
+
+    @Test
+    void runShouldNotCopyBlobsOfOtherBuckets() {
+        legacyBlobStore.save(BucketName.DEFAULT, "content").block();
+
+        new LegacyBlobsMigrationTask(migrator, legacyBlobStore, CUSTOM, 2).run();
+
+        assertThat(currentBlobStore.listBlobs(BucketName.DEFAULT).collectList().block())
+            .isEmpty();
+    }
+
+    @Test
+    void runShouldKeepLegacyBlobs() {
+        BlobId blobId = legacyBlobStore.save(CUSTOM, "content").block();
+
+        new LegacyBlobsMigrationTask(migrator, legacyBlobStore, CUSTOM, 2).run();
+
+        assertThat(legacyBlobStore.listBlobs(CUSTOM).collectList().block())
+            .containsExactly(blobId);
+    }
+
+    @Test
+    void detailsShouldCountMigratedBlobs() {
+        legacyBlobStore.save(CUSTOM, "content 1").block();
+        legacyBlobStore.save(CUSTOM, "content 2").block();
+
+        LegacyBlobsMigrationTask task = new LegacyBlobsMigrationTask(migrator, legacyBlobStore, CUSTOM, 2);
+        task.run();
+
+        assertThat(task.details())
+            .hasValueSatisfying(details -> assertThat((LegacyBlobsMigrationTask.AdditionalInformation) details)
+                .isEqualToComparingFieldByField(new LegacyBlobsMigrationTask.AdditionalInformation("custom", 2, 2, 0)));
+    }
+
+    @Test
+    void runShouldBePartialWhenSomeCopiesFail() {
+        MemoryBlobStore failingBlobStore = new MemoryBlobStore(BLOB_ID_FACTORY) {
+            @Override
+            public Mono<BlobId> save(BucketName bucketName, byte[] data) {
+                return Mono.error(new RuntimeException("broken"));
+            }
+        };
+        legacyBlobStore.save(CUSTOM, "content").block();
+
+        LegacyBlobsMigrationTask task = new LegacyBlobsMigrationTask(
+            new BlobMigrator(failingBlobStore, legacyBlobStore, new RecordingMetricFactory()), legacyBlobStore, CUSTOM, 2);
+
+        assertThat(task.run()).isEqualTo(Task.Result.PARTIAL);
+        assertThat(task.details())
+            .hasValueSatisfying(details -> assertThat(((LegacyBlobsMigrationTask.AdditionalInformation) details).getFailedBlobCount())
+                .isEqualTo(1));
+    }
+
+    @Test
+    void constructorShouldRejectNonPositiveParallelism() {
+        assertThatThrownBy(() -> new LegacyBlobsMigrationTask(migrator, legacyBlobStore, CUSTOM, 0))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void taskShouldBeSerializable() throws Exception {
+        JsonTaskSerializer serializer = new JsonTaskSerializer(LegacyBlobsMigrationTaskDTO.MODULE.apply(migrator, legacyBlobStore));
+
+        assertThatJson(serializer.serialize(new LegacyBlobsMigrationTask(migrator, legacyBlobStore, CUSTOM, 8)))
+            .isEqualTo(SERIALIZED_TASK);
+    }
+
+    @Test
+    void taskShouldBeDeserializable() throws Exception {
+        JsonTaskSerializer serializer = new JsonTaskSerializer(LegacyBlobsMigrationTaskDTO.MODULE.apply(migrator, legacyBlobStore));
+
+        assertThat(serializer.deserialize(SERIALIZED_TASK))
+            .isEqualToIgnoringGivenFields(new LegacyBlobsMigrationTask(migrator, legacyBlobStore, CUSTOM, 8),
+                "migratedBlobCount", "failedBlobCount");
+    }
+
+    @Test
+    void additionalInformationShouldBeSerializable() throws Exception {
+        JsonTaskAdditionalInformationsSerializer serializer = new JsonTaskAdditionalInformationsSerializer(LegacyBlobsMigrationTaskAdditionalInformationDTO.MODULE);
+
+        assertThatJson(serializer.serialize(new LegacyBlobsMigrationTask.AdditionalInformation("custom", 8, 42, 2)))
+            .isEqualTo(SERIALIZED_ADDITIONAL_INFORMATION);
+    }
+
+    @Test
+    void additionalInformationShouldBeDeserializable() throws Exception {
+        JsonTaskAdditionalInformationsSerializer serializer = new JsonTaskAdditionalInformationsSerializer(LegacyBlobsMigrationTaskAdditionalInformationDTO.MODULE);
+
+        assertThat(serializer.deserialize(SERIALIZED_ADDITIONAL_INFORMATION))
+            .isEqualToComparingFieldByField(new LegacyBlobsMigrationTask.AdditionalInformation("custom", 8, 42, 2));
+    }
+}
@@ -22,11 +22,14 @@ package org.apache.james.blob.union;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Duration.ONE_HUNDRED_MILLISECONDS;
+import static org.awaitility.Duration.TEN_SECONDS;
 
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.io.PushbackInputStream;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
 import java.util.stream.Stream;
 
@@ -37,8 +40,11 @@ import org.apache.james.blob.api.BucketName;
 import org.apache.james.blob.api.HashBlobId;
 import org.apache.james.blob.api.ObjectStoreException;
 import org.apache.james.blob.memory.MemoryBlobStore;
+import org.apache.james.metrics.tests.RecordingMetricFactory;
 import org.apache.james.util.StreamUtils;
 import org.assertj.core.api.SoftAssertions;
+import org.awaitility.Awaitility;
+import org.awaitility.core.ConditionFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -153,6 +159,11 @@ class UnionBlobStoreTest implements BlobStoreContract {
     }
 
     private static final HashBlobId.Factory BLOB_ID_FACTORY = new HashBlobId.Factory();
+    private static final ConditionFactory CALMLY_AWAIT = Awaitility
+        .with().pollInterval(ONE_HUNDRED_MILLISECONDS)
+        .and().pollDelay(ONE_HUNDRED_MILLISECONDS)
+        .await()
+        .atMost(TEN_SECONDS);
     private static final String STRING_CONTENT = "blob content";
     private static final byte [] BLOB_CONTENT = STRING_CONTENT.getBytes();
 
@@ -562,6 +573,114 @@ class UnionBlobStoreTest implements BlobStoreContract {
             .isInstanceOf(IllegalStateException.class);
     }
 
+    @Nested
+    class ReadThroughMigrationEnabled {
+        private RecordingMetricFactory metricFactory;
+
+        @BeforeEach
+        void setUp() {
+            metricFactory = new RecordingMetricFactory();
+        }
+
+        private UnionBlobStore withReadThroughMigration(BlobStore currentBlobStore, ReadThroughMigrationConfiguration configuration) {
+            return UnionBlobStore.builder()
+                .current(currentBlobStore)
+                .legacy(legacyBlobStore)
+                .readThroughMigration(configuration, metricFactory)
+                .build();
+        }
+
+        @Test
+        void readBytesShouldCopyLegacyBlobToCurrent() {
+            UnionBlobStore unionBlobStore = withReadThroughMigration(currentBlobStore, ReadThroughMigrationConfiguration.DEFAULT);
+            BlobId blobId = legacyBlobStore.save(BucketName.DEFAULT, BLOB_CONTENT).block();
+
+            unionBlobStore.readBytes(BucketName.DEFAULT, blobId).block();
+
+            CALMLY_AWAIT.untilAsserted(() -> {
+                assertThat(currentBlobStore.readBytes(BucketName.DEFAULT, blobId).block())
+                    .isEqualTo(BLOB_CONTENT);
+                assertThat(metricFactory.countFor(BlobMigrator.COPIED_METRIC_NAME)).isEqualTo(1);
+            });
+        }
+
+        @Test
+        void readShouldCopyLegacyBlobToCurrent() {
+            UnionBlobStore unionBlobStore = withReadThroughMigration(currentBlobStore, ReadThroughMigrationConfiguration.DEFAULT);
+            BlobId blobId = legacyBlobStore.save(BucketName.DEFAULT, BLOB_CONTENT).block();
+
+            assertThat(unionBlobStore.read(BucketName.DEFAULT, blobId))
+                .hasSameContentAs(new ByteArrayInputStream(BLOB_CONTENT));
+
+            CALMLY_AWAIT.untilAsserted(() -> assertThat(currentBlobStore.readBytes(BucketName.DEFAULT, blobId).block())
+                .isEqualTo(BLOB_CONTENT));
+        }
+
+        @Test
+        void readShouldNotCopyBlobsReadFromCurrent() {
+            UnionBlobStore unionBlobStore = withReadThroughMigration(currentBlobStore, ReadThroughMigrationConfiguration.DEFAULT);
+            BlobId blobId = currentBlobStore.save(BucketName.DEFAULT, BLOB_CONTENT).block();
+
+            unionBlobStore.readBytes(BucketName.DEFAULT, blobId).block();
+
+            assertThat(metricFactory.countFor(BlobMigrator.COPIED_METRIC_NAME)).isEqualTo(0);
+        }
+
+        @Test
+        void readShouldNotCopyWhenMigrationIsNotEnabled() {
+            BlobId blobId = legacyBlobStore.save(BucketName.DEFAULT, BLOB_CONTENT).block();
+
+            unionBlobStore.readBytes(BucketName.DEFAULT, blobId).block();
+
+            assertThatThrownBy(() -> currentBlobStore.readBytes(BucketName.DEFAULT, blobId).block())
+                .isInstanceOf(ObjectStoreException.class);
+        }
+
+        @Test
+        void copiesExceedingTheRateShouldBeSkipped() {
+            UnionBlobStore unionBlobStore = withReadThroughMigration(currentBlobStore, ReadThroughMigrationConfiguration.builder()
+                .copiesPerSecond(1)
+                .build());
+            BlobId blobId1 = legacyBlobStore.save(BucketName.DEFAULT, "content 1").block();
+            BlobId blobId2 = legacyBlobStore.save(BucketName.DEFAULT, "content 2").block();
+            BlobId blobId3 = legacyBlobStore.save(BucketName.DEFAULT, "content 3").block();
+
+            unionBlobStore.readBytes(BucketName.DEFAULT, blobId1).block();
+            unionBlobStore.readBytes(BucketName.DEFAULT, blobId2).block();
+            unionBlobStore.readBytes(BucketName.DEFAULT, blobId3).block();
+
+            assertThat(metricFactory.countFor(ReadThroughMigration.SKIPPED_METRIC_NAME)).isEqualTo(2);
+        }
+
+        @Test
+        void concurrentCopiesOfTheSameBlobShouldBeDeduplicated() {
+            MemoryBlobStore neverSavingBlobStore = new MemoryBlobStore(BLOB_ID_FACTORY) {
+                @Override
+                public Mono<BlobId> save(BucketName bucketName, byte[] data) {
+                    return Mono.never();
+                }
+            };
+            UnionBlobStore unionBlobStore = withReadThroughMigration(neverSavingBlobStore, ReadThroughMigrationConfiguration.DEFAULT);
+            BlobId blobId = legacyBlobStore.save(BucketName.DEFAULT, BLOB_CONTENT).block();
+
+            unionBlobStore.readBytes(BucketName.DEFAULT, blobId).block();
+            unionBlobStore.readBytes(BucketName.DEFAULT, blobId).block();
+
+            assertThat(metricFactory.countFor(ReadThroughMigration.DEDUPLICATED_METRIC_NAME)).isEqualTo(1);
+        }
+
+        @Test
+        void failedCopiesShouldBeRecorded() {
+            UnionBlobStore unionBlobStore = withReadThroughMigration(new FailingBlobStore(), ReadThroughMigrationConfiguration.DEFAULT);
+            BlobId blobId = legacyBlobStore.save(BucketName.DEFAULT, BLOB_CONTENT).block();
+
+            assertThat(unionBlobStore.readBytes(BucketName.DEFAULT, blobId).block())
+                .isEqualTo(BLOB_CONTENT);
+
+            CALMLY_AWAIT.untilAsserted(() -> assertThat(metricFactory.countFor(BlobMigrator.FAILED_METRIC_NAME)).isEqualTo(1));
+        }
+    }
+
     @Test
     void deleteShouldDeleteBothCurrentAndLegacyBlob() {
         BlobId legacyBlobId = legacyBlobStore.save(BucketName.DEFAULT, BLOB_CONTENT).block();
@@ -575,6 +694,28 @@ class UnionBlobStoreTest implements BlobStoreContract {
             .isInstanceOf(ObjectStoreException.class);
     }
 
+    @Test
+    void deleteShouldDeleteLegacyBlobBeforeCurrentOne() {
+        BlobId blobId = legacyBlobStore.save(BucketName.DEFAULT, BLOB_CONTENT).block();
+        AtomicBoolean legacyExistedUponCurrentDeletion = new AtomicBoolean(true);
+        MemoryBlobStore currentBlobStore = new MemoryBlobStore(BLOB_ID_FACTORY) {
+            @Override
+            public Mono<Void> delete(BucketName bucketName, BlobId blobId) {
+                return legacyBlobStore.exists(bucketName, blobId)
+                    .doOnNext(legacyExistedUponCurrentDeletion::set)
+                    .then(super.delete(bucketName, blobId));
+            }
+        };
+        UnionBlobStore unionBlobStore = UnionBlobStore.builder()
+            .current(currentBlobStore)
+            .legacy(legacyBlobStore)
+            .build();
+
+        unionBlobStore.delete(BucketName.DEFAULT, blobId).block();
+
+        assertThat(legacyExistedUponCurrentDeletion.get()).isFalse();
+    }
+
     @Test
     void deleteShouldDeleteCurrentBlobEvenWhenLegacyDoesNotExist() {
         BlobId currentBlobId = currentBlobStore.save(BucketName.DEFAULT, BLOB_CONTENT).block();
@@ -600,4 +741,38 @@ class UnionBlobStoreTest implements BlobStoreContract {
         assertThatCode(() -> unionBlobStore.delete(BucketName.DEFAULT, blobIdFactory().randomId()).block())
             .doesNotThrowAnyException();
     }
+
+    @Test
+    void deleteSeveralShouldDeleteBothCurrentAndLegacyBlobs() {
+        BlobId legacyBlobId = legacyBlobStore.save(BucketName.DEFAULT, BLOB_CONTENT).block();
+        BlobId currentBlobId = currentBlobStore.save(BucketName.DEFAULT, STRING_CONTENT + "current").block();
+
+        unionBlobStore.delete(BucketName.DEFAULT, ImmutableList.of(legacyBlobId, currentBlobId)).block();
+
+        assertThatThrownBy(() -> legacyBlobStore.readBytes(BucketName.DEFAULT, legacyBlobId).block())
+            .isInstanceOf(ObjectStoreException.class);
+        assertThatThrownBy(() -> currentBlobStore.readBytes(BucketName.DEFAULT, currentBlobId).block())
+            .isInstanceOf(ObjectStoreException.class);
+    }
+
+    @Test
+    void existsShouldReturnTrueWhenBlobIsOnlyInLegacy() {
+        BlobId legacyBlobId = legacyBlobStore.save(BucketName.DEFAULT, BLOB_CONTENT).block();
+
+        assertThat(unionBlobStore.exists(BucketName.DEFAULT, legacyBlobId).block())
+            .isTrue();
+    }
+
+    @Test
+    void existsShouldFallBackToLegacyWhenCurrentFails() {
+        MemoryBlobStore legacyBlobStore = new MemoryBlobStore(BLOB_ID_FACTORY);
+        UnionBlobStore unionBlobStore = UnionBlobStore.builder()
+            .current(new FailingBlobStore())
+            .legacy(legacyBlobStore)
+            .build();
+        BlobId legacyBlobId = legacyBlobStore.save(BucketName.DEFAULT, BLOB_CONTENT).block();
+
+        assertThat(unionBlobStore.exists(BucketName.DEFAULT, legacyBlobId).block())
+            .isTrue();
+    }
 }
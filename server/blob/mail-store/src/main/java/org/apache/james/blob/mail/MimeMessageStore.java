@@ -19,7 +19,6 @@
 
 package org.apache.james.blob.mail;
 
-import static org.apache.commons.io.output.NullOutputStream.NULL_OUTPUT_STREAM;
 import static org.apache.james.blob.mail.MimeMessagePartsId.BODY_BLOB_TYPE;
 import static org.apache.james.blob.mail.MimeMessagePartsId.HEADER_BLOB_TYPE;
 
@@ -27,8 +26,8 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.SequenceInputStream;
-import java.nio.ByteBuffer;
 import java.util.Map;
 import java.util.Properties;
 import java.util.stream.Stream;
@@ -38,12 +37,10 @@ import javax.mail.MessagingException;
 import javax.mail.Session;
 import javax.mail.internet.MimeMessage;
 
-import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.james.blob.api.BlobStore;
 import org.apache.james.blob.api.Store;
 import org.apache.james.blob.api.Store.BlobType;
-import org.apache.james.util.BodyOffsetInputStream;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableMap;
@@ -68,61 +65,126 @@ public class MimeMessageStore {
     }
 
     static class MimeMessageEncoder implements Store.Impl.Encoder<MimeMessage> {
+        private static final int HEADER_BUFFER_SIZE = 8 * 1024;
+        private static final int DEFAULT_BODY_BUFFER_SIZE = 32;
+
         @Override
         public Stream<Pair<BlobType, Store.Impl.ValueToSave>> encode(MimeMessage message) {
             try {
-                byte[] messageAsArray = messageToArray(message);
-                int bodyStartOctet = computeBodyStartOctet(messageAsArray);
-                byte[] headerBytes = getHeaderBytes(messageAsArray, bodyStartOctet);
-                byte[] bodyBytes = getBodyBytes(messageAsArray, bodyStartOctet);
+                HeaderBodySplittingOutputStream splitter = new HeaderBodySplittingOutputStream(bodyBufferSize(message));
+                message.writeTo(splitter);
                 return Stream.of(
-                    Pair.of(HEADER_BLOB_TYPE, new Store.Impl.BytesToSave(headerBytes)),
-                    Pair.of(BODY_BLOB_TYPE, new Store.Impl.BytesToSave(bodyBytes)));
+                    Pair.of(HEADER_BLOB_TYPE, new Store.Impl.BytesToSave(splitter.getHeaderBytes())),
+                    Pair.of(BODY_BLOB_TYPE, new Store.Impl.BytesToSave(splitter.getBodyBytes())));
             } catch (MessagingException | IOException e) {
                 throw new RuntimeException(e);
             }
         }
-        
-        private static byte[] messageToArray(MimeMessage message) throws IOException, MessagingException {
-            ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-            message.writeTo(byteArrayOutputStream);
-            return byteArrayOutputStream.toByteArray();
+
+        /**
+         * The body buffer is sized after the content size when it is known, avoiding both buffer growth and a final
+         * copy when that size is accurate.
+         */
+        private static int bodyBufferSize(MimeMessage message) throws MessagingException {
+            int size = message.getSize();
+            if (size > 0) {
+                return size;
+            }
+            return DEFAULT_BODY_BUFFER_SIZE;
         }
+    }
 
-        private static byte[] getHeaderBytes(byte[] messageContentAsArray, int bodyStartOctet) {
-            ByteBuffer headerContent = ByteBuffer.wrap(messageContentAsArray, 0, bodyStartOctet);
-            byte[] headerBytes = new byte[bodyStartOctet];
-            headerContent.get(headerBytes);
-            return headerBytes;
+    /**
+     * Splits a message written to it into its header and its body in a single pass, the body starting right after the
+     * first empty line (CRLFCRLF). Without such an empty line, the whole message is considered as the body.
+     */
+    static class HeaderBodySplittingOutputStream extends OutputStream {
+        private static final byte CR = 0x0D;
+        private static final byte LF = 0x0A;
+        private static final int SEPARATOR_LENGTH = 4;
+
+        private final ExposedByteArrayOutputStream header;
+        private final ExposedByteArrayOutputStream body;
+        private int matchedSeparatorBytes;
+
+        HeaderBodySplittingOutputStream(int expectedBodySize) {
+            this.header = new ExposedByteArrayOutputStream(MimeMessageEncoder.HEADER_BUFFER_SIZE);
+            this.body = new ExposedByteArrayOutputStream(expectedBodySize);
+            this.matchedSeparatorBytes = 0;
         }
 
-        private static byte[] getBodyBytes(byte[] messageContentAsArray, int bodyStartOctet) {
-            if (bodyStartOctet < messageContentAsArray.length) {
-                ByteBuffer bodyContent = ByteBuffer.wrap(messageContentAsArray,
-                    bodyStartOctet,
-                    messageContentAsArray.length - bodyStartOctet);
-                byte[] bodyBytes = new byte[messageContentAsArray.length - bodyStartOctet];
-                bodyContent.get(bodyBytes);
-                return bodyBytes;
-            } else {
-                return new byte[] {};
+        @Override
+        public void write(int b) {
+            if (inBody()) {
+                body.write(b);
+                return;
             }
+            header.write(b);
+            matchSeparator((byte) b);
         }
 
-        private static int computeBodyStartOctet(byte[] messageAsArray) throws IOException {
-            try (BodyOffsetInputStream bodyOffsetInputStream =
-                     new BodyOffsetInputStream(new ByteArrayInputStream(messageAsArray))) {
-                consume(bodyOffsetInputStream);
-
-                if (bodyOffsetInputStream.getBodyStartOffset() == -1) {
-                    return 0;
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            if (inBody()) {
+                body.write(bytes, offset, length);
+                return;
+            }
+            int end = offset + length;
+            for (int i = offset; i < end; i++) {
+                matchSeparator(bytes[i]);
+                if (inBody()) {
+                    header.write(bytes, offset, i + 1 - offset);
+                    body.write(bytes, i + 1, end - i - 1);
+                    return;
                 }
-                return (int) bodyOffsetInputStream.getBodyStartOffset();
             }
+            header.write(bytes, offset, length);
+        }
+
+        byte[] getHeaderBytes() {
+            if (!inBody()) {
+                return new byte[0];
+            }
+            return header.toByteArray();
         }
 
-        private static void consume(InputStream in) throws IOException {
-            IOUtils.copy(in, NULL_OUTPUT_STREAM);
+        byte[] getBodyBytes() {
+            if (!inBody()) {
+                return header.toByteArray();
+            }
+            return body.toByteArrayWithoutCopy();
+        }
+
+        private boolean inBody() {
+            return matchedSeparatorBytes == SEPARATOR_LENGTH;
+        }
+
+        private void matchSeparator(byte b) {
+            boolean expectsCarriageReturn = matchedSeparatorBytes % 2 == 0;
+            if (expectsCarriageReturn) {
+                matchedSeparatorBytes = b == CR ? matchedSeparatorBytes + 1 : 0;
+            } else if (b == LF) {
+                matchedSeparatorBytes++;
+            } else {
+                matchedSeparatorBytes = b == CR ? 1 : 0;
+            }
+        }
+    }
+
+    private static class ExposedByteArrayOutputStream extends ByteArrayOutputStream {
+        ExposedByteArrayOutputStream(int size) {
+            super(size);
+        }
+
+        /**
+         * Hands over the internal buffer when it is filled up, sparing a copy. This stream should no longer be written
+         * to afterward.
+         */
+        byte[] toByteArrayWithoutCopy() {
+            if (count == buf.length) {
+                return buf;
+            }
+            return toByteArray();
         }
     }
 
@@ -0,0 +1,119 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.blob.mail;
+
+import static org.apache.commons.io.output.NullOutputStream.NULL_OUTPUT_STREAM;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import javax.mail.internet.MimeMessage;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.james.blob.api.Store;
+import org.apache.james.core.builder.MimeMessageBuilder;
+import org.apache.james.util.BodyOffsetInputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.google.common.base.Strings;
+
+/**
+ * Compares the allocation profile of the single pass {@link MimeMessageStore.MimeMessageEncoder} with the former
+ * encoding, which buffered the whole message before copying its header and its body out of it.
+ *
+ * Run it from the IDE, or with:
+ *
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.apache.james.blob.mail.MimeMessageEncoderBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MimeMessageEncoderBenchmark {
+
+    @Param({"1024", "102400", "10485760"})
+    private int bodySize;
+
+    private MimeMessage message;
+
+    @Setup
+    public void setUp() throws Exception {
+        message = MimeMessageBuilder.mimeMessageBuilder()
+            .addFrom("any@any.com")
+            .addToRecipient("toddy@any.com")
+            .setSubject("Benchmark")
+            .setText(Strings.repeat("0123456789abcdef", bodySize / 16))
+            .build();
+        message.saveChanges();
+    }
+
+    @Benchmark
+    public List<Pair<Store.BlobType, Store.Impl.ValueToSave>> singlePassEncoding() {
+        return new MimeMessageStore.MimeMessageEncoder()
+            .encode(message)
+            .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public byte[][] legacyEncoding() throws Exception {
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        message.writeTo(byteArrayOutputStream);
+        byte[] messageAsArray = byteArrayOutputStream.toByteArray();
+
+        int bodyStartOctet;
+        try (BodyOffsetInputStream bodyOffsetInputStream = new BodyOffsetInputStream(new ByteArrayInputStream(messageAsArray))) {
+            IOUtils.copy(bodyOffsetInputStream, NULL_OUTPUT_STREAM);
+            bodyStartOctet = (int) Math.max(bodyOffsetInputStream.getBodyStartOffset(), 0);
+        }
+
+        byte[] headerBytes = new byte[bodyStartOctet];
+        System.arraycopy(messageAsArray, 0, headerBytes, 0, bodyStartOctet);
+        byte[] bodyBytes = new byte[messageAsArray.length - bodyStartOctet];
+        System.arraycopy(messageAsArray, bodyStartOctet, bodyBytes, 0, bodyBytes.length);
+        return new byte[][] {headerBytes, bodyBytes};
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(MimeMessageEncoderBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build())
+            .run();
+    }
+}
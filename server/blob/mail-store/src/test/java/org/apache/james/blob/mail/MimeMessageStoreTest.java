@@ -125,4 +125,41 @@ class MimeMessageStoreTest {
                     .isEqualTo("Important mail content");
             });
     }
+
+    @Test
+    void splittingShouldConsiderTheWholeMessageAsBodyWhenNoEmptyLine() {
+        MimeMessageStore.HeaderBodySplittingOutputStream splitter = new MimeMessageStore.HeaderBodySplittingOutputStream(16);
+        byte[] message = "Subject: no body\r\nFrom: any@any.com\r\n".getBytes(StandardCharsets.UTF_8);
+
+        splitter.write(message, 0, message.length);
+
+        assertThat(splitter.getHeaderBytes()).isEmpty();
+        assertThat(splitter.getBodyBytes()).isEqualTo(message);
+    }
+
+    @Test
+    void splittingShouldDetectEmptyLineSpanningSeveralWrites() {
+        MimeMessageStore.HeaderBodySplittingOutputStream splitter = new MimeMessageStore.HeaderBodySplittingOutputStream(16);
+        byte[] header = "Subject: test\r\n".getBytes(StandardCharsets.UTF_8);
+        byte[] body = "body\r\n\r\nwith empty lines".getBytes(StandardCharsets.UTF_8);
+
+        splitter.write(header, 0, header.length);
+        splitter.write('\r');
+        splitter.write('\n');
+        splitter.write(body, 0, body.length);
+
+        assertThat(new String(splitter.getHeaderBytes(), StandardCharsets.UTF_8)).isEqualTo("Subject: test\r\n\r\n");
+        assertThat(splitter.getBodyBytes()).isEqualTo(body);
+    }
+
+    @Test
+    void splittingShouldNotMistakeStrayCarriageReturnsForAnEmptyLine() {
+        MimeMessageStore.HeaderBodySplittingOutputStream splitter = new MimeMessageStore.HeaderBodySplittingOutputStream(16);
+        byte[] message = "Subject: test\r\n\r\r\nFrom: any@any.com\r\n\r\nbody".getBytes(StandardCharsets.UTF_8);
+
+        splitter.write(message, 0, message.length);
+
+        assertThat(new String(splitter.getHeaderBytes(), StandardCharsets.UTF_8)).isEqualTo("Subject: test\r\n\r\r\nFrom: any@any.com\r\n\r\n");
+        assertThat(new String(splitter.getBodyBytes(), StandardCharsets.UTF_8)).isEqualTo("body");
+    }
 }
@@ -109,6 +109,38 @@ public class MailImpl implements Disposable, Mail {
             .build();
     }
 
+    /**
+     * Cheaper alternative to {@link #duplicate(Mail)}, intended for splitting a mail between its recipients.
+     *
+     * The message is shared through {@link MimeMessageCopyOnWriteProxy} reference counting. Attribute values are not
+     * duplicated: both mails share the same attributes until one of them modifies them, and should thus not mutate
+     * attribute values in place.
+     *
+     * @param mail the mail to duplicate
+     * @return a MailImpl with the same content, sharing the attributes of the given mail
+     * @throws MessagingException when the message is not clonable
+     */
+    public static MailImpl shallowDuplicate(Mail mail) throws MessagingException {
+        if (!(mail instanceof MailImpl)) {
+            return duplicate(mail);
+        }
+        MailImpl original = (MailImpl) mail;
+        MailImpl duplicate = MailImpl.builder()
+            .name(deriveNewName(original.getName()))
+            .sender(original.getMaybeSender())
+            .addRecipients(original.getRecipients())
+            .mimeMessage(new MimeMessageCopyOnWriteProxy(original.getMessage()))
+            .remoteHost(original.getRemoteHost())
+            .remoteAddr(original.getRemoteAddr())
+            .lastUpdated(original.getLastUpdated())
+            .errorMessage(original.getErrorMessage())
+            .addAllHeadersForRecipients(original.getPerRecipientSpecificHeaders())
+            .build();
+        duplicate.attributes = original.shareAttributes();
+        duplicate.attributesShared = true;
+        return duplicate;
+    }
+
     private static ImmutableList<Attribute> duplicateAttributes(Mail mail) {
         try {
             return mail.attributes().map(Attribute::duplicate).collect(Guavate.toImmutableList());
@@ -394,6 +426,11 @@ public class MailImpl implements Disposable, Mail {
      * Attributes added to this MailImpl instance
      */
     private Map<AttributeName, Attribute> attributes;
+    /**
+     * Whether the attributes map is shared with other MailImpl instances, in which case it is copied before any write.
+     * A shared map is never modified.
+     */
+    private transient boolean attributesShared;
     /**
      * Specific headers for some recipients
      * These headers will be added at delivery time
@@ -714,10 +751,25 @@ public class MailImpl implements Disposable, Mail {
      */
     public void setAttributesRaw(Map<String, Object> attr) {
         this.attributes = toAttributeMap(attr);
+        this.attributesShared = false;
     }
 
     private void setAttributes(Map<AttributeName, Attribute> attr) {
         this.attributes = Maps.newHashMap(attr);
+        this.attributesShared = false;
+    }
+
+    private Map<AttributeName, Attribute> shareAttributes() {
+        attributesShared = true;
+        return attributes;
+    }
+
+    private Map<AttributeName, Attribute> attributesForWriting() {
+        if (attributesShared) {
+            attributes = Maps.newHashMap(attributes);
+            attributesShared = false;
+        }
+        return attributes;
     }
 
     @Override
@@ -739,7 +791,7 @@ public class MailImpl implements Disposable, Mail {
     public Serializable setAttribute(String key, Serializable object) {
         Preconditions.checkNotNull(key, "Key of an attribute should not be null");
         Attribute attribute = Attribute.convertToAttribute(key, object);
-        Attribute previous = attributes.put(attribute.getName(), attribute);
+        Attribute previous = attributesForWriting().put(attribute.getName(), attribute);
 
         return toSerializable(previous);
     }
@@ -747,23 +799,27 @@ public class MailImpl implements Disposable, Mail {
     @Override
     public Optional<Attribute> setAttribute(Attribute attribute) {
         Preconditions.checkNotNull(attribute.getName().asString(), "AttributeName should not be null");
-        return Optional.ofNullable(this.attributes.put(attribute.getName(), attribute));
+        return Optional.ofNullable(attributesForWriting().put(attribute.getName(), attribute));
     }
 
     @Override
     public Serializable removeAttribute(String key) {
-        return toSerializable(attributes.remove(AttributeName.of(key)));
+        return toSerializable(removeAttribute(AttributeName.of(key)).orElse(null));
     }
 
     @Override
     public Optional<Attribute> removeAttribute(AttributeName attributeName) {
-        Attribute previous = attributes.remove(attributeName);
+        if (!attributes.containsKey(attributeName)) {
+            return Optional.empty();
+        }
+        Attribute previous = attributesForWriting().remove(attributeName);
         return Optional.ofNullable(previous);
     }
 
     @Override
     public void removeAllAttributes() {
-        attributes.clear();
+        attributes = new HashMap<>();
+        attributesShared = false;
     }
 
     @Override
@@ -176,6 +176,85 @@ public class MailImplTest extends ContractMailTest {
         assertThat(mail.getPerRecipientSpecificHeaders()).isEqualTo(duplicate.getPerRecipientSpecificHeaders());
     }
 
+    @Test
+    void shallowDuplicateShouldGenerateNewObjectWithSameValuesButName() throws Exception {
+        MailImpl mail = MailImpl.builder()
+            .name("mail-id")
+            .sender("sender@localhost")
+            .addRecipient("rcpt@localhost")
+            .mimeMessage(emptyMessage)
+            .addAttribute(AttributeName.of("name").withValue(AttributeValue.of("value")))
+            .build();
+
+        MailImpl duplicate = MailImpl.shallowDuplicate(mail);
+
+        assertThat(duplicate.getName()).isNotEqualTo(mail.getName());
+        assertThat(duplicate.getMaybeSender()).isEqualTo(mail.getMaybeSender());
+        assertThat(duplicate.getRecipients()).containsExactlyElementsOf(mail.getRecipients());
+        assertThat(duplicate.attributes()).containsOnly(AttributeName.of("name").withValue(AttributeValue.of("value")));
+        assertThat(duplicate.getMessage().getInputStream()).hasSameContentAs(mail.getMessage().getInputStream());
+    }
+
+    @Test
+    void shallowDuplicateAttributeChangesShouldNotAffectOriginalMail() throws Exception {
+        AttributeName name = AttributeName.of("name");
+        AttributeName other = AttributeName.of("other");
+        MailImpl mail = MailImpl.builder()
+            .name("mail-id")
+            .addAttribute(name.withValue(AttributeValue.of("value")))
+            .build();
+
+        MailImpl duplicate = MailImpl.shallowDuplicate(mail);
+        duplicate.setAttribute(name.withValue(AttributeValue.of("changed")));
+        duplicate.setAttribute(other.withValue(AttributeValue.of("added")));
+
+        assertThat(mail.getAttribute(name)).contains(name.withValue(AttributeValue.of("value")));
+        assertThat(mail.getAttribute(other)).isEmpty();
+    }
+
+    @Test
+    void originalMailAttributeChangesShouldNotAffectShallowDuplicate() throws Exception {
+        AttributeName name = AttributeName.of("name");
+        MailImpl mail = MailImpl.builder()
+            .name("mail-id")
+            .addAttribute(name.withValue(AttributeValue.of("value")))
+            .build();
+
+        MailImpl duplicate = MailImpl.shallowDuplicate(mail);
+        mail.removeAttribute(name);
+
+        assertThat(duplicate.getAttribute(name)).contains(name.withValue(AttributeValue.of("value")));
+    }
+
+    @Test
+    void removeAllAttributesOfShallowDuplicateShouldNotAffectOriginalMail() throws Exception {
+        AttributeName name = AttributeName.of("name");
+        MailImpl mail = MailImpl.builder()
+            .name("mail-id")
+            .addAttribute(name.withValue(AttributeValue.of("value")))
+            .build();
+
+        MailImpl duplicate = MailImpl.shallowDuplicate(mail);
+        duplicate.removeAllAttributes();
+
+        assertThat(mail.getAttribute(name)).contains(name.withValue(AttributeValue.of("value")));
+        assertThat(duplicate.hasAttributes()).isFalse();
+    }
+
+    @Test
+    void shallowDuplicateShouldShareTheMessageUntilModified() throws Exception {
+        MailImpl mail = MailImpl.builder()
+            .name("mail-id")
+            .mimeMessage(emptyMessage)
+            .build();
+
+        MailImpl duplicate = MailImpl.shallowDuplicate(mail);
+        duplicate.getMessage().setSubject("changed");
+
+        assertThat(mail.getMessage().getSubject()).isNull();
+        assertThat(duplicate.getMessage().getSubject()).isEqualTo("changed");
+    }
+
     @Test
     void setAttributeShouldThrowOnNullAttributeName() {
         MailImpl mail = newMail();
@@ -0,0 +1,52 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.modules;
+
+import java.io.FileNotFoundException;
+
+import javax.inject.Singleton;
+
+import org.apache.james.blob.api.BlobId;
+import org.apache.james.blob.api.BlobStore;
+import org.apache.james.blob.api.HashBlobId;
+import org.apache.james.blob.file.FileBlobStore;
+import org.apache.james.filesystem.api.FileSystem;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Provides;
+import com.google.inject.Scopes;
+
+public class BlobFileModule extends AbstractModule {
+    private static final String BLOB_DIRECTORY = FileSystem.FILE_PROTOCOL_AND_VAR + "blob";
+
+    @Override
+    protected void configure() {
+        bind(HashBlobId.Factory.class).in(Scopes.SINGLETON);
+        bind(BlobId.Factory.class).to(HashBlobId.Factory.class);
+
+        bind(BlobStore.class).to(FileBlobStore.class);
+    }
+
+    @Provides
+    @Singleton
+    FileBlobStore provideFileBlobStore(BlobId.Factory blobIdFactory, FileSystem fileSystem) throws FileNotFoundException {
+        return new FileBlobStore(blobIdFactory, fileSystem.getFile(BLOB_DIRECTORY));
+    }
+}
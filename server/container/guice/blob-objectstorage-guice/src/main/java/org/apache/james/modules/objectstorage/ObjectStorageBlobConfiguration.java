@@ -26,6 +26,7 @@ import java.util.Optional;
 import org.apache.commons.configuration2.Configuration;
 import org.apache.commons.configuration2.ex.ConfigurationException;
 import org.apache.james.blob.api.BucketName;
+import org.apache.james.blob.api.CompressionAlgorithm;
 import org.apache.james.blob.objectstorage.PayloadCodec;
 import org.apache.james.blob.objectstorage.SpecificAuthConfiguration;
 import org.apache.james.modules.objectstorage.aws.s3.AwsS3ConfigurationReader;
@@ -42,6 +43,7 @@ public class ObjectStorageBlobConfiguration {
     private static final String OBJECTSTORAGE_BUCKET_PREFIX = "objectstorage.bucketPrefix";
     private static final String OBJECTSTORAGE_PROVIDER = "objectstorage.provider";
     private static final String OBJECTSTORAGE_PAYLOAD_CODEC = "objectstorage.payload.codec";
+    private static final String OBJECTSTORAGE_PAYLOAD_COMPRESSION = "objectstorage.payload.compression";
     public static final String OBJECTSTORAGE_AES256_HEXSALT = "objectstorage.aes256.hexsalt";
     public static final String OBJECTSTORAGE_AES256_PASSWORD = "objectstorage.aes256.password";
 
@@ -55,6 +57,7 @@ public class ObjectStorageBlobConfiguration {
         Optional<String> aesSalt = Optional.ofNullable(configuration.getString(OBJECTSTORAGE_AES256_HEXSALT, null));
         Optional<char[]> aesPassword = Optional.ofNullable(configuration.getString(OBJECTSTORAGE_AES256_PASSWORD, null))
             .map(String::toCharArray);
+        Optional<CompressionAlgorithm> compression = parseCompression(configuration.getString(OBJECTSTORAGE_PAYLOAD_COMPRESSION, null));
 
         if (Strings.isNullOrEmpty(provider)) {
             throw new ConfigurationException("Mandatory configuration value " + OBJECTSTORAGE_PROVIDER + " is missing from " + OBJECTSTORAGE_CONFIGURATION_NAME + " configuration");
@@ -76,9 +79,21 @@ public class ObjectStorageBlobConfiguration {
             .aesPassword(aesPassword)
             .defaultBucketName(namespace.map(BucketName::of))
             .bucketPrefix(bucketPrefix)
+            .compression(compression)
             .build();
     }
 
+    private static Optional<CompressionAlgorithm> parseCompression(String compression) throws ConfigurationException {
+        if (Strings.isNullOrEmpty(compression)) {
+            return Optional.empty();
+        }
+        try {
+            return CompressionAlgorithm.parseOptional(compression);
+        } catch (IllegalArgumentException e) {
+            throw new ConfigurationException("unknown payload compression : " + compression, e);
+        }
+    }
+
     private static SpecificAuthConfiguration authConfiguration(String provider, Configuration configuration) throws ConfigurationException {
         switch (ObjectStorageProvider.from(provider)) {
             case SWIFT:
@@ -119,6 +134,7 @@ public class ObjectStorageBlobConfiguration {
             private Optional<char[]> aesPassword;
             private Optional<BucketName> defaultBucketName;
             private Optional<String> bucketPrefix;
+            private Optional<CompressionAlgorithm> compression;
 
             public ReadyToBuild(PayloadCodecFactory payloadCodecFactory,
                                 ObjectStorageProvider provider,
@@ -130,6 +146,7 @@ public class ObjectStorageBlobConfiguration {
                 this.specificAuthConfiguration = specificAuthConfiguration;
                 this.defaultBucketName = Optional.empty();
                 this.bucketPrefix = Optional.empty();
+                this.compression = Optional.empty();
             }
 
             public ReadyToBuild aesSalt(String aesSalt) {
@@ -170,6 +187,16 @@ public class ObjectStorageBlobConfiguration {
                 return this;
             }
 
+            public ReadyToBuild compression(Optional<CompressionAlgorithm> compression) {
+                this.compression = compression;
+                return this;
+            }
+
+            public ReadyToBuild compression(CompressionAlgorithm compression) {
+                this.compression = Optional.of(compression);
+                return this;
+            }
+
             public ObjectStorageBlobConfiguration build() {
                 if (payloadCodecFactory == PayloadCodecFactory.AES256) {
                     aesSalt.filter(s -> !s.isEmpty())
@@ -178,7 +205,7 @@ public class ObjectStorageBlobConfiguration {
                         .orElseThrow(() -> new IllegalStateException("AES code requires an non-empty password parameter"));
                 }
 
-                return new ObjectStorageBlobConfiguration(payloadCodecFactory, bucketPrefix, provider, defaultBucketName, specificAuthConfiguration, aesSalt, aesPassword);
+                return new ObjectStorageBlobConfiguration(payloadCodecFactory, bucketPrefix, provider, defaultBucketName, specificAuthConfiguration, aesSalt, aesPassword, compression);
             }
 
         }
@@ -192,6 +219,7 @@ public class ObjectStorageBlobConfiguration {
     private Optional<String> aesSalt;
     private Optional<char[]> aesPassword;
     private Optional<String> bucketPrefix;
+    private Optional<CompressionAlgorithm> compression;
 
     @VisibleForTesting
     ObjectStorageBlobConfiguration(PayloadCodecFactory payloadCodec,
@@ -200,7 +228,8 @@ public class ObjectStorageBlobConfiguration {
                                    Optional<BucketName> namespace,
                                    SpecificAuthConfiguration specificAuthConfiguration,
                                    Optional<String> aesSalt,
-                                   Optional<char[]> aesPassword) {
+                                   Optional<char[]> aesPassword,
+                                   Optional<CompressionAlgorithm> compression) {
         this.payloadCodec = payloadCodec;
         this.bucketPrefix = bucketPrefix;
         this.provider = provider;
@@ -208,6 +237,7 @@ public class ObjectStorageBlobConfiguration {
         this.specificAuthConfiguration = specificAuthConfiguration;
         this.aesSalt = aesSalt;
         this.aesPassword = aesPassword;
+        this.compression = compression;
     }
 
     public Optional<BucketName> getNamespace() {
@@ -242,6 +272,10 @@ public class ObjectStorageBlobConfiguration {
         return bucketPrefix;
     }
 
+    public Optional<CompressionAlgorithm> getCompression() {
+        return compression;
+    }
+
     @Override
     public final boolean equals(Object o) {
         if (o instanceof ObjectStorageBlobConfiguration) {
@@ -253,14 +287,15 @@ public class ObjectStorageBlobConfiguration {
                 && Objects.equals(this.provider, that.provider)
                 && Objects.equals(this.specificAuthConfiguration, that.specificAuthConfiguration)
                 && Objects.equals(this.aesSalt, that.aesSalt)
-                && Objects.equals(this.aesPassword, that.aesPassword);
+                && Objects.equals(this.aesPassword, that.aesPassword)
+                && Objects.equals(this.compression, that.compression);
         }
         return false;
     }
 
     @Override
     public final int hashCode() {
-        return Objects.hash(payloadCodec, namespace, bucketPrefix, provider, specificAuthConfiguration, aesSalt, aesPassword);
+        return Objects.hash(payloadCodec, namespace, bucketPrefix, provider, specificAuthConfiguration, aesSalt, aesPassword, compression);
     }
 
     @Override
@@ -273,6 +308,7 @@ public class ObjectStorageBlobConfiguration {
             .add("specificAuthConfiguration", specificAuthConfiguration)
             .add("aesSalt", aesSalt)
             .add("aesPassword", aesPassword)
+            .add("compression", compression)
             .toString();
     }
 }
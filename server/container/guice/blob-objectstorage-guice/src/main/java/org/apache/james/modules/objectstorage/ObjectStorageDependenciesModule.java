@@ -29,14 +29,21 @@ import javax.inject.Singleton;
 
 import org.apache.commons.configuration2.Configuration;
 import org.apache.commons.configuration2.ex.ConfigurationException;
+import org.apache.james.blob.api.BlobCompressor;
 import org.apache.james.blob.api.BlobId;
+import org.apache.james.blob.api.CompressionConfiguration;
 import org.apache.james.blob.api.HashBlobId;
 import org.apache.james.blob.objectstorage.BlobPutter;
+import org.apache.james.blob.objectstorage.CompressingPayloadCodec;
 import org.apache.james.blob.objectstorage.ObjectStorageBlobsDAO;
 import org.apache.james.blob.objectstorage.ObjectStorageBlobsDAOBuilder;
+import org.apache.james.blob.objectstorage.PayloadCodec;
 import org.apache.james.blob.objectstorage.aws.AwsS3AuthConfiguration;
 import org.apache.james.blob.objectstorage.aws.AwsS3ObjectStorage;
+import org.apache.james.blob.objectstorage.aws.AwsS3UploadConfiguration;
+import org.apache.james.metrics.api.MetricFactory;
 import org.apache.james.modules.mailbox.ConfigurationComponent;
+import org.apache.james.modules.objectstorage.aws.s3.AwsS3ConfigurationReader;
 import org.apache.james.modules.objectstorage.swift.SwiftObjectStorage;
 import org.apache.james.utils.PropertiesProvider;
 
@@ -64,10 +71,21 @@ public class ObjectStorageDependenciesModule extends AbstractModule {
 
     @Provides
     @Singleton
-    private ObjectStorageBlobsDAO buildObjectStore(ObjectStorageBlobConfiguration configuration, BlobId.Factory blobIdFactory, Provider<AwsS3ObjectStorage> awsS3ObjectStorageProvider) throws InterruptedException, ExecutionException, TimeoutException {
+    private AwsS3UploadConfiguration getAwsS3UploadConfiguration(PropertiesProvider propertiesProvider) throws ConfigurationException {
+        try {
+            Configuration configuration = propertiesProvider.getConfigurations(ConfigurationComponent.NAMES);
+            return AwsS3ConfigurationReader.uploadConfigurationFrom(configuration);
+        } catch (FileNotFoundException e) {
+            return AwsS3UploadConfiguration.DEFAULT;
+        }
+    }
+
+    @Provides
+    @Singleton
+    private ObjectStorageBlobsDAO buildObjectStore(ObjectStorageBlobConfiguration configuration, BlobId.Factory blobIdFactory, Provider<AwsS3ObjectStorage> awsS3ObjectStorageProvider, MetricFactory metricFactory) throws InterruptedException, ExecutionException, TimeoutException {
         ObjectStorageBlobsDAO dao = selectDaoBuilder(configuration)
             .blobIdFactory(blobIdFactory)
-            .payloadCodec(configuration.getPayloadCodec())
+            .payloadCodec(payloadCodec(configuration, metricFactory))
             .blobPutter(putBlob(blobIdFactory, configuration, awsS3ObjectStorageProvider))
             .namespace(configuration.getNamespace())
             .bucketPrefix(configuration.getBucketPrefix())
@@ -75,6 +93,14 @@ public class ObjectStorageDependenciesModule extends AbstractModule {
         return dao;
     }
 
+    private PayloadCodec payloadCodec(ObjectStorageBlobConfiguration configuration, MetricFactory metricFactory) {
+        CompressionConfiguration compressionConfiguration = CompressionConfiguration.builder()
+            .algorithm(configuration.getCompression())
+            .build();
+        // Always decorated: blobs compressed before compression was disabled must remain readable
+        return new CompressingPayloadCodec(new BlobCompressor(compressionConfiguration, metricFactory), configuration.getPayloadCodec());
+    }
+
     private ObjectStorageBlobsDAOBuilder.RequireBlobIdFactory selectDaoBuilder(ObjectStorageBlobConfiguration configuration) {
         switch (configuration.getProvider()) {
             case SWIFT:
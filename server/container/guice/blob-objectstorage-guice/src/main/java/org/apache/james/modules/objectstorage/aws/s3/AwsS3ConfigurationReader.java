@@ -19,14 +19,22 @@
 
 package org.apache.james.modules.objectstorage.aws.s3;
 
+import java.util.Optional;
+
 import org.apache.commons.configuration2.Configuration;
+import org.apache.commons.configuration2.ex.ConfigurationException;
 import org.apache.james.blob.objectstorage.aws.AwsS3AuthConfiguration;
+import org.apache.james.blob.objectstorage.aws.AwsS3UploadConfiguration;
+import org.apache.james.util.Size;
 
 public class AwsS3ConfigurationReader {
 
     static final String OBJECTSTORAGE_ENDPOINT = "objectstorage.s3.endPoint";
     static final String OBJECTSTORAGE_ACCESKEYID = "objectstorage.s3.accessKeyId";
     static final String OBJECTSTORAGE_SECRETKEY = "objectstorage.s3.secretKey";
+    static final String OBJECTSTORAGE_MULTIPART_PART_SIZE = "objectstorage.s3.multipart.partSize";
+    static final String OBJECTSTORAGE_MULTIPART_THRESHOLD = "objectstorage.s3.multipart.threshold";
+    static final String OBJECTSTORAGE_UPLOAD_PARALLELISM = "objectstorage.s3.upload.parallelism";
 
     public static AwsS3AuthConfiguration from(Configuration configuration) {
 
@@ -36,5 +44,24 @@ public class AwsS3ConfigurationReader {
                 .secretKey(configuration.getString(OBJECTSTORAGE_SECRETKEY))
                 .build();
     }
-}
 
+    public static AwsS3UploadConfiguration uploadConfigurationFrom(Configuration configuration) throws ConfigurationException {
+        return AwsS3UploadConfiguration.builder()
+                .partSize(readSize(configuration, OBJECTSTORAGE_MULTIPART_PART_SIZE))
+                .multipartThreshold(readSize(configuration, OBJECTSTORAGE_MULTIPART_THRESHOLD))
+                .parallelism(Optional.ofNullable(configuration.getInteger(OBJECTSTORAGE_UPLOAD_PARALLELISM, null)))
+                .build();
+    }
+
+    private static Optional<Long> readSize(Configuration configuration, String key) throws ConfigurationException {
+        Optional<String> value = Optional.ofNullable(configuration.getString(key, null));
+        if (!value.isPresent()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(Size.parse(value.get()).asBytes());
+        } catch (Exception e) {
+            throw new ConfigurationException("Invalid size for " + key + ": " + value.get(), e);
+        }
+    }
+}
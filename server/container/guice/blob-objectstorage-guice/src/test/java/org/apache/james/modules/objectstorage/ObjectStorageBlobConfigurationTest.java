@@ -9,6 +9,7 @@ import java.util.stream.Stream;
 import org.apache.commons.configuration2.MapConfiguration;
 import org.apache.commons.configuration2.ex.ConfigurationException;
 import org.apache.james.blob.api.BucketName;
+import org.apache.james.blob.api.CompressionAlgorithm;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtensionContext;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -204,4 +205,34 @@ class ObjectStorageBlobConfigurationTest {
          assertThat(ObjectStorageBlobConfiguration.from(configuration).getBucketPrefix())
             .isEmpty();
     }
-}
\ No newline at end of file
+
+    @Test
+    void fromShouldParseCompressionWhenSpecified() throws Exception {
+        MapConfiguration configuration = new MapConfiguration(
+            ImmutableMap.<String, Object>builder()
+                .putAll(VALID_CONFIGURATION)
+                .put("objectstorage.payload.compression", "lz4")
+                .build());
+
+        assertThat(ObjectStorageBlobConfiguration.from(configuration).getCompression())
+            .contains(CompressionAlgorithm.LZ4);
+    }
+
+    @Test
+    void fromShouldNotCompressByDefault() throws Exception {
+        assertThat(ObjectStorageBlobConfiguration.from(new MapConfiguration(VALID_CONFIGURATION)).getCompression())
+            .isEmpty();
+    }
+
+    @Test
+    void fromShouldThrowOnUnknownCompression() {
+        MapConfiguration configuration = new MapConfiguration(
+            ImmutableMap.<String, Object>builder()
+                .putAll(VALID_CONFIGURATION)
+                .put("objectstorage.payload.compression", "zip")
+                .build());
+
+        assertThatThrownBy(() -> ObjectStorageBlobConfiguration.from(configuration))
+            .isInstanceOf(ConfigurationException.class);
+    }
+}
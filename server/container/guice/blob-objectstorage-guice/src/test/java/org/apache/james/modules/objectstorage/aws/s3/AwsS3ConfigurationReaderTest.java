@@ -24,7 +24,9 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import org.apache.commons.configuration2.Configuration;
 import org.apache.commons.configuration2.PropertiesConfiguration;
+import org.apache.commons.configuration2.ex.ConfigurationException;
 import org.apache.james.blob.objectstorage.aws.AwsS3AuthConfiguration;
+import org.apache.james.blob.objectstorage.aws.AwsS3UploadConfiguration;
 import org.junit.jupiter.api.Test;
 
 class AwsS3ConfigurationReaderTest {
@@ -74,4 +76,43 @@ class AwsS3ConfigurationReaderTest {
         AwsS3AuthConfiguration authConfiguration = AwsS3ConfigurationReader.from(configuration);
         assertThat(authConfiguration).isEqualTo(expected);
     }
-}
\ No newline at end of file
+
+    @Test
+    void uploadConfigurationFromShouldReturnDefaultWhenEmpty() throws Exception {
+        assertThat(AwsS3ConfigurationReader.uploadConfigurationFrom(new PropertiesConfiguration()))
+            .isEqualTo(AwsS3UploadConfiguration.DEFAULT);
+    }
+
+    @Test
+    void uploadConfigurationFromShouldReadProvidedValues() throws Exception {
+        Configuration configuration = new PropertiesConfiguration();
+        configuration.addProperty(AwsS3ConfigurationReader.OBJECTSTORAGE_MULTIPART_PART_SIZE, "8M");
+        configuration.addProperty(AwsS3ConfigurationReader.OBJECTSTORAGE_MULTIPART_THRESHOLD, "16M");
+        configuration.addProperty(AwsS3ConfigurationReader.OBJECTSTORAGE_UPLOAD_PARALLELISM, "10");
+
+        assertThat(AwsS3ConfigurationReader.uploadConfigurationFrom(configuration))
+            .isEqualTo(AwsS3UploadConfiguration.builder()
+                .partSize(8L * 1024 * 1024)
+                .multipartThreshold(16L * 1024 * 1024)
+                .parallelism(10)
+                .build());
+    }
+
+    @Test
+    void uploadConfigurationFromShouldThrowOnInvalidSize() {
+        Configuration configuration = new PropertiesConfiguration();
+        configuration.addProperty(AwsS3ConfigurationReader.OBJECTSTORAGE_MULTIPART_PART_SIZE, "invalid");
+
+        assertThatThrownBy(() -> AwsS3ConfigurationReader.uploadConfigurationFrom(configuration))
+            .isInstanceOf(ConfigurationException.class);
+    }
+
+    @Test
+    void uploadConfigurationFromShouldRejectTooSmallParts() {
+        Configuration configuration = new PropertiesConfiguration();
+        configuration.addProperty(AwsS3ConfigurationReader.OBJECTSTORAGE_MULTIPART_PART_SIZE, "1M");
+
+        assertThatThrownBy(() -> AwsS3ConfigurationReader.uploadConfigurationFrom(configuration))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -25,6 +25,7 @@ import org.apache.james.modules.blobstore.BlobStoreChoosingModule;
 import org.apache.james.modules.event.RabbitMQEventBusModule;
 import org.apache.james.modules.rabbitmq.RabbitMQModule;
 import org.apache.james.modules.server.JMXServerModule;
+import org.apache.james.modules.server.LegacyBlobsMigrationRoutesModule;
 import org.apache.james.server.core.configuration.Configuration;
 
 import com.google.inject.Module;
@@ -34,7 +35,8 @@ public class CassandraRabbitMQJamesServerMain {
     public static final Module MODULES =
         Modules
             .override(Modules.combine(ALL_BUT_JMX_CASSANDRA_MODULE))
-            .with(new RabbitMQModule(), new BlobStoreChoosingModule(), new RabbitMQEventBusModule());
+            .with(new RabbitMQModule(), new BlobStoreChoosingModule(), new RabbitMQEventBusModule(),
+                new LegacyBlobsMigrationRoutesModule());
 
     public static void main(String[] args) throws Exception {
         Configuration configuration = Configuration.builder()
@@ -19,6 +19,7 @@
 
 package org.apache.james.modules.blobstore;
 
+import java.time.temporal.ChronoUnit;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -26,6 +27,9 @@ import java.util.stream.Stream;
 
 import org.apache.commons.configuration2.Configuration;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.james.blob.cache.BlobStoreCacheConfiguration;
+import org.apache.james.blob.union.ReadThroughMigrationConfiguration;
+import org.apache.james.util.DurationParser;
 
 import com.google.common.base.MoreObjects;
 
@@ -62,8 +66,35 @@ public class BlobStoreChoosingConfiguration {
     }
 
     static final String BLOBSTORE_IMPLEMENTATION_PROPERTY = "implementation";
+    static final String UNION_READ_THROUGH_ENABLED_PROPERTY = "union.readthrough.enabled";
+    static final String UNION_READ_THROUGH_COPIES_PER_SECOND_PROPERTY = "union.readthrough.copiesPerSecond";
+    static final String UNION_READ_THROUGH_MAX_IN_FLIGHT_COPIES_PROPERTY = "union.readthrough.maxInFlightCopies";
+    static final String CACHE_ENABLED_PROPERTY = "cache.enable";
+    static final String CACHE_SIZE_THRESHOLD_PROPERTY = "cache.sizeThresholdInBytes";
+    static final String CACHE_MEMORY_SIZE_PROPERTY = "cache.memory.sizeInBytes";
+    static final String CACHE_TTL_PROPERTY = "cache.ttl";
 
     static BlobStoreChoosingConfiguration from(Configuration configuration) {
+        BlobStoreChoosingConfiguration choosingConfiguration = fromImplementation(configuration);
+        if (configuration.getBoolean(CACHE_ENABLED_PROPERTY, false)) {
+            return choosingConfiguration.withCache(cacheConfiguration(configuration));
+        }
+        return choosingConfiguration;
+    }
+
+    private static BlobStoreCacheConfiguration cacheConfiguration(Configuration configuration) {
+        BlobStoreCacheConfiguration.Builder builder = BlobStoreCacheConfiguration.builder();
+        Optional.ofNullable(configuration.getInteger(CACHE_SIZE_THRESHOLD_PROPERTY, null))
+            .ifPresent(builder::sizeThresholdInBytes);
+        Optional.ofNullable(configuration.getLong(CACHE_MEMORY_SIZE_PROPERTY, null))
+            .ifPresent(builder::memoryCacheSizeInBytes);
+        Optional.ofNullable(configuration.getString(CACHE_TTL_PROPERTY, null))
+            .map(ttl -> DurationParser.parse(ttl, ChronoUnit.DAYS))
+            .ifPresent(builder::ttl);
+        return builder.build();
+    }
+
+    private static BlobStoreChoosingConfiguration fromImplementation(Configuration configuration) {
         BlobStoreImplName blobStoreImplName = Optional.ofNullable(configuration.getString(BLOBSTORE_IMPLEMENTATION_PROPERTY))
             .filter(StringUtils::isNotBlank)
             .map(StringUtils::trim)
@@ -71,6 +102,12 @@ public class BlobStoreChoosingConfiguration {
             .orElseThrow(() -> new IllegalStateException(String.format("%s property is missing please use one of " +
                 "supported values in: %s", BLOBSTORE_IMPLEMENTATION_PROPERTY, BlobStoreImplName.supportedImplNames())));
 
+        if (blobStoreImplName == BlobStoreImplName.UNION && configuration.getBoolean(UNION_READ_THROUGH_ENABLED_PROPERTY, false)) {
+            return unionWithReadThroughMigration(ReadThroughMigrationConfiguration.builder()
+                .copiesPerSecond(Optional.ofNullable(configuration.getInteger(UNION_READ_THROUGH_COPIES_PER_SECOND_PROPERTY, null)))
+                .maxInFlightCopies(Optional.ofNullable(configuration.getInteger(UNION_READ_THROUGH_MAX_IN_FLIGHT_COPIES_PROPERTY, null)))
+                .build());
+        }
         return new BlobStoreChoosingConfiguration(blobStoreImplName);
     }
 
@@ -86,35 +123,75 @@ public class BlobStoreChoosingConfiguration {
         return new BlobStoreChoosingConfiguration(BlobStoreImplName.UNION);
     }
 
+    public static BlobStoreChoosingConfiguration unionWithReadThroughMigration(ReadThroughMigrationConfiguration readThroughMigration) {
+        return new BlobStoreChoosingConfiguration(BlobStoreImplName.UNION, Optional.of(readThroughMigration));
+    }
+
     private final BlobStoreImplName implementation;
+    private final Optional<ReadThroughMigrationConfiguration> readThroughMigration;
+    private final Optional<BlobStoreCacheConfiguration> cache;
 
     BlobStoreChoosingConfiguration(BlobStoreImplName implementation) {
+        this(implementation, Optional.empty());
+    }
+
+    private BlobStoreChoosingConfiguration(BlobStoreImplName implementation, Optional<ReadThroughMigrationConfiguration> readThroughMigration) {
+        this(implementation, readThroughMigration, Optional.empty());
+    }
+
+    private BlobStoreChoosingConfiguration(BlobStoreImplName implementation, Optional<ReadThroughMigrationConfiguration> readThroughMigration,
+                                           Optional<BlobStoreCacheConfiguration> cache) {
         this.implementation = implementation;
+        this.readThroughMigration = readThroughMigration;
+        this.cache = cache;
+    }
+
+    public BlobStoreChoosingConfiguration withCache(BlobStoreCacheConfiguration cache) {
+        return new BlobStoreChoosingConfiguration(implementation, readThroughMigration, Optional.of(cache));
     }
 
     BlobStoreImplName getImplementation() {
         return implementation;
     }
 
+    /**
+     * Only relevant for the union implementation, empty when blobs read from the legacy blob store are not copied to
+     * the current one.
+     */
+    Optional<ReadThroughMigrationConfiguration> getReadThroughMigration() {
+        return readThroughMigration;
+    }
+
+    /**
+     * Empty when small blobs are not cached, which is the default.
+     */
+    Optional<BlobStoreCacheConfiguration> getCache() {
+        return cache;
+    }
+
     @Override
     public final boolean equals(Object o) {
         if (o instanceof BlobStoreChoosingConfiguration) {
             BlobStoreChoosingConfiguration that = (BlobStoreChoosingConfiguration) o;
 
-            return Objects.equals(this.implementation, that.implementation);
+            return Objects.equals(this.implementation, that.implementation)
+                && Objects.equals(this.readThroughMigration, that.readThroughMigration)
+                && Objects.equals(this.cache, that.cache);
         }
         return false;
     }
 
     @Override
     public final int hashCode() {
-        return Objects.hash(implementation);
+        return Objects.hash(implementation, readThroughMigration, cache);
     }
 
     @Override
     public String toString() {
         return MoreObjects.toStringHelper(this)
             .add("implementation", implementation)
+            .add("readThroughMigration", readThroughMigration)
+            .add("cache", cache)
             .toString();
     }
 }
@@ -20,6 +20,7 @@
 package org.apache.james.modules.blobstore;
 
 import java.io.FileNotFoundException;
+import java.util.Optional;
 
 import javax.inject.Named;
 import javax.inject.Provider;
@@ -29,17 +30,29 @@ import org.apache.commons.configuration2.Configuration;
 import org.apache.commons.configuration2.ex.ConfigurationException;
 import org.apache.james.backends.cassandra.components.CassandraModule;
 import org.apache.james.blob.api.BlobStore;
+import org.apache.james.blob.api.ListableBlobStore;
 import org.apache.james.blob.api.MetricableBlobStore;
+import org.apache.james.blob.cache.BlobStoreCache;
+import org.apache.james.blob.cache.BlobStoreCacheConfiguration;
+import org.apache.james.blob.cache.CachedBlobStore;
+import org.apache.james.blob.cache.MemoryBlobStoreCache;
+import org.apache.james.blob.cache.TieredBlobStoreCache;
 import org.apache.james.blob.cassandra.CassandraBlobModule;
 import org.apache.james.blob.cassandra.CassandraBlobStore;
+import org.apache.james.blob.cassandra.cache.CassandraBlobCacheModule;
+import org.apache.james.blob.cassandra.cache.CassandraBlobStoreCache;
 import org.apache.james.blob.objectstorage.ObjectStorageBlobsDAO;
+import org.apache.james.blob.union.BlobMigrator;
 import org.apache.james.blob.union.UnionBlobStore;
+import org.apache.james.metrics.api.GaugeRegistry;
+import org.apache.james.metrics.api.MetricFactory;
 import org.apache.james.modules.mailbox.ConfigurationComponent;
 import org.apache.james.modules.objectstorage.ObjectStorageDependenciesModule;
 import org.apache.james.utils.PropertiesProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.datastax.driver.core.Session;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.inject.AbstractModule;
 import com.google.inject.Provides;
@@ -54,6 +67,9 @@ public class BlobStoreChoosingModule extends AbstractModule {
 
         Multibinder<CassandraModule> cassandraDataDefinitions = Multibinder.newSetBinder(binder(), CassandraModule.class);
         cassandraDataDefinitions.addBinding().toInstance(CassandraBlobModule.MODULE);
+        cassandraDataDefinitions.addBinding().toInstance(CassandraBlobCacheModule.MODULE);
+
+        bind(ListableBlobStore.class).to(CassandraBlobStore.class);
     }
 
     @VisibleForTesting
@@ -69,28 +85,74 @@ public class BlobStoreChoosingModule extends AbstractModule {
         }
     }
 
+    /**
+     * When enabled, small blobs are cached in memory. Blobs of a remote object storage are also cached in Cassandra,
+     * as a second tier shared by all James servers.
+     */
     @VisibleForTesting
     @Provides
     @Named(MetricableBlobStore.BLOB_STORE_IMPLEMENTATION)
     @Singleton
     BlobStore provideBlobStore(BlobStoreChoosingConfiguration choosingConfiguration,
                                Provider<CassandraBlobStore> cassandraBlobStoreProvider,
-                               Provider<ObjectStorageBlobsDAO> swiftBlobStoreProvider) {
+                               Provider<ObjectStorageBlobsDAO> swiftBlobStoreProvider,
+                               Provider<Session> sessionProvider,
+                               MetricFactory metricFactory,
+                               GaugeRegistry gaugeRegistry) {
+        BlobStore blobStore = provideBackend(choosingConfiguration, cassandraBlobStoreProvider, swiftBlobStoreProvider, metricFactory);
+
+        return choosingConfiguration.getCache()
+            .map(cacheConfiguration -> (BlobStore) new CachedBlobStore(
+                provideCache(choosingConfiguration, cacheConfiguration, sessionProvider, metricFactory, gaugeRegistry),
+                blobStore, cacheConfiguration, metricFactory))
+            .orElse(blobStore);
+    }
+
+    private BlobStoreCache provideCache(BlobStoreChoosingConfiguration choosingConfiguration, BlobStoreCacheConfiguration cacheConfiguration,
+                                        Provider<Session> sessionProvider, MetricFactory metricFactory, GaugeRegistry gaugeRegistry) {
+        MemoryBlobStoreCache memoryCache = new MemoryBlobStoreCache(cacheConfiguration, metricFactory, gaugeRegistry);
+        if (choosingConfiguration.getImplementation() == BlobStoreChoosingConfiguration.BlobStoreImplName.CASSANDRA) {
+            return memoryCache;
+        }
+        return new TieredBlobStoreCache(memoryCache, new CassandraBlobStoreCache(sessionProvider.get(), cacheConfiguration));
+    }
 
+    private BlobStore provideBackend(BlobStoreChoosingConfiguration choosingConfiguration,
+                                     Provider<CassandraBlobStore> cassandraBlobStoreProvider,
+                                     Provider<ObjectStorageBlobsDAO> swiftBlobStoreProvider,
+                                     MetricFactory metricFactory) {
         switch (choosingConfiguration.getImplementation()) {
             case OBJECTSTORAGE:
                 return swiftBlobStoreProvider.get();
             case CASSANDRA:
                 return cassandraBlobStoreProvider.get();
             case UNION:
-                return UnionBlobStore.builder()
+                UnionBlobStore.Builder builder = UnionBlobStore.builder()
                     .current(swiftBlobStoreProvider.get())
-                    .legacy(cassandraBlobStoreProvider.get())
-                    .build();
+                    .legacy(cassandraBlobStoreProvider.get());
+                choosingConfiguration.getReadThroughMigration()
+                    .ifPresent(configuration -> builder.readThroughMigration(configuration, metricFactory));
+                return builder.build();
             default:
                 throw new RuntimeException(String.format("can not get the right blobstore provider with configuration %s",
                     choosingConfiguration.toString()));
         }
     }
 
+    /**
+     * Legacy blobs can only be migrated when relying on the union blob store.
+     */
+    @VisibleForTesting
+    @Provides
+    @Singleton
+    Optional<BlobMigrator> provideBlobMigrator(BlobStoreChoosingConfiguration choosingConfiguration,
+                                               Provider<CassandraBlobStore> cassandraBlobStoreProvider,
+                                               Provider<ObjectStorageBlobsDAO> swiftBlobStoreProvider,
+                                               MetricFactory metricFactory) {
+        if (choosingConfiguration.getImplementation() != BlobStoreChoosingConfiguration.BlobStoreImplName.UNION) {
+            return Optional.empty();
+        }
+        return Optional.of(new BlobMigrator(swiftBlobStoreProvider.get(), cassandraBlobStoreProvider.get(), metricFactory));
+    }
+
 }
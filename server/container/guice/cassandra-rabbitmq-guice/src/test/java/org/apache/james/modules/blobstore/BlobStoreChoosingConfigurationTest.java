@@ -23,6 +23,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import org.apache.commons.configuration2.PropertiesConfiguration;
+import org.apache.james.blob.union.ReadThroughMigrationConfiguration;
 import org.junit.jupiter.api.Test;
 
 import nl.jqno.equalsverifier.EqualsVerifier;
@@ -137,4 +138,49 @@ class BlobStoreChoosingConfigurationTest {
                 .getName())
             .isEqualTo(CASSANDRA);
     }
-}
\ No newline at end of file
+
+    @Test
+    void fromShouldNotEnableReadThroughMigrationByDefault() {
+        PropertiesConfiguration configuration = new PropertiesConfiguration();
+        configuration.addProperty("implementation", UNION);
+
+        assertThat(BlobStoreChoosingConfiguration.from(configuration).getReadThroughMigration())
+            .isEmpty();
+    }
+
+    @Test
+    void fromShouldReturnReadThroughMigrationWhenEnabled() {
+        PropertiesConfiguration configuration = new PropertiesConfiguration();
+        configuration.addProperty("implementation", UNION);
+        configuration.addProperty("union.readthrough.enabled", "true");
+        configuration.addProperty("union.readthrough.copiesPerSecond", "10");
+        configuration.addProperty("union.readthrough.maxInFlightCopies", "5");
+
+        assertThat(BlobStoreChoosingConfiguration.from(configuration))
+            .isEqualTo(BlobStoreChoosingConfiguration.unionWithReadThroughMigration(ReadThroughMigrationConfiguration.builder()
+                .copiesPerSecond(10)
+                .maxInFlightCopies(5)
+                .build()));
+    }
+
+    @Test
+    void fromShouldIgnoreReadThroughMigrationWhenNotUnion() {
+        PropertiesConfiguration configuration = new PropertiesConfiguration();
+        configuration.addProperty("implementation", OBJECT_STORAGE);
+        configuration.addProperty("union.readthrough.enabled", "true");
+
+        assertThat(BlobStoreChoosingConfiguration.from(configuration))
+            .isEqualTo(BlobStoreChoosingConfiguration.objectStorage());
+    }
+
+    @Test
+    void fromShouldThrowWhenReadThroughCopiesPerSecondIsNotPositive() {
+        PropertiesConfiguration configuration = new PropertiesConfiguration();
+        configuration.addProperty("implementation", UNION);
+        configuration.addProperty("union.readthrough.enabled", "true");
+        configuration.addProperty("union.readthrough.copiesPerSecond", "0");
+
+        assertThatThrownBy(() -> BlobStoreChoosingConfiguration.from(configuration))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -23,15 +23,22 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.mock;
 
+import java.time.Duration;
+
 import org.apache.commons.configuration2.PropertiesConfiguration;
 import org.apache.james.FakePropertiesProvider;
+import org.apache.james.blob.cache.BlobStoreCacheConfiguration;
+import org.apache.james.blob.cache.CachedBlobStore;
 import org.apache.james.blob.cassandra.CassandraBlobStore;
 import org.apache.james.blob.objectstorage.ObjectStorageBlobsDAO;
 import org.apache.james.blob.union.UnionBlobStore;
+import org.apache.james.metrics.api.NoopGaugeRegistry;
+import org.apache.james.metrics.api.NoopMetricFactory;
 import org.apache.james.modules.blobstore.BlobStoreChoosingConfiguration.BlobStoreImplName;
 import org.apache.james.modules.mailbox.ConfigurationComponent;
 import org.junit.jupiter.api.Test;
 
+import com.datastax.driver.core.Session;
 import com.google.inject.Provider;
 
 class BlobStoreChoosingModuleTest {
@@ -40,6 +47,7 @@ class BlobStoreChoosingModuleTest {
     private static Provider<CassandraBlobStore> CASSANDRA_BLOBSTORE_PROVIDER = () -> CASSANDRA_BLOBSTORE;
     private static ObjectStorageBlobsDAO OBJECT_STORAGE_BLOBSTORE = mock(ObjectStorageBlobsDAO.class);
     private static Provider<ObjectStorageBlobsDAO> OBJECT_STORAGE_BLOBSTORE_PROVIDER = () -> OBJECT_STORAGE_BLOBSTORE;
+    private static Provider<Session> SESSION_PROVIDER = () -> mock(Session.class);
 
     @Test
     void provideChoosingConfigurationShouldThrowWhenMissingPropertyField() {
@@ -135,7 +143,7 @@ class BlobStoreChoosingModuleTest {
         BlobStoreChoosingModule module = new BlobStoreChoosingModule();
 
         assertThat(module.provideBlobStore(BlobStoreChoosingConfiguration.cassandra(),
-            CASSANDRA_BLOBSTORE_PROVIDER, OBJECT_STORAGE_BLOBSTORE_PROVIDER))
+            CASSANDRA_BLOBSTORE_PROVIDER, OBJECT_STORAGE_BLOBSTORE_PROVIDER, SESSION_PROVIDER, new NoopMetricFactory(), new NoopGaugeRegistry()))
             .isEqualTo(CASSANDRA_BLOBSTORE);
     }
 
@@ -144,7 +152,7 @@ class BlobStoreChoosingModuleTest {
         BlobStoreChoosingModule module = new BlobStoreChoosingModule();
 
         assertThat(module.provideBlobStore(BlobStoreChoosingConfiguration.cassandra(),
-            CASSANDRA_BLOBSTORE_PROVIDER, OBJECT_STORAGE_BLOBSTORE_PROVIDER))
+            CASSANDRA_BLOBSTORE_PROVIDER, OBJECT_STORAGE_BLOBSTORE_PROVIDER, SESSION_PROVIDER, new NoopMetricFactory(), new NoopGaugeRegistry()))
             .isEqualTo(CASSANDRA_BLOBSTORE);
     }
 
@@ -153,7 +161,69 @@ class BlobStoreChoosingModuleTest {
         BlobStoreChoosingModule module = new BlobStoreChoosingModule();
 
         assertThat(module.provideBlobStore(BlobStoreChoosingConfiguration.union(),
-            CASSANDRA_BLOBSTORE_PROVIDER, OBJECT_STORAGE_BLOBSTORE_PROVIDER))
+            CASSANDRA_BLOBSTORE_PROVIDER, OBJECT_STORAGE_BLOBSTORE_PROVIDER, SESSION_PROVIDER, new NoopMetricFactory(), new NoopGaugeRegistry()))
             .isInstanceOf(UnionBlobStore.class);
     }
-}
\ No newline at end of file
+
+    @Test
+    void provideChoosingConfigurationShouldNotCacheByDefault() throws Exception {
+        BlobStoreChoosingModule module = new BlobStoreChoosingModule();
+        PropertiesConfiguration configuration = new PropertiesConfiguration();
+        configuration.addProperty("implementation", BlobStoreImplName.OBJECTSTORAGE.getName());
+        FakePropertiesProvider propertyProvider = FakePropertiesProvider.builder()
+            .register(ConfigurationComponent.NAME, configuration)
+            .build();
+
+        assertThat(module.provideChoosingConfiguration(propertyProvider).getCache())
+            .isEmpty();
+    }
+
+    @Test
+    void provideChoosingConfigurationShouldReadCacheConfigurationWhenEnabled() throws Exception {
+        BlobStoreChoosingModule module = new BlobStoreChoosingModule();
+        PropertiesConfiguration configuration = new PropertiesConfiguration();
+        configuration.addProperty("implementation", BlobStoreImplName.OBJECTSTORAGE.getName());
+        configuration.addProperty("cache.enable", true);
+        configuration.addProperty("cache.sizeThresholdInBytes", 4096);
+        configuration.addProperty("cache.memory.sizeInBytes", 1048576);
+        configuration.addProperty("cache.ttl", "1 day");
+        FakePropertiesProvider propertyProvider = FakePropertiesProvider.builder()
+            .register(ConfigurationComponent.NAME, configuration)
+            .build();
+
+        assertThat(module.provideChoosingConfiguration(propertyProvider))
+            .isEqualTo(BlobStoreChoosingConfiguration.objectStorage()
+                .withCache(BlobStoreCacheConfiguration.builder()
+                    .sizeThresholdInBytes(4096)
+                    .memoryCacheSizeInBytes(1048576)
+                    .ttl(Duration.ofDays(1))
+                    .build()));
+    }
+
+    @Test
+    void provideBlobStoreShouldReturnCachedBlobStoreWhenCacheEnabled() {
+        BlobStoreChoosingModule module = new BlobStoreChoosingModule();
+
+        assertThat(module.provideBlobStore(BlobStoreChoosingConfiguration.cassandra().withCache(BlobStoreCacheConfiguration.DEFAULT),
+            CASSANDRA_BLOBSTORE_PROVIDER, OBJECT_STORAGE_BLOBSTORE_PROVIDER, SESSION_PROVIDER, new NoopMetricFactory(), new NoopGaugeRegistry()))
+            .isInstanceOf(CachedBlobStore.class);
+    }
+
+    @Test
+    void provideBlobMigratorShouldReturnEmptyWhenNotUnion() {
+        BlobStoreChoosingModule module = new BlobStoreChoosingModule();
+
+        assertThat(module.provideBlobMigrator(BlobStoreChoosingConfiguration.objectStorage(),
+            CASSANDRA_BLOBSTORE_PROVIDER, OBJECT_STORAGE_BLOBSTORE_PROVIDER, new NoopMetricFactory()))
+            .isEmpty();
+    }
+
+    @Test
+    void provideBlobMigratorShouldReturnMigratorWhenUnion() {
+        BlobStoreChoosingModule module = new BlobStoreChoosingModule();
+
+        assertThat(module.provideBlobMigrator(BlobStoreChoosingConfiguration.union(),
+            CASSANDRA_BLOBSTORE_PROVIDER, OBJECT_STORAGE_BLOBSTORE_PROVIDER, new NoopMetricFactory()))
+            .isPresent();
+    }
+}
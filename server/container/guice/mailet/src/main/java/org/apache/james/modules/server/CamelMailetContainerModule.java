@@ -39,7 +39,9 @@ import org.apache.james.mailetcontainer.impl.JamesMailSpooler;
 import org.apache.james.mailetcontainer.impl.JamesMailetContext;
 import org.apache.james.mailetcontainer.impl.MatcherMailetPair;
 import org.apache.james.mailetcontainer.impl.camel.CamelCompositeProcessor;
-import org.apache.james.mailetcontainer.impl.camel.CamelMailetProcessor;
+import org.apache.james.mailetcontainer.impl.pipeline.PipelineCompositeProcessor;
+import org.apache.james.mailetcontainer.lib.AbstractStateCompositeProcessor;
+import org.apache.james.mailetcontainer.lib.AbstractStateMailetProcessor;
 import org.apache.james.server.core.configuration.ConfigurationProvider;
 import org.apache.james.transport.mailets.RemoveMimeHeader;
 import org.apache.james.transport.matchers.All;
@@ -58,6 +60,7 @@ import org.slf4j.LoggerFactory;
 import com.google.common.base.Preconditions;
 import com.google.inject.AbstractModule;
 import com.google.inject.Inject;
+import com.google.inject.Provider;
 import com.google.inject.Provides;
 import com.google.inject.Scopes;
 import com.google.inject.Singleton;
@@ -73,10 +76,14 @@ public class CamelMailetContainerModule extends AbstractModule {
         pair -> pair.getMailet().getMailetConfig().getInitParameter("name").equals("bcc"),
         "Should be configured to remove Bcc header");
 
+    private static final String CAMEL_ENGINE = "camel";
+    private static final String PIPELINE_ENGINE = "pipeline";
+
     @Override
     protected void configure() {
         bind(CamelCompositeProcessor.class).in(Scopes.SINGLETON);
-        bind(MailProcessor.class).to(CamelCompositeProcessor.class);
+        bind(PipelineCompositeProcessor.class).in(Scopes.SINGLETON);
+        bind(MailProcessor.class).to(AbstractStateCompositeProcessor.class);
 
         bind(JamesMailSpooler.class).in(Scopes.SINGLETON);
         bind(MailSpoolerMBean.class).to(JamesMailSpooler.class);
@@ -107,6 +114,31 @@ public class CamelMailetContainerModule extends AbstractModule {
         return camelContext;
     }
 
+    /**
+     * The processors engine is selected by the engine attribute of the processors tag: camel (default) routes mails
+     * through Camel endpoints, while pipeline calls matchers and mailets directly.
+     */
+    @Singleton
+    @Provides
+    public AbstractStateCompositeProcessor provideCompositeProcessor(ConfigurationProvider configurationProvider,
+                                                                     Provider<CamelCompositeProcessor> camelCompositeProcessor,
+                                                                     Provider<PipelineCompositeProcessor> pipelineCompositeProcessor) throws ConfigurationException {
+        String engine = getProcessorsEngine(configurationProvider);
+        switch (engine) {
+            case CAMEL_ENGINE:
+                return camelCompositeProcessor.get();
+            case PIPELINE_ENGINE:
+                return pipelineCompositeProcessor.get();
+            default:
+                throw new ConfigurationException("Unknown processors engine '" + engine + "', expecting " + CAMEL_ENGINE + " or " + PIPELINE_ENGINE);
+        }
+    }
+
+    private String getProcessorsEngine(ConfigurationProvider configurationProvider) throws ConfigurationException {
+        return configurationProvider.getConfiguration("mailetcontainer")
+            .getString("processors[@engine]", CAMEL_ENGINE);
+    }
+
     @Singleton
     public static class SpoolerStarter implements InitialisationOperation {
         private final JamesMailSpooler jamesMailSpooler;
@@ -175,18 +207,18 @@ public class CamelMailetContainerModule extends AbstractModule {
     @Singleton
     public static class MailetModuleInitialisationOperation implements InitialisationOperation {
         private final ConfigurationProvider configurationProvider;
-        private final CamelCompositeProcessor camelCompositeProcessor;
+        private final AbstractStateCompositeProcessor compositeProcessor;
         private final DefaultProcessorsConfigurationSupplier defaultProcessorsConfigurationSupplier;
         private final Set<TransportProcessorCheck> transportProcessorCheckSet;
         private final DefaultCamelContext camelContext;
 
         @Inject
         public MailetModuleInitialisationOperation(ConfigurationProvider configurationProvider,
-                                                   CamelCompositeProcessor camelCompositeProcessor,
+                                                   AbstractStateCompositeProcessor compositeProcessor,
                                                    Set<TransportProcessorCheck> transportProcessorCheckSet,
                                                    DefaultProcessorsConfigurationSupplier defaultProcessorsConfigurationSupplier, DefaultCamelContext camelContext) {
             this.configurationProvider = configurationProvider;
-            this.camelCompositeProcessor = camelCompositeProcessor;
+            this.compositeProcessor = compositeProcessor;
             this.transportProcessorCheckSet = transportProcessorCheckSet;
             this.defaultProcessorsConfigurationSupplier = defaultProcessorsConfigurationSupplier;
             this.camelContext = camelContext;
@@ -199,9 +231,11 @@ public class CamelMailetContainerModule extends AbstractModule {
         }
 
         private void configureProcessors(DefaultCamelContext camelContext) throws Exception {
-            camelCompositeProcessor.setCamelContext(camelContext);
-            camelCompositeProcessor.configure(getProcessorConfiguration());
-            camelCompositeProcessor.init();
+            if (compositeProcessor instanceof CamelCompositeProcessor) {
+                ((CamelCompositeProcessor) compositeProcessor).setCamelContext(camelContext);
+            }
+            compositeProcessor.configure(getProcessorConfiguration());
+            compositeProcessor.init();
         }
 
         private HierarchicalConfiguration<ImmutableNode> getProcessorConfiguration() {
@@ -215,10 +249,10 @@ public class CamelMailetContainerModule extends AbstractModule {
         }
 
         private void checkProcessors() throws ConfigurationException {
-            MailProcessor mailProcessor = Optional.ofNullable(camelCompositeProcessor.getProcessor("transport"))
+            MailProcessor mailProcessor = Optional.ofNullable(compositeProcessor.getProcessor("transport"))
                 .orElseThrow(() -> new RuntimeException("JMAP needs a transport processor"));
-            if (mailProcessor instanceof CamelMailetProcessor) {
-                List<MatcherMailetPair> matcherMailetPairs = ((CamelMailetProcessor) mailProcessor).getPairs();
+            if (mailProcessor instanceof AbstractStateMailetProcessor) {
+                List<MatcherMailetPair> matcherMailetPairs = ((AbstractStateMailetProcessor) mailProcessor).getPairs();
                 for (TransportProcessorCheck check : transportProcessorCheckSet) {
                     check.check(matcherMailetPairs);
                 }
@@ -229,7 +263,7 @@ public class CamelMailetContainerModule extends AbstractModule {
 
         @Override
         public Class<? extends Startable> forClass() {
-            return CamelCompositeProcessor.class;
+            return compositeProcessor.getClass();
         }
     }
 
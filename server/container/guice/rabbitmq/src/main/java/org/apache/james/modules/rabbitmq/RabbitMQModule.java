@@ -43,7 +43,10 @@ import org.apache.james.queue.rabbitmq.view.cassandra.CassandraMailQueueMailStor
 import org.apache.james.queue.rabbitmq.view.cassandra.CassandraMailQueueView;
 import org.apache.james.queue.rabbitmq.view.cassandra.CassandraMailQueueViewModule;
 import org.apache.james.queue.rabbitmq.view.cassandra.DeletedMailsDAO;
+import org.apache.james.queue.rabbitmq.view.cassandra.DeletedMailsFilter;
+import org.apache.james.queue.rabbitmq.view.cassandra.EnqueuedMailsByAddressDAO;
 import org.apache.james.queue.rabbitmq.view.cassandra.EnqueuedMailsDAO;
+import org.apache.james.queue.rabbitmq.view.cassandra.MailQueueSizeDAO;
 import org.apache.james.queue.rabbitmq.view.cassandra.configuration.CassandraMailQueueViewConfiguration;
 import org.apache.james.queue.rabbitmq.view.cassandra.configuration.CassandraMailQueueViewConfigurationModule;
 import org.apache.james.queue.rabbitmq.view.cassandra.configuration.EventsourcingConfigurationManagement;
@@ -66,7 +69,10 @@ public class RabbitMQModule extends AbstractModule {
     @Override
     protected void configure() {
         bind(EnqueuedMailsDAO.class).in(Scopes.SINGLETON);
+        bind(EnqueuedMailsByAddressDAO.class).in(Scopes.SINGLETON);
         bind(DeletedMailsDAO.class).in(Scopes.SINGLETON);
+        bind(DeletedMailsFilter.class).in(Scopes.SINGLETON);
+        bind(MailQueueSizeDAO.class).in(Scopes.SINGLETON);
         bind(BrowseStartDAO.class).in(Scopes.SINGLETON);
         bind(CassandraMailQueueBrowser.class).in(Scopes.SINGLETON);
         bind(CassandraMailQueueMailDelete.class).in(Scopes.SINGLETON);
@@ -36,4 +36,11 @@ public interface MailSpoolerMBean {
      */
     int getCurrentSpoolCount();
 
+    /**
+     * Return the maximum number of mails being spooled at the same time
+     *
+     * @return concurrency limit
+     */
+    int getConcurrencyLimit();
+
 }
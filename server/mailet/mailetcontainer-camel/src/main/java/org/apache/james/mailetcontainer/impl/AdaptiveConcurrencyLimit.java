@@ -0,0 +1,89 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailetcontainer.impl;
+
+import java.time.Duration;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Additive increase, multiplicative decrease concurrency limit driven by the observed processing latency.
+ *
+ * The limit starts at one and doubles every round of processing until the latency first exceeds its long term
+ * average by the tolerance. From then on it grows by one per round, and is cut by the backoff ratio, at most once per
+ * round, whenever the latency exceeds the tolerance. Saturated resources (DNS, blob store, remote SMTP servers...)
+ * thus get less concurrent mails rather than more.
+ */
+class AdaptiveConcurrencyLimit implements ConcurrencyLimit {
+    static final double LATENCY_TOLERANCE = 2.0;
+    static final double BACKOFF_RATIO = 0.9;
+    private static final double LATENCY_SMOOTHING = 0.05;
+    private static final int MIN_LIMIT = 1;
+
+    private final int maxLimit;
+    private double limit;
+    private double averageLatencyNanos;
+    private long sampleCount;
+    private long samplesSinceBackoff;
+    private boolean slowStart;
+
+    AdaptiveConcurrencyLimit(int maxLimit) {
+        Preconditions.checkArgument(maxLimit >= MIN_LIMIT, "'maxLimit' needs to be strictly positive");
+        this.maxLimit = maxLimit;
+        this.limit = MIN_LIMIT;
+        this.slowStart = true;
+    }
+
+    @Override
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    @Override
+    public synchronized void onProcessed(Duration latency) {
+        double latencyNanos = latency.toNanos();
+        boolean overloaded = sampleCount > 0 && latencyNanos > averageLatencyNanos * LATENCY_TOLERANCE;
+
+        averageLatencyNanos = sampleCount == 0
+            ? latencyNanos
+            : averageLatencyNanos + LATENCY_SMOOTHING * (latencyNanos - averageLatencyNanos);
+        sampleCount++;
+        samplesSinceBackoff++;
+
+        if (overloaded) {
+            backoff();
+        } else {
+            increase();
+        }
+    }
+
+    private void backoff() {
+        slowStart = false;
+        if (samplesSinceBackoff >= limit) {
+            limit = Math.max(MIN_LIMIT, limit * BACKOFF_RATIO);
+            samplesSinceBackoff = 0;
+        }
+    }
+
+    private void increase() {
+        double increment = slowStart ? 1 : 1 / limit;
+        limit = Math.min(maxLimit, limit + increment);
+    }
+}
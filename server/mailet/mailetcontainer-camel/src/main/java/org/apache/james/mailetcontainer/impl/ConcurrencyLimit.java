@@ -0,0 +1,46 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailetcontainer.impl;
+
+import java.time.Duration;
+
+/**
+ * Bounds the count of mails the {@link JamesMailSpooler} processes at the same time.
+ */
+interface ConcurrencyLimit {
+
+    static ConcurrencyLimit fixed(int limit) {
+        return new ConcurrencyLimit() {
+            @Override
+            public int getLimit() {
+                return limit;
+            }
+
+            @Override
+            public void onProcessed(Duration latency) {
+
+            }
+        };
+    }
+
+    int getLimit();
+
+    void onProcessed(Duration latency);
+}
@@ -19,6 +19,7 @@
 
 package org.apache.james.mailetcontainer.impl;
 
+import java.time.Duration;
 import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -33,6 +34,7 @@ import org.apache.james.lifecycle.api.Disposable;
 import org.apache.james.lifecycle.api.LifecycleUtil;
 import org.apache.james.mailetcontainer.api.MailProcessor;
 import org.apache.james.mailetcontainer.api.jmx.MailSpoolerMBean;
+import org.apache.james.metrics.api.GaugeRegistry;
 import org.apache.james.metrics.api.MetricFactory;
 import org.apache.james.metrics.api.TimeMetric;
 import org.apache.james.queue.api.MailQueue;
@@ -40,11 +42,13 @@ import org.apache.james.queue.api.MailQueue.MailQueueItem;
 import org.apache.james.queue.api.MailQueueFactory;
 import org.apache.james.util.concurrent.NamedThreadFactory;
 import org.apache.mailet.Mail;
+import org.reactivestreams.Subscription;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.github.fge.lambdas.Throwing;
 
+import reactor.core.publisher.BaseSubscriber;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Scheduler;
@@ -54,11 +58,22 @@ import reactor.core.scheduler.Schedulers;
  * Manages the mail spool. This class is responsible for retrieving messages
  * from the spool, directing messages to the appropriate processor, and removing
  * them from the spool when processing is complete.
+ *
+ * Mails are requested from the spool only as processing slots free up: no more than the concurrency limit of mails
+ * are processed at any time. The limit is the count of threads, or adapts to the processing latency, between one and
+ * the count of threads, when adaptive concurrency is enabled.
+ *
+ * This does not bound what the mail queue fetches in advance: for instance the RabbitMQ mail queue keeps up to its
+ * consumer prefetch count of deliveries not yet acknowledged, and loads up to its dequeue concurrency of them.
  */
 public class JamesMailSpooler implements Disposable, Configurable, MailSpoolerMBean {
     private static final Logger LOGGER = LoggerFactory.getLogger(JamesMailSpooler.class);
 
     public static final String SPOOL_PROCESSING = "spoolProcessing";
+    public static final String SPOOL_IN_FLIGHT = "spoolInFlight";
+    public static final String SPOOL_CONCURRENCY_LIMIT = "spoolConcurrencyLimit";
+    private static final int DEFAULT_THREADS = 100;
+
     private MailQueue queue;
 
     /**
@@ -66,9 +81,12 @@ public class JamesMailSpooler implements Disposable, Configurable, MailSpoolerMB
      */
     private int numThreads;
 
+    private boolean adaptiveConcurrency;
+
     private final AtomicInteger processingActive = new AtomicInteger(0);
 
     private final MetricFactory metricFactory;
+    private final GaugeRegistry gaugeRegistry;
 
     /**
      * The mail processor
@@ -76,19 +94,22 @@ public class JamesMailSpooler implements Disposable, Configurable, MailSpoolerMB
     private final MailProcessor mailProcessor;
 
     private final MailQueueFactory<?> queueFactory;
-    private reactor.core.Disposable disposable;
+    private ConcurrencyLimit concurrencyLimit;
+    private SpoolerSubscriber subscriber;
     private Scheduler spooler;
 
     @Inject
-    public JamesMailSpooler(MetricFactory metricFactory, MailProcessor mailProcessor, MailQueueFactory<?> queueFactory) {
+    public JamesMailSpooler(MetricFactory metricFactory, GaugeRegistry gaugeRegistry, MailProcessor mailProcessor, MailQueueFactory<?> queueFactory) {
         this.metricFactory = metricFactory;
+        this.gaugeRegistry = gaugeRegistry;
         this.mailProcessor = mailProcessor;
         this.queueFactory = queueFactory;
     }
 
     @Override
     public void configure(HierarchicalConfiguration<ImmutableNode> config) {
-        numThreads = config.getInt("threads", 100);
+        numThreads = config.getInt("threads", DEFAULT_THREADS);
+        adaptiveConcurrency = config.getBoolean("adaptiveConcurrency", false);
     }
 
     /**
@@ -99,38 +120,100 @@ public class JamesMailSpooler implements Disposable, Configurable, MailSpoolerMB
         LOGGER.info("init...");
         queue = queueFactory.createQueue(MailQueueFactory.SPOOL);
         spooler = Schedulers.fromExecutor(Executors.newFixedThreadPool(numThreads, NamedThreadFactory.withName("spooler")));
-        LOGGER.info("uses {} Thread(s)", numThreads);
+        concurrencyLimit = createConcurrencyLimit();
+        gaugeRegistry.register(SPOOL_IN_FLIGHT, processingActive::get);
+        gaugeRegistry.register(SPOOL_CONCURRENCY_LIMIT, concurrencyLimit::getLimit);
+        LOGGER.info("uses {} Thread(s), adaptive concurrency {}", numThreads, adaptiveConcurrency);
         run();
     }
 
+    private ConcurrencyLimit createConcurrencyLimit() {
+        if (adaptiveConcurrency) {
+            return new AdaptiveConcurrencyLimit(numThreads);
+        }
+        return ConcurrencyLimit.fixed(numThreads);
+    }
+
     private void run() {
         LOGGER.info("Queue={}", queue);
 
-        disposable = Flux.from(queue.deQueue())
-            .publishOn(spooler)
-            .flatMap(this::handleOnQueueItem)
+        subscriber = new SpoolerSubscriber();
+        Flux.from(queue.deQueue())
             .onErrorContinue((throwable, item) -> LOGGER.error("Exception processing mail while spooling {}", item, throwable))
             .subscribeOn(Schedulers.boundedElastic())
-            .subscribe();
+            .subscribe(subscriber);
+    }
+
+    /**
+     * Requests a mail from the spool each time a processing slot frees up, instead of buffering the mails pushed by
+     * the spool until a thread frees up.
+     */
+    private class SpoolerSubscriber extends BaseSubscriber<MailQueueItem> {
+        /**
+         * Mails requested from the spool, either not yet received or being processed
+         */
+        private final AtomicInteger outstanding = new AtomicInteger(0);
+
+        @Override
+        protected void hookOnSubscribe(Subscription subscription) {
+            requestUpToLimit();
+        }
+
+        @Override
+        protected void hookOnNext(MailQueueItem queueItem) {
+            handleOnQueueItem(queueItem)
+                .onErrorResume(e -> {
+                    LOGGER.error("Exception processing mail while spooling {}", queueItem, e);
+                    return Mono.empty();
+                })
+                .doFinally(any -> {
+                    outstanding.decrementAndGet();
+                    requestUpToLimit();
+                })
+                .subscribe();
+        }
+
+        @Override
+        protected void hookOnError(Throwable throwable) {
+            LOGGER.error("Spooling stopped", throwable);
+        }
+
+        /**
+         * A lowered limit takes effect as in flight processing completes.
+         */
+        private void requestUpToLimit() {
+            int current = outstanding.get();
+            while (current < concurrencyLimit.getLimit() && !isDisposed()) {
+                if (outstanding.compareAndSet(current, current + 1)) {
+                    request(1);
+                }
+                current = outstanding.get();
+            }
+        }
     }
 
+    /**
+     * Processing runs on the spooler threads. The spool count and the processing time cover the whole processing,
+     * up to the acknowledgement of the item.
+     */
     private Mono<Void> handleOnQueueItem(MailQueueItem queueItem) {
-        TimeMetric timeMetric = metricFactory.timer(SPOOL_PROCESSING);
-        try {
+        return Mono.defer(() -> {
+            TimeMetric timeMetric = metricFactory.timer(SPOOL_PROCESSING);
+            long start = System.nanoTime();
             processingActive.incrementAndGet();
-            return processMail(queueItem);
-        } catch (Throwable e) {
-            return Mono.error(e);
-        } finally {
-            processingActive.decrementAndGet();
-            timeMetric.stopAndPublish();
-        }
+            return processMail(queueItem)
+                .doFinally(any -> {
+                    processingActive.decrementAndGet();
+                    timeMetric.stopAndPublish();
+                    concurrencyLimit.onProcessed(Duration.ofNanos(System.nanoTime() - start));
+                });
+        });
     }
 
     private Mono<Void> processMail(MailQueueItem queueItem) {
         Mail mail = queueItem.getMail();
         return Mono.fromRunnable(() -> LOGGER.debug("==== Begin processing mail {} ====", mail.getName()))
-            .subscribeOn(Schedulers.boundedElastic())
+            .subscribeOn(spooler)
             .then(Mono.fromCallable(() -> performProcessMail(mail)))
             .flatMap(any -> acknowledgeItem(queueItem, true))
             .onErrorResume(any -> acknowledgeItem(queueItem, false))
@@ -167,7 +250,7 @@ public class JamesMailSpooler implements Disposable, Configurable, MailSpoolerMB
     @Override
     public void dispose() {
         LOGGER.info("start dispose() ...");
-        disposable.dispose();
+        subscriber.dispose();
         spooler.dispose();
         LOGGER.info("thread shutdown completed.");
     }
@@ -181,4 +264,9 @@ public class JamesMailSpooler implements Disposable, Configurable, MailSpoolerMB
     public int getCurrentSpoolCount() {
         return processingActive.get();
     }
+
+    @Override
+    public int getConcurrencyLimit() {
+        return concurrencyLimit.getLimit();
+    }
 }
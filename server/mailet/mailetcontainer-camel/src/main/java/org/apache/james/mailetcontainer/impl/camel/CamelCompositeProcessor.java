@@ -31,6 +31,7 @@ import org.apache.james.mailetcontainer.api.MailProcessor;
 import org.apache.james.mailetcontainer.api.MailetLoader;
 import org.apache.james.mailetcontainer.api.MatcherLoader;
 import org.apache.james.mailetcontainer.lib.AbstractStateCompositeProcessor;
+import org.apache.james.metrics.api.GaugeRegistry;
 import org.apache.james.metrics.api.MetricFactory;
 import org.apache.mailet.Mail;
 import org.apache.mailet.MailetContext;
@@ -43,16 +44,17 @@ import org.apache.mailet.MailetContext;
  * which allow to inject {@link Mail} into the routes.
  */
 public class CamelCompositeProcessor extends AbstractStateCompositeProcessor implements CamelContextAware {
-
     private final MetricFactory metricFactory;
+    private final GaugeRegistry gaugeRegistry;
     private final MailetContext mailetContext;
     private final MatcherLoader matcherLoader;
     private final MailetLoader mailetLoader;
     private CamelContext camelContext;
 
     @Inject
-    CamelCompositeProcessor(MetricFactory metricFactory, MailetContext mailetContext, MatcherLoader matcherLoader, MailetLoader mailetLoader) {
+    public CamelCompositeProcessor(MetricFactory metricFactory, GaugeRegistry gaugeRegistry, MailetContext mailetContext, MatcherLoader matcherLoader, MailetLoader mailetLoader) {
         this.metricFactory = metricFactory;
+        this.gaugeRegistry = gaugeRegistry;
         this.mailetContext = mailetContext;
         this.matcherLoader = matcherLoader;
         this.mailetLoader = mailetLoader;
@@ -67,6 +69,7 @@ public class CamelCompositeProcessor extends AbstractStateCompositeProcessor imp
             getCamelContext().start();
         }
         super.init();
+        registerProcessingCountGauges(gaugeRegistry);
     }
 
     @PreDestroy
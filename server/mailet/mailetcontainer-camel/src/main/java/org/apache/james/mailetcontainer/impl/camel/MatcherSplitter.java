@@ -25,6 +25,7 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
+import java.util.Set;
 
 import javax.mail.MessagingException;
 
@@ -34,6 +35,7 @@ import org.apache.camel.InOnly;
 import org.apache.james.core.MailAddress;
 import org.apache.james.mailetcontainer.impl.MatcherMailetPair;
 import org.apache.james.mailetcontainer.impl.ProcessorUtil;
+import org.apache.james.mailetcontainer.lib.AbstractStateMailetProcessor;
 import org.apache.james.mailetcontainer.lib.AbstractStateMailetProcessor.MailetProcessorListener;
 import org.apache.james.metrics.api.MetricFactory;
 import org.apache.james.metrics.api.TimeMetric;
@@ -47,7 +49,9 @@ import org.apache.mailet.Matcher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.github.steveash.guavate.Guavate;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 
 /**
  * A Splitter for use with Camel to split the MailMessage into many pieces if
@@ -61,11 +65,11 @@ public class MatcherSplitter {
     public static final AttributeName MATCHER_MATCHED_ATTRIBUTE = AttributeName.of("matched");
 
     private final MetricFactory metricFactory;
-    private final CamelMailetProcessor container;
+    private final AbstractStateMailetProcessor container;
     private final Matcher matcher;
     private final String onMatchException;
 
-    public MatcherSplitter(MetricFactory metricFactory, CamelMailetProcessor container, MatcherMailetPair pair) {
+    public MatcherSplitter(MetricFactory metricFactory, AbstractStateMailetProcessor container, MatcherMailetPair pair) {
         this.metricFactory = metricFactory;
         this.container = container;
         this.matcher = pair.getMatcher();
@@ -138,13 +142,12 @@ public class MatcherSplitter {
 
             // check if the matcher matched
             if (matchedRcpts != null && !matchedRcpts.isEmpty()) {
-                List<MailAddress> rcpts = new ArrayList<>(mail.getRecipients());
-
-                for (MailAddress matchedRcpt : matchedRcpts) {
-                    // loop through the recipients and remove the recipients
-                    // that matched
-                    rcpts.remove(matchedRcpt);
-                }
+                // remove the recipients that matched, with a set lookup as mails can have many recipients
+                Set<MailAddress> matchedRcptSet = ImmutableSet.copyOf(matchedRcpts);
+                List<MailAddress> rcpts = mail.getRecipients()
+                    .stream()
+                    .filter(rcpt -> !matchedRcptSet.contains(rcpt))
+                    .collect(Guavate.toImmutableList());
 
                 if (rcpts.isEmpty()) {
                     // all recipients matched
@@ -152,7 +155,8 @@ public class MatcherSplitter {
                 } else {
                     mail.setRecipients(rcpts);
 
-                    Mail newMail = MailImpl.duplicate(mail);
+                    // the message and the attributes are shared until modified
+                    Mail newMail = MailImpl.shallowDuplicate(mail);
                     newMail.setRecipients(matchedRcpts);
 
                     // Set a header because the matcher matched. This can be
@@ -0,0 +1,131 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailetcontainer.impl.pipeline;
+
+import java.util.List;
+
+import javax.mail.MessagingException;
+
+import org.apache.james.lifecycle.api.LifecycleUtil;
+import org.apache.james.mailetcontainer.impl.MatcherMailetPair;
+import org.apache.james.mailetcontainer.impl.camel.CamelProcessor;
+import org.apache.james.mailetcontainer.impl.camel.MatcherSplitter;
+import org.apache.james.mailetcontainer.lib.AbstractStateMailetProcessor;
+import org.apache.james.metrics.api.MetricFactory;
+import org.apache.mailet.Mail;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link AbstractStateMailetProcessor} implementation which runs the {@link org.apache.mailet.Matcher} /
+ * {@link org.apache.mailet.Mailet} pairs as a flat array of steps, without Camel routes and exchanges.
+ *
+ * It behaves as {@link org.apache.james.mailetcontainer.impl.camel.CamelMailetProcessor}: when a matcher matches only
+ * some recipients, the matching copy of the mail goes through the remaining steps before the original mail does. A
+ * mail leaves the processor once ghosted, or handed over to the processor of its new state.
+ */
+public class PipelineMailetProcessor extends AbstractStateMailetProcessor {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PipelineMailetProcessor.class);
+
+    private static class Step {
+        private final MatcherSplitter matcherSplitter;
+        private final CamelProcessor mailetProcessor;
+
+        private Step(MatcherSplitter matcherSplitter, CamelProcessor mailetProcessor) {
+            this.matcherSplitter = matcherSplitter;
+            this.mailetProcessor = mailetProcessor;
+        }
+    }
+
+    private final MetricFactory metricFactory;
+    private Step[] steps;
+    private CamelProcessor terminatingMailetProcessor;
+
+    public PipelineMailetProcessor(MetricFactory metricFactory) {
+        this.metricFactory = metricFactory;
+    }
+
+    @Override
+    public void service(Mail mail) throws MessagingException {
+        try {
+            process(mail, 0);
+        } catch (Exception e) {
+            throw new MessagingException("Unable to process mail " + mail.getName(), e);
+        }
+    }
+
+    @Override
+    protected void setupRouting(List<MatcherMailetPair> pairs) {
+        this.steps = pairs.stream()
+            .map(pair -> new Step(new MatcherSplitter(metricFactory, this, pair), new CamelProcessor(metricFactory, this, pair.getMailet())))
+            .toArray(Step[]::new);
+        this.terminatingMailetProcessor = new CamelProcessor(metricFactory, this, new TerminatingMailet());
+    }
+
+    private void process(Mail mail, int firstStep) throws Exception {
+        for (int i = firstStep; i < steps.length; i++) {
+            Step step = steps[i];
+            for (Mail splitMail : step.matcherSplitter.split(mail)) {
+                if (splitMail != mail && handleMailet(splitMail, step)) {
+                    process(splitMail, i + 1);
+                }
+            }
+            if (!handleMailet(mail, step)) {
+                return;
+            }
+        }
+        terminateSmoothly(mail);
+    }
+
+    /**
+     * @return true when the mail goes on with the next step of this processor
+     */
+    private boolean handleMailet(Mail mail, Step step) throws Exception {
+        boolean isMatched = mail.removeAttribute(MatcherSplitter.MATCHER_MATCHED_ATTRIBUTE).isPresent();
+        if (isMatched) {
+            step.mailetProcessor.process(mail);
+        }
+        if (mail.getState().equals(Mail.GHOST)) {
+            dispose(mail);
+            return false;
+        }
+        if (!mail.getState().equals(getState())) {
+            toProcessor(mail);
+            LOGGER.debug("End of mailetprocessor for state {} reached", getState());
+            return false;
+        }
+        return true;
+    }
+
+    private void terminateSmoothly(Mail mail) throws Exception {
+        if (mail.getState().equals(getState())) {
+            terminatingMailetProcessor.process(mail);
+        }
+        if (mail.getState().equals(Mail.GHOST)) {
+            dispose(mail);
+        }
+        LOGGER.debug("End of mailetprocessor for state {} reached", getState());
+    }
+
+    private void dispose(Mail mail) throws MessagingException {
+        LifecycleUtil.dispose(mail.getMessage());
+        LifecycleUtil.dispose(mail);
+    }
+}
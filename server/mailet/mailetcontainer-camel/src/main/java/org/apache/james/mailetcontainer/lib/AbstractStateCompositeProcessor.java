@@ -24,6 +24,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
@@ -36,6 +38,7 @@ import org.apache.james.lifecycle.api.Configurable;
 import org.apache.james.lifecycle.api.LifecycleUtil;
 import org.apache.james.mailetcontainer.api.MailProcessor;
 import org.apache.james.mailetcontainer.impl.jmx.JMXStateCompositeProcessorListener;
+import org.apache.james.metrics.api.GaugeRegistry;
 import org.apache.mailet.Mail;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -46,9 +49,11 @@ import org.slf4j.LoggerFactory;
  */
 public abstract class AbstractStateCompositeProcessor implements MailProcessor, Configurable {
     private static final Logger LOGGER = LoggerFactory.getLogger(AbstractStateCompositeProcessor.class);
+    public static final String PROCESSING_COUNT_METRIC_NAME_PREFIX = "mailProcessorProcessingCount:";
 
     private final List<CompositeProcessorListener> listeners = Collections.synchronizedList(new ArrayList<>());
     private final Map<String, MailProcessor> processors = new HashMap<>();
+    private final Map<String, AtomicInteger> processingCounts = new ConcurrentHashMap<>();
     protected HierarchicalConfiguration<ImmutableNode> config;
 
     private JMXStateCompositeProcessorListener jmxListener;
@@ -76,7 +81,29 @@ public abstract class AbstractStateCompositeProcessor implements MailProcessor,
 
     @Override
     public void service(Mail mail) throws MessagingException {
-        handleWithProcessor(mail, getProcessorOrFallBackToError(mail));
+        MailProcessor processor = getProcessorOrFallBackToError(mail);
+        AtomicInteger processingCount = processingCounts.get(mail.getState());
+        processingCount.incrementAndGet();
+        try {
+            handleWithProcessor(mail, processor);
+        } finally {
+            processingCount.decrementAndGet();
+        }
+    }
+
+    /**
+     * Return the number of mails being processed by the {@link MailProcessor} of the given state.
+     *
+     * A mail moved to another state is handed over synchronously, hence counted by both processors until the other
+     * processor completes.
+     *
+     * @param state
+     * @return processing count
+     */
+    public int getProcessingCount(String state) {
+        return Optional.ofNullable(processingCounts.get(state))
+            .map(AtomicInteger::get)
+            .orElse(0);
     }
 
     private MailProcessor getProcessorOrFallBackToError(Mail mail) {
@@ -115,6 +142,17 @@ public abstract class AbstractStateCompositeProcessor implements MailProcessor,
         }
     }
 
+    /**
+     * Register a gauge on the processing count of each configured {@link MailProcessor}
+     *
+     * @param gaugeRegistry
+     */
+    protected void registerProcessingCountGauges(GaugeRegistry gaugeRegistry) {
+        for (String state : getProcessorStates()) {
+            gaugeRegistry.register(PROCESSING_COUNT_METRIC_NAME_PREFIX + state, () -> getProcessingCount(state));
+        }
+    }
+
     /**
      * Return a {@link MailProcessor} for a given state
      * 
@@ -168,6 +206,7 @@ public abstract class AbstractStateCompositeProcessor implements MailProcessor,
                 processorConf.addProperty("[@enableJmx]", enableJmx);
             }
             processors.put(processorName, createMailProcessor(processorName, processorConf));
+            processingCounts.put(processorName, new AtomicInteger(0));
         }
 
         if (enableJmx) {
@@ -56,6 +56,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.github.steveash.guavate.Guavate;
+import com.google.common.collect.ImmutableList;
 
 /**
  * Abstract base class for {@link MailProcessor} implementations which want to
@@ -183,6 +184,15 @@ public abstract class AbstractStateMailetProcessor implements MailProcessor, Con
             .collect(Guavate.toImmutableList());
     }
 
+    /**
+     * Return a unmodifiable {@link List} of the configured {@link MatcherMailetPair}'s
+     *
+     * @return pairs
+     */
+    public List<MatcherMailetPair> getPairs() {
+        return ImmutableList.copyOf(pairs);
+    }
+
     public void addListener(MailetProcessorListener listener) {
         listeners.add(listener);
     }
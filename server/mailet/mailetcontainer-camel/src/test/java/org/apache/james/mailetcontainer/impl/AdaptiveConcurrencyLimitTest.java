@@ -0,0 +1,105 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailetcontainer.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+class AdaptiveConcurrencyLimitTest {
+    private static final Duration LATENCY = Duration.ofMillis(100);
+    private static final Duration HIGH_LATENCY = Duration.ofSeconds(1);
+
+    @Test
+    void constructorShouldThrowWhenZeroMaxLimit() {
+        assertThatThrownBy(() -> new AdaptiveConcurrencyLimit(0))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void limitShouldStartAtOne() {
+        assertThat(new AdaptiveConcurrencyLimit(10).getLimit()).isEqualTo(1);
+    }
+
+    @Test
+    void limitShouldIncreaseByOnePerSampleUponSlowStart() {
+        AdaptiveConcurrencyLimit testee = new AdaptiveConcurrencyLimit(10);
+
+        IntStream.range(0, 3).forEach(i -> testee.onProcessed(LATENCY));
+
+        assertThat(testee.getLimit()).isEqualTo(4);
+    }
+
+    @Test
+    void limitShouldNotExceedMaxLimit() {
+        AdaptiveConcurrencyLimit testee = new AdaptiveConcurrencyLimit(10);
+
+        IntStream.range(0, 100).forEach(i -> testee.onProcessed(LATENCY));
+
+        assertThat(testee.getLimit()).isEqualTo(10);
+    }
+
+    @Test
+    void limitShouldBackoffWhenLatencyExceedsTolerance() {
+        AdaptiveConcurrencyLimit testee = new AdaptiveConcurrencyLimit(10);
+        IntStream.range(0, 100).forEach(i -> testee.onProcessed(LATENCY));
+
+        testee.onProcessed(HIGH_LATENCY);
+
+        assertThat(testee.getLimit()).isEqualTo(9);
+    }
+
+    @Test
+    void limitShouldBackoffAtMostOncePerRound() {
+        AdaptiveConcurrencyLimit testee = new AdaptiveConcurrencyLimit(10);
+        IntStream.range(0, 100).forEach(i -> testee.onProcessed(LATENCY));
+
+        testee.onProcessed(HIGH_LATENCY);
+        testee.onProcessed(HIGH_LATENCY);
+
+        assertThat(testee.getLimit()).isEqualTo(9);
+    }
+
+    @Test
+    void limitShouldIncreaseByOnePerRoundAfterBackoff() {
+        AdaptiveConcurrencyLimit testee = new AdaptiveConcurrencyLimit(10);
+        IntStream.range(0, 100).forEach(i -> testee.onProcessed(LATENCY));
+        testee.onProcessed(HIGH_LATENCY);
+
+        IntStream.range(0, 5).forEach(i -> testee.onProcessed(LATENCY));
+
+        assertThat(testee.getLimit()).isEqualTo(9);
+    }
+
+    @Test
+    void limitShouldNotGoBelowOneWhenLatencyKeepsIncreasing() {
+        AdaptiveConcurrencyLimit testee = new AdaptiveConcurrencyLimit(10);
+        IntStream.range(0, 100).forEach(i -> testee.onProcessed(LATENCY));
+
+        IntStream.rangeClosed(1, 200)
+            .forEach(i -> testee.onProcessed(Duration.ofNanos((long) (LATENCY.toNanos() * Math.pow(1.1, i)))));
+
+        assertThat(testee.getLimit()).isEqualTo(1);
+    }
+}
@@ -30,6 +30,9 @@ import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
 import javax.mail.MessagingException;
@@ -37,6 +40,7 @@ import javax.mail.MessagingException;
 import org.apache.commons.configuration2.plist.PropertyListConfiguration;
 import org.apache.james.mailetcontainer.api.MailProcessor;
 import org.apache.james.metrics.api.MetricFactory;
+import org.apache.james.metrics.api.NoopGaugeRegistry;
 import org.apache.james.metrics.api.TimeMetric;
 import org.apache.james.queue.api.MailQueue;
 import org.apache.james.queue.api.MailQueueFactory;
@@ -61,7 +65,7 @@ class JamesMailSpoolerTest {
         when(metricFactory.timer(JamesMailSpooler.SPOOL_PROCESSING)).thenAnswer(ignored -> mock(TimeMetric.class));
         MailQueueFactory<?> queueFactory = mock(MailQueueFactory.class);
         MailProcessor mailProcessor = mock(MailProcessor.class);
-        JamesMailSpooler spooler = new JamesMailSpooler(metricFactory, mailProcessor, queueFactory);
+        JamesMailSpooler spooler = new JamesMailSpooler(metricFactory, new NoopGaugeRegistry(), mailProcessor, queueFactory);
 
         UnicastProcessor<MockedMailQueueItem> workQueue = UnicastProcessor.create();
         MockedMailQueueItem item = new MockedMailQueueItem();
@@ -95,7 +99,7 @@ class JamesMailSpoolerTest {
         when(metricFactory.timer(JamesMailSpooler.SPOOL_PROCESSING)).thenAnswer(ignored -> mock(TimeMetric.class));
         MailQueueFactory<?> queueFactory = mock(MailQueueFactory.class);
         MailProcessor mailProcessor = mock(MailProcessor.class);
-        JamesMailSpooler spooler = new JamesMailSpooler(metricFactory, mailProcessor, queueFactory);
+        JamesMailSpooler spooler = new JamesMailSpooler(metricFactory, new NoopGaugeRegistry(), mailProcessor, queueFactory);
 
         UnicastProcessor<MockedMailQueueItem> workQueue = UnicastProcessor.create();
         MockedMailQueueItem item = new MockedMailQueueItem();
@@ -124,6 +128,91 @@ class JamesMailSpoolerTest {
         assertThat(item.getDones()).containsExactly(false, true);
     }
 
+    @Test
+    void spoolerShouldNotDequeueMoreMailsThanItsConcurrency() throws Exception {
+        MetricFactory metricFactory = mock(MetricFactory.class);
+        when(metricFactory.timer(JamesMailSpooler.SPOOL_PROCESSING)).thenAnswer(ignored -> mock(TimeMetric.class));
+        MailQueueFactory<?> queueFactory = mock(MailQueueFactory.class);
+        MailProcessor mailProcessor = mock(MailProcessor.class);
+        JamesMailSpooler spooler = new JamesMailSpooler(metricFactory, new NoopGaugeRegistry(), mailProcessor, queueFactory);
+
+        UnicastProcessor<MockedMailQueueItem> workQueue = UnicastProcessor.create();
+        ArrayList<MockedMailQueueItem> items = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            MockedMailQueueItem item = new MockedMailQueueItem();
+            item.addCallback(isDone -> { });
+            items.add(item);
+            workQueue.onNext(item);
+        }
+        AtomicInteger dequeuedCount = new AtomicInteger(0);
+        MailQueue queue = mock(MailQueue.class);
+        when(queue.deQueue()).thenAnswer(any -> workQueue.doOnNext(item -> dequeuedCount.incrementAndGet()));
+        when(queueFactory.createQueue(MailQueueFactory.SPOOL)).thenAnswer(any -> queue);
+
+        CountDownLatch processingLatch = new CountDownLatch(1);
+        doAnswer(ignored -> processingLatch.await(10, TimeUnit.SECONDS))
+            .when(mailProcessor).service(any());
+
+        PropertyListConfiguration configuration = new PropertyListConfiguration();
+        configuration.addProperty("threads", 2);
+        spooler.configure(configuration);
+        spooler.init();
+
+        try {
+            CALMLY_AWAIT.until(() -> spooler.getCurrentSpoolCount() == 2);
+            assertThat(dequeuedCount.get()).isEqualTo(2);
+
+            processingLatch.countDown();
+
+            CALMLY_AWAIT.until(() -> items.stream().noneMatch(MockedMailQueueItem::isNotDone));
+            CALMLY_AWAIT.until(() -> spooler.getCurrentSpoolCount() == 0);
+        } finally {
+            processingLatch.countDown();
+            spooler.dispose();
+        }
+    }
+
+    @Test
+    void concurrencyLimitShouldBeTheThreadCountByDefault() {
+        MailQueueFactory<?> queueFactory = mock(MailQueueFactory.class);
+        MailQueue queue = mock(MailQueue.class);
+        when(queue.deQueue()).thenAnswer(any -> UnicastProcessor.create());
+        when(queueFactory.createQueue(MailQueueFactory.SPOOL)).thenAnswer(any -> queue);
+        JamesMailSpooler spooler = new JamesMailSpooler(mock(MetricFactory.class), new NoopGaugeRegistry(), mock(MailProcessor.class), queueFactory);
+
+        PropertyListConfiguration configuration = new PropertyListConfiguration();
+        configuration.addProperty("threads", 7);
+        spooler.configure(configuration);
+        spooler.init();
+
+        try {
+            assertThat(spooler.getConcurrencyLimit()).isEqualTo(7);
+        } finally {
+            spooler.dispose();
+        }
+    }
+
+    @Test
+    void adaptiveConcurrencyLimitShouldStartAtOne() {
+        MailQueueFactory<?> queueFactory = mock(MailQueueFactory.class);
+        MailQueue queue = mock(MailQueue.class);
+        when(queue.deQueue()).thenAnswer(any -> UnicastProcessor.create());
+        when(queueFactory.createQueue(MailQueueFactory.SPOOL)).thenAnswer(any -> queue);
+        JamesMailSpooler spooler = new JamesMailSpooler(mock(MetricFactory.class), new NoopGaugeRegistry(), mock(MailProcessor.class), queueFactory);
+
+        PropertyListConfiguration configuration = new PropertyListConfiguration();
+        configuration.addProperty("threads", 7);
+        configuration.addProperty("adaptiveConcurrency", true);
+        spooler.configure(configuration);
+        spooler.init();
+
+        try {
+            assertThat(spooler.getConcurrencyLimit()).isEqualTo(1);
+        } finally {
+            spooler.dispose();
+        }
+    }
+
     private class MockedMailQueueItem implements MailQueue.MailQueueItem {
         private final Collection<Boolean> dones;
         private Consumer<Boolean> doneCallback;
@@ -25,6 +25,7 @@ import org.apache.james.mailetcontainer.api.mock.MockMailetLoader;
 import org.apache.james.mailetcontainer.api.mock.MockMatcherLoader;
 import org.apache.james.mailetcontainer.lib.AbstractStateCompositeProcessor;
 import org.apache.james.mailetcontainer.lib.AbstractStateCompositeProcessorTest;
+import org.apache.james.metrics.api.NoopGaugeRegistry;
 import org.apache.james.metrics.api.NoopMetricFactory;
 import org.apache.mailet.base.test.FakeMailContext;
 
@@ -33,6 +34,7 @@ public class CamelCompositeProcessorTest extends AbstractStateCompositeProcessor
     @Override
     protected AbstractStateCompositeProcessor createProcessor(HierarchicalConfiguration<ImmutableNode> config) throws Exception {
         CamelCompositeProcessor processor = new CamelCompositeProcessor(new NoopMetricFactory(),
+            new NoopGaugeRegistry(),
             FakeMailContext.defaultContext(),
             new MockMatcherLoader(),
             new MockMailetLoader());
@@ -0,0 +1,146 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailetcontainer.impl.pipeline;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.commons.configuration2.HierarchicalConfiguration;
+import org.apache.commons.configuration2.tree.ImmutableNode;
+import org.apache.james.mailetcontainer.api.mock.MockMailet;
+import org.apache.james.mailetcontainer.api.mock.MockMailetLoader;
+import org.apache.james.mailetcontainer.api.mock.MockMatcher;
+import org.apache.james.mailetcontainer.api.mock.MockMatcherLoader;
+import org.apache.james.mailetcontainer.impl.camel.CamelCompositeProcessor;
+import org.apache.james.mailetcontainer.lib.AbstractStateCompositeProcessor;
+import org.apache.james.metrics.api.NoopGaugeRegistry;
+import org.apache.james.metrics.api.NoopMetricFactory;
+import org.apache.james.server.core.MailImpl;
+import org.apache.james.server.core.configuration.FileConfigurationProvider;
+import org.apache.mailet.Mail;
+import org.apache.mailet.base.test.FakeMailContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the throughput of {@link CamelCompositeProcessor}, routing mails through Camel endpoints, with the one of
+ * {@link PipelineCompositeProcessor}, calling matchers and mailets directly. Mails go through a root and a transport
+ * processor, each of them made of several always matching steps, before being ghosted.
+ *
+ * Run it from the IDE, or with:
+ *
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.apache.james.mailetcontainer.impl.pipeline.MailProcessorBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class MailProcessorBenchmark {
+    private static final int STEPS_PER_PROCESSOR = 10;
+    private static final String TRANSPORT = "transport";
+
+    @Param({"camel", "pipeline"})
+    private String engine;
+
+    private AbstractStateCompositeProcessor processor;
+
+    @Setup
+    public void setUp() throws Exception {
+        if (engine.equals("camel")) {
+            CamelCompositeProcessor camelProcessor = new CamelCompositeProcessor(new NoopMetricFactory(), new NoopGaugeRegistry(),
+                FakeMailContext.defaultContext(), new MockMatcherLoader(), new MockMailetLoader());
+            camelProcessor.setCamelContext(new DefaultCamelContext());
+            processor = camelProcessor;
+        } else {
+            processor = new PipelineCompositeProcessor(new NoopMetricFactory(), new NoopGaugeRegistry(),
+                FakeMailContext.defaultContext(), new MockMatcherLoader(), new MockMailetLoader());
+        }
+        processor.configure(createConfig());
+        processor.init();
+    }
+
+    @TearDown
+    public void tearDown() {
+        processor.dispose();
+    }
+
+    @Benchmark
+    public void service() throws Exception {
+        processor.service(MailImpl.builder()
+            .name("benchmark")
+            .sender("sender@domain.tld")
+            .addRecipient("recipient@domain.tld")
+            .state(Mail.DEFAULT)
+            .build());
+    }
+
+    private HierarchicalConfiguration<ImmutableNode> createConfig() throws Exception {
+        StringBuilder sb = new StringBuilder();
+        sb.append("<?xml version=\"1.0\"?>");
+        sb.append("<processors>");
+        appendProcessor(sb, Mail.DEFAULT, TRANSPORT);
+        appendProcessor(sb, TRANSPORT, Mail.GHOST);
+        sb.append("<processor state=\"").append(Mail.ERROR).append("\"/>");
+        sb.append("</processors>");
+
+        return FileConfigurationProvider.getConfig(new ByteArrayInputStream(sb.toString().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private void appendProcessor(StringBuilder sb, String state, String nextState) {
+        sb.append("<processor state=\"").append(state).append("\">");
+        for (int i = 0; i < STEPS_PER_PROCESSOR; i++) {
+            appendMailet(sb, state);
+        }
+        appendMailet(sb, nextState);
+        sb.append("</processor>");
+    }
+
+    private void appendMailet(StringBuilder sb, String state) {
+        sb.append("<mailet match=\"").append(MockMatcher.class.getName()).append("=1\"")
+            .append(" class=\"").append(MockMailet.class.getName()).append("\">");
+        sb.append("<state>").append(state).append("</state>");
+        sb.append("</mailet>");
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(MailProcessorBenchmark.class.getSimpleName())
+                .build())
+            .run();
+    }
+}
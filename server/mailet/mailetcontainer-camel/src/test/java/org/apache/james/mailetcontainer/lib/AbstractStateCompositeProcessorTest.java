@@ -25,6 +25,8 @@ import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import javax.mail.MessagingException;
 
@@ -83,6 +85,51 @@ public abstract class AbstractStateCompositeProcessorTest {
 
     }
 
+    @Test
+    public void processingCountShouldCountMailsBeingProcessed() throws Exception {
+        AtomicReference<AbstractStateCompositeProcessor> composite = new AtomicReference<>();
+        AtomicInteger processingCountDuringService = new AtomicInteger(-1);
+        AbstractStateCompositeProcessor processor = new AbstractStateCompositeProcessor() {
+
+            @Override
+            protected MailProcessor createMailProcessor(final String state, HierarchicalConfiguration<ImmutableNode> config) throws
+                Exception {
+                return new MockMailProcessor("") {
+
+                    @Override
+                    public void service(Mail mail) throws MessagingException {
+                        processingCountDuringService.set(composite.get().getProcessingCount(state));
+                        super.service(mail);
+                    }
+                };
+            }
+        };
+        composite.set(processor);
+        processor.configure(createConfig(Arrays.asList("root", "error", "test")));
+        processor.init();
+
+        try {
+            processor.service(MailImpl.builder().name("mail1").state("test").build());
+
+            assertThat(processingCountDuringService.get()).isEqualTo(1);
+            assertThat(processor.getProcessingCount("test")).isEqualTo(0);
+            assertThat(processor.getProcessingCount("root")).isEqualTo(0);
+        } finally {
+            processor.dispose();
+        }
+    }
+
+    @Test
+    public void processingCountShouldBeZeroWhenUnknownState() throws Exception {
+        AbstractStateCompositeProcessor processor = createProcessor(createConfig(Arrays.asList("root", "error")));
+
+        try {
+            assertThat(processor.getProcessingCount("unknown")).isEqualTo(0);
+        } finally {
+            processor.dispose();
+        }
+    }
+
     protected abstract AbstractStateCompositeProcessor createProcessor(HierarchicalConfiguration<ImmutableNode> config) throws
             Exception;
 
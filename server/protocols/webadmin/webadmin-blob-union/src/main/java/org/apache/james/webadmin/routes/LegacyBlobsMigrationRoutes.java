@@ -0,0 +1,145 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.webadmin.routes;
+
+import java.util.Optional;
+
+import javax.inject.Inject;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+
+import org.apache.james.blob.api.BucketName;
+import org.apache.james.blob.api.ListableBlobStore;
+import org.apache.james.blob.union.BlobMigrator;
+import org.apache.james.blob.union.LegacyBlobsMigrationTask;
+import org.apache.james.task.Task;
+import org.apache.james.task.TaskId;
+import org.apache.james.task.TaskManager;
+import org.apache.james.webadmin.Constants;
+import org.apache.james.webadmin.Routes;
+import org.apache.james.webadmin.dto.TaskIdDto;
+import org.apache.james.webadmin.utils.ErrorResponder;
+import org.apache.james.webadmin.utils.JsonTransformer;
+import org.apache.james.webadmin.utils.ParametersExtractor;
+import org.eclipse.jetty.http.HttpStatus;
+
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiImplicitParam;
+import io.swagger.annotations.ApiImplicitParams;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+import io.swagger.annotations.ResponseHeader;
+import spark.Request;
+import spark.Response;
+import spark.Service;
+
+@Api(tags = "Legacy blobs migration")
+@Path(LegacyBlobsMigrationRoutes.ROOT_PATH)
+@Produces(Constants.JSON_CONTENT_TYPE)
+public class LegacyBlobsMigrationRoutes implements Routes {
+    public static final String ROOT_PATH = "blobs/legacy";
+
+    private static final String BUCKET_NAME_PARAM = ":bucketName";
+    private static final String MIGRATE_ACTION = "migrate";
+    private static final String PARALLELISM_PARAM = "parallelism";
+
+    private final Optional<BlobMigrator> migrator;
+    private final ListableBlobStore legacyBlobStore;
+    private final TaskManager taskManager;
+    private final JsonTransformer jsonTransformer;
+
+    @Inject
+    LegacyBlobsMigrationRoutes(Optional<BlobMigrator> migrator, ListableBlobStore legacyBlobStore, TaskManager taskManager, JsonTransformer jsonTransformer) {
+        this.migrator = migrator;
+        this.legacyBlobStore = legacyBlobStore;
+        this.taskManager = taskManager;
+        this.jsonTransformer = jsonTransformer;
+    }
+
+    @Override
+    public String getBasePath() {
+        return ROOT_PATH;
+    }
+
+    @Override
+    public void define(Service service) {
+        service.post(ROOT_PATH + "/" + BUCKET_NAME_PARAM, this::migrateBucket, jsonTransformer);
+    }
+
+    @POST
+    @Path("/{bucketName}")
+    @ApiOperation(value = "Copying all the blobs of a bucket from the legacy blob store to the current one")
+    @ApiImplicitParams({
+        @ApiImplicitParam(required = true, dataType = "String", name = "bucketName", paramType = "path"),
+        @ApiImplicitParam(
+            required = true,
+            dataType = "String",
+            name = "action",
+            paramType = "query",
+            example = "?action=migrate",
+            value = "Specify the action to perform on the legacy blobs of this bucket. For now only 'migrate' is supported."),
+        @ApiImplicitParam(
+            dataType = "Integer",
+            name = "parallelism",
+            paramType = "query",
+            example = "?parallelism=4",
+            value = "Number of blobs being copied concurrently. Defaults to 4.")
+    })
+    @ApiResponses(value = {
+        @ApiResponse(code = HttpStatus.CREATED_201, message = "The taskId of the given scheduled task", response = TaskIdDto.class,
+            responseHeaders = {
+                @ResponseHeader(name = "Location", description = "URL of the resource associated with the scheduled task")
+            }),
+        @ApiResponse(code = HttpStatus.BAD_REQUEST_400, message = "Invalid action, parallelism or bucket name, or no union blob store is configured"),
+        @ApiResponse(code = HttpStatus.INTERNAL_SERVER_ERROR_500, message = "Internal server error - Something went bad on the server side.")
+    })
+    public TaskIdDto migrateBucket(Request request, Response response) {
+        assertMigrateAction(request);
+        BucketName bucketName = BucketName.of(request.params(BUCKET_NAME_PARAM));
+        int parallelism = extractParallelism(request);
+        BlobMigrator blobMigrator = migrator.orElseThrow(() -> ErrorResponder.builder()
+            .statusCode(HttpStatus.BAD_REQUEST_400)
+            .type(ErrorResponder.ErrorType.INVALID_ARGUMENT)
+            .message("Legacy blobs can only be migrated when relying on the union blob store")
+            .haltError());
+
+        Task task = new LegacyBlobsMigrationTask(blobMigrator, legacyBlobStore, bucketName, parallelism);
+        TaskId taskId = taskManager.submit(task);
+        return TaskIdDto.respond(response, taskId);
+    }
+
+    private void assertMigrateAction(Request request) {
+        String action = request.queryParams("action");
+        if (!MIGRATE_ACTION.equals(action)) {
+            throw new IllegalArgumentException(action + " is not a supported action");
+        }
+    }
+
+    private int extractParallelism(Request request) {
+        int parallelism = ParametersExtractor.extractPositiveInteger(request, PARALLELISM_PARAM)
+            .orElse(LegacyBlobsMigrationTask.DEFAULT_PARALLELISM);
+        if (parallelism == 0) {
+            throw new IllegalArgumentException(PARALLELISM_PARAM + " can not be equal to zero");
+        }
+        return parallelism;
+    }
+}
@@ -0,0 +1,180 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.webadmin.routes;
+
+import static io.restassured.RestAssured.given;
+import static io.restassured.RestAssured.when;
+import static io.restassured.RestAssured.with;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+
+import java.util.Optional;
+
+import org.apache.james.blob.api.BlobId;
+import org.apache.james.blob.api.BucketName;
+import org.apache.james.blob.api.HashBlobId;
+import org.apache.james.blob.memory.MemoryBlobStore;
+import org.apache.james.blob.union.BlobMigrator;
+import org.apache.james.blob.union.LegacyBlobsMigrationTask;
+import org.apache.james.metrics.api.NoopMetricFactory;
+import org.apache.james.task.Hostname;
+import org.apache.james.task.MemoryTaskManager;
+import org.apache.james.webadmin.WebAdminServer;
+import org.apache.james.webadmin.WebAdminUtils;
+import org.apache.james.webadmin.utils.JsonTransformer;
+import org.eclipse.jetty.http.HttpStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.restassured.RestAssured;
+
+class LegacyBlobsMigrationRoutesTest {
+    private static final HashBlobId.Factory BLOB_ID_FACTORY = new HashBlobId.Factory();
+    private static final BucketName CUSTOM = BucketName.of("custom");
+
+    private WebAdminServer webAdminServer;
+    private MemoryTaskManager taskManager;
+    private MemoryBlobStore currentBlobStore;
+    private MemoryBlobStore legacyBlobStore;
+
+    private void startServer(Optional<BlobMigrator> migrator) {
+        JsonTransformer jsonTransformer = new JsonTransformer();
+        taskManager = new MemoryTaskManager(new Hostname("foo"));
+        webAdminServer = WebAdminUtils.createWebAdminServer(
+                new LegacyBlobsMigrationRoutes(migrator, legacyBlobStore, taskManager, jsonTransformer),
+                new TasksRoutes(taskManager, jsonTransformer))
+            .start();
+
+        RestAssured.requestSpecification = WebAdminUtils.buildRequestSpecification(webAdminServer)
+            .setBasePath(LegacyBlobsMigrationRoutes.ROOT_PATH)
+            .build();
+    }
+
+    @BeforeEach
+    void setUp() {
+        currentBlobStore = new MemoryBlobStore(BLOB_ID_FACTORY);
+        legacyBlobStore = new MemoryBlobStore(BLOB_ID_FACTORY);
+        startServer(Optional.of(new BlobMigrator(currentBlobStore, legacyBlobStore, new NoopMetricFactory())));
+    }
+
+    @AfterEach
+    void tearDown() {
+        webAdminServer.destroy();
+        taskManager.stop();
+    }
+
+    @Test
+    void postShouldCreateATask() {
+        given()
+            .queryParam("action", "migrate")
+        .when()
+            .post(CUSTOM.asString())
+        .then()
+            .statusCode(HttpStatus.CREATED_201)
+            .header("Location", is(notNullValue()))
+            .body("taskId", is(notNullValue()));
+    }
+
+    @Test
+    void taskShouldCopyLegacyBlobsOfTheBucket() {
+        BlobId blobId = legacyBlobStore.save(CUSTOM, "content").block();
+
+        String taskId = with()
+            .queryParam("action", "migrate")
+            .queryParam("parallelism", 2)
+            .post(CUSTOM.asString())
+            .jsonPath()
+            .get("taskId");
+
+        given()
+            .basePath(TasksRoutes.BASE)
+        .when()
+            .get(taskId + "/await")
+        .then()
+            .body("status", is("completed"))
+            .body("type", is(LegacyBlobsMigrationTask.TYPE.asString()))
+            .body("additionalInformation.bucketName", is(CUSTOM.asString()))
+            .body("additionalInformation.parallelism", is(2))
+            .body("additionalInformation.migratedBlobCount", is(1))
+            .body("additionalInformation.failedBlobCount", is(0));
+
+        assertThat(currentBlobStore.readBytes(CUSTOM, blobId).block())
+            .isEqualTo("content".getBytes());
+    }
+
+    @Test
+    void postShouldRejectInvalidActions() {
+        given()
+            .queryParam("action", "invalid")
+        .when()
+            .post(CUSTOM.asString())
+        .then()
+            .statusCode(HttpStatus.BAD_REQUEST_400)
+            .body("statusCode", is(400))
+            .body("type", is("InvalidArgument"));
+    }
+
+    @Test
+    void postShouldRejectMissingActions() {
+        when()
+            .post(CUSTOM.asString())
+        .then()
+            .statusCode(HttpStatus.BAD_REQUEST_400);
+    }
+
+    @Test
+    void postShouldRejectZeroParallelism() {
+        given()
+            .queryParam("action", "migrate")
+            .queryParam("parallelism", 0)
+        .when()
+            .post(CUSTOM.asString())
+        .then()
+            .statusCode(HttpStatus.BAD_REQUEST_400);
+    }
+
+    @Test
+    void postShouldRejectNegativeParallelism() {
+        given()
+            .queryParam("action", "migrate")
+            .queryParam("parallelism", -1)
+        .when()
+            .post(CUSTOM.asString())
+        .then()
+            .statusCode(HttpStatus.BAD_REQUEST_400);
+    }
+
+    @Test
+    void postShouldBeRejectedWhenNoUnionBlobStore() {
+        webAdminServer.destroy();
+        taskManager.stop();
+        startServer(Optional.empty());
+
+        given()
+            .queryParam("action", "migrate")
+        .when()
+            .post(CUSTOM.asString())
+        .then()
+            .statusCode(HttpStatus.BAD_REQUEST_400)
+            .body("message", is("Legacy blobs can only be migrated when relying on the union blob store"));
+    }
+}
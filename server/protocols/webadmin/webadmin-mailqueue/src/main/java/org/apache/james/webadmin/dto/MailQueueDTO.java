@@ -38,6 +38,13 @@ public class MailQueueDTO {
             .build();
     }
 
+    public static MailQueueDTO fromExactSize(ManageableMailQueue mailQueue) throws MailQueueException {
+        return builder()
+            .name(mailQueue.getName())
+            .size(mailQueue.getExactSize())
+            .build();
+    }
+
     public static class Builder {
 
         private String name;
@@ -84,6 +84,7 @@ public class MailQueueRoutes implements Routes {
     @VisibleForTesting static final String MAILS = "/mails";
     
     private static final String DELAYED_QUERY_PARAM = "delayed";
+    private static final String EXACT_SIZE_QUERY_PARAM = "exactSize";
     private static final String LIMIT_QUERY_PARAM = "limit";
     @VisibleForTesting static final int DEFAULT_LIMIT_VALUE = 100;
     private static final String SENDER_QUERY_PARAM = "sender";
@@ -145,7 +146,14 @@ public class MailQueueRoutes implements Routes {
     @GET
     @Path("/{mailQueueName}")
     @ApiImplicitParams({
-        @ApiImplicitParam(required = true, dataType = "string", name = "mailQueueName", paramType = "path")
+        @ApiImplicitParam(required = true, dataType = "string", name = "mailQueueName", paramType = "path"),
+        @ApiImplicitParam(
+            required = false,
+            dataType = "boolean",
+            name = EXACT_SIZE_QUERY_PARAM,
+            paramType = "query",
+            example = "?exactSize=true",
+            value = "Whether the size should be computed exactly, which might be expensive, or approximated.")
     })
     @ApiOperation(
         value = "Get a MailQueue details"
@@ -164,7 +172,8 @@ public class MailQueueRoutes implements Routes {
 
     private MailQueueDTO getMailQueue(Request request) {
         String mailQueueName = request.params(MAIL_QUEUE_NAME);
-        return mailQueueFactory.getQueue(mailQueueName).map(this::toDTO)
+        boolean exactSize = Boolean.parseBoolean(request.queryParams(EXACT_SIZE_QUERY_PARAM));
+        return mailQueueFactory.getQueue(mailQueueName).map(queue -> toDTO(queue, exactSize))
             .orElseThrow(
                 () -> ErrorResponder.builder()
                     .message(String.format("%s can not be found", mailQueueName))
@@ -173,8 +182,11 @@ public class MailQueueRoutes implements Routes {
                     .haltError());
     }
 
-    private MailQueueDTO toDTO(ManageableMailQueue queue) {
+    private MailQueueDTO toDTO(ManageableMailQueue queue, boolean exactSize) {
         try {
+            if (exactSize) {
+                return MailQueueDTO.fromExactSize(queue);
+            }
             return MailQueueDTO.from(queue);
         } catch (MailQueueException e) {
             throw ErrorResponder.builder()
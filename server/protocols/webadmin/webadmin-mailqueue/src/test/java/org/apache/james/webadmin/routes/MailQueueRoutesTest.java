@@ -347,6 +347,21 @@ class MailQueueRoutesTest {
                 .body("size", equalTo(1));
         }
 
+        @Test
+        void getMailQueueShouldReturnTheExactSizeWhenRequested() throws Exception {
+            MemoryMailQueue queue = mailQueueFactory.createQueue(FIRST_QUEUE);
+            queue.enQueue(Mails.defaultMail().name("name").build());
+
+            given()
+                .queryParam("exactSize", true)
+            .when()
+                .get(FIRST_QUEUE)
+            .then()
+                .statusCode(HttpStatus.OK_200)
+                .body("name", equalTo(FIRST_QUEUE))
+                .body("size", equalTo(1));
+        }
+
         @Test
         void getMailQueueShouldReturnNotFoundWhenMailQueueDoesntExist() {
             when()
@@ -20,6 +20,8 @@
 package org.apache.james.queue.activemq;
 
 import java.io.IOException;
+import java.time.Instant;
+import java.util.Optional;
 
 import javax.jms.JMSException;
 import javax.jms.Message;
@@ -43,8 +45,8 @@ public class ActiveMQMailQueueItem extends JMSMailQueueItem implements ActiveMQS
 
     private final Message message;
 
-    public ActiveMQMailQueueItem(Mail mail, Session session, MessageConsumer consumer, Message message) {
-        super(mail,  session, consumer);
+    public ActiveMQMailQueueItem(Mail mail, Session session, MessageConsumer consumer, Message message, Optional<Instant> enqueuedTime) {
+        super(mail,  session, consumer, enqueuedTime);
         this.message = message;
     }
 
@@ -20,6 +20,8 @@
 package org.apache.james.queue.api;
 
 import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 
 import javax.mail.MessagingException;
@@ -28,6 +30,9 @@ import org.apache.mailet.Mail;
 import org.reactivestreams.Publisher;
 import org.threeten.extra.Temporals;
 
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
 /**
  * <p>
  * A Queue/Spool for Mails. How the Queue handles the ordering of the dequeuing
@@ -64,6 +69,9 @@ public interface MailQueue {
     String DEQUEUED_METRIC_NAME_PREFIX = "dequeuedMail:";
     String ENQUEUED_TIMER_METRIC_NAME_PREFIX = "enqueueTime:";
     String QUEUE_SIZE_METRIC_NAME_PREFIX = "mailQueueSize:";
+    String DEQUEUED_MAIL_AGE_METRIC_NAME_PREFIX = "dequeuedMailAge:";
+    String ACKNOWLEDGED_MAIL_AGE_METRIC_NAME_PREFIX = "acknowledgedMailAge:";
+    String OLDEST_MAIL_AGE_METRIC_NAME_PREFIX = "oldestMailAge:";
 
     /**
      * No delay for queued {@link MailQueueItem}
@@ -104,6 +112,42 @@ public interface MailQueue {
      */
     void enQueue(Mail mail) throws MailQueueException;
 
+    /**
+     * Enqueue the Mail to the queue upon subscription. The given delay is used to
+     * calculate the time when the Mail will be available for deQueue
+     *
+     * The default implementation runs the blocking {@link #enQueue(Mail, Duration)}
+     * on a dedicated scheduler: implementations relying on non blocking clients
+     * should override it.
+     *
+     * @param mail
+     * @param delay
+     * @return a publisher completing once the Mail is enqueued, or failing with a
+     *      {@link MailQueueException}
+     */
+    default Publisher<Void> enqueueReactive(Mail mail, Duration delay) {
+        return Mono.<Void>fromCallable(() -> {
+                enQueue(mail, delay);
+                return null;
+            })
+            .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Enqueue the Mail to the queue upon subscription
+     *
+     * @param mail
+     * @return a publisher completing once the Mail is enqueued, or failing with a
+     *      {@link MailQueueException}
+     */
+    default Publisher<Void> enqueueReactive(Mail mail) {
+        return Mono.<Void>fromCallable(() -> {
+                enQueue(mail);
+                return null;
+            })
+            .subscribeOn(Schedulers.boundedElastic());
+    }
+
     /**
      * Dequeue the next ready-to-process Mail of the queue. This method will
      * block until a Mail is ready and then process the operation.
@@ -148,5 +192,17 @@ public interface MailQueue {
          * @throws MailQueueException
          */
         void done(boolean success) throws MailQueueException;
+
+        /**
+         * Return the time the dequeued {@link Mail} was enqueued at, if known
+         *
+         * Mails enqueued by implementations not keeping track of it, or by former
+         * versions of them, have no enqueue time.
+         *
+         * @return enqueued time
+         */
+        default Optional<Instant> getEnqueuedTime() {
+            return Optional.empty();
+        }
     }
 }
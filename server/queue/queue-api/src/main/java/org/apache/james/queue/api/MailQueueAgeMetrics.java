@@ -0,0 +1,112 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.queue.api;
+
+import static org.apache.james.queue.api.MailQueue.ACKNOWLEDGED_MAIL_AGE_METRIC_NAME_PREFIX;
+import static org.apache.james.queue.api.MailQueue.DEQUEUED_MAIL_AGE_METRIC_NAME_PREFIX;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import org.apache.james.metrics.api.Gauge;
+import org.apache.james.metrics.api.MetricFactory;
+import org.apache.james.queue.api.MailQueue.MailQueueException;
+import org.apache.james.queue.api.MailQueue.MailQueueItem;
+import org.apache.james.queue.api.MailQueueItemDecoratorFactory.MailQueueItemDecorator;
+import org.apache.mailet.Mail;
+
+/**
+ * Records how long mails stay in a given mail queue, based on the enqueue time carried by their
+ * {@link MailQueueItem}: until they are dequeued, and until their processing is acknowledged. Items without
+ * enqueue time are not recorded.
+ */
+public class MailQueueAgeMetrics {
+
+    private class AcknowledgedMailAgeRecorder extends MailQueueItemDecorator {
+        AcknowledgedMailAgeRecorder(MailQueueItem mailQueueItem) {
+            super(mailQueueItem);
+        }
+
+        @Override
+        public Mail getMail() {
+            return mailQueueItem.getMail();
+        }
+
+        @Override
+        public void done(boolean success) throws MailQueueException {
+            mailQueueItem.done(success);
+            if (success) {
+                record(acknowledgedMailAgeMetricName, mailQueueItem);
+            }
+        }
+    }
+
+    private final MetricFactory metricFactory;
+    private final Clock clock;
+    private final String dequeuedMailAgeMetricName;
+    private final String acknowledgedMailAgeMetricName;
+
+    public MailQueueAgeMetrics(String queueName, MetricFactory metricFactory, Clock clock) {
+        this.metricFactory = metricFactory;
+        this.clock = clock;
+        this.dequeuedMailAgeMetricName = DEQUEUED_MAIL_AGE_METRIC_NAME_PREFIX + queueName;
+        this.acknowledgedMailAgeMetricName = ACKNOWLEDGED_MAIL_AGE_METRIC_NAME_PREFIX + queueName;
+    }
+
+    /**
+     * Records the age of the given dequeued item, and returns it decorated so that its age is also recorded once its
+     * processing is successfully acknowledged.
+     */
+    public MailQueueItem recordDequeue(MailQueueItem mailQueueItem) {
+        record(dequeuedMailAgeMetricName, mailQueueItem);
+        return new AcknowledgedMailAgeRecorder(mailQueueItem);
+    }
+
+    /**
+     * Gauge of the age in milliseconds of the oldest mail still pending in the mail queue, 0 when there is none. It
+     * allows alerting on the latency of the mail queue, regardless of its length.
+     */
+    public Gauge<Long> oldestMailAgeGauge(Supplier<Optional<Instant>> oldestEnqueuedTime) {
+        return () -> oldestEnqueuedTime.get()
+            .map(this::age)
+            .map(Duration::toMillis)
+            .orElse(0L);
+    }
+
+    private void record(String metricName, MailQueueItem mailQueueItem) {
+        mailQueueItem.getEnqueuedTime()
+            .map(this::age)
+            .ifPresent(age -> metricFactory.recordDuration(metricName, age));
+    }
+
+    /**
+     * Clocks of distinct servers can be slightly out of sync, which should not lead to negative ages.
+     */
+    private Duration age(Instant enqueuedTime) {
+        Duration age = Duration.between(enqueuedTime, clock.instant());
+        if (age.isNegative()) {
+            return Duration.ZERO;
+        }
+        return age;
+    }
+}
@@ -19,6 +19,9 @@
 
 package org.apache.james.queue.api;
 
+import java.time.Instant;
+import java.util.Optional;
+
 import org.apache.james.queue.api.MailQueue.MailQueueItem;
 
 public interface MailQueueItemDecoratorFactory {
@@ -31,5 +34,10 @@ public interface MailQueueItemDecoratorFactory {
         public MailQueueItemDecorator(MailQueueItem mailQueueItem) {
             this.mailQueueItem = mailQueueItem;
         }
+
+        @Override
+        public Optional<Instant> getEnqueuedTime() {
+            return mailQueueItem.getEnqueuedTime();
+        }
     }
 }
@@ -34,13 +34,24 @@ public interface ManageableMailQueue extends MailQueue {
     }
 
     /**
-     * Return the size of the queue
+     * Return the size of the queue. Implementations can return an approximation
+     * in order to keep this operation cheap.
      * 
      * @return size
      * @throws MailQueueException
      */
     long getSize() throws MailQueueException;
 
+    /**
+     * Return the exact size of the queue, which might be expensive to compute
+     *
+     * @return size
+     * @throws MailQueueException
+     */
+    default long getExactSize() throws MailQueueException {
+        return getSize();
+    }
+
     /**
      * Flush the queue, which means it will make all message ready for dequeue
      * 
@@ -52,6 +52,19 @@ public interface DelayedMailQueueContract {
             .isInstanceOf(RuntimeException.class);
     }
 
+    @Test
+    default void enqueueReactiveShouldDelayMailsWhenSpecified() throws Exception {
+        Mono.from(getMailQueue().enqueueReactive(defaultMail()
+            .name("name")
+            .build(),
+            Duration.ofSeconds(5)))
+            .block();
+
+        Mono<MailQueue.MailQueueItem> next = Flux.from(getMailQueue().deQueue()).subscribeOn(Schedulers.boundedElastic()).next();
+        assertThatThrownBy(() -> next.block(Duration.ofSeconds(1)))
+            .isInstanceOf(RuntimeException.class);
+    }
+
     @Test
     default void enqueueWithNegativeDelayShouldNotDelayDelivery() throws Exception {
         getMailQueue().enQueue(defaultMail()
@@ -0,0 +1,142 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.queue.api;
+
+import static org.apache.james.queue.api.MailQueue.ACKNOWLEDGED_MAIL_AGE_METRIC_NAME_PREFIX;
+import static org.apache.james.queue.api.MailQueue.DEQUEUED_MAIL_AGE_METRIC_NAME_PREFIX;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Optional;
+
+import org.apache.james.metrics.tests.RecordingMetricFactory;
+import org.apache.james.queue.api.MailQueue.MailQueueItem;
+import org.apache.mailet.Mail;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class MailQueueAgeMetricsTest {
+    private static final String QUEUE_NAME = "spool";
+    private static final Instant NOW = Instant.parse("2019-10-17T10:15:30.00Z");
+    private static final Duration TEN_SECONDS = Duration.ofSeconds(10);
+
+    private static class TestItem implements MailQueueItem {
+        private final Optional<Instant> enqueuedTime;
+        private Optional<Boolean> done = Optional.empty();
+
+        TestItem(Optional<Instant> enqueuedTime) {
+            this.enqueuedTime = enqueuedTime;
+        }
+
+        @Override
+        public Mail getMail() {
+            return null;
+        }
+
+        @Override
+        public void done(boolean success) {
+            done = Optional.of(success);
+        }
+
+        @Override
+        public Optional<Instant> getEnqueuedTime() {
+            return enqueuedTime;
+        }
+    }
+
+    private RecordingMetricFactory metricFactory;
+    private MailQueueAgeMetrics testee;
+
+    @BeforeEach
+    void setUp() {
+        metricFactory = new RecordingMetricFactory();
+        testee = new MailQueueAgeMetrics(QUEUE_NAME, metricFactory, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void recordDequeueShouldRecordTheAgeOfTheItem() {
+        testee.recordDequeue(new TestItem(Optional.of(NOW.minus(TEN_SECONDS))));
+
+        assertThat(metricFactory.executionTimesFor(DEQUEUED_MAIL_AGE_METRIC_NAME_PREFIX + QUEUE_NAME))
+            .containsExactly(TEN_SECONDS);
+        assertThat(metricFactory.executionTimesFor(ACKNOWLEDGED_MAIL_AGE_METRIC_NAME_PREFIX + QUEUE_NAME))
+            .isEmpty();
+    }
+
+    @Test
+    void recordDequeueShouldNotRecordWhenNoEnqueuedTime() throws Exception {
+        testee.recordDequeue(new TestItem(Optional.empty())).done(true);
+
+        assertThat(metricFactory.executionTimesForPrefixName(DEQUEUED_MAIL_AGE_METRIC_NAME_PREFIX).isEmpty()).isTrue();
+        assertThat(metricFactory.executionTimesForPrefixName(ACKNOWLEDGED_MAIL_AGE_METRIC_NAME_PREFIX).isEmpty()).isTrue();
+    }
+
+    @Test
+    void recordDequeueShouldNotRecordNegativeAges() {
+        testee.recordDequeue(new TestItem(Optional.of(NOW.plus(TEN_SECONDS))));
+
+        assertThat(metricFactory.executionTimesFor(DEQUEUED_MAIL_AGE_METRIC_NAME_PREFIX + QUEUE_NAME))
+            .containsExactly(Duration.ZERO);
+    }
+
+    @Test
+    void doneShouldRecordTheAgeOfAcknowledgedItems() throws Exception {
+        TestItem item = new TestItem(Optional.of(NOW.minus(TEN_SECONDS)));
+
+        testee.recordDequeue(item).done(true);
+
+        assertThat(item.done).contains(true);
+        assertThat(metricFactory.executionTimesFor(ACKNOWLEDGED_MAIL_AGE_METRIC_NAME_PREFIX + QUEUE_NAME))
+            .containsExactly(TEN_SECONDS);
+    }
+
+    @Test
+    void doneShouldNotRecordTheAgeOfFailedItems() throws Exception {
+        TestItem item = new TestItem(Optional.of(NOW.minus(TEN_SECONDS)));
+
+        testee.recordDequeue(item).done(false);
+
+        assertThat(item.done).contains(false);
+        assertThat(metricFactory.executionTimesFor(ACKNOWLEDGED_MAIL_AGE_METRIC_NAME_PREFIX + QUEUE_NAME))
+            .isEmpty();
+    }
+
+    @Test
+    void decoratedItemShouldKeepTheEnqueuedTime() {
+        MailQueueItem decorated = testee.recordDequeue(new TestItem(Optional.of(NOW)));
+
+        assertThat(decorated.getEnqueuedTime()).contains(NOW);
+    }
+
+    @Test
+    void oldestMailAgeGaugeShouldReturnTheAgeInMilliseconds() {
+        assertThat(testee.oldestMailAgeGauge(() -> Optional.of(NOW.minus(TEN_SECONDS))).get())
+            .isEqualTo(TEN_SECONDS.toMillis());
+    }
+
+    @Test
+    void oldestMailAgeGaugeShouldReturnZeroWhenEmpty() {
+        assertThat(testee.oldestMailAgeGauge(Optional::empty).get())
+            .isEqualTo(0L);
+    }
+}
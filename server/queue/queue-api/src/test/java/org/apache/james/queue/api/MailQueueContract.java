@@ -84,6 +84,32 @@ public interface MailQueueContract {
             .isEqualTo(name);
     }
 
+    @Test
+    default void enqueueReactiveShouldEnqueueMail() throws Exception {
+        Mono.from(getMailQueue().enqueueReactive(defaultMail()
+            .name("name")
+            .build()))
+            .block();
+
+        MailQueue.MailQueueItem mailQueueItem = Flux.from(getMailQueue().deQueue()).blockFirst();
+        assertThat(mailQueueItem.getMail().getName())
+            .isEqualTo("name");
+    }
+
+    @Test
+    default void enqueueReactiveShouldNotEnqueueWithoutSubscription() throws Exception {
+        getMailQueue().enqueueReactive(defaultMail()
+            .name("name1")
+            .build());
+        enQueue(defaultMail()
+            .name("name2")
+            .build());
+
+        MailQueue.MailQueueItem mailQueueItem = Flux.from(getMailQueue().deQueue()).blockFirst();
+        assertThat(mailQueueItem.getMail().getName())
+            .isEqualTo("name2");
+    }
+
     @Test
     default void queueShouldPreserveMailRecipients() throws Exception {
         enQueue(defaultMail()
@@ -19,12 +19,16 @@
 
 package org.apache.james.queue.api;
 
+import static org.apache.james.queue.api.MailQueue.ACKNOWLEDGED_MAIL_AGE_METRIC_NAME_PREFIX;
+import static org.apache.james.queue.api.MailQueue.DEQUEUED_MAIL_AGE_METRIC_NAME_PREFIX;
 import static org.apache.james.queue.api.MailQueue.DEQUEUED_METRIC_NAME_PREFIX;
 import static org.apache.james.queue.api.MailQueue.ENQUEUED_METRIC_NAME_PREFIX;
 import static org.apache.james.queue.api.MailQueue.ENQUEUED_TIMER_METRIC_NAME_PREFIX;
+import static org.apache.james.queue.api.MailQueue.OLDEST_MAIL_AGE_METRIC_NAME_PREFIX;
+import static org.apache.james.queue.api.MailQueue.QUEUE_SIZE_METRIC_NAME_PREFIX;
 import static org.apache.james.queue.api.Mails.defaultMail;
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -37,7 +41,6 @@ import org.apache.mailet.base.test.FakeMail;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.Mockito;
 
 import com.github.fge.lambdas.Throwing;
 
@@ -74,13 +77,67 @@ public interface MailQueueMetricContract extends MailQueueContract {
         enQueueMail(3);
 
         ArgumentCaptor<Gauge<?>> gaugeCaptor = ArgumentCaptor.forClass(Gauge.class);
-        verify(testSystem.getSpyGaugeRegistry(), times(1)).register(any(), gaugeCaptor.capture());
-        Mockito.verifyNoMoreInteractions(testSystem.getSpyGaugeRegistry());
+        verify(testSystem.getSpyGaugeRegistry(), times(1))
+            .register(eq(QUEUE_SIZE_METRIC_NAME_PREFIX + getMailQueue().getName()), gaugeCaptor.capture());
 
         Gauge<?> registeredGauge = gaugeCaptor.getValue();
         assertThat(registeredGauge.get()).isEqualTo(3L);
     }
 
+    @Test
+    default void oldestMailAgeGaugeShouldBeZeroWhenEmptyQueue(MailQueueMetricExtension.MailQueueMetricTestSystem testSystem) {
+        ArgumentCaptor<Gauge<?>> gaugeCaptor = ArgumentCaptor.forClass(Gauge.class);
+        verify(testSystem.getSpyGaugeRegistry(), times(1))
+            .register(eq(OLDEST_MAIL_AGE_METRIC_NAME_PREFIX + getMailQueue().getName()), gaugeCaptor.capture());
+
+        assertThat(gaugeCaptor.getValue().get()).isEqualTo(0L);
+    }
+
+    @Test
+    default void oldestMailAgeGaugeShouldNotBeNegativeWhenEnqueuedMails(MailQueueMetricExtension.MailQueueMetricTestSystem testSystem) {
+        enQueueMail(2);
+
+        ArgumentCaptor<Gauge<?>> gaugeCaptor = ArgumentCaptor.forClass(Gauge.class);
+        verify(testSystem.getSpyGaugeRegistry(), times(1))
+            .register(eq(OLDEST_MAIL_AGE_METRIC_NAME_PREFIX + getMailQueue().getName()), gaugeCaptor.capture());
+
+        assertThat((Long) gaugeCaptor.getValue().get()).isGreaterThanOrEqualTo(0L);
+    }
+
+    @Test
+    default void dequeueShouldRecordDequeuedMailAge(MailQueueMetricExtension.MailQueueMetricTestSystem testSystem) {
+        enQueueMail(2);
+        deQueueMail(2);
+
+        assertThat(testSystem.getMetricFactory().executionTimesForPrefixName(DEQUEUED_MAIL_AGE_METRIC_NAME_PREFIX))
+            .satisfies(executionMap -> {
+                assertThat(executionMap.keySet()).hasSize(1);
+                assertThat(executionMap.values()).hasSize(2);
+            });
+    }
+
+    @Test
+    default void dequeueShouldRecordAcknowledgedMailAge(MailQueueMetricExtension.MailQueueMetricTestSystem testSystem) {
+        enQueueMail(2);
+        deQueueMail(2);
+
+        assertThat(testSystem.getMetricFactory().executionTimesForPrefixName(ACKNOWLEDGED_MAIL_AGE_METRIC_NAME_PREFIX))
+            .satisfies(executionMap -> {
+                assertThat(executionMap.keySet()).hasSize(1);
+                assertThat(executionMap.values()).hasSize(2);
+            });
+    }
+
+    @Test
+    default void enqueueShouldNotRecordMailAge(MailQueueMetricExtension.MailQueueMetricTestSystem testSystem) {
+        enQueueMail(2);
+
+        assertThat(testSystem.getMetricFactory().executionTimesForPrefixName(DEQUEUED_MAIL_AGE_METRIC_NAME_PREFIX).values())
+            .isEmpty();
+        assertThat(testSystem.getMetricFactory().executionTimesForPrefixName(ACKNOWLEDGED_MAIL_AGE_METRIC_NAME_PREFIX).values())
+            .isEmpty();
+    }
+
     @Test
     default void enqueueShouldIncreaseEnQueueMetric(MailQueueMetricExtension.MailQueueMetricTestSystem testSystem) {
         enQueueMail(2);
@@ -76,6 +76,27 @@ public interface ManageableMailQueueContract extends MailQueueContract {
         assertThat(size).isEqualTo(2L);
     }
 
+    @Test
+    default void getExactSizeShouldReturnMessageCountWhenSeveralMails() throws Exception {
+        enQueue(defaultMail().name("1").build());
+        enQueue(defaultMail().name("2").build());
+
+        long size = getManageableMailQueue().getExactSize();
+
+        assertThat(size).isEqualTo(2L);
+    }
+
+    @Test
+    default void getExactSizeShouldNotCountRemovedMails() throws Exception {
+        enQueue(defaultMail().name("1").build());
+        enQueue(defaultMail().name("2").build());
+        getManageableMailQueue().remove(ManageableMailQueue.Type.Name, "1");
+
+        long size = getManageableMailQueue().getExactSize();
+
+        assertThat(size).isEqualTo(1L);
+    }
+
     @Test
     default void dequeueShouldDecreaseQueueSize() throws Exception {
         enQueue(defaultMail().name("name").build());
@@ -268,6 +268,7 @@ public class FileMailQueue implements ManageableMailQueue {
                 try (ObjectInputStream oin = new ObjectInputStream(new FileInputStream(objectFile))) {
                     final Mail mail = (Mail) oin.readObject();
                     mail.setMessage(new MimeMessageCopyOnWriteProxy(new FileMimeMessageSource(msgFile)));
+                    final Optional<Instant> enqueuedTime = enqueuedTime(objectFile);
                     MailQueueItem fileMailQueueItem = new MailQueueItem() {
 
                         @Override
@@ -291,6 +292,11 @@ public class FileMailQueue implements ManageableMailQueue {
 
                             LifecycleUtil.dispose(mail);
                         }
+
+                        @Override
+                        public Optional<Instant> getEnqueuedTime() {
+                            return enqueuedTime;
+                        }
                     };
                     return Mono.just(mailQueueItemDecoratorFactory.decorate(fileMailQueueItem));
                 }
@@ -305,6 +311,17 @@ public class FileMailQueue implements ManageableMailQueue {
         }
     }
 
+    /**
+     * The object file is written upon enqueue and never modified afterward.
+     */
+    private Optional<Instant> enqueuedTime(File objectFile) {
+        long lastModified = objectFile.lastModified();
+        if (lastModified == 0) {
+            return Optional.empty();
+        }
+        return Optional.of(Instant.ofEpochMilli(lastModified));
+    }
+
     private final class FileMimeMessageSource extends MimeMessageSource implements Disposable {
 
         private File file;
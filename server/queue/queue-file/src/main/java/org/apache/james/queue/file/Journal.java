@@ -0,0 +1,239 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.queue.file;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.zip.CRC32;
+
+import org.apache.commons.io.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Append only log split into {@link JournalSegment}s.
+ *
+ * Each record is framed by its length and followed by its CRC32 checksum, so that a record partially written upon
+ * a crash is detected and discarded when the journal is replayed.
+ *
+ * Callers track, for each segment, the count of entries that still need to be retained. Segments are deleted
+ * oldest first, once they and all the segments before them have no entries left: records referencing an entry
+ * are always appended after this entry, thus are never lost while the entry is still retained.
+ */
+class Journal implements Closeable {
+
+    @FunctionalInterface
+    interface RecordConsumer {
+        void accept(JournalSegment segment, long position, ByteBuffer record) throws IOException;
+    }
+
+    static class Position {
+        private final JournalSegment segment;
+        private final long recordPosition;
+
+        Position(JournalSegment segment, long recordPosition) {
+            this.segment = segment;
+            this.recordPosition = recordPosition;
+        }
+
+        JournalSegment getSegment() {
+            return segment;
+        }
+
+        long getRecordPosition() {
+            return recordPosition;
+        }
+    }
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(Journal.class);
+    private static final int FRAME_HEADER_SIZE = Integer.BYTES;
+    private static final int FRAME_TRAILER_SIZE = Long.BYTES;
+
+    /**
+     * Replays the records of all the segments of the given directory, then starts a new segment for upcoming appends.
+     */
+    static Journal open(File directory, long maxSegmentSize, boolean sync, RecordConsumer replayConsumer) throws IOException {
+        FileUtils.forceMkdir(directory);
+        File[] segmentFiles = directory.listFiles((dir, name) -> JournalSegment.isSegmentFile(name));
+        Arrays.sort(segmentFiles, Comparator.comparingLong(file -> JournalSegment.parseId(file.getName())));
+
+        ConcurrentSkipListMap<Long, JournalSegment> segments = new ConcurrentSkipListMap<>();
+        for (int i = 0; i < segmentFiles.length; i++) {
+            JournalSegment segment = JournalSegment.open(segmentFiles[i]);
+            segments.put(segment.getId(), segment);
+            replay(segment, i == segmentFiles.length - 1, replayConsumer);
+        }
+
+        long nextId = Optional.ofNullable(segments.lastEntry())
+            .map(Map.Entry::getKey)
+            .orElse(0L) + 1;
+        JournalSegment activeSegment = JournalSegment.create(directory, nextId);
+        segments.put(activeSegment.getId(), activeSegment);
+
+        Journal journal = new Journal(directory, maxSegmentSize, sync, segments, activeSegment);
+        journal.compact();
+        return journal;
+    }
+
+    private static void replay(JournalSegment segment, boolean lastSegment, RecordConsumer replayConsumer) throws IOException {
+        long position = 0;
+        long size = segment.size();
+        while (position < size) {
+            Optional<ByteBuffer> record = readFrame(segment, position, size);
+            if (!record.isPresent()) {
+                if (lastSegment) {
+                    LOGGER.warn("Discarding the incomplete record at {} of {}", position, segment.getFile().getAbsolutePath());
+                    segment.truncate(position);
+                } else {
+                    LOGGER.error("Corrupted record at {} of {}, skipping the rest of this segment", position, segment.getFile().getAbsolutePath());
+                }
+                return;
+            }
+            int recordLength = record.get().remaining();
+            replayConsumer.accept(segment, position + FRAME_HEADER_SIZE, record.get());
+            position += FRAME_HEADER_SIZE + recordLength + FRAME_TRAILER_SIZE;
+        }
+    }
+
+    private static Optional<ByteBuffer> readFrame(JournalSegment segment, long position, long size) throws IOException {
+        if (position + FRAME_HEADER_SIZE > size) {
+            return Optional.empty();
+        }
+        int recordLength = segment.read(position, FRAME_HEADER_SIZE).getInt();
+        if (recordLength < 0 || position + FRAME_HEADER_SIZE + recordLength + FRAME_TRAILER_SIZE > size) {
+            return Optional.empty();
+        }
+        ByteBuffer record = segment.read(position + FRAME_HEADER_SIZE, recordLength);
+        long checksum = segment.read(position + FRAME_HEADER_SIZE + recordLength, FRAME_TRAILER_SIZE).getLong();
+        if (checksum(record) != checksum) {
+            return Optional.empty();
+        }
+        return Optional.of(record);
+    }
+
+    private static long checksum(ByteBuffer record) {
+        CRC32 crc32 = new CRC32();
+        crc32.update(record.duplicate());
+        return crc32.getValue();
+    }
+
+    private final File directory;
+    private final long maxSegmentSize;
+    private final boolean sync;
+    private final ConcurrentSkipListMap<Long, JournalSegment> segments;
+    private JournalSegment activeSegment;
+
+    private Journal(File directory, long maxSegmentSize, boolean sync, ConcurrentSkipListMap<Long, JournalSegment> segments, JournalSegment activeSegment) {
+        this.directory = directory;
+        this.maxSegmentSize = maxSegmentSize;
+        this.sync = sync;
+        this.segments = segments;
+        this.activeSegment = activeSegment;
+    }
+
+    /**
+     * Appends a record. When sync is enabled, returns once the record is written to the storage device.
+     *
+     * @param retained whether this record adds an entry to be retained in its segment, until {@link #release(JournalSegment)}
+     */
+    Position append(byte[] record, boolean retained) throws IOException, InterruptedException {
+        ByteBuffer frame = ByteBuffer.allocate(FRAME_HEADER_SIZE + record.length + FRAME_TRAILER_SIZE);
+        frame.putInt(record.length)
+            .put(record)
+            .putLong(checksum(ByteBuffer.wrap(record)))
+            .flip();
+        int frameLength = frame.remaining();
+
+        JournalSegment segment;
+        long framePosition;
+        synchronized (this) {
+            if (activeSegment.size() > 0 && activeSegment.size() + frameLength > maxSegmentSize) {
+                roll();
+            }
+            segment = activeSegment;
+            framePosition = segment.append(frame);
+            if (retained) {
+                segment.pendingEntries().incrementAndGet();
+            }
+        }
+
+        if (sync) {
+            segment.awaitDurable(framePosition + frameLength);
+        }
+        return new Position(segment, framePosition + FRAME_HEADER_SIZE);
+    }
+
+    /**
+     * Prevents the given segment from being deleted until a matching {@link #release(JournalSegment)}, for instance
+     * while reading it.
+     */
+    void retain(JournalSegment segment) {
+        segment.pendingEntries().incrementAndGet();
+    }
+
+    void release(JournalSegment segment) {
+        if (segment.pendingEntries().decrementAndGet() == 0) {
+            compact();
+        }
+    }
+
+    private void roll() throws IOException, InterruptedException {
+        JournalSegment previousSegment = activeSegment;
+        activeSegment = JournalSegment.create(directory, previousSegment.getId() + 1);
+        segments.put(activeSegment.getId(), activeSegment);
+        if (sync) {
+            previousSegment.awaitDurable(previousSegment.size());
+        }
+        compact();
+    }
+
+    private synchronized void compact() {
+        while (!segments.isEmpty()) {
+            JournalSegment oldestSegment = segments.firstEntry().getValue();
+            if (oldestSegment == activeSegment || oldestSegment.pendingEntries().get() > 0) {
+                return;
+            }
+            segments.remove(oldestSegment.getId());
+            try {
+                oldestSegment.delete();
+            } catch (IOException e) {
+                LOGGER.warn("Unable to delete journal segment {}", oldestSegment.getFile().getAbsolutePath(), e);
+            }
+        }
+    }
+
+    long segmentCount() {
+        return segments.size();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        for (JournalSegment segment : segments.values()) {
+            segment.close();
+        }
+    }
+}
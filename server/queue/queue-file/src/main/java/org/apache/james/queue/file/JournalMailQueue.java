@@ -0,0 +1,647 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.queue.file;
+
+import static org.apache.james.queue.api.MailPrioritySupport.HIGH_PRIORITY;
+import static org.apache.james.queue.api.MailPrioritySupport.LOW_PRIORITY;
+import static org.apache.james.queue.api.MailPrioritySupport.MAIL_PRIORITY;
+import static org.apache.james.queue.api.MailPrioritySupport.NORMAL_PRIORITY;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.time.Clock;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import javax.mail.MessagingException;
+
+import org.apache.commons.lang3.NotImplementedException;
+import org.apache.james.core.MailAddress;
+import org.apache.james.lifecycle.api.Disposable;
+import org.apache.james.lifecycle.api.LifecycleUtil;
+import org.apache.james.metrics.api.Gauge;
+import org.apache.james.metrics.api.GaugeRegistry;
+import org.apache.james.metrics.api.Metric;
+import org.apache.james.metrics.api.MetricFactory;
+import org.apache.james.metrics.api.TimeMetric;
+import org.apache.james.queue.api.MailQueueAgeMetrics;
+import org.apache.james.queue.api.MailQueueItemDecoratorFactory;
+import org.apache.james.queue.api.ManageableMailQueue;
+import org.apache.james.server.core.MimeMessageCopyOnWriteProxy;
+import org.apache.james.server.core.MimeMessageInputStreamSource;
+import org.apache.james.server.core.MimeMessageSource;
+import org.apache.james.util.concurrent.NamedThreadFactory;
+import org.apache.mailet.AttributeUtils;
+import org.apache.mailet.Mail;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.steveash.guavate.Guavate;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link ManageableMailQueue} implementation storing {@link Mail}s in an append only {@link Journal}.
+ * <p/>
+ * Each enqueued mail is appended as a single record, holding its metadata, the serialized {@link Mail} and its
+ * message, along with its enqueue time. Acknowledgments and removals are appended as records referencing the enqueued
+ * mail. When sync is enabled, concurrent enqueues share the same fsync.
+ * <p/>
+ * The pending mails are indexed in memory, thus only the records of dequeued or browsed mails are read. This index is
+ * rebuilt by replaying the journal upon creation. Journal segments get deleted once all their mails are acknowledged.
+ * The message of a dequeued mail is lazily read from the journal, whose segment is thus retained until this mail is
+ * acknowledged, even when removed meanwhile. Browsed mails are copied, as nothing tells when they are no longer used.
+ */
+public class JournalMailQueue implements ManageableMailQueue, Disposable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(JournalMailQueue.class);
+    private static final long DEFAULT_MAX_SEGMENT_SIZE = 64L * 1024 * 1024;
+    private static final Duration READ_FAILURE_RETRY_DELAY = Duration.ofMinutes(1);
+    private static final long NO_NEXT_DELIVERY = Long.MIN_VALUE;
+    private static final byte ENQUEUE_RECORD = 1;
+    private static final byte DELETE_RECORD = 2;
+    private static final byte CLEAR_RECORD = 3;
+    private static final boolean RETAINED = true;
+    private static final boolean NOT_RETAINED = false;
+
+    private enum State {
+        DELAYED,
+        READY,
+        PROCESSING,
+        REMOVED
+    }
+
+    /**
+     * Header of an enqueue record, along with the offsets of the serialized mail and message within this record.
+     */
+    private static class EnqueueRecord {
+        static byte[] encode(String key, Mail mail, int priority, Instant enqueuedTime, Optional<Instant> nextDelivery) throws IOException, MessagingException {
+            ByteArrayOutputStream mailBytes = new ByteArrayOutputStream();
+            try (ObjectOutputStream out = new ObjectOutputStream(mailBytes)) {
+                out.writeObject(mail);
+            }
+            ByteArrayOutputStream messageBytes = new ByteArrayOutputStream();
+            mail.getMessage().writeTo(messageBytes);
+
+            ByteArrayOutputStream record = new ByteArrayOutputStream(mailBytes.size() + messageBytes.size() + 1024);
+            try (DataOutputStream out = new DataOutputStream(record)) {
+                out.writeByte(ENQUEUE_RECORD);
+                out.writeUTF(key);
+                out.writeUTF(mail.getName());
+                out.writeUTF(mail.getMaybeSender().asString());
+                out.writeInt(mail.getRecipients().size());
+                for (MailAddress recipient : mail.getRecipients()) {
+                    out.writeUTF(recipient.asString());
+                }
+                out.writeInt(priority);
+                out.writeLong(enqueuedTime.toEpochMilli());
+                out.writeLong(nextDelivery.map(Instant::toEpochMilli).orElse(NO_NEXT_DELIVERY));
+                out.writeInt(mailBytes.size());
+                mailBytes.writeTo(out);
+                out.writeInt(messageBytes.size());
+                messageBytes.writeTo(out);
+            }
+            return record.toByteArray();
+        }
+
+        static EnqueueRecord decode(DataInputStream in, int recordLength) throws IOException {
+            String key = in.readUTF();
+            String name = in.readUTF();
+            String sender = in.readUTF();
+            int recipientCount = in.readInt();
+            ImmutableList.Builder<String> recipients = ImmutableList.builder();
+            for (int i = 0; i < recipientCount; i++) {
+                recipients.add(in.readUTF());
+            }
+            int priority = in.readInt();
+            long enqueuedTime = in.readLong();
+            long nextDelivery = in.readLong();
+            int mailLength = in.readInt();
+            int mailOffset = recordLength - in.available();
+            in.skipBytes(mailLength);
+            int messageLength = in.readInt();
+            int messageOffset = recordLength - in.available();
+
+            return new EnqueueRecord(key, name, sender, recipients.build(), priority, Instant.ofEpochMilli(enqueuedTime),
+                Optional.of(nextDelivery)
+                    .filter(value -> value != NO_NEXT_DELIVERY)
+                    .map(Instant::ofEpochMilli),
+                mailOffset, mailLength, messageOffset, messageLength);
+        }
+
+        private final String key;
+        private final String name;
+        private final String sender;
+        private final ImmutableList<String> recipients;
+        private final int priority;
+        private final Instant enqueuedTime;
+        private final Optional<Instant> nextDelivery;
+        private final int mailOffset;
+        private final int mailLength;
+        private final int messageOffset;
+        private final int messageLength;
+
+        private EnqueueRecord(String key, String name, String sender, ImmutableList<String> recipients, int priority, Instant enqueuedTime,
+                              Optional<Instant> nextDelivery, int mailOffset, int mailLength, int messageOffset, int messageLength) {
+            this.key = key;
+            this.name = name;
+            this.sender = sender;
+            this.recipients = recipients;
+            this.priority = priority;
+            this.enqueuedTime = enqueuedTime;
+            this.nextDelivery = nextDelivery;
+            this.mailOffset = mailOffset;
+            this.mailLength = mailLength;
+            this.messageOffset = messageOffset;
+            this.messageLength = messageLength;
+        }
+    }
+
+    /**
+     * A pending mail, referencing its record within the journal.
+     */
+    private static class QueueEntry {
+        private final long sequence;
+        private final EnqueueRecord record;
+        private final JournalSegment segment;
+        private final long recordPosition;
+        private final AtomicReference<State> state;
+
+        QueueEntry(long sequence, EnqueueRecord record, JournalSegment segment, long recordPosition) {
+            this.sequence = sequence;
+            this.record = record;
+            this.segment = segment;
+            this.recordPosition = recordPosition;
+            this.state = new AtomicReference<>(State.DELAYED);
+        }
+
+        Optional<ZonedDateTime> nextDelivery() {
+            return record.nextDelivery.map(instant -> instant.atZone(ZoneId.systemDefault()));
+        }
+    }
+
+    private final class JournalMimeMessageSource extends MimeMessageSource {
+        private final QueueEntry entry;
+
+        JournalMimeMessageSource(QueueEntry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public String getSourceId() {
+            return entry.segment.getFile().getAbsolutePath() + "#" + entry.recordPosition;
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return entry.segment.inputStream(entry.recordPosition + entry.record.messageOffset, entry.record.messageLength);
+        }
+
+        @Override
+        public long getMessageSize() {
+            return entry.record.messageLength;
+        }
+    }
+
+    private final String queueName;
+    private final ConcurrentSkipListMap<Long, QueueEntry> entries;
+    private final PriorityBlockingQueue<QueueEntry> readyEntries;
+    private final AtomicLong sequence;
+    private final ReadWriteLock clearLock;
+    private final ScheduledExecutorService scheduler;
+    private final Journal journal;
+    private final Flux<MailQueueItem> flux;
+    private final MetricFactory metricFactory;
+    private final Metric enqueuedMailsMetric;
+    private final Metric dequeuedMailsMetric;
+    private final MailQueueAgeMetrics mailQueueAgeMetrics;
+
+    public JournalMailQueue(MailQueueItemDecoratorFactory mailQueueItemDecoratorFactory, File parentDir, String queueName, boolean sync,
+                            MetricFactory metricFactory, GaugeRegistry gaugeRegistry) throws IOException {
+        this(mailQueueItemDecoratorFactory, parentDir, queueName, sync, metricFactory, gaugeRegistry, DEFAULT_MAX_SEGMENT_SIZE);
+    }
+
+    @VisibleForTesting
+    JournalMailQueue(MailQueueItemDecoratorFactory mailQueueItemDecoratorFactory, File parentDir, String queueName, boolean sync,
+                     MetricFactory metricFactory, GaugeRegistry gaugeRegistry, long maxSegmentSize) throws IOException {
+        this.queueName = queueName;
+        this.metricFactory = metricFactory;
+        this.enqueuedMailsMetric = metricFactory.generate(ENQUEUED_METRIC_NAME_PREFIX + queueName);
+        this.dequeuedMailsMetric = metricFactory.generate(DEQUEUED_METRIC_NAME_PREFIX + queueName);
+        this.mailQueueAgeMetrics = new MailQueueAgeMetrics(queueName, metricFactory, Clock.systemUTC());
+        this.entries = new ConcurrentSkipListMap<>();
+        this.readyEntries = new PriorityBlockingQueue<>(11, Comparator.<QueueEntry>comparingInt(entry -> entry.record.priority)
+            .reversed()
+            .thenComparingLong(entry -> entry.sequence));
+        this.sequence = new AtomicLong(0);
+        this.clearLock = new ReentrantReadWriteLock();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(NamedThreadFactory.withClassName(getClass()));
+
+        Map<String, QueueEntry> replayedEntries = new LinkedHashMap<>();
+        this.journal = Journal.open(new File(parentDir, queueName), maxSegmentSize, sync,
+            (segment, position, record) -> replay(replayedEntries, segment, position, record));
+        replayedEntries.values().forEach(this::index);
+
+        this.flux = Mono.fromCallable(this::takeReadyEntry)
+            .repeat()
+            .flatMap(this::toMailQueueItem)
+            .doOnNext(any -> dequeuedMailsMetric.increment())
+            .map(mailQueueAgeMetrics::recordDequeue)
+            .map(mailQueueItemDecoratorFactory::decorate);
+
+        gaugeRegistry.register(QUEUE_SIZE_METRIC_NAME_PREFIX + queueName, queueSizeGauge());
+        gaugeRegistry.register(OLDEST_MAIL_AGE_METRIC_NAME_PREFIX + queueName, mailQueueAgeMetrics.oldestMailAgeGauge(this::getOldestEnqueuedTime));
+    }
+
+    private void replay(Map<String, QueueEntry> replayedEntries, JournalSegment segment, long position, ByteBuffer record) throws IOException {
+        int recordLength = record.remaining();
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(record.array(), record.arrayOffset() + record.position(), recordLength));
+        byte type = in.readByte();
+        switch (type) {
+            case ENQUEUE_RECORD:
+                EnqueueRecord enqueueRecord = EnqueueRecord.decode(in, recordLength);
+                replayedEntries.put(enqueueRecord.key, new QueueEntry(sequence.incrementAndGet(), enqueueRecord, segment, position));
+                segment.pendingEntries().incrementAndGet();
+                break;
+            case DELETE_RECORD:
+                Optional.ofNullable(replayedEntries.remove(in.readUTF()))
+                    .ifPresent(entry -> entry.segment.pendingEntries().decrementAndGet());
+                break;
+            case CLEAR_RECORD:
+                replayedEntries.values().forEach(entry -> entry.segment.pendingEntries().decrementAndGet());
+                replayedEntries.clear();
+                break;
+            default:
+                throw new IOException("Unknown record type " + type + " in " + segment.getFile().getAbsolutePath());
+        }
+    }
+
+    @Override
+    public String getName() {
+        return queueName;
+    }
+
+    @Override
+    public void enQueue(Mail mail, Duration delay) throws MailQueueException {
+        TimeMetric timeMetric = metricFactory.timer(ENQUEUED_TIMER_METRIC_NAME_PREFIX + queueName);
+        String key = UUID.randomUUID().toString();
+        clearLock.readLock().lock();
+        try {
+            byte[] record = EnqueueRecord.encode(key, mail, priority(mail), Instant.now(), computeNextDelivery(delay));
+            Journal.Position position = journal.append(record, RETAINED);
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(record));
+            in.readByte();
+            index(new QueueEntry(sequence.incrementAndGet(), EnqueueRecord.decode(in, record.length), position.getSegment(), position.getRecordPosition()));
+            enqueuedMailsMetric.increment();
+        } catch (IOException | MessagingException e) {
+            throw new MailQueueException("Unable to enqueue mail " + mail.getName(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MailQueueException("Unable to enqueue mail " + mail.getName(), e);
+        } finally {
+            clearLock.readLock().unlock();
+            timeMetric.stopAndPublish();
+        }
+    }
+
+    @Override
+    public void enQueue(Mail mail) throws MailQueueException {
+        enQueue(mail, Duration.ZERO);
+    }
+
+    /**
+     * Invalid priorities default to the normal priority. Out of range ones are bounded.
+     */
+    private int priority(Mail mail) {
+        int priority = AttributeUtils.getValueAndCastFromMail(mail, MAIL_PRIORITY, Integer.class)
+            .orElse(NORMAL_PRIORITY);
+        return Math.max(LOW_PRIORITY, Math.min(priority, HIGH_PRIORITY));
+    }
+
+    private Optional<Instant> computeNextDelivery(Duration delay) {
+        if (delay.isNegative() || delay.isZero()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(Instant.now().plus(delay));
+        } catch (DateTimeException | ArithmeticException e) {
+            return Optional.of(Instant.ofEpochMilli(Long.MAX_VALUE));
+        }
+    }
+
+    private void index(QueueEntry entry) {
+        entries.put(entry.sequence, entry);
+
+        long delayInMillis = entry.record.nextDelivery
+            .map(nextDelivery -> nextDelivery.toEpochMilli() - System.currentTimeMillis())
+            .orElse(0L);
+        if (delayInMillis > 0) {
+            scheduler.schedule(() -> makeReady(entry), delayInMillis, TimeUnit.MILLISECONDS);
+        } else {
+            makeReady(entry);
+        }
+    }
+
+    private boolean makeReady(QueueEntry entry) {
+        if (entry.state.compareAndSet(State.DELAYED, State.READY)) {
+            readyEntries.put(entry);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public Flux<MailQueueItem> deQueue() {
+        return flux;
+    }
+
+    /**
+     * The segment of the taken entry is retained before this entry is marked as processing, so that a concurrent
+     * removal can not delete it in between.
+     */
+    private QueueEntry takeReadyEntry() throws InterruptedException {
+        while (true) {
+            QueueEntry entry = readyEntries.take();
+            journal.retain(entry.segment);
+            if (entry.state.compareAndSet(State.READY, State.PROCESSING)) {
+                return entry;
+            }
+            journal.release(entry.segment);
+        }
+    }
+
+    private Mono<MailQueueItem> toMailQueueItem(QueueEntry entry) {
+        try {
+            Mail mail = readMail(entry, new JournalMimeMessageSource(entry));
+            return Mono.just(new MailQueueItem() {
+                @Override
+                public Mail getMail() {
+                    return mail;
+                }
+
+                @Override
+                public Optional<Instant> getEnqueuedTime() {
+                    return Optional.of(entry.record.enqueuedTime);
+                }
+
+                @Override
+                public void done(boolean success) throws MailQueueException {
+                    LifecycleUtil.dispose(mail);
+                    try {
+                        if (success) {
+                            delete(entry);
+                        } else if (entry.state.compareAndSet(State.PROCESSING, State.READY)) {
+                            readyEntries.put(entry);
+                        }
+                    } finally {
+                        journal.release(entry.segment);
+                    }
+                }
+            });
+        } catch (IOException | ClassNotFoundException | MessagingException e) {
+            LOGGER.error("Unable to read mail {} of mail queue {}, retrying in {}", entry.record.name, queueName, READ_FAILURE_RETRY_DELAY, e);
+            if (entry.state.compareAndSet(State.PROCESSING, State.DELAYED)) {
+                scheduler.schedule(() -> makeReady(entry), READ_FAILURE_RETRY_DELAY.toMillis(), TimeUnit.MILLISECONDS);
+            }
+            journal.release(entry.segment);
+            return Mono.empty();
+        }
+    }
+
+    private Mail readMail(QueueEntry entry, MimeMessageSource messageSource) throws IOException, ClassNotFoundException, MessagingException {
+        ByteBuffer mailBytes = entry.segment.read(entry.recordPosition + entry.record.mailOffset, entry.record.mailLength);
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(mailBytes.array()))) {
+            Mail mail = (Mail) in.readObject();
+            mail.setMessage(new MimeMessageCopyOnWriteProxy(messageSource));
+            return mail;
+        }
+    }
+
+    /**
+     * Browsed mails are copied out of the journal, as their segment might be deleted while they are still in use.
+     */
+    private Mail copyMail(QueueEntry entry) throws IOException, ClassNotFoundException, MessagingException {
+        journal.retain(entry.segment);
+        try {
+            if (entry.state.get() == State.REMOVED) {
+                throw new IOException("Mail " + entry.record.name + " was removed");
+            }
+            MimeMessageSource messageSource = new MimeMessageInputStreamSource(entry.record.key, new JournalMimeMessageSource(entry).getInputStream());
+            return readMail(entry, messageSource);
+        } finally {
+            journal.release(entry.segment);
+        }
+    }
+
+    private boolean delete(QueueEntry entry) throws MailQueueException {
+        if (entry.state.getAndSet(State.REMOVED) == State.REMOVED) {
+            return false;
+        }
+        entries.remove(entry.sequence);
+        try {
+            journal.append(deleteRecord(entry.record.key), NOT_RETAINED);
+            return true;
+        } catch (IOException e) {
+            throw new MailQueueException("Unable to delete mail " + entry.record.name, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MailQueueException("Unable to delete mail " + entry.record.name, e);
+        } finally {
+            journal.release(entry.segment);
+        }
+    }
+
+    private byte[] deleteRecord(String key) throws IOException {
+        ByteArrayOutputStream record = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(record)) {
+            out.writeByte(DELETE_RECORD);
+            out.writeUTF(key);
+        }
+        return record.toByteArray();
+    }
+
+    @Override
+    public long getSize() {
+        return entries.size();
+    }
+
+    private Gauge<Long> queueSizeGauge() {
+        return this::getSize;
+    }
+
+    /**
+     * Pending mails are indexed by enqueue order, thus the first one which is due is the oldest. Mails that are not
+     * due yet are ignored.
+     */
+    public Optional<Instant> getOldestEnqueuedTime() {
+        return entries.values()
+            .stream()
+            .filter(entry -> entry.state.get() != State.DELAYED)
+            .findFirst()
+            .map(entry -> entry.record.enqueuedTime);
+    }
+
+    @Override
+    public long flush() {
+        return entries.values()
+            .stream()
+            .filter(this::makeReady)
+            .count();
+    }
+
+    @Override
+    public long clear() throws MailQueueException {
+        clearLock.writeLock().lock();
+        try {
+            journal.append(new byte[] {CLEAR_RECORD}, NOT_RETAINED);
+
+            long count = 0;
+            for (QueueEntry entry : entries.values()) {
+                if (entry.state.getAndSet(State.REMOVED) != State.REMOVED) {
+                    entries.remove(entry.sequence);
+                    journal.release(entry.segment);
+                    count++;
+                }
+            }
+            readyEntries.clear();
+            return count;
+        } catch (IOException e) {
+            throw new MailQueueException("Unable to clear mail queue " + queueName, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MailQueueException("Unable to clear mail queue " + queueName, e);
+        } finally {
+            clearLock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public long remove(Type type, String value) throws MailQueueException {
+        ImmutableList<QueueEntry> toBeRemoved = entries.values()
+            .stream()
+            .filter(entry -> shouldRemove(entry, type, value))
+            .collect(Guavate.toImmutableList());
+
+        long count = 0;
+        for (QueueEntry entry : toBeRemoved) {
+            if (delete(entry)) {
+                readyEntries.remove(entry);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private boolean shouldRemove(QueueEntry entry, Type type, String value) {
+        switch (type) {
+            case Name:
+                return entry.record.name.equals(value);
+            case Recipient:
+                return entry.record.recipients.contains(value);
+            case Sender:
+                return entry.record.sender.equals(value);
+            default:
+                throw new NotImplementedException("Unknown type " + type);
+        }
+    }
+
+    @Override
+    public MailQueueIterator browse() {
+        Iterator<QueueEntry> underlying = ImmutableList.copyOf(entries.values()).iterator();
+
+        return new MailQueueIterator() {
+            private MailQueueItemView item;
+
+            @Override
+            public MailQueueItemView next() {
+                if (hasNext()) {
+                    MailQueueItemView itemView = item;
+                    item = null;
+                    return itemView;
+                }
+
+                throw new NoSuchElementException();
+            }
+
+            @Override
+            public boolean hasNext() {
+                if (item != null) {
+                    return true;
+                }
+
+                while (underlying.hasNext()) {
+                    QueueEntry entry = underlying.next();
+                    try {
+                        item = new MailQueueItemView(copyMail(entry), entry.nextDelivery());
+                        return true;
+                    } catch (IOException | ClassNotFoundException | MessagingException e) {
+                        LOGGER.info("Unable to load mail {}", entry.record.name, e);
+                    }
+                }
+
+                return false;
+            }
+
+            @Override
+            public void close() {
+                // do nothing
+            }
+        };
+    }
+
+    @Override
+    public void dispose() {
+        scheduler.shutdownNow();
+        try {
+            journal.close();
+        } catch (IOException e) {
+            LOGGER.warn("Unable to close the journal of mail queue {}", queueName, e);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.queue.file;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+
+import org.apache.james.filesystem.api.FileSystem;
+import org.apache.james.metrics.api.GaugeRegistry;
+import org.apache.james.metrics.api.MetricFactory;
+import org.apache.james.queue.api.MailQueueFactory;
+import org.apache.james.queue.api.MailQueueItemDecoratorFactory;
+import org.apache.james.queue.api.ManageableMailQueue;
+
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * {@link MailQueueFactory} implementation which returns {@link JournalMailQueue} instances
+ */
+public class JournalMailQueueFactory implements MailQueueFactory<ManageableMailQueue> {
+
+    private final Map<String, JournalMailQueue> queues = new HashMap<>();
+    private final MailQueueItemDecoratorFactory mailQueueItemDecoratorFactory;
+    private final FileSystem fs;
+    private final MetricFactory metricFactory;
+    private final GaugeRegistry gaugeRegistry;
+    private boolean sync = true;
+
+    @Inject
+    public JournalMailQueueFactory(FileSystem fs, MailQueueItemDecoratorFactory mailQueueItemDecoratorFactory,
+                                   MetricFactory metricFactory, GaugeRegistry gaugeRegistry) {
+        this.fs = fs;
+        this.mailQueueItemDecoratorFactory = mailQueueItemDecoratorFactory;
+        this.metricFactory = metricFactory;
+        this.gaugeRegistry = gaugeRegistry;
+    }
+
+    @Override
+    public Set<ManageableMailQueue> listCreatedMailQueues() {
+        synchronized (queues) {
+            return ImmutableSet.copyOf(queues.values());
+        }
+    }
+
+    /**
+     * If <code>true</code> the {@link JournalMailQueue#enQueue(org.apache.mailet.Mail)} calls return once the mail
+     * is written to the storage device. Concurrent enqueues share the same <code>fsync</code>, which makes it cheaper
+     * than with {@link FileMailQueueFactory#setSync(boolean)}.
+     * <p/>
+     * The default is <code>true</code>
+     */
+    public void setSync(boolean sync) {
+        this.sync = sync;
+    }
+
+    @Override
+    public Optional<ManageableMailQueue> getQueue(String name) {
+        synchronized (queues) {
+            return Optional.ofNullable(queues.get(name));
+        }
+    }
+
+    @Override
+    public ManageableMailQueue createQueue(String name) {
+        synchronized (queues) {
+            return getQueue(name).orElseGet(() -> createAndRegisterQueue(name));
+        }
+    }
+
+    private ManageableMailQueue createAndRegisterQueue(String name) {
+        try {
+            JournalMailQueue queue = new JournalMailQueue(mailQueueItemDecoratorFactory, fs.getFile("file://var/store/journal-queue"), name, sync,
+                metricFactory, gaugeRegistry);
+            queues.put(name, queue);
+            return queue;
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to access queue " + name, e);
+        }
+    }
+
+    @PreDestroy
+    public void dispose() {
+        synchronized (queues) {
+            queues.values().forEach(JournalMailQueue::dispose);
+            queues.clear();
+        }
+    }
+}
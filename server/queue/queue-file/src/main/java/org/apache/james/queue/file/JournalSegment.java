@@ -0,0 +1,221 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.queue.file;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.io.FileUtils;
+
+/**
+ * An append only file of a {@link Journal}.
+ *
+ * Appends are serialized by the {@link Journal}, while reads rely on positional reads and can happen concurrently.
+ *
+ * {@link #awaitDurable(long)} implements group commit: the first caller forces the file on behalf of every append
+ * written so far, while the concurrent callers wait for this force to complete rather than issuing their own.
+ */
+class JournalSegment implements Closeable {
+    private static final String EXTENSION = ".journal";
+
+    static boolean isSegmentFile(String fileName) {
+        return fileName.endsWith(EXTENSION);
+    }
+
+    static long parseId(String fileName) {
+        return Long.parseLong(fileName.substring(0, fileName.length() - EXTENSION.length()));
+    }
+
+    static JournalSegment create(File directory, long id) throws IOException {
+        File file = new File(directory, String.format("%020d%s", id, EXTENSION));
+        return new JournalSegment(id, file, FileChannel.open(file.toPath(), StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE));
+    }
+
+    static JournalSegment open(File file) throws IOException {
+        return new JournalSegment(parseId(file.getName()), file, FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE));
+    }
+
+    private final long id;
+    private final File file;
+    private final FileChannel channel;
+    private final AtomicInteger pendingEntries;
+    private final Object syncLock;
+    private volatile long size;
+    private long durableSize;
+    private boolean syncInProgress;
+
+    private JournalSegment(long id, File file, FileChannel channel) throws IOException {
+        this.id = id;
+        this.file = file;
+        this.channel = channel;
+        this.pendingEntries = new AtomicInteger(0);
+        this.syncLock = new Object();
+        this.size = channel.size();
+        this.durableSize = size;
+        this.syncInProgress = false;
+    }
+
+    long getId() {
+        return id;
+    }
+
+    File getFile() {
+        return file;
+    }
+
+    long size() {
+        return size;
+    }
+
+    AtomicInteger pendingEntries() {
+        return pendingEntries;
+    }
+
+    /**
+     * Not thread safe: callers are expected to serialize appends.
+     *
+     * @return the position at which the data was written
+     */
+    long append(ByteBuffer data) throws IOException {
+        long position = size;
+        long writePosition = position;
+        while (data.hasRemaining()) {
+            writePosition += channel.write(data, writePosition);
+        }
+        size = writePosition;
+        return position;
+    }
+
+    /**
+     * Blocks until the content of this segment up to the given position is written to the storage device.
+     */
+    void awaitDurable(long position) throws IOException, InterruptedException {
+        while (true) {
+            long target;
+            synchronized (syncLock) {
+                while (syncInProgress && durableSize < position) {
+                    syncLock.wait();
+                }
+                if (durableSize >= position) {
+                    return;
+                }
+                syncInProgress = true;
+                target = size;
+            }
+
+            boolean forced = false;
+            try {
+                channel.force(false);
+                forced = true;
+            } finally {
+                synchronized (syncLock) {
+                    syncInProgress = false;
+                    if (forced) {
+                        durableSize = Math.max(durableSize, target);
+                    }
+                    syncLock.notifyAll();
+                }
+            }
+        }
+    }
+
+    ByteBuffer read(long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        long readPosition = position;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, readPosition);
+            if (read < 0) {
+                throw new EOFException("Unexpected end of " + file.getAbsolutePath());
+            }
+            readPosition += read;
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * @return a stream over the given part of this segment, relying on positional reads
+     */
+    InputStream inputStream(long position, long length) {
+        return new BufferedInputStream(new SegmentInputStream(position, position + length));
+    }
+
+    private class SegmentInputStream extends InputStream {
+        private final long end;
+        private long position;
+
+        SegmentInputStream(long start, long end) {
+            this.position = start;
+            this.end = end;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            int read = read(single, 0, 1);
+            if (read < 0) {
+                return -1;
+            }
+            return single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            if (position >= end) {
+                return -1;
+            }
+            int toRead = (int) Math.min(length, end - position);
+            int read = channel.read(ByteBuffer.wrap(bytes, offset, toRead), position);
+            if (read > 0) {
+                position += read;
+            }
+            return read;
+        }
+
+        @Override
+        public int available() {
+            return (int) Math.min(Integer.MAX_VALUE, end - position);
+        }
+    }
+
+    void truncate(long newSize) throws IOException {
+        channel.truncate(newSize);
+        size = newSize;
+        durableSize = Math.min(durableSize, newSize);
+    }
+
+    void delete() throws IOException {
+        close();
+        FileUtils.forceDelete(file);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,391 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.queue.file;
+
+import static org.apache.james.queue.api.Mails.defaultMail;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.james.metrics.api.GaugeRegistry;
+import org.apache.james.metrics.api.MetricFactory;
+import org.apache.james.queue.api.DelayedManageableMailQueueContract;
+import org.apache.james.queue.api.DelayedPriorityMailQueueContract;
+import org.apache.james.queue.api.MailQueue;
+import org.apache.james.queue.api.MailQueueMetricContract;
+import org.apache.james.queue.api.MailQueueMetricExtension;
+import org.apache.james.queue.api.ManageableMailQueue;
+import org.apache.james.queue.api.RawMailQueueItemDecoratorFactory;
+import org.apache.james.util.concurrency.ConcurrentTestRunner;
+import org.apache.mailet.Mail;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.rules.TemporaryFolder;
+
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+public class JournalMailQueueTest implements DelayedManageableMailQueueContract, DelayedPriorityMailQueueContract,
+    MailQueueMetricContract {
+    private static final boolean SYNC = true;
+    private static final String QUEUE_NAME = "test";
+    private static final long ONE_BYTE = 1;
+
+    private TemporaryFolder temporaryFolder = new TemporaryFolder();
+    private File parentDir;
+    private MetricFactory metricFactory;
+    private GaugeRegistry gaugeRegistry;
+    private JournalMailQueue mailQueue;
+
+    @BeforeEach
+    public void setUp(MailQueueMetricExtension.MailQueueMetricTestSystem metricTestSystem) throws Exception {
+        temporaryFolder.create();
+        parentDir = temporaryFolder.newFolder();
+        metricFactory = metricTestSystem.getMetricFactory();
+        gaugeRegistry = metricTestSystem.getSpyGaugeRegistry();
+        mailQueue = new JournalMailQueue(new RawMailQueueItemDecoratorFactory(), parentDir, QUEUE_NAME, SYNC, metricFactory, gaugeRegistry);
+    }
+
+    @AfterEach
+    void teardown() {
+        mailQueue.dispose();
+        temporaryFolder.delete();
+    }
+
+    @Override
+    public MailQueue getMailQueue() {
+        return mailQueue;
+    }
+
+    @Override
+    public ManageableMailQueue getManageableMailQueue() {
+        return mailQueue;
+    }
+
+    private JournalMailQueue restart() throws Exception {
+        mailQueue.dispose();
+        mailQueue = new JournalMailQueue(new RawMailQueueItemDecoratorFactory(), parentDir, QUEUE_NAME, SYNC, metricFactory, gaugeRegistry);
+        return mailQueue;
+    }
+
+    private File[] segmentFiles() {
+        File[] segmentFiles = new File(parentDir, QUEUE_NAME).listFiles((dir, name) -> JournalSegment.isSegmentFile(name));
+        Arrays.sort(segmentFiles, Comparator.comparing(File::getName));
+        return segmentFiles;
+    }
+
+    @Test
+    void pendingMailsShouldBeRecoveredAfterRestart() throws Exception {
+        enQueue(defaultMail()
+            .name("name1")
+            .build());
+        enQueue(defaultMail()
+            .name("name2")
+            .build());
+
+        JournalMailQueue restartedQueue = restart();
+
+        assertThat(restartedQueue.browse())
+            .toIterable()
+            .extracting(ManageableMailQueue.MailQueueItemView::getMail)
+            .extracting(Mail::getName)
+            .containsExactly("name1", "name2");
+    }
+
+    @Test
+    void recoveredMailsShouldBeDequeued() throws Exception {
+        enQueue(defaultMail()
+            .name("name1")
+            .build());
+
+        JournalMailQueue restartedQueue = restart();
+
+        MailQueue.MailQueueItem item = Flux.from(restartedQueue.deQueue()).blockFirst();
+
+        assertThat(item.getMail().getName()).isEqualTo("name1");
+        assertThat(item.getMail().getMessage().getSubject()).isEqualTo(defaultMail().name("name1").build().getMessage().getSubject());
+        item.done(true);
+    }
+
+    @Test
+    void acknowledgedMailsShouldNotBeRecoveredAfterRestart() throws Exception {
+        enQueue(defaultMail()
+            .name("name1")
+            .build());
+        enQueue(defaultMail()
+            .name("name2")
+            .build());
+        Flux.from(mailQueue.deQueue()).blockFirst().done(true);
+
+        JournalMailQueue restartedQueue = restart();
+
+        assertThat(restartedQueue.browse())
+            .toIterable()
+            .extracting(ManageableMailQueue.MailQueueItemView::getMail)
+            .extracting(Mail::getName)
+            .containsExactly("name2");
+    }
+
+    @Test
+    void notAcknowledgedMailsShouldBeRecoveredAfterRestart() throws Exception {
+        enQueue(defaultMail()
+            .name("name1")
+            .build());
+        Flux.from(mailQueue.deQueue()).blockFirst();
+
+        JournalMailQueue restartedQueue = restart();
+
+        assertThat(restartedQueue.getSize()).isEqualTo(1);
+    }
+
+    @Test
+    void removedMailsShouldNotBeRecoveredAfterRestart() throws Exception {
+        enQueue(defaultMail()
+            .name("name1")
+            .build());
+        enQueue(defaultMail()
+            .name("name2")
+            .build());
+        mailQueue.remove(ManageableMailQueue.Type.Name, "name1");
+
+        JournalMailQueue restartedQueue = restart();
+
+        assertThat(restartedQueue.browse())
+            .toIterable()
+            .extracting(ManageableMailQueue.MailQueueItemView::getMail)
+            .extracting(Mail::getName)
+            .containsExactly("name2");
+    }
+
+    @Test
+    void clearedMailsShouldNotBeRecoveredAfterRestart() throws Exception {
+        enQueue(defaultMail()
+            .name("name1")
+            .build());
+        mailQueue.clear();
+        enQueue(defaultMail()
+            .name("name2")
+            .build());
+
+        JournalMailQueue restartedQueue = restart();
+
+        assertThat(restartedQueue.browse())
+            .toIterable()
+            .extracting(ManageableMailQueue.MailQueueItemView::getMail)
+            .extracting(Mail::getName)
+            .containsExactly("name2");
+    }
+
+    @Test
+    void delaysShouldBeRecoveredAfterRestart() throws Exception {
+        mailQueue.enQueue(defaultMail()
+            .name("name1")
+            .build(),
+            30L,
+            TimeUnit.SECONDS);
+
+        JournalMailQueue restartedQueue = restart();
+
+        assertThat(restartedQueue.browse().next().getNextDelivery()).isPresent();
+        assertThatThrownBy(() -> Flux.from(restartedQueue.deQueue())
+                .subscribeOn(Schedulers.boundedElastic())
+                .next()
+                .block(Duration.ofSeconds(1)))
+            .isInstanceOf(RuntimeException.class);
+    }
+
+    @Test
+    void enqueuedTimeShouldBeRecoveredAfterRestart() throws Exception {
+        Instant beforeEnqueue = Instant.ofEpochMilli(System.currentTimeMillis());
+        enQueue(defaultMail()
+            .name("name1")
+            .build());
+        Instant enqueuedTime = Flux.from(mailQueue.deQueue()).blockFirst().getEnqueuedTime().get();
+
+        JournalMailQueue restartedQueue = restart();
+
+        assertThat(enqueuedTime).isAfterOrEqualTo(beforeEnqueue);
+        assertThat(Flux.from(restartedQueue.deQueue()).blockFirst().getEnqueuedTime()).contains(enqueuedTime);
+    }
+
+    @Test
+    void getOldestEnqueuedTimeShouldIgnoreMailsNotYetDue() throws Exception {
+        mailQueue.enQueue(defaultMail()
+            .name("delayed")
+            .build(),
+            Duration.ofHours(1));
+        Instant beforeDueMailEnqueue = Instant.ofEpochMilli(System.currentTimeMillis());
+        enQueue(defaultMail()
+            .name("due")
+            .build());
+
+        assertThat(mailQueue.getOldestEnqueuedTime())
+            .hasValueSatisfying(oldestEnqueuedTime -> assertThat(oldestEnqueuedTime).isAfterOrEqualTo(beforeDueMailEnqueue));
+    }
+
+    @Test
+    void getOldestEnqueuedTimeShouldBeEmptyWhenOnlyDelayedMails() throws Exception {
+        mailQueue.enQueue(defaultMail()
+            .name("delayed")
+            .build(),
+            Duration.ofHours(1));
+
+        assertThat(mailQueue.getOldestEnqueuedTime()).isEmpty();
+    }
+
+    @Test
+    void concurrentEnqueuesShouldAllBeRecoveredAfterRestart() throws Exception {
+        int threadCount = 10;
+        int operationCount = 10;
+        ConcurrentTestRunner.builder()
+            .operation((threadNumber, step) -> mailQueue.enQueue(defaultMail()
+                .name("name" + threadNumber + "-" + step)
+                .build()))
+            .threadCount(threadCount)
+            .operationCount(operationCount)
+            .runSuccessfullyWithin(Duration.ofMinutes(1));
+
+        JournalMailQueue restartedQueue = restart();
+
+        assertThat(restartedQueue.getSize()).isEqualTo(threadCount * operationCount);
+    }
+
+    @Test
+    void incompleteRecordShouldBeDiscardedUponRestart() throws Exception {
+        enQueue(defaultMail()
+            .name("name1")
+            .build());
+        mailQueue.dispose();
+        File[] segmentFiles = segmentFiles();
+        try (FileOutputStream out = new FileOutputStream(segmentFiles[segmentFiles.length - 1], true)) {
+            out.write(new byte[] {0, 0, 1, 0, 42});
+        }
+
+        JournalMailQueue restartedQueue = restart();
+        restartedQueue.enQueue(defaultMail()
+            .name("name2")
+            .build());
+
+        assertThat(restart().browse())
+            .toIterable()
+            .extracting(ManageableMailQueue.MailQueueItemView::getMail)
+            .extracting(Mail::getName)
+            .containsExactly("name1", "name2");
+    }
+
+    @Test
+    void acknowledgedSegmentsShouldBeDeleted() throws Exception {
+        mailQueue.dispose();
+        mailQueue = new JournalMailQueue(new RawMailQueueItemDecoratorFactory(), parentDir, QUEUE_NAME, SYNC, metricFactory, gaugeRegistry, ONE_BYTE);
+        enQueue(defaultMail()
+            .name("name1")
+            .build());
+        enQueue(defaultMail()
+            .name("name2")
+            .build());
+
+        Flux.from(mailQueue.deQueue())
+            .take(2)
+            .doOnNext(item -> {
+                try {
+                    item.done(true);
+                } catch (MailQueue.MailQueueException e) {
+                    throw new RuntimeException(e);
+                }
+            })
+            .blockLast();
+
+        assertThat(segmentFiles()).hasSize(1);
+    }
+
+    @Test
+    void segmentsShouldBeRetainedWhilePendingMailsRemain() throws Exception {
+        mailQueue.dispose();
+        mailQueue = new JournalMailQueue(new RawMailQueueItemDecoratorFactory(), parentDir, QUEUE_NAME, SYNC, metricFactory, gaugeRegistry, ONE_BYTE);
+        enQueue(defaultMail()
+            .name("name1")
+            .build());
+        enQueue(defaultMail()
+            .name("name2")
+            .build());
+        mailQueue.remove(ManageableMailQueue.Type.Name, "name2");
+
+        assertThat(restart().browse())
+            .toIterable()
+            .extracting(ManageableMailQueue.MailQueueItemView::getMail)
+            .extracting(Mail::getName)
+            .containsExactly("name1");
+    }
+
+    @Test
+    void removedMailsShouldRemainReadableUntilAcknowledged() throws Exception {
+        mailQueue.dispose();
+        mailQueue = new JournalMailQueue(new RawMailQueueItemDecoratorFactory(), parentDir, QUEUE_NAME, SYNC, metricFactory, gaugeRegistry, ONE_BYTE);
+        enQueue(defaultMail()
+            .name("name1")
+            .build());
+        enQueue(defaultMail()
+            .name("name2")
+            .build());
+
+        MailQueue.MailQueueItem item = Flux.from(mailQueue.deQueue()).blockFirst();
+        mailQueue.remove(ManageableMailQueue.Type.Name, "name1");
+
+        assertThat(item.getMail().getMessage().getSubject()).isEqualTo(defaultMail().name("name1").build().getMessage().getSubject());
+        item.done(true);
+    }
+
+    @Test
+    void acknowledgingRemovedMailsShouldDeleteTheirSegment() throws Exception {
+        mailQueue.dispose();
+        mailQueue = new JournalMailQueue(new RawMailQueueItemDecoratorFactory(), parentDir, QUEUE_NAME, SYNC, metricFactory, gaugeRegistry, ONE_BYTE);
+        enQueue(defaultMail()
+            .name("name1")
+            .build());
+
+        MailQueue.MailQueueItem item = Flux.from(mailQueue.deQueue()).blockFirst();
+        mailQueue.remove(ManageableMailQueue.Type.Name, "name1");
+        item.done(true);
+
+        assertThat(segmentFiles()).hasSize(1);
+    }
+
+    @Test
+    void browsedMailsShouldRemainReadableOnceRemoved() throws Exception {
+        mailQueue.dispose();
+        mailQueue = new JournalMailQueue(new RawMailQueueItemDecoratorFactory(), parentDir, QUEUE_NAME, SYNC, metricFactory, gaugeRegistry, ONE_BYTE);
+        enQueue(defaultMail()
+            .name("name1")
+            .build());
+
+        ManageableMailQueue.MailQueueItemView itemView = mailQueue.browse().next();
+        mailQueue.remove(ManageableMailQueue.Type.Name, "name1");
+
+        assertThat(itemView.getMail().getMessage().getSubject()).isEqualTo(defaultMail().name("name1").build().getMessage().getSubject());
+    }
+}
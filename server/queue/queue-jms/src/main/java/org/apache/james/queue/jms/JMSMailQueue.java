@@ -21,6 +21,7 @@ package org.apache.james.queue.jms;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.Serializable;
+import java.time.Clock;
 import java.time.DateTimeException;
 import java.time.Duration;
 import java.time.Instant;
@@ -36,6 +37,8 @@ import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.StringTokenizer;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Stream;
 
 import javax.jms.BytesMessage;
@@ -64,6 +67,7 @@ import org.apache.james.metrics.api.MetricFactory;
 import org.apache.james.metrics.api.TimeMetric;
 import org.apache.james.queue.api.MailPrioritySupport;
 import org.apache.james.queue.api.MailQueue;
+import org.apache.james.queue.api.MailQueueAgeMetrics;
 import org.apache.james.queue.api.MailQueueItemDecoratorFactory;
 import org.apache.james.queue.api.ManageableMailQueue;
 import org.apache.james.server.core.MailImpl;
@@ -86,6 +90,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterators;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 /**
  * <p>
@@ -163,6 +168,7 @@ public class JMSMailQueue implements ManageableMailQueue, JMSSupport, MailPriori
     protected final Metric dequeuedMailsMetric;
     protected final MetricFactory metricFactory;
     protected final GaugeRegistry gaugeRegistry;
+    protected final MailQueueAgeMetrics mailQueueAgeMetrics;
 
     protected final Session session;
     protected final Queue queue;
@@ -170,6 +176,8 @@ public class JMSMailQueue implements ManageableMailQueue, JMSSupport, MailPriori
 
     private final Joiner joiner;
     private final Splitter splitter;
+    private final AtomicReference<Optional<Instant>> oldestEnqueuedTime;
+    private final AtomicBoolean refreshingOldestEnqueuedTime;
 
     public JMSMailQueue(ConnectionFactory connectionFactory, MailQueueItemDecoratorFactory mailQueueItemDecoratorFactory,
                         String queueName, MetricFactory metricFactory,
@@ -186,8 +194,13 @@ public class JMSMailQueue implements ManageableMailQueue, JMSSupport, MailPriori
         this.enqueuedMailsMetric = metricFactory.generate(ENQUEUED_METRIC_NAME_PREFIX + queueName);
         this.dequeuedMailsMetric = metricFactory.generate(DEQUEUED_METRIC_NAME_PREFIX + queueName);
 
+        this.mailQueueAgeMetrics = new MailQueueAgeMetrics(queueName, metricFactory, Clock.systemUTC());
+        this.oldestEnqueuedTime = new AtomicReference<>(Optional.empty());
+        this.refreshingOldestEnqueuedTime = new AtomicBoolean(false);
+
         this.gaugeRegistry = gaugeRegistry;
         this.gaugeRegistry.register(QUEUE_SIZE_METRIC_NAME_PREFIX + queueName, queueSizeGauge());
+        this.gaugeRegistry.register(OLDEST_MAIL_AGE_METRIC_NAME_PREFIX + queueName, oldestMailAgeGauge());
 
         this.joiner = Joiner.on(JAMES_MAIL_SEPARATOR).skipNulls();
         this.splitter = Splitter.on(JAMES_MAIL_SEPARATOR)
@@ -237,7 +250,7 @@ public class JMSMailQueue implements ManageableMailQueue, JMSSupport, MailPriori
 
             if (message != null) {
                 dequeuedMailsMetric.increment();
-                return Mono.just(createMailQueueItem(session, consumer, message));
+                return Mono.just(mailQueueAgeMetrics.recordDequeue(createMailQueueItem(session, consumer, message)));
             } else {
                 session.commit();
                 closeConsumer(consumer);
@@ -454,6 +467,10 @@ public class JMSMailQueue implements ManageableMailQueue, JMSSupport, MailPriori
         return () -> Throwing.supplier(this::getSize).get();
     }
 
+    private Gauge<Long> oldestMailAgeGauge() {
+        return mailQueueAgeMetrics.oldestMailAgeGauge(this::getOldestEnqueuedTime);
+    }
+
     @Override
     public String toString() {
         return "MailQueue:" + queueName;
@@ -471,10 +488,21 @@ public class JMSMailQueue implements ManageableMailQueue, JMSSupport, MailPriori
      */
     protected MailQueueItem createMailQueueItem(Session session, MessageConsumer consumer, Message message) throws JMSException, MessagingException {
         Mail mail = createMail(message);
-        JMSMailQueueItem jmsMailQueueItem = new JMSMailQueueItem(mail, session, consumer);
+        JMSMailQueueItem jmsMailQueueItem = new JMSMailQueueItem(mail, session, consumer, getEnqueuedTime(message));
         return mailQueueItemDecoratorFactory.decorate(jmsMailQueueItem);
     }
 
+    /**
+     * Relies on the timestamp set by the JMS provider upon send, which is not set when disabled by the producer.
+     */
+    protected static Optional<Instant> getEnqueuedTime(Message message) throws JMSException {
+        long timestamp = message.getJMSTimestamp();
+        if (timestamp == 0) {
+            return Optional.empty();
+        }
+        return Optional.of(Instant.ofEpochMilli(timestamp));
+    }
+
     protected String getMessageSelector() {
         return JAMES_NEXT_DELIVERY + " <= " + System.currentTimeMillis() + " OR " + FORCE_DELIVERY + " = true";
     }
@@ -490,6 +518,54 @@ public class JMSMailQueue implements ManageableMailQueue, JMSSupport, MailPriori
         }
     }
 
+    /**
+     * Returns the last computed value, and triggers its computation in the background, at most one at a time, so that
+     * metric reporters are not blocked by browsing the mail queue. The value thus lags behind by one call.
+     */
+    public Optional<Instant> getOldestEnqueuedTime() {
+        refreshOldestEnqueuedTime();
+        return oldestEnqueuedTime.get();
+    }
+
+    private void refreshOldestEnqueuedTime() {
+        if (refreshingOldestEnqueuedTime.compareAndSet(false, true)) {
+            Mono.fromCallable(this::computeOldestDueEnqueuedTime)
+                .subscribeOn(Schedulers.boundedElastic())
+                .doFinally(any -> refreshingOldestEnqueuedTime.set(false))
+                .subscribe(oldestEnqueuedTime::set,
+                    e -> LOGGER.warn("Failed computing the oldest enqueued time of {}", queueName, e));
+        }
+    }
+
+    /**
+     * Browses the whole queue, as the browsing order depends on priorities. Mails that are not due yet are ignored.
+     *
+     * The browsing session is a dedicated one, as sessions can not be used concurrently.
+     */
+    private Optional<Instant> computeOldestDueEnqueuedTime() throws MailQueueException {
+        try (Session browsingSession = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+             QueueBrowser browser = browsingSession.createBrowser(browsingSession.createQueue(queueName), getMessageSelector())) {
+            Enumeration<?> enumeration = browser.getEnumeration();
+            Optional<Instant> oldestEnqueuedTime = Optional.empty();
+            while (enumeration.hasMoreElements()) {
+                Optional<Instant> enqueuedTime = getEnqueuedTime((Message) enumeration.nextElement());
+                if (enqueuedTime.isPresent() && isOlder(enqueuedTime.get(), oldestEnqueuedTime)) {
+                    oldestEnqueuedTime = enqueuedTime;
+                }
+            }
+            return oldestEnqueuedTime;
+        } catch (Exception e) {
+            LOGGER.error("Unable to get oldest enqueued time of queue {}", queueName, e);
+            throw new MailQueueException("Unable to get oldest enqueued time of queue " + queueName, e);
+        }
+    }
+
+    private boolean isOlder(Instant enqueuedTime, Optional<Instant> oldestEnqueuedTime) {
+        return oldestEnqueuedTime
+            .map(enqueuedTime::isBefore)
+            .orElse(true);
+    }
+
     @Override
     public long flush() throws MailQueueException {
         boolean first = true;
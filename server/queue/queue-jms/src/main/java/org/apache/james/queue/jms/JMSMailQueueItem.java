@@ -19,6 +19,9 @@
 
 package org.apache.james.queue.jms;
 
+import java.time.Instant;
+import java.util.Optional;
+
 import javax.jms.JMSException;
 import javax.jms.MessageConsumer;
 import javax.jms.Session;
@@ -35,11 +38,13 @@ public class JMSMailQueueItem implements MailQueueItem {
     protected final Mail mail;
     protected final Session session;
     protected final MessageConsumer consumer;
+    protected final Optional<Instant> enqueuedTime;
 
-    public JMSMailQueueItem(Mail mail, Session session, MessageConsumer consumer) {
+    public JMSMailQueueItem(Mail mail, Session session, MessageConsumer consumer, Optional<Instant> enqueuedTime) {
         this.mail = mail;
         this.session = session;
         this.consumer = consumer;
+        this.enqueuedTime = enqueuedTime;
     }
 
     @Override
@@ -63,4 +68,9 @@ public class JMSMailQueueItem implements MailQueueItem {
         return mail;
     }
 
+    @Override
+    public Optional<Instant> getEnqueuedTime() {
+        return enqueuedTime;
+    }
+
 }
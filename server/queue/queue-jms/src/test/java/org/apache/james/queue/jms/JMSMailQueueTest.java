@@ -19,6 +19,14 @@
 
 package org.apache.james.queue.jms;
 
+import static org.apache.james.queue.api.Mails.defaultMail;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.awaitility.Duration.ONE_MINUTE;
+
+import java.time.Duration;
+import java.time.Instant;
+
 import javax.jms.ConnectionFactory;
 
 import org.apache.activemq.ActiveMQConnectionFactory;
@@ -71,6 +79,17 @@ public class JMSMailQueueTest implements DelayedManageableMailQueueContract, Pri
         return mailQueue;
     }
 
+    @Test
+    void getOldestEnqueuedTimeShouldIgnoreMailsNotYetDue() throws Exception {
+        mailQueue.enQueue(defaultMail().name("delayed").build(), Duration.ofHours(1));
+        Instant beforeDueMailEnqueue = Instant.ofEpochMilli(System.currentTimeMillis());
+        mailQueue.enQueue(defaultMail().name("due").build());
+
+        await().atMost(ONE_MINUTE)
+            .untilAsserted(() -> assertThat(mailQueue.getOldestEnqueuedTime())
+                .hasValueSatisfying(oldestEnqueuedTime -> assertThat(oldestEnqueuedTime).isAfterOrEqualTo(beforeDueMailEnqueue)));
+    }
+
     @Override
     @Disabled("JAMES-2295 Disabled as test was dead-locking")
     public void dequeueCanBeChainedBeforeAck() {
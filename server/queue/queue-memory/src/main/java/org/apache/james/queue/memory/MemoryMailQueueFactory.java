@@ -28,10 +28,12 @@ import java.util.Iterator;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.DelayQueue;
-import java.util.concurrent.Delayed;
-import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 import javax.inject.Inject;
 import javax.mail.MessagingException;
@@ -45,15 +47,13 @@ import org.apache.james.queue.api.MailQueueItemDecoratorFactory;
 import org.apache.james.queue.api.ManageableMailQueue;
 import org.apache.james.server.core.MailImpl;
 import org.apache.mailet.Mail;
-import org.threeten.extra.Temporals;
 
 import com.github.fge.lambdas.Throwing;
-import com.github.steveash.guavate.Guavate;
 import com.google.common.base.Objects;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
-import com.google.common.collect.Iterables;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
 import reactor.core.publisher.Mono;
 
 public class MemoryMailQueueFactory implements MailQueueFactory<ManageableMailQueue> {
@@ -85,21 +85,64 @@ public class MemoryMailQueueFactory implements MailQueueFactory<ManageableMailQu
     }
 
     public static class MemoryMailQueue implements ManageableMailQueue {
-        private final DelayQueue<MemoryMailQueueItem> mailItems;
-        private final LinkedBlockingDeque<MemoryMailQueueItem> inProcessingMailItems;
+        private final ConcurrentSkipListMap<Long, MemoryMailQueueItem> mailItems;
+        private final AtomicLong mailItemCount;
+        private final ConcurrentLinkedQueue<MemoryMailQueueItem> readyMailItems;
+        private final Set<MemoryMailQueueItem> inProcessingMailItems;
+        private final Set<Runnable> readyListeners;
+        private final TimingWheel<MemoryMailQueueItem> timingWheel;
+        private final AtomicLong sequence;
         private final String name;
         private final Flux<MailQueueItem> flux;
 
         public MemoryMailQueue(String name, MailQueueItemDecoratorFactory mailQueueItemDecoratorFactory) {
-            this.mailItems = new DelayQueue<>();
-            this.inProcessingMailItems = new LinkedBlockingDeque<>();
+            this.mailItems = new ConcurrentSkipListMap<>();
+            this.mailItemCount = new AtomicLong(0);
+            this.readyMailItems = new ConcurrentLinkedQueue<>();
+            this.inProcessingMailItems = ConcurrentHashMap.newKeySet();
+            this.readyListeners = ConcurrentHashMap.newKeySet();
+            this.timingWheel = new TimingWheel<>(this::markReady);
+            this.sequence = new AtomicLong(0);
             this.name = name;
-            this.flux = Mono.fromCallable(mailItems::take)
-                .repeat()
-                .flatMap(item -> Mono.just(inProcessingMailItems.add(item)).thenReturn(item))
+            this.flux = Flux.<MemoryMailQueueItem>create(sink -> {
+                    ReadyItemsDrainer drainer = new ReadyItemsDrainer(sink);
+                    readyListeners.add(drainer);
+                    sink.onRequest(any -> drainer.run());
+                    sink.onDispose(() -> readyListeners.remove(drainer));
+                })
                 .map(mailQueueItemDecoratorFactory::decorate);
         }
 
+        /**
+         * Emits the ready items to a dequeue subscriber, as long as it requests some. Concurrent subscribers compete
+         * for the ready items.
+         */
+        private class ReadyItemsDrainer implements Runnable {
+            private final FluxSink<MemoryMailQueueItem> sink;
+            private final AtomicInteger wip;
+
+            ReadyItemsDrainer(FluxSink<MemoryMailQueueItem> sink) {
+                this.sink = sink;
+                this.wip = new AtomicInteger(0);
+            }
+
+            @Override
+            public void run() {
+                if (wip.getAndIncrement() != 0) {
+                    return;
+                }
+                do {
+                    while (sink.requestedFromDownstream() > 0 && !sink.isCancelled()) {
+                        Optional<MemoryMailQueueItem> item = pollReadyItem();
+                        if (!item.isPresent()) {
+                            break;
+                        }
+                        sink.next(item.get());
+                    }
+                } while (wip.decrementAndGet() != 0);
+            }
+        }
+
         @Override
         public String getName() {
             return name;
@@ -109,12 +152,30 @@ public class MemoryMailQueueFactory implements MailQueueFactory<ManageableMailQu
         public void enQueue(Mail mail, Duration delay) throws MailQueueException {
             ZonedDateTime nextDelivery = calculateNextDelivery(delay);
             try {
-                mailItems.put(new MemoryMailQueueItem(cloneMail(mail), this, nextDelivery));
+                MemoryMailQueueItem item = new MemoryMailQueueItem(cloneMail(mail), this, Instant.now(), nextDelivery, sequence.incrementAndGet());
+                mailItems.put(item.sequence, item);
+                mailItemCount.incrementAndGet();
+                if (delay.isNegative() || delay.isZero()) {
+                    // Skipping the timing wheel, whose tick would otherwise delay due mails and reorder them
+                    markReady(item);
+                } else {
+                    timingWheel.schedule(item, nextDelivery.toInstant());
+                }
             } catch (MessagingException e) {
                 throw new MailQueueException("Error while copying mail " + mail.getName(), e);
             }
         }
 
+        @Override
+        public Mono<Void> enqueueReactive(Mail mail, Duration delay) {
+            return Mono.fromRunnable(Throwing.runnable(() -> enQueue(mail, delay)).sneakyThrow());
+        }
+
+        @Override
+        public Mono<Void> enqueueReactive(Mail mail) {
+            return Mono.fromRunnable(Throwing.runnable(() -> enQueue(mail)).sneakyThrow());
+        }
+
         private ZonedDateTime calculateNextDelivery(Duration delay) {
             if (!delay.isNegative()) {
                 try {
@@ -142,50 +203,90 @@ public class MemoryMailQueueFactory implements MailQueueFactory<ManageableMailQu
             return mailImpl;
         }
 
+        private boolean markReady(MemoryMailQueueItem item) {
+            if (item.state.compareAndSet(MemoryMailQueueItem.State.DELAYED, MemoryMailQueueItem.State.READY)) {
+                readyMailItems.offer(item);
+                readyListeners.forEach(Runnable::run);
+                return true;
+            }
+            return false;
+        }
+
+        private Optional<MemoryMailQueueItem> pollReadyItem() {
+            MemoryMailQueueItem item;
+            while ((item = readyMailItems.poll()) != null) {
+                if (item.state.compareAndSet(MemoryMailQueueItem.State.READY, MemoryMailQueueItem.State.DEQUEUED)) {
+                    inProcessingMailItems.add(item);
+                    unregister(item);
+                    return Optional.of(item);
+                }
+            }
+            return Optional.empty();
+        }
+
+        private boolean markRemoved(MemoryMailQueueItem item) {
+            while (true) {
+                MemoryMailQueueItem.State state = item.state.get();
+                if (state != MemoryMailQueueItem.State.DELAYED && state != MemoryMailQueueItem.State.READY) {
+                    return false;
+                }
+                if (item.state.compareAndSet(state, MemoryMailQueueItem.State.REMOVED)) {
+                    unregister(item);
+                    return true;
+                }
+            }
+        }
+
+        private void unregister(MemoryMailQueueItem item) {
+            if (mailItems.remove(item.sequence) != null) {
+                mailItemCount.decrementAndGet();
+            }
+        }
+
         @Override
         public Flux<MailQueueItem> deQueue() {
             return flux;
         }
 
         public Mail getLastMail() throws MailQueueException, InterruptedException {
-            MemoryMailQueueItem maybeItem = Iterables.getLast(mailItems, null);
-            if (maybeItem == null) {
-                return null;
-            }
-            return maybeItem.getMail();
+            return Optional.ofNullable(mailItems.lastEntry())
+                .map(entry -> entry.getValue().getMail())
+                .orElse(null);
         }
 
         @Override
         public long getSize() throws MailQueueException {
-            return mailItems.size() + inProcessingMailItems.size();
+            return mailItemCount.get() + inProcessingMailItems.size();
         }
 
         @Override
         public long flush() throws MailQueueException {
             int count = 0;
-            for (MailQueueItem item: mailItems) {
-                if (mailItems.remove(item)) {
-                    enQueue(item.getMail());
-                    count += 1;
-                }
+            for (MemoryMailQueueItem item: mailItems.values()) {
+                markReady(item);
+                count += 1;
             }
             return count;
         }
 
         @Override
         public long clear() throws MailQueueException {
-            int size = mailItems.size();
-            mailItems.clear();
-            return size;
+            int count = 0;
+            for (MemoryMailQueueItem item: mailItems.values()) {
+                if (markRemoved(item)) {
+                    count += 1;
+                }
+            }
+            return count;
         }
 
         @Override
         public long remove(Type type, String value) throws MailQueueException {
-            ImmutableList<MemoryMailQueueItem> toBeRemoved = mailItems.stream()
+            return mailItems.values()
+                .stream()
                 .filter(item -> shouldRemove(item, type, value))
-                .collect(Guavate.toImmutableList());
-            toBeRemoved.forEach(mailItems::remove);
-            return toBeRemoved.size();
+                .filter(this::markRemoved)
+                .count();
         }
 
         public boolean shouldRemove(MailQueueItem item, Type type, String value) {
@@ -211,7 +312,7 @@ public class MemoryMailQueueFactory implements MailQueueFactory<ManageableMailQu
 
         @Override
         public MailQueueIterator browse() throws MailQueueException {
-            Iterator<MailQueueItemView> underlying = ImmutableList.copyOf(mailItems)
+            Iterator<MailQueueItemView> underlying = ImmutableList.copyOf(mailItems.values())
                 .stream()
                 .map(item -> new MailQueueItemView(item.getMail(), item.delivery))
                 .iterator();
@@ -251,15 +352,28 @@ public class MemoryMailQueueFactory implements MailQueueFactory<ManageableMailQu
         }
     }
 
-    public static class MemoryMailQueueItem implements MailQueue.MailQueueItem, Delayed {
+    public static class MemoryMailQueueItem implements MailQueue.MailQueueItem {
+        private enum State {
+            DELAYED,
+            READY,
+            DEQUEUED,
+            REMOVED
+        }
+
         private final Mail mail;
         private final MemoryMailQueue queue;
+        private final Instant enqueuedTime;
         private final ZonedDateTime delivery;
+        private final long sequence;
+        private final AtomicReference<State> state;
 
-        public MemoryMailQueueItem(Mail mail, MemoryMailQueue queue, ZonedDateTime delivery) {
+        public MemoryMailQueueItem(Mail mail, MemoryMailQueue queue, Instant enqueuedTime, ZonedDateTime delivery, long sequence) {
             this.mail = mail;
             this.queue = queue;
+            this.enqueuedTime = enqueuedTime;
             this.delivery = delivery;
+            this.sequence = sequence;
+            this.state = new AtomicReference<>(State.DELAYED);
         }
 
         @Override
@@ -276,17 +390,8 @@ public class MemoryMailQueueFactory implements MailQueueFactory<ManageableMailQu
         }
 
         @Override
-        public long getDelay(TimeUnit unit) {
-            try {
-                return ZonedDateTime.now().until(delivery, Temporals.chronoUnit(unit));
-            } catch (ArithmeticException e) {
-                return Long.MAX_VALUE;
-            }
-        }
-
-        @Override
-        public int compareTo(Delayed o) {
-            return Math.toIntExact(getDelay(TimeUnit.MILLISECONDS) - o.getDelay(TimeUnit.MILLISECONDS));
+        public Optional<Instant> getEnqueuedTime() {
+            return Optional.of(enqueuedTime);
         }
     }
 }
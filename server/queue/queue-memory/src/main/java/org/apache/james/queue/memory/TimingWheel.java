@@ -0,0 +1,267 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.queue.memory;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+import com.google.common.annotations.VisibleForTesting;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Hierarchical timing wheel, handing over items to a consumer once their expiration is reached.
+ * <p/>
+ * Each level is a circular array of buckets spanning a fixed duration. Items expiring beyond the span of a level are
+ * stored in the next level, whose buckets span the whole previous level, and are cascaded down as time goes. Scheduling
+ * an item is a constant time operation, and concurrent schedules only share a read lock, while the clock is advanced
+ * under the write lock every tick.
+ * <p/>
+ * The clock only ticks while some items are pending. Items are handed over at most a tick after their expiration,
+ * never before.
+ */
+class TimingWheel<T> {
+    static final Duration DEFAULT_TICK = Duration.ofMillis(10);
+    static final int DEFAULT_WHEEL_SIZE = 512;
+    private static final Duration MAXIMUM_DELAY = Duration.ofDays(365L * 1000);
+
+    private static class Entry<T> {
+        private final T item;
+        private final long expirationMillis;
+
+        Entry(T item, long expirationMillis) {
+            this.item = item;
+            this.expirationMillis = expirationMillis;
+        }
+    }
+
+    private static class Level<T> {
+        private final long tickMillis;
+        private final int wheelSize;
+        private final long intervalMillis;
+        private final ConcurrentLinkedQueue<Entry<T>>[] buckets;
+        private final AtomicReference<Level<T>> overflowLevel;
+        private volatile long currentTimeMillis;
+
+        @SuppressWarnings("unchecked")
+        Level(long tickMillis, int wheelSize, long startMillis) {
+            this.tickMillis = tickMillis;
+            this.wheelSize = wheelSize;
+            this.intervalMillis = tickMillis * wheelSize;
+            this.buckets = new ConcurrentLinkedQueue[wheelSize];
+            for (int i = 0; i < wheelSize; i++) {
+                buckets[i] = new ConcurrentLinkedQueue<>();
+            }
+            this.overflowLevel = new AtomicReference<>();
+            this.currentTimeMillis = startMillis - (startMillis % tickMillis);
+        }
+
+        /**
+         * @return false if the entry is already expired
+         */
+        boolean add(Entry<T> entry) {
+            long currentTime = currentTimeMillis;
+            if (entry.expirationMillis < currentTime + tickMillis) {
+                return false;
+            }
+            if (entry.expirationMillis < currentTime + intervalMillis) {
+                bucketOf(entry.expirationMillis).add(entry);
+                return true;
+            }
+            return overflowLevel().add(entry);
+        }
+
+        void advanceClock(long timeMillis, Consumer<Entry<T>> reinsert) {
+            if (timeMillis >= currentTimeMillis + intervalMillis) {
+                skipWholeWheel(timeMillis, reinsert);
+                return;
+            }
+            while (timeMillis >= currentTimeMillis + tickMillis) {
+                currentTimeMillis += tickMillis;
+                drain(bucketOf(currentTimeMillis), reinsert);
+                advanceOverflowClock(reinsert);
+            }
+        }
+
+        /**
+         * When the clock moves by more than a whole wheel, every bucket of this level expires: they are drained in
+         * expiration order without stepping through each tick in between.
+         */
+        private void skipWholeWheel(long timeMillis, Consumer<Entry<T>> reinsert) {
+            long startMillis = currentTimeMillis;
+            currentTimeMillis = timeMillis - (timeMillis % tickMillis);
+            for (int i = 1; i <= wheelSize; i++) {
+                drain(bucketOf(startMillis + i * tickMillis), reinsert);
+            }
+            advanceOverflowClock(reinsert);
+        }
+
+        private void drain(ConcurrentLinkedQueue<Entry<T>> bucket, Consumer<Entry<T>> reinsert) {
+            Entry<T> entry;
+            while ((entry = bucket.poll()) != null) {
+                reinsert.accept(entry);
+            }
+        }
+
+        private void advanceOverflowClock(Consumer<Entry<T>> reinsert) {
+            Level<T> overflow = overflowLevel.get();
+            if (overflow != null) {
+                overflow.advanceClock(currentTimeMillis, reinsert);
+            }
+        }
+
+        private ConcurrentLinkedQueue<Entry<T>> bucketOf(long timeMillis) {
+            return buckets[(int) ((timeMillis / tickMillis) % wheelSize)];
+        }
+
+        private Level<T> overflowLevel() {
+            Level<T> overflow = overflowLevel.get();
+            if (overflow == null) {
+                overflowLevel.compareAndSet(null, new Level<>(intervalMillis, wheelSize, currentTimeMillis));
+                overflow = overflowLevel.get();
+            }
+            return overflow;
+        }
+    }
+
+    private final Duration tick;
+    private final Clock clock;
+    private final Consumer<T> onExpiry;
+    private final Level<T> root;
+    private final ReadWriteLock lock;
+    private final AtomicLong pendingCount;
+    private final Object tickerLock;
+    private Disposable ticker;
+
+    TimingWheel(Consumer<T> onExpiry) {
+        this(DEFAULT_TICK, DEFAULT_WHEEL_SIZE, Clock.systemUTC(), onExpiry);
+    }
+
+    @VisibleForTesting
+    TimingWheel(Duration tick, int wheelSize, Clock clock, Consumer<T> onExpiry) {
+        this.tick = tick;
+        this.clock = clock;
+        this.onExpiry = onExpiry;
+        this.root = new Level<>(tick.toMillis(), wheelSize, clock.millis());
+        this.lock = new ReentrantReadWriteLock();
+        this.pendingCount = new AtomicLong(0);
+        this.tickerLock = new Object();
+    }
+
+    /**
+     * Items already expired are handed over directly to the consumer, on the calling thread.
+     */
+    void schedule(T item, Instant expiration) {
+        long nowMillis = clock.millis();
+        if (!expiration.isAfter(Instant.ofEpochMilli(nowMillis))) {
+            onExpiry.accept(item);
+            return;
+        }
+        long expirationMillis = roundUpToTick(expiration.isAfter(Instant.ofEpochMilli(nowMillis).plus(MAXIMUM_DELAY))
+            ? nowMillis + MAXIMUM_DELAY.toMillis()
+            : expiration.toEpochMilli());
+
+        pendingCount.incrementAndGet();
+        boolean added;
+        lock.readLock().lock();
+        try {
+            added = root.add(new Entry<>(item, expirationMillis));
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        if (added) {
+            ensureTicking();
+        } else {
+            pendingCount.decrementAndGet();
+            onExpiry.accept(item);
+        }
+    }
+
+    /**
+     * Expirations are rounded up to the next tick, so that items are never handed over before their expiration.
+     */
+    private long roundUpToTick(long expirationMillis) {
+        long tickMillis = tick.toMillis();
+        long remainder = expirationMillis % tickMillis;
+        if (remainder == 0) {
+            return expirationMillis;
+        }
+        return expirationMillis - remainder + tickMillis;
+    }
+
+    @VisibleForTesting
+    void advanceClock() {
+        List<T> expiredItems = new ArrayList<>();
+        lock.writeLock().lock();
+        try {
+            root.advanceClock(clock.millis(), entry -> {
+                if (!root.add(entry)) {
+                    expiredItems.add(entry.item);
+                }
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        pendingCount.addAndGet(-expiredItems.size());
+        expiredItems.forEach(onExpiry);
+        maybeStopTicking();
+    }
+
+    long pendingCount() {
+        return pendingCount.get();
+    }
+
+    /**
+     * The ticker is checked under the ticker lock, as is its disposal once no item is pending. The pending count being
+     * incremented before, either the ticker is not disposed, or it is disposed before this check and restarted.
+     */
+    private void ensureTicking() {
+        synchronized (tickerLock) {
+            if (ticker == null) {
+                ticker = Flux.interval(tick, tick, Schedulers.parallel())
+                    .subscribe(any -> advanceClock());
+            }
+        }
+    }
+
+    private void maybeStopTicking() {
+        if (pendingCount.get() == 0) {
+            synchronized (tickerLock) {
+                if (pendingCount.get() == 0 && ticker != null) {
+                    ticker.dispose();
+                    ticker = null;
+                }
+            }
+        }
+    }
+}
@@ -22,6 +22,10 @@ package org.apache.james.queue.memory;
 import static org.apache.james.queue.api.Mails.defaultMail;
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.time.Duration;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
 import org.apache.james.queue.api.DelayedManageableMailQueueContract;
 import org.apache.james.queue.api.MailQueue;
 import org.apache.james.queue.api.ManageableMailQueue;
@@ -29,6 +33,8 @@ import org.apache.james.queue.api.RawMailQueueItemDecoratorFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import reactor.core.publisher.Flux;
+
 public class MemoryMailQueueTest implements DelayedManageableMailQueueContract {
 
     private MemoryMailQueueFactory.MemoryMailQueue mailQueue;
@@ -86,6 +92,28 @@ public class MemoryMailQueueTest implements DelayedManageableMailQueueContract {
             .isEqualTo("name2");
     }
 
+    @Test
+    public void dequeueShouldPreserveEnqueueOrderOfDueMailsInterleavedWithDelayedOnes() throws Exception {
+        int mailCount = 100;
+        for (int i = 0; i < mailCount; i++) {
+            mailQueue.enQueue(defaultMail()
+                .name("due" + i)
+                .build());
+            mailQueue.enQueue(defaultMail()
+                .name("delayed" + i)
+                .build(), Duration.ofHours(1));
+        }
+
+        assertThat(Flux.from(mailQueue.deQueue())
+                .take(mailCount)
+                .map(item -> item.getMail().getName())
+                .collectList()
+                .block(Duration.ofSeconds(10)))
+            .containsExactlyElementsOf(IntStream.range(0, mailCount)
+                .mapToObj(i -> "due" + i)
+                .collect(Collectors.toList()));
+    }
+
     @Override
     public ManageableMailQueue getManageableMailQueue() {
         return mailQueue;
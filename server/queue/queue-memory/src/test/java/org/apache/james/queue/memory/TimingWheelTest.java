@@ -0,0 +1,164 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.queue.memory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Duration.TEN_SECONDS;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.apache.james.util.concurrency.ConcurrentTestRunner;
+import org.apache.james.utils.UpdatableTickingClock;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TimingWheelTest {
+    private static final Instant NOW = Instant.parse("2020-04-01T10:00:00.000Z");
+    private static final Duration TICK = Duration.ofMillis(10);
+    private static final int WHEEL_SIZE = 8;
+
+    private UpdatableTickingClock clock;
+    private ConcurrentLinkedQueue<String> expired;
+    private TimingWheel<String> testee;
+
+    @BeforeEach
+    void setUp() {
+        clock = new UpdatableTickingClock(NOW);
+        expired = new ConcurrentLinkedQueue<>();
+        testee = new TimingWheel<>(TICK, WHEEL_SIZE, clock, expired::add);
+    }
+
+    @Test
+    void scheduleShouldHandOverExpiredItemsDirectly() {
+        testee.schedule("a", NOW.minusSeconds(1));
+        testee.schedule("b", NOW);
+
+        assertThat(expired).containsExactly("a", "b");
+        assertThat(testee.pendingCount()).isZero();
+    }
+
+    @Test
+    void scheduleShouldNotHandOverFutureItems() {
+        testee.schedule("a", NOW.plusMillis(25));
+
+        assertThat(expired).isEmpty();
+        assertThat(testee.pendingCount()).isEqualTo(1);
+    }
+
+    @Test
+    void advanceClockShouldNotHandOverItemsBeforeTheirExpiration() {
+        testee.schedule("a", NOW.plusMillis(25));
+
+        clock.setInstant(NOW.plusMillis(24));
+        testee.advanceClock();
+
+        assertThat(expired).isEmpty();
+    }
+
+    @Test
+    void advanceClockShouldHandOverItemsOnceExpired() {
+        testee.schedule("a", NOW.plusMillis(25));
+
+        clock.setInstant(NOW.plusMillis(30));
+        testee.advanceClock();
+
+        assertThat(expired).containsExactly("a");
+        assertThat(testee.pendingCount()).isZero();
+    }
+
+    @Test
+    void advanceClockShouldHandOverItemsInExpirationOrder() {
+        testee.schedule("c", NOW.plusMillis(50));
+        testee.schedule("a", NOW.plusMillis(10));
+        testee.schedule("b", NOW.plusMillis(30));
+
+        clock.setInstant(NOW.plusMillis(60));
+        testee.advanceClock();
+
+        assertThat(expired).containsExactly("a", "b", "c");
+    }
+
+    @Test
+    void advanceClockShouldCascadeItemsFromOverflowLevels() {
+        Duration beyondTwoLevels = TICK.multipliedBy(WHEEL_SIZE * WHEEL_SIZE + 3);
+        testee.schedule("a", NOW.plus(beyondTwoLevels));
+
+        clock.setInstant(NOW.plus(beyondTwoLevels).minusMillis(1));
+        testee.advanceClock();
+        assertThat(expired).isEmpty();
+
+        clock.setInstant(NOW.plus(beyondTwoLevels));
+        testee.advanceClock();
+        assertThat(expired).containsExactly("a");
+    }
+
+    @Test
+    void advanceClockShouldHandOverItemsWhenAdvancingStepByStep() {
+        testee.schedule("a", NOW.plus(TICK.multipliedBy(WHEEL_SIZE * 3 + 1)));
+
+        for (int i = 1; i <= WHEEL_SIZE * 3; i++) {
+            clock.setInstant(NOW.plus(TICK.multipliedBy(i)));
+            testee.advanceClock();
+        }
+        assertThat(expired).isEmpty();
+
+        clock.setInstant(NOW.plus(TICK.multipliedBy(WHEEL_SIZE * 3 + 1)));
+        testee.advanceClock();
+        assertThat(expired).containsExactly("a");
+    }
+
+    @Test
+    void scheduleShouldSupportVeryLongDelays() {
+        testee.schedule("a", Instant.MAX);
+
+        clock.setInstant(NOW.plus(Duration.ofDays(365)));
+        testee.advanceClock();
+
+        assertThat(expired).isEmpty();
+        assertThat(testee.pendingCount()).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentSchedulesShouldAllBeHandedOverWhileTheTickerStops() throws Exception {
+        Clock systemClock = Clock.systemUTC();
+        ConcurrentLinkedQueue<String> handedOver = new ConcurrentLinkedQueue<>();
+        TimingWheel<String> timingWheel = new TimingWheel<>(Duration.ofMillis(1), WHEEL_SIZE, systemClock, handedOver::add);
+        int threadCount = 10;
+        int operationCount = 200;
+
+        ConcurrentTestRunner.builder()
+            .operation((threadNumber, step) -> {
+                timingWheel.schedule(threadNumber + "-" + step, systemClock.instant().plusMillis(1 + step % 3));
+                Thread.sleep(step % 2);
+            })
+            .threadCount(threadCount)
+            .operationCount(operationCount)
+            .runSuccessfullyWithin(Duration.ofMinutes(1));
+
+        Awaitility.await()
+            .atMost(TEN_SECONDS)
+            .untilAsserted(() -> assertThat(handedOver).hasSize(threadCount * operationCount));
+        assertThat(timingWheel.pendingCount()).isZero();
+    }
+}
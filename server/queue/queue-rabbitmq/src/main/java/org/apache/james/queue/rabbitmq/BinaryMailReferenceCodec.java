@@ -0,0 +1,351 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.queue.rabbitmq;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Compact binary encoding of {@link MailReferenceDTO}.
+ * <p/>
+ * The payload starts with a version byte. Lengths and counts are unsigned variable length integers, and strings are
+ * length prefixed UTF-8. Attribute names and per recipient header names, often repeated among recipients, are written
+ * once in a name table and referenced by their index. Attribute values keep their {@link org.apache.mailet.AttributeValue}
+ * JSON serialization, unescaped.
+ * <p/>
+ * Version 2 allows blob ids to be null, and ends with the inlined message written as raw bytes. Version 1 payloads, which
+ * may still be queued upon upgrade, are still decoded.
+ */
+class BinaryMailReferenceCodec {
+    static final byte VERSION_1 = 1;
+    static final byte VERSION_2 = 2;
+
+    private static class NameTable {
+        private final Map<String, Integer> indexes;
+        private final List<String> names;
+
+        NameTable() {
+            this.indexes = new HashMap<>();
+            this.names = new ArrayList<>();
+        }
+
+        void intern(String name) {
+            indexes.computeIfAbsent(name, any -> {
+                names.add(name);
+                return names.size() - 1;
+            });
+        }
+
+        int indexOf(String name) {
+            return indexes.get(name);
+        }
+    }
+
+    private static class Writer {
+        private final ByteArrayOutputStream output;
+
+        Writer() {
+            this.output = new ByteArrayOutputStream(512);
+        }
+
+        void writeByte(int value) {
+            output.write(value);
+        }
+
+        void writeVarLong(long value) {
+            long remaining = value;
+            while ((remaining & ~0x7FL) != 0) {
+                output.write((int) ((remaining & 0x7F) | 0x80));
+                remaining >>>= 7;
+            }
+            output.write((int) remaining);
+        }
+
+        void writeString(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(bytes.length);
+            output.write(bytes, 0, bytes.length);
+        }
+
+        void writeNullableString(String value) {
+            writeNullableBytes(Optional.ofNullable(value)
+                .map(string -> string.getBytes(StandardCharsets.UTF_8))
+                .orElse(null));
+        }
+
+        /**
+         * Null is encoded as a zero length, other lengths are shifted by one.
+         */
+        void writeNullableBytes(byte[] bytes) {
+            if (bytes == null) {
+                writeVarLong(0);
+                return;
+            }
+            writeVarLong(bytes.length + 1L);
+            output.write(bytes, 0, bytes.length);
+        }
+
+        byte[] toByteArray() {
+            return output.toByteArray();
+        }
+    }
+
+    private static class Reader {
+        private final ByteBuffer buffer;
+
+        Reader(byte[] bytes) {
+            this.buffer = ByteBuffer.wrap(bytes);
+        }
+
+        byte readByte() {
+            return buffer.get();
+        }
+
+        long readVarLong() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte current = buffer.get();
+                value |= (long) (current & 0x7F) << shift;
+                if ((current & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Malformed variable length integer");
+        }
+
+        int readLength() throws IOException {
+            return checkLength(readVarLong());
+        }
+
+        private int checkLength(long length) throws IOException {
+            if (length < 0 || length > buffer.remaining()) {
+                throw new IOException("Length " + length + " exceeds the remaining " + buffer.remaining() + " bytes");
+            }
+            return (int) length;
+        }
+
+        int readCount() throws IOException {
+            return readLength();
+        }
+
+        String readName(List<String> names) throws IOException {
+            long index = readVarLong();
+            if (index < 0 || index >= names.size()) {
+                throw new IOException("Unknown name index " + index);
+            }
+            return names.get((int) index);
+        }
+
+        String readString() throws IOException {
+            return readUtf8(readLength());
+        }
+
+        String readNullableString() throws IOException {
+            Optional<Integer> length = readNullableLength();
+            if (!length.isPresent()) {
+                return null;
+            }
+            return readUtf8(length.get());
+        }
+
+        byte[] readNullableBytes() throws IOException {
+            Optional<Integer> length = readNullableLength();
+            if (!length.isPresent()) {
+                return null;
+            }
+            byte[] bytes = new byte[length.get()];
+            buffer.get(bytes);
+            return bytes;
+        }
+
+        private Optional<Integer> readNullableLength() throws IOException {
+            long shiftedLength = readVarLong();
+            if (shiftedLength == 0) {
+                return Optional.empty();
+            }
+            return Optional.of(checkLength(shiftedLength - 1));
+        }
+
+        private String readUtf8(int length) {
+            String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+            return value;
+        }
+
+        boolean hasRemaining() {
+            return buffer.hasRemaining();
+        }
+    }
+
+    byte[] encode(MailReferenceDTO mailReference) {
+        NameTable nameTable = new NameTable();
+        mailReference.getAttributes().keySet().forEach(nameTable::intern);
+        mailReference.getPerRecipientHeaders().values().stream()
+            .flatMap(headers -> headers.getHeaders().keySet().stream())
+            .forEach(nameTable::intern);
+
+        Writer writer = new Writer();
+        writer.writeByte(VERSION_2);
+        writer.writeVarLong(nameTable.names.size());
+        nameTable.names.forEach(writer::writeString);
+
+        writer.writeString(mailReference.getEnqueueId());
+        writer.writeNullableString(mailReference.getName());
+        writer.writeNullableString(mailReference.getSender().orElse(null));
+        writer.writeNullableString(mailReference.getState());
+        writer.writeNullableString(mailReference.getErrorMessage());
+        writeLastUpdated(writer, mailReference.getLastUpdated());
+        writer.writeNullableString(mailReference.getRemoteAddr());
+        writer.writeNullableString(mailReference.getRemoteHost());
+        writer.writeNullableString(mailReference.getHeaderBlobId());
+        writer.writeNullableString(mailReference.getBodyBlobId());
+
+        writer.writeVarLong(mailReference.getRecipients().size());
+        mailReference.getRecipients().forEach(writer::writeString);
+
+        writer.writeVarLong(mailReference.getAttributes().size());
+        mailReference.getAttributes().forEach((name, value) -> {
+            writer.writeVarLong(nameTable.indexOf(name));
+            writer.writeString(value);
+        });
+
+        writer.writeVarLong(mailReference.getPerRecipientHeaders().size());
+        mailReference.getPerRecipientHeaders().forEach((recipient, headers) -> {
+            writer.writeString(recipient);
+            writer.writeVarLong(headers.getHeaders().size());
+            headers.getHeaders().entries().forEach(header -> {
+                writer.writeVarLong(nameTable.indexOf(header.getKey()));
+                writer.writeString(header.getValue());
+            });
+        });
+
+        writer.writeNullableBytes(mailReference.getInlinedMessage().orElse(null));
+
+        return writer.toByteArray();
+    }
+
+    private void writeLastUpdated(Writer writer, Optional<Instant> lastUpdated) {
+        if (lastUpdated.isPresent()) {
+            writer.writeByte(1);
+            writer.writeVarLong(lastUpdated.get().toEpochMilli());
+        } else {
+            writer.writeByte(0);
+        }
+    }
+
+    MailReferenceDTO decode(byte[] bytes) throws IOException {
+        try {
+            Reader reader = new Reader(bytes);
+            byte version = reader.readByte();
+            if (version != VERSION_1 && version != VERSION_2) {
+                throw new IOException("Unsupported binary mail reference version " + version);
+            }
+            MailReferenceDTO mailReference = decode(reader, version);
+            if (reader.hasRemaining()) {
+                throw new IOException("Unexpected trailing bytes in binary mail reference");
+            }
+            return mailReference;
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Truncated binary mail reference", e);
+        }
+    }
+
+    private MailReferenceDTO decode(Reader reader, byte version) throws IOException {
+        int nameCount = reader.readCount();
+        List<String> names = new ArrayList<>(nameCount);
+        for (int i = 0; i < nameCount; i++) {
+            names.add(reader.readString());
+        }
+
+        String enqueueId = reader.readString();
+        String name = reader.readNullableString();
+        Optional<String> sender = Optional.ofNullable(reader.readNullableString());
+        String state = reader.readNullableString();
+        String errorMessage = reader.readNullableString();
+        Optional<Instant> lastUpdated = readLastUpdated(reader);
+        String remoteAddr = reader.readNullableString();
+        String remoteHost = reader.readNullableString();
+        String headerBlobId = readBlobId(reader, version);
+        String bodyBlobId = readBlobId(reader, version);
+
+        int recipientCount = reader.readCount();
+        ImmutableList.Builder<String> recipients = ImmutableList.builderWithExpectedSize(recipientCount);
+        for (int i = 0; i < recipientCount; i++) {
+            recipients.add(reader.readString());
+        }
+
+        int attributeCount = reader.readCount();
+        ImmutableMap.Builder<String, String> attributes = ImmutableMap.builderWithExpectedSize(attributeCount);
+        for (int i = 0; i < attributeCount; i++) {
+            attributes.put(reader.readName(names), reader.readString());
+        }
+
+        int perRecipientHeadersCount = reader.readCount();
+        ImmutableMap.Builder<String, HeadersDto> perRecipientHeaders = ImmutableMap.builderWithExpectedSize(perRecipientHeadersCount);
+        for (int i = 0; i < perRecipientHeadersCount; i++) {
+            String recipient = reader.readString();
+            int headerCount = reader.readCount();
+            ImmutableListMultimap.Builder<String, String> headers = ImmutableListMultimap.builder();
+            for (int j = 0; j < headerCount; j++) {
+                headers.put(reader.readName(names), reader.readString());
+            }
+            perRecipientHeaders.put(recipient, new HeadersDto(headers.build()));
+        }
+
+        Optional<byte[]> inlinedMessage = readInlinedMessage(reader, version);
+
+        return new MailReferenceDTO(enqueueId, recipients.build(), name, sender, state, errorMessage, lastUpdated,
+            attributes.build(), remoteAddr, remoteHost, perRecipientHeaders.build(), headerBlobId, bodyBlobId, inlinedMessage);
+    }
+
+    private String readBlobId(Reader reader, byte version) throws IOException {
+        if (version == VERSION_1) {
+            return reader.readString();
+        }
+        return reader.readNullableString();
+    }
+
+    private Optional<byte[]> readInlinedMessage(Reader reader, byte version) throws IOException {
+        if (version == VERSION_1) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(reader.readNullableBytes());
+    }
+
+    private Optional<Instant> readLastUpdated(Reader reader) throws IOException {
+        if (reader.readByte() == 0) {
+            return Optional.empty();
+        }
+        return Optional.of(Instant.ofEpochMilli(reader.readVarLong()));
+    }
+}
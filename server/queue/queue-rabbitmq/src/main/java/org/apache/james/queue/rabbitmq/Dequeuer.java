@@ -22,12 +22,15 @@ package org.apache.james.queue.rabbitmq;
 import static org.apache.james.queue.api.MailQueue.DEQUEUED_METRIC_NAME_PREFIX;
 
 import java.io.IOException;
+import java.time.Instant;
+import java.util.Optional;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
 import org.apache.james.metrics.api.Metric;
 import org.apache.james.metrics.api.MetricFactory;
 import org.apache.james.queue.api.MailQueue;
+import org.apache.james.queue.api.MailQueueAgeMetrics;
 import org.apache.james.queue.rabbitmq.view.api.DeleteCondition;
 import org.apache.james.queue.rabbitmq.view.api.MailQueueView;
 import org.apache.mailet.Mail;
@@ -48,11 +51,13 @@ class Dequeuer {
         private final Consumer<Boolean> ack;
         private final EnqueueId enqueueId;
         private final Mail mail;
+        private final Optional<Instant> enqueuedTime;
 
-        private RabbitMQMailQueueItem(Consumer<Boolean> ack, MailWithEnqueueId mailWithEnqueueId) {
+        private RabbitMQMailQueueItem(Consumer<Boolean> ack, MailWithEnqueueId mailWithEnqueueId, Optional<Instant> enqueuedTime) {
             this.ack = ack;
             this.enqueueId = mailWithEnqueueId.getEnqueueId();
             this.mail = mailWithEnqueueId.getMail();
+            this.enqueuedTime = enqueuedTime;
         }
 
         @Override
@@ -68,17 +73,26 @@ class Dequeuer {
         public void done(boolean success) {
             ack.accept(success);
         }
+
+        @Override
+        public Optional<Instant> getEnqueuedTime() {
+            return enqueuedTime;
+        }
     }
 
-    private final Function<MailReferenceDTO, MailWithEnqueueId> mailLoader;
+    private final Function<MailReferenceDTO, Mono<MailWithEnqueueId>> mailLoader;
     private final Metric dequeueMetric;
     private final MailReferenceSerializer mailReferenceSerializer;
     private final MailQueueView mailQueueView;
+    private final MailQueueAgeMetrics mailQueueAgeMetrics;
+    private final int concurrency;
 
-    Dequeuer(MailQueueName name, RabbitClient rabbitClient, Function<MailReferenceDTO, MailWithEnqueueId> mailLoader,
+    Dequeuer(MailQueueName name, RabbitClient rabbitClient, Function<MailReferenceDTO, Mono<MailWithEnqueueId>> mailLoader,
              MailReferenceSerializer serializer, MetricFactory metricFactory,
-             MailQueueView mailQueueView) {
+             MailQueueView mailQueueView, MailQueueAgeMetrics mailQueueAgeMetrics, int concurrency) {
         this.mailLoader = mailLoader;
+        this.mailQueueAgeMetrics = mailQueueAgeMetrics;
+        this.concurrency = concurrency;
         this.mailReferenceSerializer = serializer;
         this.mailQueueView = mailQueueView;
         this.dequeueMetric = metricFactory.generate(DEQUEUED_METRIC_NAME_PREFIX + name.asString());
@@ -87,54 +101,56 @@ class Dequeuer {
             .filter(getResponse -> getResponse.getBody() != null);
     }
 
+    /**
+     * Up to concurrency deliveries are loaded at the same time. Items are emitted in the delivery order, and each of
+     * them is acknowledged on its own, so that a slow load does not impact the acknowledgement of others.
+     */
     Flux<? extends MailQueue.MailQueueItem> deQueue() {
-        return flux.concatMap(this::loadItem)
-            .concatMap(this::filterIfDeleted);
+        return flux.flatMapSequential(this::loadItem, concurrency)
+            .map(mailQueueAgeMetrics::recordDequeue);
     }
 
-    private Mono<RabbitMQMailQueueItem> filterIfDeleted(RabbitMQMailQueueItem item) {
-        return mailQueueView.isPresent(item.getEnqueueId())
-            .flatMap(isPresent -> keepWhenPresent(item, isPresent));
+    /**
+     * Deleted mails are filtered out before reading their content from the blob store. They are already removed from
+     * the view, so only their delivery needs to be acknowledged.
+     */
+    private Mono<RabbitMQMailQueueItem> loadItem(AcknowledgableDelivery response) {
+        return Mono.fromCallable(() -> toMailReference(response))
+            .flatMap(mailDTO -> filterIfDeleted(response, mailDTO))
+            .flatMap(mailLoader)
+            .map(mailWithEnqueueId -> new RabbitMQMailQueueItem(ack(response, mailWithEnqueueId.getEnqueueId()), mailWithEnqueueId,
+                RabbitClient.enqueuedTime(response.getProperties())));
     }
 
-    private Mono<? extends RabbitMQMailQueueItem> keepWhenPresent(RabbitMQMailQueueItem item, Boolean isPresent) {
-        if (isPresent) {
-            return Mono.just(item);
-        }
-        item.done(true);
-        return Mono.empty();
+    private Mono<MailReferenceDTO> filterIfDeleted(AcknowledgableDelivery response, MailReferenceDTO mailDTO) {
+        EnqueueId enqueueId = EnqueueId.ofSerialized(mailDTO.getEnqueueId());
+        return mailQueueView.isPresent(enqueueId, RabbitClient.enqueuedTime(response.getProperties()))
+            .flatMap(isPresent -> keepWhenPresent(response, mailDTO, isPresent));
     }
 
-    private Mono<RabbitMQMailQueueItem> loadItem(AcknowledgableDelivery response) {
-        try {
-            MailWithEnqueueId mailWithEnqueueId = loadMail(response);
-            ThrowingConsumer<Boolean> ack = ack(response, mailWithEnqueueId);
-            return Mono.just(new RabbitMQMailQueueItem(ack, mailWithEnqueueId));
-        } catch (MailQueue.MailQueueException e) {
-            return Mono.error(e);
+    private Mono<MailReferenceDTO> keepWhenPresent(AcknowledgableDelivery response, MailReferenceDTO mailDTO, Boolean isPresent) {
+        if (isPresent) {
+            return Mono.just(mailDTO);
         }
+        response.ack();
+        return Mono.empty();
     }
 
-    private ThrowingConsumer<Boolean> ack(AcknowledgableDelivery response, MailWithEnqueueId mailWithEnqueueId) {
+    private ThrowingConsumer<Boolean> ack(AcknowledgableDelivery response, EnqueueId enqueueId) {
         return success -> {
             if (success) {
                 dequeueMetric.increment();
                 response.ack();
-                mailQueueView.delete(DeleteCondition.withEnqueueId(mailWithEnqueueId.getEnqueueId()));
+                mailQueueView.delete(DeleteCondition.withEnqueueId(enqueueId));
             } else {
                 response.nack(REQUEUE);
             }
         };
     }
 
-    private MailWithEnqueueId loadMail(Delivery response) throws MailQueue.MailQueueException {
-        MailReferenceDTO mailDTO = toMailReference(response);
-        return mailLoader.apply(mailDTO);
-    }
-
     private MailReferenceDTO toMailReference(Delivery getResponse) throws MailQueue.MailQueueException {
         try {
-            return mailReferenceSerializer.read(getResponse.getBody());
+            return mailReferenceSerializer.read(getResponse.getBody(), Optional.ofNullable(getResponse.getProperties().getContentType()));
         } catch (IOException e) {
             throw new MailQueue.MailQueueException("Failed to parse DTO", e);
         }
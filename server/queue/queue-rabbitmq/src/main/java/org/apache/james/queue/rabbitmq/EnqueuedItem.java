@@ -21,6 +21,7 @@ package org.apache.james.queue.rabbitmq;
 
 import java.time.Instant;
 import java.util.Objects;
+import java.util.Optional;
 
 import org.apache.james.blob.mail.MimeMessagePartsId;
 import org.apache.mailet.Mail;
@@ -48,12 +49,16 @@ public class EnqueuedItem {
 
         @FunctionalInterface
         interface RequireEnqueuedTime {
-            RequireMimeMessagePartsId enqueuedTime(Instant clock);
+            RequireMimeMessageContent enqueuedTime(Instant clock);
         }
 
         @FunctionalInterface
-        interface RequireMimeMessagePartsId {
-            ReadyToBuild mimeMessagePartsId(MimeMessagePartsId partsId);
+        interface RequireMimeMessageContent {
+            ReadyToBuild content(MimeMessageContent content);
+
+            default ReadyToBuild mimeMessagePartsId(MimeMessagePartsId partsId) {
+                return content(MimeMessageContent.stored(partsId));
+            }
         }
 
         class ReadyToBuild {
@@ -61,44 +66,63 @@ public class EnqueuedItem {
             private final MailQueueName mailQueueName;
             private final Mail mail;
             private final Instant enqueuedTime;
-            private final MimeMessagePartsId partsId;
+            private final MimeMessageContent content;
+            private final Optional<Instant> deliveryTime;
 
-            ReadyToBuild(EnqueueId enqueueId, MailQueueName mailQueueName, Mail mail, Instant enqueuedTime, MimeMessagePartsId partsId) {
+            ReadyToBuild(EnqueueId enqueueId, MailQueueName mailQueueName, Mail mail, Instant enqueuedTime, MimeMessageContent content) {
+                this(enqueueId, mailQueueName, mail, enqueuedTime, content, Optional.empty());
+            }
+
+            private ReadyToBuild(EnqueueId enqueueId, MailQueueName mailQueueName, Mail mail, Instant enqueuedTime, MimeMessageContent content, Optional<Instant> deliveryTime) {
                 Preconditions.checkNotNull(enqueueId, "'enqueueId' is mandatory");
                 Preconditions.checkNotNull(mailQueueName, "'mailQueueName' is mandatory");
                 Preconditions.checkNotNull(mail, "'mail' is mandatory");
                 Preconditions.checkNotNull(enqueuedTime, "'enqueuedTime' is mandatory");
-                Preconditions.checkNotNull(partsId, "'partsId' is mandatory");
+                Preconditions.checkNotNull(content, "'content' is mandatory");
 
                 this.enqueueId = enqueueId;
                 this.mailQueueName = mailQueueName;
                 this.mail = mail;
                 this.enqueuedTime = enqueuedTime;
-                this.partsId = partsId;
+                this.content = content;
+                this.deliveryTime = deliveryTime;
+            }
+
+            /**
+             * Delayed mails are only delivered once their delivery time is reached. Defaults to the enqueued time.
+             */
+            public ReadyToBuild deliveryTime(Optional<Instant> deliveryTime) {
+                return new ReadyToBuild(enqueueId, mailQueueName, mail, enqueuedTime, content, deliveryTime);
+            }
+
+            public ReadyToBuild deliveryTime(Instant deliveryTime) {
+                return deliveryTime(Optional.of(deliveryTime));
             }
 
             public EnqueuedItem build() {
-                return new EnqueuedItem(enqueueId, mailQueueName, mail, enqueuedTime, partsId);
+                return new EnqueuedItem(enqueueId, mailQueueName, mail, enqueuedTime, content, deliveryTime.orElse(enqueuedTime));
             }
         }
     }
 
     public static Builder.RequireEnqueueId builder() {
-        return enqueueId -> queueName -> mail -> enqueuedTime -> partsId -> new Builder.ReadyToBuild(enqueueId, queueName, mail, enqueuedTime, partsId);
+        return enqueueId -> queueName -> mail -> enqueuedTime -> content -> new Builder.ReadyToBuild(enqueueId, queueName, mail, enqueuedTime, content);
     }
 
     private final EnqueueId enqueueId;
     private final MailQueueName mailQueueName;
     private final Mail mail;
     private final Instant enqueuedTime;
-    private final MimeMessagePartsId partsId;
+    private final MimeMessageContent content;
+    private final Instant deliveryTime;
 
-    EnqueuedItem(EnqueueId enqueueId, MailQueueName mailQueueName, Mail mail, Instant enqueuedTime, MimeMessagePartsId partsId) {
+    EnqueuedItem(EnqueueId enqueueId, MailQueueName mailQueueName, Mail mail, Instant enqueuedTime, MimeMessageContent content, Instant deliveryTime) {
         this.enqueueId = enqueueId;
         this.mailQueueName = mailQueueName;
         this.mail = mail;
         this.enqueuedTime = enqueuedTime;
-        this.partsId = partsId;
+        this.content = content;
+        this.deliveryTime = deliveryTime;
     }
 
     public EnqueueId getEnqueueId() {
@@ -117,8 +141,12 @@ public class EnqueuedItem {
         return enqueuedTime;
     }
 
-    public MimeMessagePartsId getPartsId() {
-        return partsId;
+    public MimeMessageContent getContent() {
+        return content;
+    }
+
+    public Instant getDeliveryTime() {
+        return deliveryTime;
     }
 
     @Override
@@ -130,13 +158,14 @@ public class EnqueuedItem {
                 && Objects.equals(this.mailQueueName, that.mailQueueName)
                 && Objects.equals(this.mail, that.mail)
                 && Objects.equals(this.enqueuedTime, that.enqueuedTime)
-                && Objects.equals(this.partsId, that.partsId);
+                && Objects.equals(this.content, that.content)
+                && Objects.equals(this.deliveryTime, that.deliveryTime);
         }
         return false;
     }
 
     @Override
     public final int hashCode() {
-        return Objects.hash(enqueueId, mailQueueName, mail, enqueuedTime, partsId);
+        return Objects.hash(enqueueId, mailQueueName, mail, enqueuedTime, content, deliveryTime);
     }
 }
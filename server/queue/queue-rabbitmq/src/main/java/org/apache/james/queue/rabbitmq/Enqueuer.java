@@ -19,9 +19,18 @@
 
 package org.apache.james.queue.rabbitmq;
 
+import static org.apache.james.queue.api.MailPrioritySupport.HIGH_PRIORITY;
+import static org.apache.james.queue.api.MailPrioritySupport.LOW_PRIORITY;
+import static org.apache.james.queue.api.MailPrioritySupport.MAIL_PRIORITY;
+import static org.apache.james.queue.api.MailPrioritySupport.NORMAL_PRIORITY;
 import static org.apache.james.queue.api.MailQueue.ENQUEUED_METRIC_NAME_PREFIX;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
 
 import javax.mail.MessagingException;
 import javax.mail.internet.MimeMessage;
@@ -32,12 +41,11 @@ import org.apache.james.metrics.api.Metric;
 import org.apache.james.metrics.api.MetricFactory;
 import org.apache.james.queue.api.MailQueue;
 import org.apache.james.queue.rabbitmq.view.api.MailQueueView;
+import org.apache.mailet.AttributeUtils;
 import org.apache.mailet.Mail;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.github.fge.lambdas.Throwing;
-
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 class Enqueuer {
     private final MailQueueName name;
@@ -47,54 +55,102 @@ class Enqueuer {
     private final Metric enqueueMetric;
     private final MailQueueView mailQueueView;
     private final Clock clock;
+    private final Optional<Long> inlinedMessageMaxSize;
 
     Enqueuer(MailQueueName name, RabbitClient rabbitClient, Store<MimeMessage, MimeMessagePartsId> mimeMessageStore,
              MailReferenceSerializer serializer, MetricFactory metricFactory,
-             MailQueueView mailQueueView, Clock clock) {
+             MailQueueView mailQueueView, Clock clock, Optional<Long> inlinedMessageMaxSize) {
         this.name = name;
         this.rabbitClient = rabbitClient;
         this.mimeMessageStore = mimeMessageStore;
         this.mailReferenceSerializer = serializer;
         this.mailQueueView = mailQueueView;
         this.clock = clock;
+        this.inlinedMessageMaxSize = inlinedMessageMaxSize;
         this.enqueueMetric = metricFactory.generate(ENQUEUED_METRIC_NAME_PREFIX + name.asString());
     }
 
-    void enQueue(Mail mail) throws MailQueue.MailQueueException {
+    /**
+     * The mail is added to the view upon enqueue, thus delayed mails can be browsed and removed.
+     *
+     * Publishing to RabbitMQ relies on a blocking client, and is thus done on a dedicated scheduler.
+     */
+    Mono<Void> enqueueReactive(Mail mail, Duration delay) {
         EnqueueId enqueueId = EnqueueId.generate();
-        saveMail(mail)
-            .map(partIds -> new MailReference(enqueueId, mail, partIds))
-            .map(Throwing.function(this::publishReferenceToRabbit).sneakyThrow())
+        return saveMail(mail)
+            .map(content -> new MailReference(enqueueId, mail, content))
+            .flatMap(mailReference -> Mono.fromCallable(() -> publishReferenceToRabbit(mailReference, delay))
+                .subscribeOn(Schedulers.boundedElastic()))
             .flatMap(mailQueueView::storeMail)
-            .thenEmpty(Mono.fromRunnable(enqueueMetric::increment))
-            .block();
+            .thenEmpty(Mono.fromRunnable(enqueueMetric::increment));
     }
 
-    private Mono<MimeMessagePartsId> saveMail(Mail mail) throws MailQueue.MailQueueException {
-        try {
-            return mimeMessageStore.save(mail.getMessage());
-        } catch (MessagingException e) {
-            throw new MailQueue.MailQueueException("Error while saving blob", e);
+    /**
+     * Messages not exceeding the inlined message max size are embedded in the mail reference rather than saved in the
+     * blob store, sparing blob store round trips upon enqueue, dequeue and browse.
+     */
+    private Mono<MimeMessageContent> saveMail(Mail mail) {
+        return Mono.defer(() -> {
+            try {
+                Optional<byte[]> inlinedMessage = inlinedMessage(mail);
+                if (inlinedMessage.isPresent()) {
+                    return Mono.just(MimeMessageContent.inlined(inlinedMessage.get()));
+                }
+                return mimeMessageStore.save(mail.getMessage())
+                    .map(MimeMessageContent::stored);
+            } catch (MessagingException | IOException e) {
+                return Mono.error(new MailQueue.MailQueueException("Error while saving blob", e));
+            }
+        });
+    }
+
+    private Optional<byte[]> inlinedMessage(Mail mail) throws MessagingException, IOException {
+        if (!inlinedMessageMaxSize.isPresent() || mail.getMessageSize() > inlinedMessageMaxSize.get()) {
+            return Optional.empty();
         }
+        ByteArrayOutputStream message = new ByteArrayOutputStream();
+        mail.getMessage().writeTo(message);
+        if (message.size() > inlinedMessageMaxSize.get()) {
+            return Optional.empty();
+        }
+        return Optional.of(message.toByteArray());
     }
 
-    private EnqueuedItem publishReferenceToRabbit(MailReference mailReference) throws MailQueue.MailQueueException {
-        rabbitClient.publish(name, getMailReferenceBytes(mailReference));
+    private EnqueuedItem publishReferenceToRabbit(MailReference mailReference, Duration delay) throws MailQueue.MailQueueException {
+        byte[] mailReferenceBytes = getMailReferenceBytes(mailReference);
+        int priority = priority(mailReference.getMail());
+        Instant enqueuedTime = clock.instant();
+        if (delay.isZero()) {
+            rabbitClient.publish(name, mailReferenceBytes, mailReferenceSerializer.contentType(), priority, enqueuedTime);
+        } else {
+            rabbitClient.publishWithDelay(name, mailReferenceBytes, mailReferenceSerializer.contentType(), priority, enqueuedTime, delay);
+        }
 
         return EnqueuedItem.builder()
             .enqueueId(mailReference.getEnqueueId())
             .mailQueueName(name)
             .mail(mailReference.getMail())
-            .enqueuedTime(clock.instant())
-            .mimeMessagePartsId(mailReference.getPartsId())
+            .enqueuedTime(enqueuedTime)
+            .content(mailReference.getContent())
+            .deliveryTime(enqueuedTime.plus(delay))
             .build();
     }
 
+    /**
+     * Invalid priorities default to the normal priority. Out of range ones are bounded, as RabbitMQ priorities can not
+     * be negative.
+     */
+    private int priority(Mail mail) {
+        int priority = AttributeUtils.getValueAndCastFromMail(mail, MAIL_PRIORITY, Integer.class)
+            .orElse(NORMAL_PRIORITY);
+        return Math.max(LOW_PRIORITY, Math.min(priority, HIGH_PRIORITY));
+    }
+
     private byte[] getMailReferenceBytes(MailReference mailReference) throws MailQueue.MailQueueException {
         try {
             MailReferenceDTO mailDTO = MailReferenceDTO.fromMailReference(mailReference);
             return mailReferenceSerializer.write(mailDTO);
-        } catch (JsonProcessingException e) {
+        } catch (IOException e) {
             throw new MailQueue.MailQueueException("Unable to serialize message", e);
         }
     }
@@ -42,7 +42,7 @@ public class HeadersDto {
     private final Multimap<String, String> headers;
 
     @JsonCreator
-    private HeadersDto(@JsonProperty("header") Multimap<String, String> headers) {
+    HeadersDto(@JsonProperty("header") Multimap<String, String> headers) {
         this.headers = headers;
     }
 
@@ -29,6 +29,10 @@ import org.apache.james.blob.mail.MimeMessagePartsId;
 import org.apache.james.queue.api.MailQueue;
 import org.apache.mailet.Mail;
 
+import com.github.fge.lambdas.Throwing;
+
+import reactor.core.publisher.Mono;
+
 class MailLoader {
     private final Store<MimeMessage, MimeMessagePartsId> mimeMessageStore;
     private final BlobId.Factory blobIdFactory;
@@ -38,16 +42,21 @@ class MailLoader {
         this.blobIdFactory = blobIdFactory;
     }
 
-    MailWithEnqueueId load(MailReferenceDTO dto) throws MailQueue.MailQueueException {
-        try {
-            MailReference mailReference = dto.toMailReference(blobIdFactory);
+    /**
+     * Loading the mime message is non blocking, so that the dequeue of a mail does not wait for the blob store.
+     */
+    Mono<MailWithEnqueueId> load(MailReferenceDTO dto) {
+        return Mono.fromCallable(() -> dto.toMailReference(blobIdFactory))
+            .onErrorMap(AddressException.class, e -> new MailQueue.MailQueueException("Failed to parse mail address", e))
+            .flatMap(mailReference -> mailReference.getContent().read(mimeMessageStore)
+                .map(Throwing.<MimeMessage, MailWithEnqueueId>function(mimeMessage -> withMessage(mailReference, mimeMessage)).sneakyThrow()));
+    }
 
+    private MailWithEnqueueId withMessage(MailReference mailReference, MimeMessage mimeMessage) throws MailQueue.MailQueueException {
+        try {
             Mail mail = mailReference.getMail();
-            MimeMessage mimeMessage = mimeMessageStore.read(mailReference.getPartsId()).block();
             mail.setMessage(mimeMessage);
             return new MailWithEnqueueId(mailReference.getEnqueueId(), mail);
-        } catch (AddressException e) {
-            throw new MailQueue.MailQueueException("Failed to parse mail address", e);
         } catch (MessagingException e) {
             throw new MailQueue.MailQueueException("Failed to generate mime message", e);
         }
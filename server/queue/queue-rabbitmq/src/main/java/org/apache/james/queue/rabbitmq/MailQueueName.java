@@ -19,6 +19,7 @@
 
 package org.apache.james.queue.rabbitmq;
 
+import java.time.Duration;
 import java.util.Objects;
 import java.util.Optional;
 
@@ -110,9 +111,58 @@ public final class MailQueueName {
         }
     }
 
+    /**
+     * Delayed mails are published to a queue dedicated to their delay, whose messages are dead-lettered to the
+     * exchange of the mail queue once this delay elapsed. Delays are rounded up to the second.
+     */
+    static class DelayQueueName {
+        private static final String SEPARATOR = "-";
+
+        private final String name;
+        private final long delayInSeconds;
+
+        private DelayQueueName(String name, long delayInSeconds) {
+            this.name = name;
+            this.delayInSeconds = delayInSeconds;
+        }
+
+        String asString() {
+            return DELAYQUEUE_PREFIX + name + SEPARATOR + delayInSeconds;
+        }
+
+        Duration getDelay() {
+            return Duration.ofSeconds(delayInSeconds);
+        }
+
+        @Override
+        public final boolean equals(Object o) {
+            if (o instanceof DelayQueueName) {
+                DelayQueueName that = (DelayQueueName) o;
+                return Objects.equals(name, that.name)
+                    && Objects.equals(delayInSeconds, that.delayInSeconds);
+            }
+            return false;
+        }
+
+        @Override
+        public final int hashCode() {
+            return Objects.hash(name, delayInSeconds);
+        }
+
+        @Override
+        public String toString() {
+            return MoreObjects.toStringHelper(this)
+                .add("name", name)
+                .add("delayInSeconds", delayInSeconds)
+                .toString();
+        }
+    }
+
     private static final String PREFIX = "JamesMailQueue";
     private static final String EXCHANGE_PREFIX = PREFIX + "-exchange-";
     @VisibleForTesting static final String WORKQUEUE_PREFIX = PREFIX + "-workqueue-";
+    private static final String DELAYQUEUE_PREFIX = PREFIX + "-delayqueue-";
+    private static final int MAX_DELAY_DIGITS = 18;
 
     public static MailQueueName fromString(String name) {
         Preconditions.checkNotNull(name);
@@ -142,6 +192,25 @@ public final class MailQueueName {
         return new WorkQueueName(name);
     }
 
+    DelayQueueName toDelayQueueName(Duration delay) {
+        Preconditions.checkArgument(!delay.isNegative() && !delay.isZero(), "delay should be strictly positive");
+
+        long delayInSeconds = delay.getSeconds() + (delay.getNano() > 0 ? 1 : 0);
+        return new DelayQueueName(name, delayInSeconds);
+    }
+
+    /**
+     * Mail queue names can contain the separator, hence the delay part should only be made of digits.
+     */
+    Optional<DelayQueueName> delayQueueNameFromString(String rabbitQueueName) {
+        String prefix = DELAYQUEUE_PREFIX + name + DelayQueueName.SEPARATOR;
+        return Optional.of(rabbitQueueName)
+            .filter(queueName -> queueName.startsWith(prefix))
+            .map(queueName -> queueName.substring(prefix.length()))
+            .filter(delay -> !delay.isEmpty() && delay.length() <= MAX_DELAY_DIGITS && delay.chars().allMatch(Character::isDigit))
+            .map(delay -> new DelayQueueName(name, Long.parseLong(delay)));
+    }
+
     @Override
     public final boolean equals(Object o) {
         if (o instanceof MailQueueName) {
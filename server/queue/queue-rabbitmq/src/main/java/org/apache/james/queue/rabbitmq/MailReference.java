@@ -26,12 +26,16 @@ public class MailReference {
 
     private final EnqueueId enqueueId;
     private final Mail mail;
-    private final MimeMessagePartsId partsId;
+    private final MimeMessageContent content;
 
     public MailReference(EnqueueId enqueueId, Mail mail, MimeMessagePartsId partsId) {
+        this(enqueueId, mail, MimeMessageContent.stored(partsId));
+    }
+
+    public MailReference(EnqueueId enqueueId, Mail mail, MimeMessageContent content) {
         this.enqueueId = enqueueId;
         this.mail = mail;
-        this.partsId = partsId;
+        this.content = content;
     }
 
     public EnqueueId getEnqueueId() {
@@ -42,7 +46,7 @@ public class MailReference {
         return mail;
     }
 
-    public MimeMessagePartsId getPartsId() {
-        return partsId;
+    public MimeMessageContent getContent() {
+        return content;
     }
 }
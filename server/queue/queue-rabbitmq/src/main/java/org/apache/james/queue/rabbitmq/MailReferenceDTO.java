@@ -20,6 +20,7 @@
 package org.apache.james.queue.rabbitmq;
 
 import java.time.Instant;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Date;
 import java.util.Map;
@@ -41,6 +42,7 @@ import org.apache.mailet.Mail;
 import org.apache.mailet.PerRecipientHeaders;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.github.fge.lambdas.Throwing;
 import com.github.fge.lambdas.consumers.ThrowingBiConsumer;
@@ -52,7 +54,7 @@ class MailReferenceDTO {
 
     static MailReferenceDTO fromMailReference(MailReference mailReference) {
         Mail mail = mailReference.getMail();
-        MimeMessagePartsId partsId = mailReference.getPartsId();
+        MimeMessageContent content = mailReference.getContent();
 
         return new MailReferenceDTO(
             mailReference.getEnqueueId().serialize(),
@@ -69,8 +71,9 @@ class MailReferenceDTO {
             mail.getRemoteAddr(),
             mail.getRemoteHost(),
             fromPerRecipientHeaders(mail.getPerRecipientSpecificHeaders()),
-            partsId.getHeaderBlobId().asString(),
-            partsId.getBodyBlobId().asString());
+            content.getPartsId().map(partsId -> partsId.getHeaderBlobId().asString()).orElse(null),
+            content.getPartsId().map(partsId -> partsId.getBodyBlobId().asString()).orElse(null),
+            content.getInlinedMessage());
     }
 
     private static Map<String, HeadersDto> fromPerRecipientHeaders(PerRecipientHeaders perRecipientHeaders) {
@@ -104,21 +107,23 @@ class MailReferenceDTO {
     private final Map<String, HeadersDto> perRecipientHeaders;
     private final String headerBlobId;
     private final String bodyBlobId;
+    private final Optional<byte[]> inlinedMessage;
 
     @JsonCreator
-    private MailReferenceDTO(@JsonProperty("enqueueId") String enqueueId,
-                             @JsonProperty("recipients") ImmutableList<String> recipients,
-                             @JsonProperty("name") String name,
-                             @JsonProperty("sender") Optional<String> sender,
-                             @JsonProperty("state") String state,
-                             @JsonProperty("errorMessage") String errorMessage,
-                             @JsonProperty("lastUpdated") Optional<Instant> lastUpdated,
-                             @JsonProperty("attributes") ImmutableMap<String, String> attributes,
-                             @JsonProperty("remoteAddr") String remoteAddr,
-                             @JsonProperty("remoteHost") String remoteHost,
-                             @JsonProperty("perRecipientHeaders") Map<String, HeadersDto> perRecipientHeaders,
-                             @JsonProperty("headerBlobId") String headerBlobId,
-                             @JsonProperty("bodyBlobId") String bodyBlobId) {
+    MailReferenceDTO(@JsonProperty("enqueueId") String enqueueId,
+                     @JsonProperty("recipients") ImmutableList<String> recipients,
+                     @JsonProperty("name") String name,
+                     @JsonProperty("sender") Optional<String> sender,
+                     @JsonProperty("state") String state,
+                     @JsonProperty("errorMessage") String errorMessage,
+                     @JsonProperty("lastUpdated") Optional<Instant> lastUpdated,
+                     @JsonProperty("attributes") ImmutableMap<String, String> attributes,
+                     @JsonProperty("remoteAddr") String remoteAddr,
+                     @JsonProperty("remoteHost") String remoteHost,
+                     @JsonProperty("perRecipientHeaders") Map<String, HeadersDto> perRecipientHeaders,
+                     @JsonProperty("headerBlobId") String headerBlobId,
+                     @JsonProperty("bodyBlobId") String bodyBlobId,
+                     @JsonProperty("inlinedMessage") Optional<byte[]> inlinedMessage) {
         this.enqueueId = enqueueId;
         this.recipients = recipients;
         this.name = name;
@@ -132,6 +137,7 @@ class MailReferenceDTO {
         this.perRecipientHeaders = perRecipientHeaders;
         this.headerBlobId = headerBlobId;
         this.bodyBlobId = bodyBlobId;
+        this.inlinedMessage = inlinedMessage;
     }
 
     @JsonProperty("enqueueId")
@@ -199,13 +205,21 @@ class MailReferenceDTO {
         return bodyBlobId;
     }
 
-    MailReference toMailReference(BlobId.Factory blobIdFactory) {
-        MimeMessagePartsId messagePartsId = MimeMessagePartsId.builder()
-            .headerBlobId(blobIdFactory.from(headerBlobId))
-            .bodyBlobId(blobIdFactory.from(bodyBlobId))
-            .build();
+    @JsonProperty("inlinedMessage")
+    @JsonInclude(JsonInclude.Include.NON_ABSENT)
+    Optional<byte[]> getInlinedMessage() {
+        return inlinedMessage;
+    }
 
-        return new MailReference(EnqueueId.ofSerialized(enqueueId), mailMetadata(), messagePartsId);
+    MailReference toMailReference(BlobId.Factory blobIdFactory) {
+        MimeMessageContent content = inlinedMessage
+            .map(MimeMessageContent::inlined)
+            .orElseGet(() -> MimeMessageContent.stored(MimeMessagePartsId.builder()
+                .headerBlobId(blobIdFactory.from(headerBlobId))
+                .bodyBlobId(blobIdFactory.from(bodyBlobId))
+                .build()));
+
+        return new MailReference(EnqueueId.ofSerialized(enqueueId), mailMetadata(), content);
     }
 
     private MailImpl mailMetadata() {
@@ -263,13 +277,15 @@ class MailReferenceDTO {
                 && Objects.equals(this.remoteHost, mailDTO.remoteHost)
                 && Objects.equals(this.perRecipientHeaders, mailDTO.perRecipientHeaders)
                 && Objects.equals(this.headerBlobId, mailDTO.headerBlobId)
-                && Objects.equals(this.bodyBlobId, mailDTO.bodyBlobId);
+                && Objects.equals(this.bodyBlobId, mailDTO.bodyBlobId)
+                && Arrays.equals(this.inlinedMessage.orElse(null), mailDTO.inlinedMessage.orElse(null));
         }
         return false;
     }
 
     @Override
     public final int hashCode() {
-        return Objects.hash(enqueueId, recipients, name, sender, state, errorMessage, lastUpdated, attributes, remoteAddr, remoteHost, perRecipientHeaders, headerBlobId, bodyBlobId);
+        return Objects.hash(enqueueId, recipients, name, sender, state, errorMessage, lastUpdated, attributes, remoteAddr, remoteHost, perRecipientHeaders, headerBlobId, bodyBlobId,
+            Arrays.hashCode(inlinedMessage.orElse(null)));
     }
 }
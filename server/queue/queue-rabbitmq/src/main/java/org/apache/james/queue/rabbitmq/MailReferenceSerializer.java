@@ -20,29 +20,82 @@
 package org.apache.james.queue.rabbitmq;
 
 import java.io.IOException;
+import java.util.Optional;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.guava.GuavaModule;
 import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 
+/**
+ * Mail references are written in the configured encoding, whose content type is carried by the RabbitMQ message.
+ * Both encodings are read, messages without content type being JSON ones published by previous versions.
+ */
 class MailReferenceSerializer {
+    enum Encoding {
+        JSON("application/json"),
+        BINARY("application/vnd.apache.james.mail-reference");
+
+        static Optional<Encoding> fromContentType(String contentType) {
+            for (Encoding encoding : values()) {
+                if (encoding.contentType.equals(contentType)) {
+                    return Optional.of(encoding);
+                }
+            }
+            return Optional.empty();
+        }
+
+        private final String contentType;
+
+        Encoding(String contentType) {
+            this.contentType = contentType;
+        }
+
+        String getContentType() {
+            return contentType;
+        }
+    }
 
     private final ObjectMapper objectMapper;
+    private final BinaryMailReferenceCodec binaryCodec;
+    private final Encoding encoding;
 
-    MailReferenceSerializer() {
+    MailReferenceSerializer(Encoding encoding) {
+        this.encoding = encoding;
         this.objectMapper = new ObjectMapper()
             .registerModule(new Jdk8Module())
             .registerModule(new JavaTimeModule())
             .registerModule(new GuavaModule());
+        this.binaryCodec = new BinaryMailReferenceCodec();
+    }
+
+    MailReferenceDTO read(byte[] bytes, Optional<String> contentType) throws IOException {
+        Encoding messageEncoding = Encoding.JSON;
+        if (contentType.isPresent()) {
+            messageEncoding = Encoding.fromContentType(contentType.get())
+                .orElseThrow(() -> new IOException("Unsupported mail reference content type " + contentType.get()));
+        }
+
+        switch (messageEncoding) {
+            case BINARY:
+                return binaryCodec.decode(bytes);
+            case JSON:
+            default:
+                return objectMapper.readValue(bytes, MailReferenceDTO.class);
+        }
     }
 
-    MailReferenceDTO read(byte[] bytes) throws IOException {
-        return objectMapper.readValue(bytes, MailReferenceDTO.class);
+    byte[] write(MailReferenceDTO mailDTO) throws IOException {
+        switch (encoding) {
+            case BINARY:
+                return binaryCodec.encode(mailDTO);
+            case JSON:
+            default:
+                return objectMapper.writeValueAsBytes(mailDTO);
+        }
     }
 
-    byte[] write(MailReferenceDTO mailDTO) throws JsonProcessingException {
-        return objectMapper.writeValueAsBytes(mailDTO);
+    String contentType() {
+        return encoding.getContentType();
     }
 }
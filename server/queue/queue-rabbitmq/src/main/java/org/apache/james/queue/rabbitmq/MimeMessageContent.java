@@ -0,0 +1,111 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.queue.rabbitmq;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Optional;
+
+import javax.mail.MessagingException;
+import javax.mail.internet.MimeMessage;
+
+import org.apache.james.blob.api.Store;
+import org.apache.james.blob.mail.MimeMessagePartsId;
+import org.apache.james.queue.api.MailQueue;
+import org.apache.james.util.MimeMessageUtil;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * The mime message of an enqueued mail: either stored in the blob store and referenced by its parts, or small enough
+ * to be inlined in the RabbitMQ message and in the mail queue view.
+ */
+public class MimeMessageContent {
+    public static MimeMessageContent stored(MimeMessagePartsId partsId) {
+        Preconditions.checkNotNull(partsId, "'partsId' is mandatory");
+        return new MimeMessageContent(Optional.of(partsId), Optional.empty());
+    }
+
+    public static MimeMessageContent inlined(byte[] message) {
+        Preconditions.checkNotNull(message, "'message' is mandatory");
+        return new MimeMessageContent(Optional.empty(), Optional.of(message));
+    }
+
+    private final Optional<MimeMessagePartsId> partsId;
+    private final Optional<byte[]> inlinedMessage;
+
+    private MimeMessageContent(Optional<MimeMessagePartsId> partsId, Optional<byte[]> inlinedMessage) {
+        this.partsId = partsId;
+        this.inlinedMessage = inlinedMessage;
+    }
+
+    public Optional<MimeMessagePartsId> getPartsId() {
+        return partsId;
+    }
+
+    public Optional<byte[]> getInlinedMessage() {
+        return inlinedMessage;
+    }
+
+    /**
+     * Inlined messages are parsed without reaching the blob store.
+     */
+    public Mono<MimeMessage> read(Store<MimeMessage, MimeMessagePartsId> mimeMessageStore) {
+        if (inlinedMessage.isPresent()) {
+            return Mono.fromCallable(() -> parse(inlinedMessage.get()));
+        }
+        return mimeMessageStore.read(partsId.get());
+    }
+
+    private MimeMessage parse(byte[] message) throws MailQueue.MailQueueException {
+        try {
+            return MimeMessageUtil.mimeMessageFromBytes(message);
+        } catch (MessagingException e) {
+            throw new MailQueue.MailQueueException("Failed to parse inlined mime message", e);
+        }
+    }
+
+    @Override
+    public final boolean equals(Object o) {
+        if (o instanceof MimeMessageContent) {
+            MimeMessageContent that = (MimeMessageContent) o;
+
+            return Objects.equals(this.partsId, that.partsId)
+                && Arrays.equals(this.inlinedMessage.orElse(null), that.inlinedMessage.orElse(null));
+        }
+        return false;
+    }
+
+    @Override
+    public final int hashCode() {
+        return Objects.hash(partsId, Arrays.hashCode(inlinedMessage.orElse(null)));
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+            .add("partsId", partsId)
+            .add("inlinedMessageSize", inlinedMessage.map(message -> message.length))
+            .toString();
+    }
+}
@@ -19,24 +19,51 @@
 
 package org.apache.james.queue.rabbitmq;
 
+import static org.apache.james.backends.rabbitmq.Constants.AUTO_ACK;
 import static org.apache.james.backends.rabbitmq.Constants.AUTO_DELETE;
 import static org.apache.james.backends.rabbitmq.Constants.DURABLE;
 import static org.apache.james.backends.rabbitmq.Constants.EMPTY_ROUTING_KEY;
 import static org.apache.james.backends.rabbitmq.Constants.EXCLUSIVE;
+import static org.apache.james.backends.rabbitmq.Constants.MULTIPLE;
 import static org.apache.james.backends.rabbitmq.Constants.NO_ARGUMENTS;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
 
 import javax.inject.Inject;
 
 import org.apache.james.backends.rabbitmq.RabbitMQChannelPool;
+import org.apache.james.queue.api.MailPrioritySupport;
 import org.apache.james.queue.api.MailQueue;
+import org.apache.james.queue.rabbitmq.MailQueueName.DelayQueueName;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import com.google.common.collect.ImmutableMap;
 import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.GetResponse;
+import com.rabbitmq.client.MessageProperties;
 import reactor.core.publisher.Flux;
 import reactor.rabbitmq.AcknowledgableDelivery;
 
 class RabbitClient {
+    private static final Logger LOGGER = LoggerFactory.getLogger(RabbitClient.class);
+    private static final String DEFAULT_EXCHANGE = "";
+    /**
+     * Enqueue time in milliseconds since epoch. The AMQP timestamp property only has a second precision.
+     */
+    private static final String ENQUEUED_TIME_HEADER = "enqueuedTime";
+    /**
+     * Delay queues are deleted once unused for their delay plus this grace period, which leaves time for their last
+     * messages to be dead-lettered.
+     */
+    private static final Duration DELAY_QUEUE_EXPIRY_GRACE_PERIOD = Duration.ofHours(1);
+    private static final ImmutableMap<String, Object> WORK_QUEUE_ARGUMENTS = ImmutableMap.of(
+        "x-max-priority", MailPrioritySupport.HIGH_PRIORITY);
+
     private final RabbitMQChannelPool channelPool;
 
     @Inject
@@ -48,7 +75,13 @@ class RabbitClient {
         channelPool.execute(channel -> {
             try {
                 channel.exchangeDeclare(name.toRabbitExchangeName().asString(), "direct", DURABLE);
-                channel.queueDeclare(name.toWorkQueueName().asString(), DURABLE, !EXCLUSIVE, !AUTO_DELETE, NO_ARGUMENTS);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        declareWorkQueue(name);
+        channelPool.execute(channel -> {
+            try {
                 channel.queueBind(name.toWorkQueueName().asString(), name.toRabbitExchangeName().asString(), EMPTY_ROUTING_KEY);
             } catch (IOException e) {
                 throw new RuntimeException(e);
@@ -56,16 +89,116 @@ class RabbitClient {
         });
     }
 
-    void publish(MailQueueName name, byte[] message) throws MailQueue.MailQueueException {
+    /**
+     * Queue arguments can not be changed once declared. Work queues created before priority support are thus kept
+     * as is, and need to be re-created for priorities to be taken into account.
+     */
+    private void declareWorkQueue(MailQueueName name) {
+        try {
+            channelPool.execute(channel -> {
+                channel.queueDeclare(name.toWorkQueueName().asString(), DURABLE, !EXCLUSIVE, !AUTO_DELETE, WORK_QUEUE_ARGUMENTS);
+            });
+        } catch (IOException e) {
+            LOGGER.warn("Could not declare {} as a priority queue, mail priorities will be ignored", name.toWorkQueueName().asString(), e);
+            channelPool.execute(channel -> {
+                try {
+                    channel.queueDeclare(name.toWorkQueueName().asString(), DURABLE, !EXCLUSIVE, !AUTO_DELETE, NO_ARGUMENTS);
+                } catch (IOException fallbackException) {
+                    throw new RuntimeException(fallbackException);
+                }
+            });
+        }
+    }
+
+    void publish(MailQueueName name, byte[] message, String contentType, int priority, Instant enqueuedTime) throws MailQueue.MailQueueException {
         channelPool.execute(channel -> {
             try {
-                channel.basicPublish(name.toRabbitExchangeName().asString(), EMPTY_ROUTING_KEY, new AMQP.BasicProperties(), message);
+                AMQP.BasicProperties properties = new AMQP.BasicProperties.Builder()
+                    .contentType(contentType)
+                    .priority(priority)
+                    .headers(enqueuedTimeHeaders(enqueuedTime))
+                    .build();
+                channel.basicPublish(name.toRabbitExchangeName().asString(), EMPTY_ROUTING_KEY, properties, message);
             } catch (IOException e) {
                 throw new MailQueue.MailQueueException("Unable to publish to RabbitMQ", e);
             }
         });
     }
 
+    /**
+     * Delayed messages are persistent and stored in a lazy queue, as they can stay in RabbitMQ for hours. Their priority,
+     * content type and enqueue time are kept once dead-lettered to the work queue.
+     */
+    void publishWithDelay(MailQueueName name, byte[] message, String contentType, int priority, Instant enqueuedTime, Duration delay) throws MailQueue.MailQueueException {
+        DelayQueueName delayQueueName = name.toDelayQueueName(delay);
+        channelPool.execute(channel -> {
+            try {
+                AMQP.BasicProperties properties = MessageProperties.PERSISTENT_BASIC.builder()
+                    .contentType(contentType)
+                    .priority(priority)
+                    .headers(enqueuedTimeHeaders(enqueuedTime))
+                    .build();
+                channel.queueDeclare(delayQueueName.asString(), DURABLE, !EXCLUSIVE, !AUTO_DELETE, delayQueueArguments(name, delayQueueName));
+                channel.basicPublish(DEFAULT_EXCHANGE, delayQueueName.asString(), properties, message);
+            } catch (IOException e) {
+                throw new MailQueue.MailQueueException("Unable to publish delayed message to RabbitMQ", e);
+            }
+        });
+    }
+
+    private ImmutableMap<String, Object> enqueuedTimeHeaders(Instant enqueuedTime) {
+        return ImmutableMap.of(ENQUEUED_TIME_HEADER, enqueuedTime.toEpochMilli());
+    }
+
+    /**
+     * Messages published by former versions carry no enqueue time.
+     */
+    static Optional<Instant> enqueuedTime(AMQP.BasicProperties properties) {
+        return Optional.ofNullable(properties.getHeaders())
+            .map(headers -> headers.get(ENQUEUED_TIME_HEADER))
+            .filter(Number.class::isInstance)
+            .map(value -> Instant.ofEpochMilli(((Number) value).longValue()));
+    }
+
+    private ImmutableMap<String, Object> delayQueueArguments(MailQueueName name, DelayQueueName delayQueueName) {
+        long delayInMillis = delayQueueName.getDelay().toMillis();
+        return ImmutableMap.of(
+            "x-message-ttl", delayInMillis,
+            "x-expires", delayInMillis + DELAY_QUEUE_EXPIRY_GRACE_PERIOD.toMillis(),
+            "x-dead-letter-exchange", name.toRabbitExchangeName().asString(),
+            "x-dead-letter-routing-key", EMPTY_ROUTING_KEY,
+            "x-queue-mode", "lazy");
+    }
+
+    /**
+     * Moves the messages of the given delay queue to the exchange of the mail queue, without waiting for their delay.
+     *
+     * @return the count of released messages
+     */
+    long releaseDelayed(MailQueueName name, DelayQueueName delayQueueName) {
+        return channelPool.execute(channel -> {
+            try {
+                return releaseAll(channel, name, delayQueueName);
+            } catch (IOException e) {
+                // The delay queue expired in the meantime: its messages had been dead-lettered
+                LOGGER.info("Could not release delayed messages of {}", delayQueueName.asString(), e);
+                return 0L;
+            }
+        });
+    }
+
+    private long releaseAll(Channel channel, MailQueueName name, DelayQueueName delayQueueName) throws IOException {
+        long releasedCount = 0;
+        GetResponse response = channel.basicGet(delayQueueName.asString(), !AUTO_ACK);
+        while (response != null) {
+            channel.basicPublish(name.toRabbitExchangeName().asString(), EMPTY_ROUTING_KEY, response.getProps(), response.getBody());
+            channel.basicAck(response.getEnvelope().getDeliveryTag(), !MULTIPLE);
+            releasedCount++;
+            response = channel.basicGet(delayQueueName.asString(), !AUTO_ACK);
+        }
+        return releasedCount;
+    }
+
     Flux<AcknowledgableDelivery> receive(MailQueueName name) {
         return channelPool.receive(name.toWorkQueueName().asString());
     }
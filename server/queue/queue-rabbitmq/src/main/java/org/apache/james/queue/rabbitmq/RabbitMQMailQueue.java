@@ -30,13 +30,19 @@ import org.apache.mailet.Mail;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.github.fge.lambdas.Throwing;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.MoreObjects;
+import reactor.core.Exceptions;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 public class RabbitMQMailQueue implements ManageableMailQueue {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(RabbitMQMailQueue.class);
+    /**
+     * RabbitMQ caps message TTLs to about 49 days. Longer delays, beyond any retry policy, are truncated.
+     */
+    @VisibleForTesting static final Duration MAXIMUM_DELAY = Duration.ofDays(30);
 
     private final MailQueueName name;
     private final MetricFactory metricFactory;
@@ -44,16 +50,21 @@ public class RabbitMQMailQueue implements ManageableMailQueue {
     private final Dequeuer dequeuer;
     private final MailQueueView mailQueueView;
     private final MailQueueItemDecoratorFactory decoratorFactory;
+    private final RabbitClient rabbitClient;
+    private final RabbitMQMailQueueManagement mqManagementApi;
 
     RabbitMQMailQueue(MetricFactory metricFactory, MailQueueName name,
                       Enqueuer enqueuer, Dequeuer dequeuer,
-                      MailQueueView mailQueueView, MailQueueItemDecoratorFactory decoratorFactory) {
+                      MailQueueView mailQueueView, MailQueueItemDecoratorFactory decoratorFactory,
+                      RabbitClient rabbitClient, RabbitMQMailQueueManagement mqManagementApi) {
         this.metricFactory = metricFactory;
         this.name = name;
         this.enqueuer = enqueuer;
         this.dequeuer = dequeuer;
         this.mailQueueView = mailQueueView;
         this.decoratorFactory = decoratorFactory;
+        this.rabbitClient = rabbitClient;
+        this.mqManagementApi = mqManagementApi;
     }
 
     @Override
@@ -62,17 +73,44 @@ public class RabbitMQMailQueue implements ManageableMailQueue {
     }
 
     @Override
-    public void enQueue(Mail mail, Duration delay) {
-        if (!delay.isNegative()) {
-            LOGGER.info("Ignored delay upon enqueue of {} : {}.", mail.getName(), delay);
+    public void enQueue(Mail mail, Duration delay) throws MailQueueException {
+        try {
+            enqueueReactive(mail, delay).block();
+        } catch (RuntimeException e) {
+            Throwable cause = Exceptions.unwrap(e);
+            if (cause instanceof MailQueueException) {
+                throw (MailQueueException) cause;
+            }
+            throw e;
         }
-        enQueue(mail);
     }
 
     @Override
-    public void enQueue(Mail mail) {
-        metricFactory.runPublishingTimerMetric(ENQUEUED_TIMER_METRIC_NAME_PREFIX + name.asString(),
-            Throwing.runnable(() -> enqueuer.enQueue(mail)).sneakyThrow());
+    public void enQueue(Mail mail) throws MailQueueException {
+        enQueue(mail, Duration.ZERO);
+    }
+
+    @Override
+    public Mono<Void> enqueueReactive(Mail mail, Duration delay) {
+        Duration effectiveDelay = effectiveDelay(mail, delay);
+        return Mono.defer(() -> metricFactory.runPublishingTimerMetric(ENQUEUED_TIMER_METRIC_NAME_PREFIX + name.asString(),
+            enqueuer.enqueueReactive(mail, effectiveDelay)));
+    }
+
+    @Override
+    public Mono<Void> enqueueReactive(Mail mail) {
+        return enqueueReactive(mail, Duration.ZERO);
+    }
+
+    private Duration effectiveDelay(Mail mail, Duration delay) {
+        if (delay.isNegative()) {
+            return Duration.ZERO;
+        }
+        if (delay.compareTo(MAXIMUM_DELAY) > 0) {
+            LOGGER.info("Delay of {} exceeds the maximum delay, {} will be delayed by {}", delay, mail.getName(), MAXIMUM_DELAY);
+            return MAXIMUM_DELAY;
+        }
+        return delay;
     }
 
     @Override
@@ -86,10 +124,19 @@ public class RabbitMQMailQueue implements ManageableMailQueue {
         return mailQueueView.getSize();
     }
 
+    @Override
+    public long getExactSize() {
+        return mailQueueView.getExactSize();
+    }
+
+    /**
+     * Releases the mails of every delay queue of this mail queue, including the ones enqueued by other James nodes.
+     */
     @Override
     public long flush() {
-        LOGGER.warn("Delays are not supported by RabbitMQ. Flush is a NOOP.");
-        return 0;
+        return mqManagementApi.listDelayQueueNames(name)
+            .mapToLong(delayQueueName -> rabbitClient.releaseDelayed(name, delayQueueName))
+            .sum();
     }
 
     @Override
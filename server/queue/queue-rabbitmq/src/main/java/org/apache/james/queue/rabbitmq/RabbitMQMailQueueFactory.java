@@ -19,6 +19,7 @@
 
 package org.apache.james.queue.rabbitmq;
 
+import static org.apache.james.queue.api.MailQueue.OLDEST_MAIL_AGE_METRIC_NAME_PREFIX;
 import static org.apache.james.queue.api.MailQueue.QUEUE_SIZE_METRIC_NAME_PREFIX;
 
 import java.time.Clock;
@@ -36,15 +37,17 @@ import org.apache.james.blob.mail.MimeMessagePartsId;
 import org.apache.james.blob.mail.MimeMessageStore;
 import org.apache.james.metrics.api.GaugeRegistry;
 import org.apache.james.metrics.api.MetricFactory;
+import org.apache.james.queue.api.MailQueueAgeMetrics;
 import org.apache.james.queue.api.MailQueueFactory;
 import org.apache.james.queue.api.MailQueueItemDecoratorFactory;
 import org.apache.james.queue.rabbitmq.view.RabbitMQMailQueueConfiguration;
 import org.apache.james.queue.rabbitmq.view.api.MailQueueView;
 
-import com.github.fge.lambdas.Throwing;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableSet;
 
+import reactor.core.publisher.Mono;
+
 public class RabbitMQMailQueueFactory implements MailQueueFactory<RabbitMQMailQueue> {
 
     @VisibleForTesting static class PrivateFactory {
@@ -53,11 +56,12 @@ public class RabbitMQMailQueueFactory implements MailQueueFactory<RabbitMQMailQu
         private final RabbitClient rabbitClient;
         private final Store<MimeMessage, MimeMessagePartsId> mimeMessageStore;
         private final MailReferenceSerializer mailReferenceSerializer;
-        private final Function<MailReferenceDTO, MailWithEnqueueId> mailLoader;
+        private final Function<MailReferenceDTO, Mono<MailWithEnqueueId>> mailLoader;
         private final MailQueueView.Factory mailQueueViewFactory;
         private final Clock clock;
         private final MailQueueItemDecoratorFactory decoratorFactory;
         private final RabbitMQMailQueueConfiguration configuration;
+        private final RabbitMQMailQueueManagement mqManagementApi;
 
         @Inject
         @VisibleForTesting PrivateFactory(MetricFactory metricFactory,
@@ -68,7 +72,8 @@ public class RabbitMQMailQueueFactory implements MailQueueFactory<RabbitMQMailQu
                                           MailQueueView.Factory mailQueueViewFactory,
                                           Clock clock,
                                           MailQueueItemDecoratorFactory decoratorFactory,
-                                          RabbitMQMailQueueConfiguration configuration) {
+                                          RabbitMQMailQueueConfiguration configuration,
+                                          RabbitMQMailQueueManagement mqManagementApi) {
             this.metricFactory = metricFactory;
             this.gaugeRegistry = gaugeRegistry;
             this.rabbitClient = rabbitClient;
@@ -76,32 +81,40 @@ public class RabbitMQMailQueueFactory implements MailQueueFactory<RabbitMQMailQu
             this.mailQueueViewFactory = mailQueueViewFactory;
             this.clock = clock;
             this.decoratorFactory = decoratorFactory;
-            this.mailReferenceSerializer = new MailReferenceSerializer();
-            this.mailLoader = Throwing.function(new MailLoader(mimeMessageStore, blobIdFactory)::load).sneakyThrow();
+            this.mailReferenceSerializer = new MailReferenceSerializer(configuration.isBinaryMailReferenceEnabled()
+                ? MailReferenceSerializer.Encoding.BINARY
+                : MailReferenceSerializer.Encoding.JSON);
+            this.mailLoader = new MailLoader(mimeMessageStore, blobIdFactory)::load;
             this.configuration = configuration;
+            this.mqManagementApi = mqManagementApi;
         }
 
         RabbitMQMailQueue create(MailQueueName mailQueueName) {
             MailQueueView mailQueueView = mailQueueViewFactory.create(mailQueueName);
             mailQueueView.initialize(mailQueueName);
+            MailQueueAgeMetrics mailQueueAgeMetrics = new MailQueueAgeMetrics(mailQueueName.asString(), metricFactory, clock);
 
             RabbitMQMailQueue rabbitMQMailQueue = new RabbitMQMailQueue(
                 metricFactory,
                 mailQueueName,
                 new Enqueuer(mailQueueName, rabbitClient, mimeMessageStore, mailReferenceSerializer,
-                    metricFactory, mailQueueView, clock),
+                    metricFactory, mailQueueView, clock, configuration.getInlinedMessageMaxSize()),
                 new Dequeuer(mailQueueName, rabbitClient, mailLoader, mailReferenceSerializer,
-                    metricFactory, mailQueueView),
+                    metricFactory, mailQueueView, mailQueueAgeMetrics, configuration.getDequeueConcurrency()),
                 mailQueueView,
-                decoratorFactory);
+                decoratorFactory,
+                rabbitClient,
+                mqManagementApi);
 
-            registerGaugeFor(rabbitMQMailQueue);
+            registerGaugesFor(rabbitMQMailQueue, mailQueueView, mailQueueAgeMetrics);
             return rabbitMQMailQueue;
         }
 
-        private void registerGaugeFor(RabbitMQMailQueue rabbitMQMailQueue) {
+        private void registerGaugesFor(RabbitMQMailQueue rabbitMQMailQueue, MailQueueView mailQueueView, MailQueueAgeMetrics mailQueueAgeMetrics) {
             if (configuration.isSizeMetricsEnabled()) {
                 this.gaugeRegistry.register(QUEUE_SIZE_METRIC_NAME_PREFIX + rabbitMQMailQueue.getName(), rabbitMQMailQueue::getSize);
+                this.gaugeRegistry.register(OLDEST_MAIL_AGE_METRIC_NAME_PREFIX + rabbitMQMailQueue.getName(),
+                    mailQueueAgeMetrics.oldestMailAgeGauge(mailQueueView::getOldestEnqueuedTime));
             }
         }
     }
@@ -52,6 +52,15 @@ public class RabbitMQMailQueueManagement {
             .distinct();
     }
 
+    Stream<MailQueueName.DelayQueueName> listDelayQueueNames(MailQueueName name) {
+        return api.listQueues()
+            .stream()
+            .map(RabbitMQManagementAPI.MessageQueue::getName)
+            .map(name::delayQueueNameFromString)
+            .flatMap(OptionalUtils::toStream)
+            .distinct();
+    }
+
     public void deleteAllQueues() {
         api.listQueues()
             .forEach(queue -> api.deleteQueue("/", queue.getName()));
@@ -23,12 +23,32 @@ import java.util.Objects;
 import java.util.Optional;
 
 import org.apache.commons.configuration2.Configuration;
+import org.apache.james.util.Size;
+
+import com.github.fge.lambdas.Throwing;
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
 
 public class RabbitMQMailQueueConfiguration {
     private static final boolean DEFAULT_SIZE_METRICS_ENABLED = true;
+    private static final int DEFAULT_DEQUEUE_CONCURRENCY = 16;
+    private static final boolean DEFAULT_DELETED_MAILS_FILTER_ENABLED = false;
+    private static final boolean DEFAULT_BINARY_MAIL_REFERENCE_ENABLED = false;
 
     public static class Builder {
         private Optional<Boolean> sizeMetricsEnabled;
+        private Optional<Integer> dequeueConcurrency;
+        private Optional<Boolean> deletedMailsFilterEnabled;
+        private Optional<Boolean> binaryMailReferenceEnabled;
+        private Optional<Long> inlinedMessageMaxSize;
+
+        private Builder() {
+            this.sizeMetricsEnabled = Optional.empty();
+            this.dequeueConcurrency = Optional.empty();
+            this.deletedMailsFilterEnabled = Optional.empty();
+            this.binaryMailReferenceEnabled = Optional.empty();
+            this.inlinedMessageMaxSize = Optional.empty();
+        }
 
         public Builder sizeMetricsEnabled(boolean sizeMetricsEnabled) {
             this.sizeMetricsEnabled = Optional.of(sizeMetricsEnabled);
@@ -40,12 +60,64 @@ public class RabbitMQMailQueueConfiguration {
             return this;
         }
 
+        public Builder dequeueConcurrency(int dequeueConcurrency) {
+            this.dequeueConcurrency = Optional.of(dequeueConcurrency);
+            return this;
+        }
+
+        public Builder dequeueConcurrency(Optional<Integer> dequeueConcurrency) {
+            this.dequeueConcurrency = dequeueConcurrency;
+            return this;
+        }
+
+        public Builder deletedMailsFilterEnabled(boolean deletedMailsFilterEnabled) {
+            this.deletedMailsFilterEnabled = Optional.of(deletedMailsFilterEnabled);
+            return this;
+        }
+
+        public Builder deletedMailsFilterEnabled(Optional<Boolean> deletedMailsFilterEnabled) {
+            this.deletedMailsFilterEnabled = deletedMailsFilterEnabled;
+            return this;
+        }
+
+        public Builder binaryMailReferenceEnabled(boolean binaryMailReferenceEnabled) {
+            this.binaryMailReferenceEnabled = Optional.of(binaryMailReferenceEnabled);
+            return this;
+        }
+
+        public Builder binaryMailReferenceEnabled(Optional<Boolean> binaryMailReferenceEnabled) {
+            this.binaryMailReferenceEnabled = binaryMailReferenceEnabled;
+            return this;
+        }
+
+        public Builder inlinedMessageMaxSize(long inlinedMessageMaxSize) {
+            this.inlinedMessageMaxSize = Optional.of(inlinedMessageMaxSize);
+            return this;
+        }
+
+        public Builder inlinedMessageMaxSize(Optional<Long> inlinedMessageMaxSize) {
+            this.inlinedMessageMaxSize = inlinedMessageMaxSize;
+            return this;
+        }
+
         public RabbitMQMailQueueConfiguration build() {
-            return new RabbitMQMailQueueConfiguration(sizeMetricsEnabled.orElse(DEFAULT_SIZE_METRICS_ENABLED));
+            dequeueConcurrency.ifPresent(value -> Preconditions.checkArgument(value > 0, "dequeueConcurrency needs to be strictly positive"));
+            inlinedMessageMaxSize.ifPresent(value -> Preconditions.checkArgument(value > 0, "inlinedMessageMaxSize needs to be strictly positive"));
+
+            return new RabbitMQMailQueueConfiguration(
+                sizeMetricsEnabled.orElse(DEFAULT_SIZE_METRICS_ENABLED),
+                dequeueConcurrency.orElse(DEFAULT_DEQUEUE_CONCURRENCY),
+                deletedMailsFilterEnabled.orElse(DEFAULT_DELETED_MAILS_FILTER_ENABLED),
+                binaryMailReferenceEnabled.orElse(DEFAULT_BINARY_MAIL_REFERENCE_ENABLED),
+                inlinedMessageMaxSize);
         }
     }
 
     public static final String SIZE_METRICS_ENABLED_PROPERTY = "mailqueue.size.metricsEnabled";
+    public static final String DEQUEUE_CONCURRENCY_PROPERTY = "mailqueue.dequeue.concurrency";
+    public static final String DELETED_MAILS_FILTER_ENABLED_PROPERTY = "mailqueue.view.deletedMailsFilter.enabled";
+    public static final String BINARY_MAIL_REFERENCE_ENABLED_PROPERTY = "mailqueue.mailReference.binary.enabled";
+    public static final String INLINED_MESSAGE_MAX_SIZE_PROPERTY = "mailqueue.inlinedMessage.maxSize";
 
     public static Builder builder() {
         return new Builder();
@@ -54,6 +126,12 @@ public class RabbitMQMailQueueConfiguration {
     public static RabbitMQMailQueueConfiguration from(Configuration configuration) {
         return builder()
             .sizeMetricsEnabled(Optional.ofNullable(configuration.getBoolean(SIZE_METRICS_ENABLED_PROPERTY, null)))
+            .dequeueConcurrency(Optional.ofNullable(configuration.getInteger(DEQUEUE_CONCURRENCY_PROPERTY, null)))
+            .deletedMailsFilterEnabled(Optional.ofNullable(configuration.getBoolean(DELETED_MAILS_FILTER_ENABLED_PROPERTY, null)))
+            .binaryMailReferenceEnabled(Optional.ofNullable(configuration.getBoolean(BINARY_MAIL_REFERENCE_ENABLED_PROPERTY, null)))
+            .inlinedMessageMaxSize(Optional.ofNullable(configuration.getString(INLINED_MESSAGE_MAX_SIZE_PROPERTY, null))
+                .map(Throwing.function(Size::parse).sneakyThrow())
+                .map(Size::asBytes))
             .build();
     }
 
@@ -70,27 +148,71 @@ public class RabbitMQMailQueueConfiguration {
     }
 
     private final boolean sizeMetricsEnabled;
+    private final int dequeueConcurrency;
+    private final boolean deletedMailsFilterEnabled;
+    private final boolean binaryMailReferenceEnabled;
+    private final Optional<Long> inlinedMessageMaxSize;
 
-    private RabbitMQMailQueueConfiguration(boolean sizeMetricsEnabled) {
+    private RabbitMQMailQueueConfiguration(boolean sizeMetricsEnabled, int dequeueConcurrency, boolean deletedMailsFilterEnabled,
+                                           boolean binaryMailReferenceEnabled, Optional<Long> inlinedMessageMaxSize) {
         this.sizeMetricsEnabled = sizeMetricsEnabled;
+        this.dequeueConcurrency = dequeueConcurrency;
+        this.deletedMailsFilterEnabled = deletedMailsFilterEnabled;
+        this.binaryMailReferenceEnabled = binaryMailReferenceEnabled;
+        this.inlinedMessageMaxSize = inlinedMessageMaxSize;
     }
 
     public boolean isSizeMetricsEnabled() {
         return sizeMetricsEnabled;
     }
 
+    public int getDequeueConcurrency() {
+        return dequeueConcurrency;
+    }
+
+    public boolean isDeletedMailsFilterEnabled() {
+        return deletedMailsFilterEnabled;
+    }
+
+    public boolean isBinaryMailReferenceEnabled() {
+        return binaryMailReferenceEnabled;
+    }
+
+    /**
+     * Messages up to this size, in bytes, are inlined in the mail queue rather than stored in the blob store. Empty
+     * when inlining is disabled.
+     */
+    public Optional<Long> getInlinedMessageMaxSize() {
+        return inlinedMessageMaxSize;
+    }
+
     @Override
     public final boolean equals(Object o) {
         if (o instanceof RabbitMQMailQueueConfiguration) {
             RabbitMQMailQueueConfiguration that = (RabbitMQMailQueueConfiguration) o;
 
-            return Objects.equals(this.sizeMetricsEnabled, that.sizeMetricsEnabled);
+            return Objects.equals(this.sizeMetricsEnabled, that.sizeMetricsEnabled)
+                && Objects.equals(this.dequeueConcurrency, that.dequeueConcurrency)
+                && Objects.equals(this.deletedMailsFilterEnabled, that.deletedMailsFilterEnabled)
+                && Objects.equals(this.binaryMailReferenceEnabled, that.binaryMailReferenceEnabled)
+                && Objects.equals(this.inlinedMessageMaxSize, that.inlinedMessageMaxSize);
         }
         return false;
     }
 
     @Override
     public final int hashCode() {
-        return Objects.hash(sizeMetricsEnabled);
+        return Objects.hash(sizeMetricsEnabled, dequeueConcurrency, deletedMailsFilterEnabled, binaryMailReferenceEnabled, inlinedMessageMaxSize);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+            .add("sizeMetricsEnabled", sizeMetricsEnabled)
+            .add("dequeueConcurrency", dequeueConcurrency)
+            .add("deletedMailsFilterEnabled", deletedMailsFilterEnabled)
+            .add("binaryMailReferenceEnabled", binaryMailReferenceEnabled)
+            .add("inlinedMessageMaxSize", inlinedMessageMaxSize)
+            .toString();
     }
 }
@@ -56,6 +56,10 @@ public interface DeleteCondition {
             this.senderAsString = senderAsString;
         }
 
+        public String getSenderAsString() {
+            return senderAsString;
+        }
+
         @Override
         public boolean shouldBeDeleted(EnqueuedItem enqueuedItem) {
             Preconditions.checkNotNull(enqueuedItem);
@@ -137,6 +141,10 @@ public interface DeleteCondition {
             this.recipientAsString = recipientAsString;
         }
 
+        public String getRecipientAsString() {
+            return recipientAsString;
+        }
+
         @Override
         public boolean shouldBeDeleted(EnqueuedItem enqueuedItem) {
             Preconditions.checkNotNull(enqueuedItem);
@@ -19,6 +19,9 @@
 
 package org.apache.james.queue.rabbitmq.view.api;
 
+import java.time.Instant;
+import java.util.Optional;
+
 import org.apache.james.queue.api.ManageableMailQueue;
 import org.apache.james.queue.rabbitmq.EnqueueId;
 import org.apache.james.queue.rabbitmq.EnqueuedItem;
@@ -38,9 +41,23 @@ public interface MailQueueView {
 
     long delete(DeleteCondition deleteCondition);
 
-    Mono<Boolean> isPresent(EnqueueId id);
+    /**
+     * @param enqueuedTime enqueue time of the mail, if known, allowing to skip some lookups
+     */
+    Mono<Boolean> isPresent(EnqueueId id, Optional<Instant> enqueuedTime);
 
     ManageableMailQueue.MailQueueIterator browse();
 
+    /**
+     * Cheap to compute, but possibly approximated
+     */
     long getSize();
+
+    long getExactSize();
+
+    /**
+     * Enqueue time of the oldest mail still in the mail queue, delayed mails being ignored until their delivery time.
+     * The returned value might be stale.
+     */
+    Optional<Instant> getOldestEnqueuedTime();
 }
@@ -89,8 +89,11 @@ public class BrowseStartDAO {
             .setString(QUEUE_NAME, mailQueueName.asString()));
     }
 
-    Mono<Void> insertInitialBrowseStart(MailQueueName mailQueueName, Instant sliceStart) {
-        return executor.executeVoid(insertOne.bind()
+    /**
+     * Returns whether the browse start got inserted, that is to say whether the mail queue had not been initialized yet.
+     */
+    Mono<Boolean> insertInitialBrowseStart(MailQueueName mailQueueName, Instant sliceStart) {
+        return executor.executeReturnApplied(insertOne.bind()
             .setTimestamp(BROWSE_START, Date.from(sliceStart))
             .setString(QUEUE_NAME, mailQueueName.asString()));
     }
@@ -26,6 +26,7 @@ import java.time.Clock;
 import java.time.Instant;
 import java.util.Comparator;
 import java.util.Iterator;
+import java.util.Optional;
 
 import javax.inject.Inject;
 import javax.mail.MessagingException;
@@ -35,8 +36,10 @@ import org.apache.james.blob.api.Store;
 import org.apache.james.blob.mail.MimeMessagePartsId;
 import org.apache.james.blob.mail.MimeMessageStore;
 import org.apache.james.queue.api.ManageableMailQueue;
+import org.apache.james.queue.rabbitmq.EnqueueId;
 import org.apache.james.queue.rabbitmq.EnqueuedItem;
 import org.apache.james.queue.rabbitmq.MailQueueName;
+import org.apache.james.queue.rabbitmq.view.api.DeleteCondition;
 import org.apache.james.queue.rabbitmq.view.cassandra.configuration.CassandraMailQueueViewConfiguration;
 import org.apache.james.queue.rabbitmq.view.cassandra.model.EnqueuedItemWithSlicingContext;
 import org.apache.mailet.Mail;
@@ -81,7 +84,9 @@ public class CassandraMailQueueBrowser {
 
     private final BrowseStartDAO browseStartDao;
     private final DeletedMailsDAO deletedMailsDao;
+    private final DeletedMailsFilter deletedMailsFilter;
     private final EnqueuedMailsDAO enqueuedMailsDao;
+    private final EnqueuedMailsByAddressDAO enqueuedMailsByAddressDao;
     private final Store<MimeMessage, MimeMessagePartsId> mimeMessageStore;
     private final CassandraMailQueueViewConfiguration configuration;
     private final Clock clock;
@@ -89,13 +94,17 @@ public class CassandraMailQueueBrowser {
     @Inject
     CassandraMailQueueBrowser(BrowseStartDAO browseStartDao,
                               DeletedMailsDAO deletedMailsDao,
+                              DeletedMailsFilter deletedMailsFilter,
                               EnqueuedMailsDAO enqueuedMailsDao,
+                              EnqueuedMailsByAddressDAO enqueuedMailsByAddressDao,
                               MimeMessageStore.Factory mimeMessageStoreFactory,
                               CassandraMailQueueViewConfiguration configuration,
                               Clock clock) {
         this.browseStartDao = browseStartDao;
         this.deletedMailsDao = deletedMailsDao;
+        this.deletedMailsFilter = deletedMailsFilter;
         this.enqueuedMailsDao = enqueuedMailsDao;
+        this.enqueuedMailsByAddressDao = enqueuedMailsByAddressDao;
         this.mimeMessageStore = mimeMessageStoreFactory.mimeMessageStore();
         this.configuration = configuration;
         this.clock = clock;
@@ -114,9 +123,60 @@ public class CassandraMailQueueBrowser {
             .subscribeOn(Schedulers.parallel());
     }
 
+    /**
+     * Browsed mails are sorted by enqueue time, thus the first due one is the oldest. Delayed mails are not due until
+     * their delivery time.
+     */
+    Mono<Instant> findOldestDueEnqueuedTime(MailQueueName queueName) {
+        Instant now = clock.instant();
+        return browseReferences(queueName)
+            .map(EnqueuedItemWithSlicingContext::getEnqueuedItem)
+            .filter(enqueuedItem -> !enqueuedItem.getDeliveryTime().isAfter(now))
+            .next()
+            .map(EnqueuedItem::getEnqueuedTime);
+    }
+
+    Flux<EnqueueId> browseDeletedEnqueueIds(MailQueueName queueName, Instant browseStart) {
+        return allSlicesStartingAt(browseStart)
+            .concatMap(slice -> allBucketIds()
+                .flatMap(bucketId -> enqueuedMailsDao.selectEnqueuedMails(queueName, slice, bucketId)))
+            .map(enqueuedItem -> enqueuedItem.getEnqueuedItem().getEnqueueId())
+            .filterWhen(enqueueId -> deletedMailsDao.isDeleted(queueName, enqueueId));
+    }
+
+    /**
+     * Reads the address index rather than the enqueued mails, hence only the entries of the given address are read.
+     * Slices preceding the address index are browsed instead, their mails being filtered by the given condition.
+     */
+    Flux<EnqueueId> browseEnqueueIdsByAddress(MailQueueName queueName, EnqueuedMailsByAddressDAO.AddressType addressType, String address,
+                                              DeleteCondition deleteCondition) {
+        Mono<Optional<Instant>> indexStart = enqueuedMailsByAddressDao.findIndexStart(queueName)
+            .map(Optional::of)
+            .defaultIfEmpty(Optional.empty());
+
+        return Mono.zip(browseStartDao.findBrowseStart(queueName), indexStart)
+            .flatMapMany(browseStartAndIndexStart -> allSlicesStartingAt(browseStartAndIndexStart.getT1())
+                .concatMap(slice -> {
+                    if (isIndexed(slice, browseStartAndIndexStart.getT2())) {
+                        return enqueuedMailsByAddressDao.selectEnqueueIds(queueName, slice, addressType, address)
+                            .filterWhen(enqueueId -> isStillEnqueued(queueName, slice, enqueueId));
+                    }
+                    return browseSlice(queueName, slice)
+                        .map(EnqueuedItemWithSlicingContext::getEnqueuedItem)
+                        .filter(deleteCondition::shouldBeDeleted)
+                        .map(EnqueuedItem::getEnqueueId);
+                }));
+    }
+
+    private boolean isIndexed(Slice slice, Optional<Instant> indexStart) {
+        return indexStart
+            .map(start -> !slice.getStartSliceInstant().isBefore(start))
+            .orElse(false);
+    }
+
     private Mono<Mail> toMailFuture(EnqueuedItemWithSlicingContext enqueuedItemWithSlicingContext) {
         EnqueuedItem enqueuedItem = enqueuedItemWithSlicingContext.getEnqueuedItem();
-        return mimeMessageStore.read(enqueuedItem.getPartsId())
+        return enqueuedItem.getContent().read(mimeMessageStore)
             .map(mimeMessage -> toMail(enqueuedItem, mimeMessage));
     }
 
@@ -141,7 +201,14 @@ public class CassandraMailQueueBrowser {
 
     private Flux<EnqueuedItemWithSlicingContext> browseBucket(MailQueueName queueName, Slice slice, BucketId bucketId) {
         return enqueuedMailsDao.selectEnqueuedMails(queueName, slice, bucketId)
-            .filterWhen(mailReference -> deletedMailsDao.isStillEnqueued(queueName, mailReference.getEnqueuedItem().getEnqueueId()));
+            .filterWhen(mailReference -> isStillEnqueued(queueName, slice, mailReference.getEnqueuedItem().getEnqueueId()));
+    }
+
+    private Mono<Boolean> isStillEnqueued(MailQueueName queueName, Slice slice, EnqueueId enqueueId) {
+        if (deletedMailsFilter.mightBeDeleted(queueName, enqueueId, Optional.of(slice.getStartSliceInstant()))) {
+            return deletedMailsDao.isStillEnqueued(queueName, enqueueId);
+        }
+        return Mono.just(true);
     }
 
     private Flux<Slice> allSlicesStartingAt(Instant browseStart) {
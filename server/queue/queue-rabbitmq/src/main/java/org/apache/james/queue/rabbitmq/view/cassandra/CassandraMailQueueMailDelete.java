@@ -20,6 +20,7 @@
 package org.apache.james.queue.rabbitmq.view.cassandra;
 
 import java.time.Instant;
+import java.util.Optional;
 import java.util.concurrent.ThreadLocalRandom;
 
 import javax.inject.Inject;
@@ -34,29 +35,46 @@ import reactor.core.scheduler.Schedulers;
 public class CassandraMailQueueMailDelete {
 
     private final DeletedMailsDAO deletedMailsDao;
+    private final DeletedMailsFilter deletedMailsFilter;
     private final BrowseStartDAO browseStartDao;
+    private final MailQueueSizeDAO mailQueueSizeDao;
     private final CassandraMailQueueBrowser cassandraMailQueueBrowser;
     private final CassandraMailQueueViewConfiguration configuration;
 
     @Inject
     CassandraMailQueueMailDelete(DeletedMailsDAO deletedMailsDao,
+                                 DeletedMailsFilter deletedMailsFilter,
                                  BrowseStartDAO browseStartDao,
+                                 MailQueueSizeDAO mailQueueSizeDao,
                                  CassandraMailQueueBrowser cassandraMailQueueBrowser,
                                  CassandraMailQueueViewConfiguration configuration) {
         this.deletedMailsDao = deletedMailsDao;
+        this.deletedMailsFilter = deletedMailsFilter;
         this.browseStartDao = browseStartDao;
+        this.mailQueueSizeDao = mailQueueSizeDao;
         this.cassandraMailQueueBrowser = cassandraMailQueueBrowser;
         this.configuration = configuration;
     }
 
     Mono<Void> considerDeleted(EnqueueId enqueueId, MailQueueName mailQueueName) {
-        return deletedMailsDao
-            .markAsDeleted(mailQueueName, enqueueId)
+        return Mono.fromRunnable(() -> deletedMailsFilter.markDeleted(mailQueueName, enqueueId))
+            .then(deletedMailsDao.markAsDeleted(mailQueueName, enqueueId))
+            .filter(newlyDeleted -> newlyDeleted)
+            .flatMap(any -> mailQueueSizeDao.decrement(mailQueueName))
             .doOnNext(ignored -> maybeUpdateBrowseStart(mailQueueName));
     }
 
-    Mono<Boolean> isDeleted(EnqueueId enqueueId, MailQueueName mailQueueName) {
-        return deletedMailsDao.isDeleted(mailQueueName, enqueueId);
+    Mono<Boolean> isDeleted(EnqueueId enqueueId, MailQueueName mailQueueName, Optional<Instant> enqueuedTime) {
+        if (deletedMailsFilter.mightBeDeleted(mailQueueName, enqueueId, enqueuedTime)) {
+            return deletedMailsDao.isDeleted(mailQueueName, enqueueId);
+        }
+        return Mono.just(false);
+    }
+
+    void initializeDeletedMailsFilter(MailQueueName mailQueueName) {
+        deletedMailsFilter.build(mailQueueName,
+            () -> browseStartDao.findBrowseStart(mailQueueName),
+            browseStart -> cassandraMailQueueBrowser.browseDeletedEnqueueIds(mailQueueName, browseStart));
     }
 
     void updateBrowseStart(MailQueueName mailQueueName) {
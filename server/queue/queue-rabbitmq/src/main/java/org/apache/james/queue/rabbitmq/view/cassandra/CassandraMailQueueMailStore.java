@@ -36,17 +36,23 @@ import reactor.core.publisher.Mono;
 public class CassandraMailQueueMailStore {
 
     private final EnqueuedMailsDAO enqueuedMailsDao;
+    private final EnqueuedMailsByAddressDAO enqueuedMailsByAddressDao;
     private final BrowseStartDAO browseStartDao;
+    private final MailQueueSizeDAO mailQueueSizeDao;
     private final CassandraMailQueueViewConfiguration configuration;
     private final Clock clock;
 
     @Inject
     CassandraMailQueueMailStore(EnqueuedMailsDAO enqueuedMailsDao,
+                                EnqueuedMailsByAddressDAO enqueuedMailsByAddressDao,
                                 BrowseStartDAO browseStartDao,
+                                MailQueueSizeDAO mailQueueSizeDao,
                                 CassandraMailQueueViewConfiguration configuration,
                                 Clock clock) {
         this.enqueuedMailsDao = enqueuedMailsDao;
+        this.enqueuedMailsByAddressDao = enqueuedMailsByAddressDao;
         this.browseStartDao = browseStartDao;
+        this.mailQueueSizeDao = mailQueueSizeDao;
         this.configuration = configuration;
         this.clock = clock;
     }
@@ -54,12 +60,22 @@ public class CassandraMailQueueMailStore {
     Mono<Void> storeMail(EnqueuedItem enqueuedItem) {
         EnqueuedItemWithSlicingContext enqueuedItemAndSlicing = addSliceContext(enqueuedItem);
 
-        return enqueuedMailsDao.insert(enqueuedItemAndSlicing);
+        return Mono.when(
+                enqueuedMailsDao.insert(enqueuedItemAndSlicing),
+                enqueuedMailsByAddressDao.insert(enqueuedItemAndSlicing))
+            .then(mailQueueSizeDao.increment(enqueuedItem.getMailQueueName()));
     }
 
+    /**
+     * Mails of new mail queues are all indexed by address. For mail queues created before the address index, only the
+     * mails of the slices following the first initialization are.
+     */
     Mono<Void> initializeBrowseStart(MailQueueName mailQueueName) {
+        Instant sliceStart = currentSliceStartInstant();
         return browseStartDao
-            .insertInitialBrowseStart(mailQueueName, currentSliceStartInstant());
+            .insertInitialBrowseStart(mailQueueName, sliceStart)
+            .flatMap(isNewMailQueue -> enqueuedMailsByAddressDao.insertIndexStart(mailQueueName,
+                isNewMailQueue ? sliceStart : sliceStart.plus(configuration.getSliceWindow())));
     }
 
     private EnqueuedItemWithSlicingContext addSliceContext(EnqueuedItem enqueuedItem) {
@@ -19,6 +19,11 @@
 
 package org.apache.james.queue.rabbitmq.view.cassandra;
 
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
 import javax.inject.Inject;
 
 import org.apache.james.queue.api.ManageableMailQueue;
@@ -30,54 +35,70 @@ import org.apache.james.queue.rabbitmq.view.api.MailQueueView;
 import org.apache.james.queue.rabbitmq.view.cassandra.configuration.CassandraMailQueueViewConfiguration;
 import org.apache.james.queue.rabbitmq.view.cassandra.configuration.EventsourcingConfigurationManagement;
 import org.apache.james.queue.rabbitmq.view.cassandra.model.EnqueuedItemWithSlicingContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import reactor.core.publisher.Mono;
 
 public class CassandraMailQueueView implements MailQueueView {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(CassandraMailQueueView.class);
+
     public static class Factory implements MailQueueView.Factory {
         private final CassandraMailQueueMailStore storeHelper;
         private final CassandraMailQueueBrowser cassandraMailQueueBrowser;
         private final CassandraMailQueueMailDelete cassandraMailQueueMailDelete;
+        private final MailQueueSizeDAO mailQueueSizeDao;
 
         @Inject
         public Factory(CassandraMailQueueMailStore storeHelper,
                        CassandraMailQueueBrowser cassandraMailQueueBrowser,
                        CassandraMailQueueMailDelete cassandraMailQueueMailDelete,
+                       MailQueueSizeDAO mailQueueSizeDao,
                        EventsourcingConfigurationManagement eventsourcingConfigurationManagement,
                        CassandraMailQueueViewConfiguration configuration) {
             this.storeHelper = storeHelper;
             this.cassandraMailQueueBrowser = cassandraMailQueueBrowser;
             this.cassandraMailQueueMailDelete = cassandraMailQueueMailDelete;
+            this.mailQueueSizeDao = mailQueueSizeDao;
 
             eventsourcingConfigurationManagement.registerConfiguration(configuration);
         }
 
         @Override
         public MailQueueView create(MailQueueName mailQueueName) {
-            return new CassandraMailQueueView(storeHelper, mailQueueName, cassandraMailQueueBrowser, cassandraMailQueueMailDelete);
+            return new CassandraMailQueueView(storeHelper, mailQueueName, cassandraMailQueueBrowser, cassandraMailQueueMailDelete, mailQueueSizeDao);
         }
     }
 
     private final CassandraMailQueueMailStore storeHelper;
     private final CassandraMailQueueBrowser cassandraMailQueueBrowser;
     private final CassandraMailQueueMailDelete cassandraMailQueueMailDelete;
+    private final MailQueueSizeDAO mailQueueSizeDao;
 
     private final MailQueueName mailQueueName;
+    private final AtomicReference<Optional<Instant>> oldestEnqueuedTime;
+    private final AtomicBoolean refreshingOldestEnqueuedTime;
 
     CassandraMailQueueView(CassandraMailQueueMailStore storeHelper,
                            MailQueueName mailQueueName,
                            CassandraMailQueueBrowser cassandraMailQueueBrowser,
-                           CassandraMailQueueMailDelete cassandraMailQueueMailDelete) {
+                           CassandraMailQueueMailDelete cassandraMailQueueMailDelete,
+                           MailQueueSizeDAO mailQueueSizeDao) {
         this.mailQueueName = mailQueueName;
         this.storeHelper = storeHelper;
         this.cassandraMailQueueBrowser = cassandraMailQueueBrowser;
         this.cassandraMailQueueMailDelete = cassandraMailQueueMailDelete;
+        this.mailQueueSizeDao = mailQueueSizeDao;
+        this.oldestEnqueuedTime = new AtomicReference<>(Optional.empty());
+        this.refreshingOldestEnqueuedTime = new AtomicBoolean(false);
     }
 
     @Override
     public void initialize(MailQueueName mailQueueName) {
         storeHelper.initializeBrowseStart(mailQueueName).block();
+        seedSizeIfNotCounted().block();
+        cassandraMailQueueMailDelete.initializeDeletedMailsFilter(mailQueueName);
     }
 
     @Override
@@ -93,9 +114,66 @@ public class CassandraMailQueueView implements MailQueueView {
                 .iterator());
     }
 
+    /**
+     * Reads the maintained counter, which can drift upon failures. See {@link #getExactSize()}. A negative counter
+     * has obviously drifted, and is corrected right away.
+     */
     @Override
     public long getSize() {
-        return cassandraMailQueueBrowser.browseReferences(mailQueueName).count().block();
+        long size = mailQueueSizeDao.getSize(mailQueueName).block();
+        if (size < 0) {
+            LOGGER.warn("Maintained size of {} is negative ({}), correcting it", mailQueueName.asString(), size);
+            return getExactSize();
+        }
+        return size;
+    }
+
+    /**
+     * Browses the whole mail queue, and corrects the maintained counter with the result.
+     */
+    @Override
+    public long getExactSize() {
+        return correctSize().block();
+    }
+
+    private Mono<Long> correctSize() {
+        return cassandraMailQueueBrowser.browseReferences(mailQueueName)
+            .count()
+            .flatMap(exactSize -> mailQueueSizeDao.getSize(mailQueueName)
+                .filter(approximatedSize -> approximatedSize != exactSize)
+                .flatMap(approximatedSize -> mailQueueSizeDao.add(mailQueueName, exactSize - approximatedSize))
+                .thenReturn(exactSize));
+    }
+
+    /**
+     * Mails of mail queues created before the size counter was introduced were never counted.
+     */
+    private Mono<Void> seedSizeIfNotCounted() {
+        return mailQueueSizeDao.isCounted(mailQueueName)
+            .filter(isCounted -> !isCounted)
+            .flatMap(any -> correctSize())
+            .then();
+    }
+
+    /**
+     * Returns the last computed value, and triggers its computation in the background, at most one at a time, so that
+     * metric reporters are not blocked by browsing the mail queue. The value thus lags behind by one call.
+     */
+    @Override
+    public Optional<Instant> getOldestEnqueuedTime() {
+        refreshOldestEnqueuedTime();
+        return oldestEnqueuedTime.get();
+    }
+
+    private void refreshOldestEnqueuedTime() {
+        if (refreshingOldestEnqueuedTime.compareAndSet(false, true)) {
+            cassandraMailQueueBrowser.findOldestDueEnqueuedTime(mailQueueName)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .doFinally(any -> refreshingOldestEnqueuedTime.set(false))
+                .subscribe(oldestEnqueuedTime::set,
+                    e -> LOGGER.warn("Failed computing the oldest enqueued time of {}", mailQueueName.asString(), e));
+        }
     }
 
     @Override
@@ -105,14 +183,34 @@ public class CassandraMailQueueView implements MailQueueView {
             delete(enqueueIdCondition.getEnqueueId()).block();
             return 1L;
         }
+        if (deleteCondition instanceof DeleteCondition.WithSender) {
+            DeleteCondition.WithSender senderCondition = (DeleteCondition.WithSender) deleteCondition;
+            return indexedDelete(EnqueuedMailsByAddressDAO.AddressType.SENDER, senderCondition.getSenderAsString(), senderCondition);
+        }
+        if (deleteCondition instanceof DeleteCondition.WithRecipient) {
+            DeleteCondition.WithRecipient recipientCondition = (DeleteCondition.WithRecipient) deleteCondition;
+            return indexedDelete(EnqueuedMailsByAddressDAO.AddressType.RECIPIENT, recipientCondition.getRecipientAsString(), recipientCondition);
+        }
         return browseThenDelete(deleteCondition);
     }
 
+    /**
+     * Only the entries of the address index are read, except for the slices enqueued before this index was introduced,
+     * which are browsed.
+     */
+    private long indexedDelete(EnqueuedMailsByAddressDAO.AddressType addressType, String address, DeleteCondition deleteCondition) {
+        return cassandraMailQueueBrowser.browseEnqueueIdsByAddress(mailQueueName, addressType, address, deleteCondition)
+            .flatMap(enqueueId -> cassandraMailQueueMailDelete.considerDeleted(enqueueId, mailQueueName).thenReturn(enqueueId))
+            .count()
+            .doOnNext(ignored -> cassandraMailQueueMailDelete.updateBrowseStart(mailQueueName))
+            .block();
+    }
+
     private long browseThenDelete(DeleteCondition deleteCondition) {
         return cassandraMailQueueBrowser.browseReferences(mailQueueName)
             .map(EnqueuedItemWithSlicingContext::getEnqueuedItem)
             .filter(deleteCondition::shouldBeDeleted)
-            .flatMap(mailReference -> cassandraMailQueueMailDelete.considerDeleted(mailReference.getEnqueueId(), mailQueueName))
+            .flatMap(mailReference -> cassandraMailQueueMailDelete.considerDeleted(mailReference.getEnqueueId(), mailQueueName).thenReturn(mailReference))
             .count()
             .doOnNext(ignored -> cassandraMailQueueMailDelete.updateBrowseStart(mailQueueName))
             .block();
@@ -123,8 +221,8 @@ public class CassandraMailQueueView implements MailQueueView {
     }
 
     @Override
-    public Mono<Boolean> isPresent(EnqueueId id) {
-        return cassandraMailQueueMailDelete.isDeleted(id, mailQueueName)
+    public Mono<Boolean> isPresent(EnqueueId id, Optional<Instant> enqueuedTime) {
+        return cassandraMailQueueMailDelete.isDeleted(id, mailQueueName, enqueuedTime)
                 .map(bool -> !bool);
     }
 }
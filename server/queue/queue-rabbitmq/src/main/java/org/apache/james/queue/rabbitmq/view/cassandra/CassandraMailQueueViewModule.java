@@ -21,6 +21,7 @@ package org.apache.james.queue.rabbitmq.view.cassandra;
 
 import static com.datastax.driver.core.DataType.blob;
 import static com.datastax.driver.core.DataType.cint;
+import static com.datastax.driver.core.DataType.counter;
 import static com.datastax.driver.core.DataType.list;
 import static com.datastax.driver.core.DataType.map;
 import static com.datastax.driver.core.DataType.text;
@@ -56,6 +57,26 @@ public interface CassandraMailQueueViewModule {
         String REMOTE_ADDR = "remoteAddr";
         String LAST_UPDATED = "lastUpdated";
         String PER_RECIPIENT_SPECIFIC_HEADERS = "perRecipientSpecificHeaders";
+        String INLINED_MESSAGE = "inlinedMessage";
+        String DELIVERY_TIME = "deliveryTime";
+    }
+
+    interface EnqueuedMailsByAddressTable {
+        String TABLE_NAME = "enqueuedMailsByAddress";
+
+        String QUEUE_NAME = "queueName";
+        String TIME_RANGE_START = "timeRangeStart";
+        String ADDRESS_TYPE = "addressType";
+        String ADDRESS = "address";
+
+        String ENQUEUE_ID = "enqueueId";
+    }
+
+    interface AddressIndexStartTable {
+        String TABLE_NAME = "addressIndexStart";
+
+        String QUEUE_NAME = "queueName";
+        String INDEX_START = "indexStart";
     }
 
     interface BrowseStartTable {
@@ -72,6 +93,14 @@ public interface CassandraMailQueueViewModule {
         String ENQUEUE_ID = "enqueueId";
     }
 
+    interface MailQueueSizeTable {
+        String TABLE_NAME = "mailQueueSize";
+
+        String QUEUE_NAME = "queueName";
+        String SHARD = "shard";
+        String SIZE = "size";
+    }
+
     interface HeaderEntry {
         int USER_INDEX = 0;
         int HEADER_NAME_INDEX = 1;
@@ -102,7 +131,29 @@ public interface CassandraMailQueueViewModule {
             .addColumn(EnqueuedMailsTable.REMOTE_HOST, text())
             .addColumn(EnqueuedMailsTable.REMOTE_ADDR, text())
             .addColumn(EnqueuedMailsTable.LAST_UPDATED, timestamp())
-            .addColumn(EnqueuedMailsTable.PER_RECIPIENT_SPECIFIC_HEADERS, list(TupleType.of(ProtocolVersion.NEWEST_SUPPORTED, CodecRegistry.DEFAULT_INSTANCE, text(), text(), text()))))
+            .addColumn(EnqueuedMailsTable.PER_RECIPIENT_SPECIFIC_HEADERS, list(TupleType.of(ProtocolVersion.NEWEST_SUPPORTED, CodecRegistry.DEFAULT_INSTANCE, text(), text(), text())))
+            .addColumn(EnqueuedMailsTable.INLINED_MESSAGE, blob())
+            .addColumn(EnqueuedMailsTable.DELIVERY_TIME, timestamp()))
+
+        .table(EnqueuedMailsByAddressTable.TABLE_NAME)
+        .comment("indexes the mails of table: " + EnqueuedMailsTable.TABLE_NAME + " by sender and by recipient, within" +
+            " the slice they had been enqueued in, so that removing the mails of an address does not require to browse" +
+            " the whole mail queue")
+        .options(options -> options)
+        .statement(statement -> statement
+            .addPartitionKey(EnqueuedMailsByAddressTable.QUEUE_NAME, text())
+            .addPartitionKey(EnqueuedMailsByAddressTable.TIME_RANGE_START, timestamp())
+            .addPartitionKey(EnqueuedMailsByAddressTable.ADDRESS_TYPE, text())
+            .addPartitionKey(EnqueuedMailsByAddressTable.ADDRESS, text())
+            .addClusteringColumn(EnqueuedMailsByAddressTable.ENQUEUE_ID, uuid()))
+
+        .table(AddressIndexStartTable.TABLE_NAME)
+        .comment("this table stores the first slice from which the mails of each mail queue are indexed in table: "
+            + EnqueuedMailsByAddressTable.TABLE_NAME + ", mails of earlier slices had been enqueued before this index was introduced")
+        .options(options -> options)
+        .statement(statement -> statement
+            .addPartitionKey(AddressIndexStartTable.QUEUE_NAME, text())
+            .addColumn(AddressIndexStartTable.INDEX_START, timestamp()))
 
         .table(BrowseStartTable.TABLE_NAME)
         .comment("this table allows to find the starting point of iteration from the table: "
@@ -121,5 +172,15 @@ public interface CassandraMailQueueViewModule {
             .addPartitionKey(DeletedMailTable.QUEUE_NAME, text())
             .addPartitionKey(DeletedMailTable.ENQUEUE_ID, uuid()))
 
+        .table(MailQueueSizeTable.TABLE_NAME)
+        .comment("this table maintains an approximation of the count of mails in each mail queue, so that getting the size" +
+            " of a mail queue does not require to browse it. Updates are spread among shards to avoid contention on a" +
+            " single counter")
+        .options(options -> options)
+        .statement(statement -> statement
+            .addPartitionKey(MailQueueSizeTable.QUEUE_NAME, text())
+            .addClusteringColumn(MailQueueSizeTable.SHARD, cint())
+            .addColumn(MailQueueSizeTable.SIZE, counter()))
+
         .build();
 }
@@ -53,6 +53,7 @@ public class DeletedMailsDAO {
 
     private PreparedStatement prepareInsert(Session session) {
         return session.prepare(insertInto(TABLE_NAME)
+            .ifNotExists()
             .value(QUEUE_NAME, bindMarker(QUEUE_NAME))
             .value(ENQUEUE_ID, bindMarker(ENQUEUE_ID)));
     }
@@ -64,8 +65,11 @@ public class DeletedMailsDAO {
             .and(eq(ENQUEUE_ID, bindMarker(ENQUEUE_ID))));
     }
 
-    Mono<Void> markAsDeleted(MailQueueName mailQueueName, EnqueueId enqueueId) {
-        return executor.executeVoid(insertOne.bind()
+    /**
+     * Returns whether the mail got marked as deleted, that is to say whether it had not been deleted yet.
+     */
+    Mono<Boolean> markAsDeleted(MailQueueName mailQueueName, EnqueueId enqueueId) {
+        return executor.executeReturnApplied(insertOne.bind()
             .setString(QUEUE_NAME, mailQueueName.asString())
             .setUUID(ENQUEUE_ID, enqueueId.asUUID()));
     }
@@ -0,0 +1,161 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.queue.rabbitmq.view.cassandra;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import javax.inject.Inject;
+
+import org.apache.james.queue.rabbitmq.EnqueueId;
+import org.apache.james.queue.rabbitmq.MailQueueName;
+import org.apache.james.queue.rabbitmq.view.RabbitMQMailQueueConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnel;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * In memory bloom filter of the deleted mails of each mail queue, allowing to skip reading {@link DeletedMailsDAO}
+ * for mails that were never deleted.
+ *
+ * The filter of a mail queue is built from the mails referenced by its view, and is only trusted once built. It
+ * then only knows about deletions made by this James server: it should only be enabled when a single James server
+ * dequeues from and manages the mail queues.
+ *
+ * Mails enqueued before the browse start the filter is built from are not covered: they might have been deleted
+ * before, while still being in RabbitMQ. They, as well as mails whose enqueue time is unknown, are thus always
+ * considered as possibly deleted.
+ *
+ * Every dequeued mail is marked as deleted, hence the filter is rebuilt once it holds more than the expected count
+ * of deletions, in order to keep its false positive rate low.
+ */
+public class DeletedMailsFilter {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DeletedMailsFilter.class);
+    private static final int DEFAULT_EXPECTED_DELETIONS = 1_000_000;
+    private static final double FALSE_POSITIVE_PROBABILITY = 0.01;
+    private static final Funnel<EnqueueId> ENQUEUE_ID_FUNNEL = (enqueueId, sink) -> {
+        UUID uuid = enqueueId.asUUID();
+        sink.putLong(uuid.getMostSignificantBits())
+            .putLong(uuid.getLeastSignificantBits());
+    };
+
+    private static class QueueFilter {
+        private final Supplier<Mono<Instant>> browseStart;
+        private final Function<Instant, Flux<EnqueueId>> deletedMails;
+        private final BloomFilter<EnqueueId> bloomFilter;
+        private final AtomicBoolean rebuildTriggered;
+        private volatile Optional<Instant> coveredFrom;
+
+        QueueFilter(Supplier<Mono<Instant>> browseStart, Function<Instant, Flux<EnqueueId>> deletedMails, int expectedDeletions) {
+            this.browseStart = browseStart;
+            this.deletedMails = deletedMails;
+            this.bloomFilter = BloomFilter.create(ENQUEUE_ID_FUNNEL, expectedDeletions, FALSE_POSITIVE_PROBABILITY);
+            this.rebuildTriggered = new AtomicBoolean(false);
+            this.coveredFrom = Optional.empty();
+        }
+
+        boolean covers(Optional<Instant> enqueuedSince) {
+            Optional<Instant> builtFrom = coveredFrom;
+            return builtFrom.isPresent()
+                && enqueuedSince.map(instant -> !instant.isBefore(builtFrom.get())).orElse(false);
+        }
+    }
+
+    private final boolean enabled;
+    private final int expectedDeletions;
+    private final ConcurrentHashMap<MailQueueName, QueueFilter> filters;
+
+    @Inject
+    DeletedMailsFilter(RabbitMQMailQueueConfiguration configuration) {
+        this(configuration.isDeletedMailsFilterEnabled(), DEFAULT_EXPECTED_DELETIONS);
+    }
+
+    @VisibleForTesting
+    DeletedMailsFilter(boolean enabled, int expectedDeletions) {
+        this.enabled = enabled;
+        this.expectedDeletions = expectedDeletions;
+        this.filters = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Asynchronously builds the filter of the given mail queue. Until then, every mail might be deleted.
+     *
+     * @param browseStart supplies the browse start of this mail queue
+     * @param deletedMails supplies the deleted mails of this mail queue, that are referenced by its view from the given
+     *                     browse start
+     */
+    void build(MailQueueName mailQueueName, Supplier<Mono<Instant>> browseStart, Function<Instant, Flux<EnqueueId>> deletedMails) {
+        if (!enabled) {
+            return;
+        }
+        QueueFilter queueFilter = new QueueFilter(browseStart, deletedMails, expectedDeletions);
+        filters.put(mailQueueName, queueFilter);
+
+        browseStart.get()
+            .flatMap(start -> deletedMails.apply(start)
+                .doOnNext(queueFilter.bloomFilter::put)
+                .then(Mono.just(start)))
+            .doOnNext(start -> queueFilter.coveredFrom = Optional.of(start))
+            .doOnError(e -> LOGGER.error("Could not build the deleted mails filter of {}", mailQueueName.asString(), e))
+            .onErrorResume(e -> Mono.empty())
+            .subscribeOn(Schedulers.boundedElastic())
+            .subscribe();
+    }
+
+    void markDeleted(MailQueueName mailQueueName, EnqueueId enqueueId) {
+        QueueFilter queueFilter = filters.get(mailQueueName);
+        if (queueFilter == null) {
+            return;
+        }
+        queueFilter.bloomFilter.put(enqueueId);
+        maybeRebuild(mailQueueName, queueFilter);
+    }
+
+    /**
+     * @param enqueuedSince an instant the given mail is known to be enqueued at or after, if any
+     * @return false only when the given mail is known not to be deleted
+     */
+    boolean mightBeDeleted(MailQueueName mailQueueName, EnqueueId enqueueId, Optional<Instant> enqueuedSince) {
+        QueueFilter queueFilter = filters.get(mailQueueName);
+        if (queueFilter == null || !queueFilter.covers(enqueuedSince)) {
+            return true;
+        }
+        return queueFilter.bloomFilter.mightContain(enqueueId);
+    }
+
+    private void maybeRebuild(MailQueueName mailQueueName, QueueFilter queueFilter) {
+        if (queueFilter.bloomFilter.approximateElementCount() > expectedDeletions
+            && queueFilter.rebuildTriggered.compareAndSet(false, true)) {
+            build(mailQueueName, queueFilter.browseStart, queueFilter.deletedMails);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.queue.rabbitmq.view.cassandra;
+
+import static com.datastax.driver.core.querybuilder.QueryBuilder.bindMarker;
+import static com.datastax.driver.core.querybuilder.QueryBuilder.eq;
+import static com.datastax.driver.core.querybuilder.QueryBuilder.insertInto;
+import static com.datastax.driver.core.querybuilder.QueryBuilder.select;
+import static org.apache.james.queue.rabbitmq.view.cassandra.CassandraMailQueueViewModule.AddressIndexStartTable.INDEX_START;
+import static org.apache.james.queue.rabbitmq.view.cassandra.CassandraMailQueueViewModule.EnqueuedMailsByAddressTable.ADDRESS;
+import static org.apache.james.queue.rabbitmq.view.cassandra.CassandraMailQueueViewModule.EnqueuedMailsByAddressTable.ADDRESS_TYPE;
+import static org.apache.james.queue.rabbitmq.view.cassandra.CassandraMailQueueViewModule.EnqueuedMailsByAddressTable.ENQUEUE_ID;
+import static org.apache.james.queue.rabbitmq.view.cassandra.CassandraMailQueueViewModule.EnqueuedMailsByAddressTable.QUEUE_NAME;
+import static org.apache.james.queue.rabbitmq.view.cassandra.CassandraMailQueueViewModule.EnqueuedMailsByAddressTable.TABLE_NAME;
+import static org.apache.james.queue.rabbitmq.view.cassandra.CassandraMailQueueViewModule.EnqueuedMailsByAddressTable.TIME_RANGE_START;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.stream.Stream;
+
+import javax.inject.Inject;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.james.backends.cassandra.utils.CassandraAsyncExecutor;
+import org.apache.james.core.MailAddress;
+import org.apache.james.queue.rabbitmq.EnqueueId;
+import org.apache.james.queue.rabbitmq.EnqueuedItem;
+import org.apache.james.queue.rabbitmq.MailQueueName;
+import org.apache.james.queue.rabbitmq.view.cassandra.CassandraMailQueueViewModule.AddressIndexStartTable;
+import org.apache.james.queue.rabbitmq.view.cassandra.model.BucketedSlices.Slice;
+import org.apache.james.queue.rabbitmq.view.cassandra.model.EnqueuedItemWithSlicingContext;
+import org.apache.mailet.Mail;
+
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.Session;
+import com.google.common.collect.ImmutableSet;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Indexes the enqueued mails by sender and by recipient, within the slice they are enqueued in, so that removing the
+ * mails of a given address only reads the matching entries rather than browsing the whole mail queue.
+ *
+ * Mails enqueued before this index was introduced are not indexed: the first indexed slice of each mail queue is
+ * recorded so that earlier ones can be browsed instead.
+ */
+public class EnqueuedMailsByAddressDAO {
+
+    enum AddressType {
+        SENDER("sender"),
+        RECIPIENT("recipient");
+
+        private final String value;
+
+        AddressType(String value) {
+            this.value = value;
+        }
+
+        String getValue() {
+            return value;
+        }
+    }
+
+    private final CassandraAsyncExecutor executor;
+    private final PreparedStatement insert;
+    private final PreparedStatement select;
+    private final PreparedStatement insertIndexStart;
+    private final PreparedStatement selectIndexStart;
+
+    @Inject
+    EnqueuedMailsByAddressDAO(Session session) {
+        this.executor = new CassandraAsyncExecutor(session);
+        this.insert = prepareInsert(session);
+        this.select = prepareSelect(session);
+        this.insertIndexStart = prepareInsertIndexStart(session);
+        this.selectIndexStart = prepareSelectIndexStart(session);
+    }
+
+    private PreparedStatement prepareInsert(Session session) {
+        return session.prepare(insertInto(TABLE_NAME)
+            .value(QUEUE_NAME, bindMarker(QUEUE_NAME))
+            .value(TIME_RANGE_START, bindMarker(TIME_RANGE_START))
+            .value(ADDRESS_TYPE, bindMarker(ADDRESS_TYPE))
+            .value(ADDRESS, bindMarker(ADDRESS))
+            .value(ENQUEUE_ID, bindMarker(ENQUEUE_ID)));
+    }
+
+    private PreparedStatement prepareSelect(Session session) {
+        return session.prepare(select(ENQUEUE_ID)
+            .from(TABLE_NAME)
+            .where(eq(QUEUE_NAME, bindMarker(QUEUE_NAME)))
+            .and(eq(TIME_RANGE_START, bindMarker(TIME_RANGE_START)))
+            .and(eq(ADDRESS_TYPE, bindMarker(ADDRESS_TYPE)))
+            .and(eq(ADDRESS, bindMarker(ADDRESS))));
+    }
+
+    private PreparedStatement prepareInsertIndexStart(Session session) {
+        return session.prepare(insertInto(AddressIndexStartTable.TABLE_NAME)
+            .ifNotExists()
+            .value(AddressIndexStartTable.QUEUE_NAME, bindMarker(AddressIndexStartTable.QUEUE_NAME))
+            .value(INDEX_START, bindMarker(INDEX_START)));
+    }
+
+    private PreparedStatement prepareSelectIndexStart(Session session) {
+        return session.prepare(select(INDEX_START)
+            .from(AddressIndexStartTable.TABLE_NAME)
+            .where(eq(AddressIndexStartTable.QUEUE_NAME, bindMarker(AddressIndexStartTable.QUEUE_NAME))));
+    }
+
+    /**
+     * Addresses are indexed as compared by {@link org.apache.james.queue.rabbitmq.view.api.DeleteCondition}. A
+     * recipient listed several times only leads to a single entry.
+     */
+    Mono<Void> insert(EnqueuedItemWithSlicingContext enqueuedItemWithSlicing) {
+        EnqueuedItem enqueuedItem = enqueuedItemWithSlicing.getEnqueuedItem();
+        Date timeRangeStart = Date.from(enqueuedItemWithSlicing.getSlicingContext().getTimeRangeStart());
+
+        return Flux.fromIterable(addresses(enqueuedItem.getMail()))
+            .flatMap(typeAndAddress -> executor.executeVoid(insert.bind()
+                .setString(QUEUE_NAME, enqueuedItem.getMailQueueName().asString())
+                .setTimestamp(TIME_RANGE_START, timeRangeStart)
+                .setString(ADDRESS_TYPE, typeAndAddress.getLeft().getValue())
+                .setString(ADDRESS, typeAndAddress.getRight())
+                .setUUID(ENQUEUE_ID, enqueuedItem.getEnqueueId().asUUID())))
+            .then();
+    }
+
+    Flux<EnqueueId> selectEnqueueIds(MailQueueName queueName, Slice slice, AddressType addressType, String address) {
+        return executor.executeRows(
+                select.bind()
+                    .setString(QUEUE_NAME, queueName.asString())
+                    .setTimestamp(TIME_RANGE_START, Date.from(slice.getStartSliceInstant()))
+                    .setString(ADDRESS_TYPE, addressType.getValue())
+                    .setString(ADDRESS, address))
+            .map(row -> EnqueueId.of(row.getUUID(ENQUEUE_ID)));
+    }
+
+    /**
+     * Only the first call for a given mail queue is taken into account.
+     */
+    Mono<Void> insertIndexStart(MailQueueName queueName, Instant sliceStart) {
+        return executor.executeVoid(insertIndexStart.bind()
+            .setString(AddressIndexStartTable.QUEUE_NAME, queueName.asString())
+            .setTimestamp(INDEX_START, Date.from(sliceStart)));
+    }
+
+    /**
+     * Start of the first slice whose mails are all indexed.
+     */
+    Mono<Instant> findIndexStart(MailQueueName queueName) {
+        return executor.executeSingleRow(selectIndexStart.bind()
+                .setString(AddressIndexStartTable.QUEUE_NAME, queueName.asString()))
+            .map(row -> row.getTimestamp(INDEX_START).toInstant());
+    }
+
+    private ImmutableSet<Pair<AddressType, String>> addresses(Mail mail) {
+        return Stream.concat(
+                Stream.of(Pair.of(AddressType.SENDER, mail.getMaybeSender().asString())),
+                mail.getRecipients()
+                    .stream()
+                    .map(MailAddress::asString)
+                    .map(recipient -> Pair.of(AddressType.RECIPIENT, recipient)))
+            .collect(ImmutableSet.toImmutableSet());
+    }
+}
@@ -27,10 +27,12 @@ import static com.datastax.driver.core.querybuilder.QueryBuilder.select;
 import static org.apache.james.queue.rabbitmq.view.cassandra.CassandraMailQueueViewModule.EnqueuedMailsTable.ATTRIBUTES;
 import static org.apache.james.queue.rabbitmq.view.cassandra.CassandraMailQueueViewModule.EnqueuedMailsTable.BODY_BLOB_ID;
 import static org.apache.james.queue.rabbitmq.view.cassandra.CassandraMailQueueViewModule.EnqueuedMailsTable.BUCKET_ID;
+import static org.apache.james.queue.rabbitmq.view.cassandra.CassandraMailQueueViewModule.EnqueuedMailsTable.DELIVERY_TIME;
 import static org.apache.james.queue.rabbitmq.view.cassandra.CassandraMailQueueViewModule.EnqueuedMailsTable.ENQUEUED_TIME;
 import static org.apache.james.queue.rabbitmq.view.cassandra.CassandraMailQueueViewModule.EnqueuedMailsTable.ENQUEUE_ID;
 import static org.apache.james.queue.rabbitmq.view.cassandra.CassandraMailQueueViewModule.EnqueuedMailsTable.ERROR_MESSAGE;
 import static org.apache.james.queue.rabbitmq.view.cassandra.CassandraMailQueueViewModule.EnqueuedMailsTable.HEADER_BLOB_ID;
+import static org.apache.james.queue.rabbitmq.view.cassandra.CassandraMailQueueViewModule.EnqueuedMailsTable.INLINED_MESSAGE;
 import static org.apache.james.queue.rabbitmq.view.cassandra.CassandraMailQueueViewModule.EnqueuedMailsTable.LAST_UPDATED;
 import static org.apache.james.queue.rabbitmq.view.cassandra.CassandraMailQueueViewModule.EnqueuedMailsTable.NAME;
 import static org.apache.james.queue.rabbitmq.view.cassandra.CassandraMailQueueViewModule.EnqueuedMailsTable.PER_RECIPIENT_SPECIFIC_HEADERS;
@@ -46,23 +48,28 @@ import static org.apache.james.queue.rabbitmq.view.cassandra.EnqueuedMailsDaoUti
 import static org.apache.james.queue.rabbitmq.view.cassandra.EnqueuedMailsDaoUtil.toRawAttributeMap;
 import static org.apache.james.queue.rabbitmq.view.cassandra.EnqueuedMailsDaoUtil.toTupleList;
 
+import java.nio.ByteBuffer;
 import java.util.Date;
 
 import javax.inject.Inject;
 
 import org.apache.james.backends.cassandra.utils.CassandraAsyncExecutor;
 import org.apache.james.blob.api.BlobId;
-import org.apache.james.blob.mail.MimeMessagePartsId;
 import org.apache.james.queue.rabbitmq.EnqueuedItem;
 import org.apache.james.queue.rabbitmq.MailQueueName;
+import org.apache.james.queue.rabbitmq.MimeMessageContent;
+import org.apache.james.queue.rabbitmq.view.RabbitMQMailQueueConfiguration;
 import org.apache.james.queue.rabbitmq.view.cassandra.model.BucketedSlices.BucketId;
 import org.apache.james.queue.rabbitmq.view.cassandra.model.BucketedSlices.Slice;
 import org.apache.james.queue.rabbitmq.view.cassandra.model.EnqueuedItemWithSlicingContext;
 import org.apache.mailet.Mail;
 
+import com.datastax.driver.core.BoundStatement;
 import com.datastax.driver.core.PreparedStatement;
 import com.datastax.driver.core.Session;
 import com.datastax.driver.core.TupleType;
+import com.datastax.driver.core.querybuilder.Insert;
+import com.google.common.annotations.VisibleForTesting;
 
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -74,10 +81,25 @@ public class EnqueuedMailsDAO {
     private final PreparedStatement insert;
     private final BlobId.Factory blobFactory;
     private final TupleType userHeaderNameHeaderValueTriple;
+    private final boolean inlinedMessageEnabled;
 
     @Inject
+    EnqueuedMailsDAO(Session session, BlobId.Factory blobIdFactory, RabbitMQMailQueueConfiguration configuration) {
+        this(session, blobIdFactory, configuration.getInlinedMessageMaxSize().isPresent());
+    }
+
+    @VisibleForTesting
     EnqueuedMailsDAO(Session session, BlobId.Factory blobIdFactory) {
+        this(session, blobIdFactory, true);
+    }
+
+    /**
+     * The inlinedMessage column is only written when messages can be inlined, so that deployments not relying on
+     * inlining do not need to add it.
+     */
+    private EnqueuedMailsDAO(Session session, BlobId.Factory blobIdFactory, boolean inlinedMessageEnabled) {
         this.executor = new CassandraAsyncExecutor(session);
+        this.inlinedMessageEnabled = inlinedMessageEnabled;
 
         this.selectFrom = prepareSelectFrom(session);
         this.insert = prepareInsert(session);
@@ -94,7 +116,7 @@ public class EnqueuedMailsDAO {
     }
 
     private PreparedStatement prepareInsert(Session session) {
-        return session.prepare(insertInto(TABLE_NAME)
+        Insert insert = insertInto(TABLE_NAME)
             .value(QUEUE_NAME, bindMarker(QUEUE_NAME))
             .value(TIME_RANGE_START, bindMarker(TIME_RANGE_START))
             .value(BUCKET_ID, bindMarker(BUCKET_ID))
@@ -111,24 +133,29 @@ public class EnqueuedMailsDAO {
             .value(REMOTE_ADDR, bindMarker(REMOTE_ADDR))
             .value(REMOTE_HOST, bindMarker(REMOTE_HOST))
             .value(LAST_UPDATED, bindMarker(LAST_UPDATED))
-            .value(PER_RECIPIENT_SPECIFIC_HEADERS, bindMarker(PER_RECIPIENT_SPECIFIC_HEADERS)));
+            .value(PER_RECIPIENT_SPECIFIC_HEADERS, bindMarker(PER_RECIPIENT_SPECIFIC_HEADERS))
+            .value(DELIVERY_TIME, bindMarker(DELIVERY_TIME));
+        if (inlinedMessageEnabled) {
+            insert.value(INLINED_MESSAGE, bindMarker(INLINED_MESSAGE));
+        }
+        return session.prepare(insert);
     }
 
     Mono<Void> insert(EnqueuedItemWithSlicingContext enqueuedItemWithSlicing) {
         EnqueuedItem enqueuedItem = enqueuedItemWithSlicing.getEnqueuedItem();
         EnqueuedItemWithSlicingContext.SlicingContext slicingContext = enqueuedItemWithSlicing.getSlicingContext();
         Mail mail = enqueuedItem.getMail();
-        MimeMessagePartsId mimeMessagePartsId = enqueuedItem.getPartsId();
+        MimeMessageContent content = enqueuedItem.getContent();
 
-        return executor.executeVoid(insert.bind()
+        BoundStatement statement = insert.bind()
             .setString(QUEUE_NAME, enqueuedItem.getMailQueueName().asString())
             .setTimestamp(TIME_RANGE_START, Date.from(slicingContext.getTimeRangeStart()))
             .setInt(BUCKET_ID, slicingContext.getBucketId().getValue())
             .setTimestamp(ENQUEUED_TIME, Date.from(enqueuedItem.getEnqueuedTime()))
             .setUUID(ENQUEUE_ID, enqueuedItem.getEnqueueId().asUUID())
             .setString(NAME, mail.getName())
-            .setString(HEADER_BLOB_ID, mimeMessagePartsId.getHeaderBlobId().asString())
-            .setString(BODY_BLOB_ID, mimeMessagePartsId.getBodyBlobId().asString())
+            .setString(HEADER_BLOB_ID, content.getPartsId().map(partsId -> partsId.getHeaderBlobId().asString()).orElse(null))
+            .setString(BODY_BLOB_ID, content.getPartsId().map(partsId -> partsId.getBodyBlobId().asString()).orElse(null))
             .setString(STATE, mail.getState())
             .setString(SENDER, mail.getMaybeSender().asString(null))
             .setList(RECIPIENTS, asStringList(mail.getRecipients()))
@@ -137,7 +164,12 @@ public class EnqueuedMailsDAO {
             .setString(REMOTE_HOST, mail.getRemoteHost())
             .setTimestamp(LAST_UPDATED, mail.getLastUpdated())
             .setMap(ATTRIBUTES, toRawAttributeMap(mail))
-            .setList(PER_RECIPIENT_SPECIFIC_HEADERS, toTupleList(userHeaderNameHeaderValueTriple, mail.getPerRecipientSpecificHeaders())));
+            .setList(PER_RECIPIENT_SPECIFIC_HEADERS, toTupleList(userHeaderNameHeaderValueTriple, mail.getPerRecipientSpecificHeaders()))
+            .setTimestamp(DELIVERY_TIME, Date.from(enqueuedItem.getDeliveryTime()));
+        if (inlinedMessageEnabled) {
+            statement.setBytes(INLINED_MESSAGE, content.getInlinedMessage().map(ByteBuffer::wrap).orElse(null));
+        }
+        return executor.executeVoid(statement);
     }
 
     Flux<EnqueuedItemWithSlicingContext> selectEnqueuedMails(
@@ -22,10 +22,12 @@ package org.apache.james.queue.rabbitmq.view.cassandra;
 import static org.apache.james.queue.rabbitmq.view.cassandra.CassandraMailQueueViewModule.EnqueuedMailsTable.ATTRIBUTES;
 import static org.apache.james.queue.rabbitmq.view.cassandra.CassandraMailQueueViewModule.EnqueuedMailsTable.BODY_BLOB_ID;
 import static org.apache.james.queue.rabbitmq.view.cassandra.CassandraMailQueueViewModule.EnqueuedMailsTable.BUCKET_ID;
+import static org.apache.james.queue.rabbitmq.view.cassandra.CassandraMailQueueViewModule.EnqueuedMailsTable.DELIVERY_TIME;
 import static org.apache.james.queue.rabbitmq.view.cassandra.CassandraMailQueueViewModule.EnqueuedMailsTable.ENQUEUED_TIME;
 import static org.apache.james.queue.rabbitmq.view.cassandra.CassandraMailQueueViewModule.EnqueuedMailsTable.ENQUEUE_ID;
 import static org.apache.james.queue.rabbitmq.view.cassandra.CassandraMailQueueViewModule.EnqueuedMailsTable.ERROR_MESSAGE;
 import static org.apache.james.queue.rabbitmq.view.cassandra.CassandraMailQueueViewModule.EnqueuedMailsTable.HEADER_BLOB_ID;
+import static org.apache.james.queue.rabbitmq.view.cassandra.CassandraMailQueueViewModule.EnqueuedMailsTable.INLINED_MESSAGE;
 import static org.apache.james.queue.rabbitmq.view.cassandra.CassandraMailQueueViewModule.EnqueuedMailsTable.LAST_UPDATED;
 import static org.apache.james.queue.rabbitmq.view.cassandra.CassandraMailQueueViewModule.EnqueuedMailsTable.NAME;
 import static org.apache.james.queue.rabbitmq.view.cassandra.CassandraMailQueueViewModule.EnqueuedMailsTable.PER_RECIPIENT_SPECIFIC_HEADERS;
@@ -60,6 +62,7 @@ import org.apache.james.core.MailAddress;
 import org.apache.james.queue.rabbitmq.EnqueueId;
 import org.apache.james.queue.rabbitmq.EnqueuedItem;
 import org.apache.james.queue.rabbitmq.MailQueueName;
+import org.apache.james.queue.rabbitmq.MimeMessageContent;
 import org.apache.james.queue.rabbitmq.view.cassandra.model.BucketedSlices;
 import org.apache.james.queue.rabbitmq.view.cassandra.model.EnqueuedItemWithSlicingContext;
 import org.apache.james.server.core.MailImpl;
@@ -86,13 +89,7 @@ public class EnqueuedMailsDaoUtil {
         Instant timeRangeStart = row.getTimestamp(TIME_RANGE_START).toInstant();
         BucketedSlices.BucketId bucketId = BucketedSlices.BucketId.of(row.getInt(BUCKET_ID));
         Instant enqueuedTime = row.getTimestamp(ENQUEUED_TIME).toInstant();
-        BlobId headerBlobId = blobFactory.from(row.getString(HEADER_BLOB_ID));
-        BlobId bodyBlobId = blobFactory.from(row.getString(BODY_BLOB_ID));
-        MimeMessagePartsId mimeMessagePartsId = MimeMessagePartsId
-            .builder()
-            .headerBlobId(headerBlobId)
-            .bodyBlobId(bodyBlobId)
-            .build();
+        MimeMessageContent content = toContent(row, blobFactory);
 
         MailAddress sender = Optional.ofNullable(row.getString(SENDER))
             .map(Throwing.function(MailAddress::new))
@@ -127,7 +124,8 @@ public class EnqueuedMailsDaoUtil {
             .mailQueueName(queueName)
             .mail(mail)
             .enqueuedTime(enqueuedTime)
-            .mimeMessagePartsId(mimeMessagePartsId)
+            .content(content)
+            .deliveryTime(Optional.ofNullable(row.getTimestamp(DELIVERY_TIME)).map(Date::toInstant))
             .build();
 
 
@@ -137,6 +135,28 @@ public class EnqueuedMailsDaoUtil {
             .build();
     }
 
+    /**
+     * The inlinedMessage column is missing from tables created before inlining, unless added upon upgrade.
+     */
+    private static MimeMessageContent toContent(Row row, BlobId.Factory blobFactory) {
+        return Optional.of(row)
+            .filter(any -> row.getColumnDefinitions().contains(INLINED_MESSAGE))
+            .map(any -> row.getBytes(INLINED_MESSAGE))
+            .map(EnqueuedMailsDaoUtil::toByteArray)
+            .map(MimeMessageContent::inlined)
+            .orElseGet(() -> MimeMessageContent.stored(MimeMessagePartsId
+                .builder()
+                .headerBlobId(blobFactory.from(row.getString(HEADER_BLOB_ID)))
+                .bodyBlobId(blobFactory.from(row.getString(BODY_BLOB_ID)))
+                .build()));
+    }
+
+    private static byte[] toByteArray(ByteBuffer byteBuffer) {
+        byte[] bytes = new byte[byteBuffer.remaining()];
+        byteBuffer.get(bytes);
+        return bytes;
+    }
+
     @VisibleForTesting
     static List<Attribute> toAttributes(Map<String, ByteBuffer> rowAttributes) {
         return rowAttributes.entrySet()
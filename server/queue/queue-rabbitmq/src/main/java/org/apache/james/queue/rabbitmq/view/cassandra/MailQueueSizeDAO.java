@@ -0,0 +1,105 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.queue.rabbitmq.view.cassandra;
+
+import static com.datastax.driver.core.querybuilder.QueryBuilder.bindMarker;
+import static com.datastax.driver.core.querybuilder.QueryBuilder.eq;
+import static com.datastax.driver.core.querybuilder.QueryBuilder.incr;
+import static com.datastax.driver.core.querybuilder.QueryBuilder.select;
+import static com.datastax.driver.core.querybuilder.QueryBuilder.update;
+import static org.apache.james.queue.rabbitmq.view.cassandra.CassandraMailQueueViewModule.MailQueueSizeTable.QUEUE_NAME;
+import static org.apache.james.queue.rabbitmq.view.cassandra.CassandraMailQueueViewModule.MailQueueSizeTable.SHARD;
+import static org.apache.james.queue.rabbitmq.view.cassandra.CassandraMailQueueViewModule.MailQueueSizeTable.SIZE;
+import static org.apache.james.queue.rabbitmq.view.cassandra.CassandraMailQueueViewModule.MailQueueSizeTable.TABLE_NAME;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import javax.inject.Inject;
+
+import org.apache.james.backends.cassandra.utils.CassandraAsyncExecutor;
+import org.apache.james.queue.rabbitmq.MailQueueName;
+
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.Session;
+import com.google.common.annotations.VisibleForTesting;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Counts the mails of each mail queue. Each update goes to a random shard, so that concurrent updates of a busy
+ * mail queue do not contend on a single counter. The size is the sum of all shards.
+ */
+public class MailQueueSizeDAO {
+    @VisibleForTesting static final int SHARD_COUNT = 16;
+
+    private final CassandraAsyncExecutor executor;
+    private final PreparedStatement selectShards;
+    private final PreparedStatement updateShard;
+
+    @Inject
+    MailQueueSizeDAO(Session session) {
+        this.executor = new CassandraAsyncExecutor(session);
+        this.selectShards = prepareSelectShards(session);
+        this.updateShard = prepareUpdateShard(session);
+    }
+
+    private PreparedStatement prepareSelectShards(Session session) {
+        return session.prepare(select(SIZE)
+            .from(TABLE_NAME)
+            .where(eq(QUEUE_NAME, bindMarker(QUEUE_NAME))));
+    }
+
+    private PreparedStatement prepareUpdateShard(Session session) {
+        return session.prepare(update(TABLE_NAME)
+            .with(incr(SIZE, bindMarker(SIZE)))
+            .where(eq(QUEUE_NAME, bindMarker(QUEUE_NAME)))
+            .and(eq(SHARD, bindMarker(SHARD))));
+    }
+
+    Mono<Void> increment(MailQueueName mailQueueName) {
+        return add(mailQueueName, 1);
+    }
+
+    Mono<Void> decrement(MailQueueName mailQueueName) {
+        return add(mailQueueName, -1);
+    }
+
+    Mono<Void> add(MailQueueName mailQueueName, long delta) {
+        return executor.executeVoid(updateShard.bind()
+            .setString(QUEUE_NAME, mailQueueName.asString())
+            .setInt(SHARD, ThreadLocalRandom.current().nextInt(SHARD_COUNT))
+            .setLong(SIZE, delta));
+    }
+
+    /**
+     * Mail queues created before this counter was introduced are not counted until it gets updated.
+     */
+    Mono<Boolean> isCounted(MailQueueName mailQueueName) {
+        return executor.executeReturnExists(selectShards.bind()
+            .setString(QUEUE_NAME, mailQueueName.asString()));
+    }
+
+    Mono<Long> getSize(MailQueueName mailQueueName) {
+        return executor.executeRows(selectShards.bind()
+                .setString(QUEUE_NAME, mailQueueName.asString()))
+            .map(row -> row.getLong(SIZE))
+            .reduce(0L, Long::sum);
+    }
+}
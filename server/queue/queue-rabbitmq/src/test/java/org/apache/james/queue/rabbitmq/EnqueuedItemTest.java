@@ -19,6 +19,7 @@
 
 package org.apache.james.queue.rabbitmq;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import java.time.Instant;
@@ -115,4 +116,17 @@ class EnqueuedItemTest {
                 .build())
             .isInstanceOf(NullPointerException.class);
     }
-}
\ No newline at end of file
+
+    @Test
+    void deliveryTimeShouldDefaultToEnqueuedTime() {
+        EnqueuedItem enqueuedItem = EnqueuedItem.builder()
+            .enqueueId(EnqueueId.generate())
+            .mailQueueName(mailQueueName)
+            .mail(mail)
+            .enqueuedTime(enqueuedTime)
+            .mimeMessagePartsId(partsId)
+            .build();
+
+        assertThat(enqueuedItem.getDeliveryTime()).isEqualTo(enqueuedTime);
+    }
+}
@@ -23,6 +23,7 @@ import static net.javacrumbs.jsonunit.assertj.JsonAssertions.assertThatJson;
 import static org.apache.james.util.ClassLoaderUtils.getSystemResourceAsString;
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.Date;
 
@@ -84,7 +85,7 @@ class MailDTOTest {
             .isEqualTo(mailDTOMin());
     }
 
-    private MailReferenceDTO mailDTO1() throws MessagingException {
+    static MailReferenceDTO mailDTO1() throws MessagingException {
         return MailReferenceDTO.fromMailReference(
             new MailReference(
             EN_QUEUE_ID,
@@ -113,7 +114,7 @@ class MailDTOTest {
                 .build()));
     }
 
-    private MailReferenceDTO mailDTOMin() {
+    static MailReferenceDTO mailDTOMin() {
         MailImpl mail = MailImpl.builder()
             .name("mail-name-558")
             .build();
@@ -128,4 +129,17 @@ class MailDTOTest {
                     .bodyBlobId(BLOB_ID_FACTORY.from("ef46c026-7819-4048-b562-3a37469191ed"))
                     .build()));
     }
+
+    static MailReferenceDTO mailDTOInlined() {
+        MailImpl mail = MailImpl.builder()
+            .name("mail-name-558")
+            .build();
+        mail.setState(null);
+        mail.setLastUpdated(null);
+        return MailReferenceDTO.fromMailReference(
+            new MailReference(
+                EN_QUEUE_ID,
+                mail,
+                MimeMessageContent.inlined("Subject: test\r\n\r\nbody".getBytes(StandardCharsets.UTF_8))));
+    }
 }
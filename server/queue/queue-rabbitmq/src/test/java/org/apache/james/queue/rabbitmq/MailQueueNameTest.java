@@ -22,6 +22,8 @@ package org.apache.james.queue.rabbitmq;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import java.time.Duration;
+
 import org.junit.jupiter.api.Test;
 
 import nl.jqno.equalsverifier.EqualsVerifier;
@@ -90,4 +92,51 @@ class MailQueueNameTest {
             .contains(myQueue);
     }
 
-}
\ No newline at end of file
+    @Test
+    void delayQueueNameShouldConformToBeanContract() {
+        EqualsVerifier.forClass(MailQueueName.DelayQueueName.class).verify();
+    }
+
+    @Test
+    void toDelayQueueNameShouldThrowWhenZeroDelay() {
+        assertThatThrownBy(() -> MailQueueName.fromString("myQueue").toDelayQueueName(Duration.ZERO))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void toDelayQueueNameShouldThrowWhenNegativeDelay() {
+        assertThatThrownBy(() -> MailQueueName.fromString("myQueue").toDelayQueueName(Duration.ofSeconds(-1)))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void toDelayQueueNameShouldRoundUpToTheSecond() {
+        assertThat(MailQueueName.fromString("myQueue").toDelayQueueName(Duration.ofMillis(1500)).getDelay())
+            .isEqualTo(Duration.ofSeconds(2));
+    }
+
+    @Test
+    void delayQueueNameFromStringShouldReturnEmptyWhenArbitraryString() {
+        assertThat(MailQueueName.fromString("myQueue").delayQueueNameFromString("whatever"))
+            .isEmpty();
+    }
+
+    @Test
+    void delayQueueNameFromStringShouldReturnEmptyWhenDelayQueueOfAnotherMailQueue() {
+        MailQueueName otherQueue = MailQueueName.fromString("myQueue-other");
+        String delayQueueName = otherQueue.toDelayQueueName(Duration.ofSeconds(10)).asString();
+
+        assertThat(MailQueueName.fromString("myQueue").delayQueueNameFromString(delayQueueName))
+            .isEmpty();
+    }
+
+    @Test
+    void delayQueueNameFromStringShouldReturnIdentityWhenToDelayQueueName() {
+        MailQueueName myQueue = MailQueueName.fromString("myQueue");
+        MailQueueName.DelayQueueName delayQueueName = myQueue.toDelayQueueName(Duration.ofMinutes(5));
+
+        assertThat(myQueue.delayQueueNameFromString(delayQueueName.asString()))
+            .contains(delayQueueName);
+    }
+
+}
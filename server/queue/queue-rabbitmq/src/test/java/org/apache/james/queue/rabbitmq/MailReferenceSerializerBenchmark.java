@@ -0,0 +1,144 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.queue.rabbitmq;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.apache.james.blob.api.HashBlobId;
+import org.apache.james.blob.mail.MimeMessagePartsId;
+import org.apache.james.core.MailAddress;
+import org.apache.james.server.core.MailImpl;
+import org.apache.mailet.Attribute;
+import org.apache.mailet.AttributeName;
+import org.apache.mailet.AttributeValue;
+import org.apache.mailet.PerRecipientHeaders;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.github.fge.lambdas.Throwing;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Compares the cost of encoding and decoding a mail reference sent to a distribution list, in JSON and in the binary
+ * encoding. The payload sizes are printed before running the benchmarks.
+ *
+ * Run it from the IDE, or with:
+ *
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.apache.james.queue.rabbitmq.MailReferenceSerializerBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MailReferenceSerializerBenchmark {
+    private static final HashBlobId.Factory BLOB_ID_FACTORY = new HashBlobId.Factory();
+    private static final int RECIPIENT_COUNT = 1000;
+
+    @Param({"JSON", "BINARY"})
+    private String encoding;
+
+    private MailReferenceSerializer serializer;
+    private MailReferenceDTO mailReference;
+    private byte[] serialized;
+
+    @Setup
+    public void setUp() throws Exception {
+        serializer = new MailReferenceSerializer(MailReferenceSerializer.Encoding.valueOf(encoding));
+        mailReference = distributionListMail();
+        serialized = serializer.write(mailReference);
+    }
+
+    @Benchmark
+    public Object encode() throws Exception {
+        return serializer.write(mailReference);
+    }
+
+    @Benchmark
+    public Object decode() throws Exception {
+        return serializer.read(serialized, Optional.of(serializer.contentType()));
+    }
+
+    static MailReferenceDTO distributionListMail() throws Exception {
+        ImmutableList<MailAddress> recipients = IntStream.range(0, RECIPIENT_COUNT)
+            .mapToObj(i -> "member" + i + "@lists.apache.org")
+            .map(Throwing.<String, MailAddress>function(MailAddress::new).sneakyThrow())
+            .collect(ImmutableList.toImmutableList());
+
+        PerRecipientHeaders perRecipientHeaders = new PerRecipientHeaders();
+        recipients.forEach(recipient -> {
+            perRecipientHeaders.addHeaderForRecipient(PerRecipientHeaders.Header.builder()
+                .name("Delivered-To")
+                .value(recipient.asString())
+                .build(), recipient);
+            perRecipientHeaders.addHeaderForRecipient(PerRecipientHeaders.Header.builder()
+                .name("X-List-Member-Id")
+                .value(recipient.getLocalPart())
+                .build(), recipient);
+        });
+
+        MailImpl mail = MailImpl.builder()
+            .name("distribution-list-mail")
+            .sender("announce@lists.apache.org")
+            .addRecipients(recipients)
+            .addAttribute(new Attribute(AttributeName.of("org.apache.james.list"), AttributeValue.of("announce@lists.apache.org")))
+            .addAttribute(new Attribute(AttributeName.of("org.apache.james.priority"), AttributeValue.of(5)))
+            .addAttribute(new Attribute(AttributeName.of("org.apache.james.spam"), AttributeValue.of(false)))
+            .addAllHeadersForRecipients(perRecipientHeaders)
+            .remoteAddr("10.0.0.1")
+            .remoteHost("lists.apache.org")
+            .state("root")
+            .build();
+
+        return MailReferenceDTO.fromMailReference(new MailReference(
+            EnqueueId.generate(),
+            mail,
+            MimeMessagePartsId.builder()
+                .headerBlobId(BLOB_ID_FACTORY.from("210e7136-ede3-44eb-9495-3ed816d6e23b"))
+                .bodyBlobId(BLOB_ID_FACTORY.from("ef46c026-7819-4048-b562-3a37469191ed"))
+                .build()));
+    }
+
+    public static void main(String[] args) throws Exception {
+        MailReferenceDTO mailReference = distributionListMail();
+        for (MailReferenceSerializer.Encoding encoding : MailReferenceSerializer.Encoding.values()) {
+            System.out.println(encoding + " payload: " + new MailReferenceSerializer(encoding).write(mailReference).length + " bytes");
+        }
+
+        new Runner(new OptionsBuilder()
+                .include(MailReferenceSerializerBenchmark.class.getSimpleName())
+                .build())
+            .run();
+    }
+}
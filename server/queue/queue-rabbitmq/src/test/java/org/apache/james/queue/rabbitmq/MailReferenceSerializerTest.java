@@ -0,0 +1,176 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.queue.rabbitmq;
+
+import static org.apache.james.util.ClassLoaderUtils.getSystemResourceAsString;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableMap;
+
+class MailReferenceSerializerTest {
+    private static final Optional<String> NO_CONTENT_TYPE = Optional.empty();
+    private static final Optional<String> JSON = Optional.of(MailReferenceSerializer.Encoding.JSON.getContentType());
+    private static final Optional<String> BINARY = Optional.of(MailReferenceSerializer.Encoding.BINARY.getContentType());
+
+    private final MailReferenceSerializer jsonSerializer = new MailReferenceSerializer(MailReferenceSerializer.Encoding.JSON);
+    private final MailReferenceSerializer binarySerializer = new MailReferenceSerializer(MailReferenceSerializer.Encoding.BINARY);
+
+    @Test
+    void readShouldDefaultToJsonWhenNoContentType() throws Exception {
+        byte[] json = getSystemResourceAsString("json/mail1.json").getBytes(StandardCharsets.UTF_8);
+
+        assertThat(binarySerializer.read(json, NO_CONTENT_TYPE))
+            .isEqualTo(MailDTOTest.mailDTO1());
+    }
+
+    @Test
+    void jsonShouldRoundTrip() throws Exception {
+        MailReferenceDTO mailDTO = MailDTOTest.mailDTO1();
+
+        assertThat(jsonSerializer.read(jsonSerializer.write(mailDTO), JSON))
+            .isEqualTo(mailDTO);
+    }
+
+    @Test
+    void binaryShouldRoundTrip() throws Exception {
+        MailReferenceDTO mailDTO = MailDTOTest.mailDTO1();
+
+        assertThat(binarySerializer.read(binarySerializer.write(mailDTO), BINARY))
+            .isEqualTo(mailDTO);
+    }
+
+    @Test
+    void binaryShouldRoundTripWhenOnlyNameAndBlob() throws Exception {
+        MailReferenceDTO mailDTO = MailDTOTest.mailDTOMin();
+
+        assertThat(binarySerializer.read(binarySerializer.write(mailDTO), BINARY))
+            .isEqualTo(mailDTO);
+    }
+
+    @Test
+    void binaryShouldBeSmallerThanJson() throws Exception {
+        MailReferenceDTO mailDTO = MailDTOTest.mailDTO1();
+
+        assertThat(binarySerializer.write(mailDTO).length)
+            .isLessThan(jsonSerializer.write(mailDTO).length);
+    }
+
+    @Test
+    void readShouldDecodeMessagesOfBothEncodings() throws Exception {
+        MailReferenceDTO mailDTO = MailDTOTest.mailDTO1();
+
+        assertThat(jsonSerializer.read(binarySerializer.write(mailDTO), BINARY))
+            .isEqualTo(mailDTO);
+        assertThat(binarySerializer.read(jsonSerializer.write(mailDTO), JSON))
+            .isEqualTo(mailDTO);
+    }
+
+    @Test
+    void contentTypeShouldMatchTheEncoding() {
+        assertThat(jsonSerializer.contentType()).isEqualTo("application/json");
+        assertThat(binarySerializer.contentType()).isEqualTo("application/vnd.apache.james.mail-reference");
+    }
+
+    @Test
+    void readShouldThrowWhenUnknownContentType() throws Exception {
+        byte[] bytes = binarySerializer.write(MailDTOTest.mailDTO1());
+
+        assertThatThrownBy(() -> binarySerializer.read(bytes, Optional.of("text/plain")))
+            .isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void readShouldThrowWhenTruncatedBinary() throws Exception {
+        byte[] bytes = binarySerializer.write(MailDTOTest.mailDTO1());
+
+        assertThatThrownBy(() -> binarySerializer.read(Arrays.copyOf(bytes, bytes.length / 2), BINARY))
+            .isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void readShouldThrowWhenUnsupportedBinaryVersion() throws Exception {
+        byte[] bytes = binarySerializer.write(MailDTOTest.mailDTO1());
+        bytes[0] = 42;
+
+        assertThatThrownBy(() -> binarySerializer.read(bytes, BINARY))
+            .isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void jsonShouldRoundTripWhenInlinedMessage() throws Exception {
+        MailReferenceDTO mailDTO = MailDTOTest.mailDTOInlined();
+
+        assertThat(jsonSerializer.read(jsonSerializer.write(mailDTO), JSON))
+            .isEqualTo(mailDTO);
+    }
+
+    @Test
+    void binaryShouldRoundTripWhenInlinedMessage() throws Exception {
+        MailReferenceDTO mailDTO = MailDTOTest.mailDTOInlined();
+
+        assertThat(binarySerializer.read(binarySerializer.write(mailDTO), BINARY))
+            .isEqualTo(mailDTO);
+    }
+
+    @Test
+    void binaryShouldDecodeVersion1() throws Exception {
+        // Encoded by the first version of the binary codec, before inlined messages
+        byte[] version1 = Base64.getDecoder().decode("AQIFYXR0cjEIWC1IZWFkZXIkMTEwZTg0MDAtZTI5Yi0xMWQ0LWE3MTYtNDQ2NjU1NDQwMDAwDm1haWwt" +
+            "bmFtZS01NTgRc2VuZGVyQGxvY2FsaG9zdAZzdGF0ZQ5lcnJvciBtZXNzYWdlAYCTw9HwKgwxOTIuMTY4LjEuMQtob3N0LmxvY2FsJDIxMGU3" +
+            "MTM2LWVkZTMtNDRlYi05NDk1LTNlZDgxNmQ2ZTIzYiRlZjQ2YzAyNi03ODE5LTQwNDgtYjU2Mi0zYTM3NDY5MTkxZWQCFHJlY2lwaWVudDFA" +
+            "bG9jYWxob3N0FHJlY2lwaWVudDJAbG9jYWxob3N0AQAyeyJzZXJpYWxpemVyIjoiU3RyaW5nU2VyaWFsaXplciIsInZhbHVlIjoidmFsdWUx" +
+            "In0BFHJlY2lwaWVudDFAbG9jYWxob3N0AQEFdmFsdWU=");
+
+        assertThat(binarySerializer.read(version1, BINARY))
+            .isEqualTo(new MailReferenceDTO("110e8400-e29b-11d4-a716-446655440000",
+                ImmutableList.of("recipient1@localhost", "recipient2@localhost"),
+                "mail-name-558",
+                Optional.of("sender@localhost"),
+                "state",
+                "error message",
+                Optional.of(Instant.parse("2016-09-08T14:25:52Z")),
+                ImmutableMap.of("attr1", "{\"serializer\":\"StringSerializer\",\"value\":\"value1\"}"),
+                "192.168.1.1",
+                "host.local",
+                ImmutableMap.of("recipient1@localhost", new HeadersDto(ImmutableListMultimap.of("X-Header", "value"))),
+                "210e7136-ede3-44eb-9495-3ed816d6e23b",
+                "ef46c026-7819-4048-b562-3a37469191ed",
+                Optional.empty()));
+    }
+
+    @Test
+    void binaryShouldWriteVersion2() throws Exception {
+        byte[] bytes = binarySerializer.write(MailDTOTest.mailDTO1());
+
+        assertThat(bytes[0]).isEqualTo(BinaryMailReferenceCodec.VERSION_2);
+    }
+}
@@ -0,0 +1,79 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.queue.rabbitmq;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+import java.nio.charset.StandardCharsets;
+
+import javax.mail.internet.MimeMessage;
+
+import org.apache.james.blob.api.HashBlobId;
+import org.apache.james.blob.api.Store;
+import org.apache.james.blob.mail.MimeMessagePartsId;
+import org.junit.jupiter.api.Test;
+
+class MimeMessageContentTest {
+    private static final HashBlobId.Factory BLOB_ID_FACTORY = new HashBlobId.Factory();
+    private static final byte[] MESSAGE = "Subject: test\r\n\r\nbody".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void inlinedShouldThrowWhenNullMessage() {
+        assertThatThrownBy(() -> MimeMessageContent.inlined(null))
+            .isInstanceOf(NullPointerException.class);
+    }
+
+    @Test
+    void storedShouldThrowWhenNullPartsId() {
+        assertThatThrownBy(() -> MimeMessageContent.stored(null))
+            .isInstanceOf(NullPointerException.class);
+    }
+
+    @Test
+    void inlinedContentsShouldBeEqualWhenSameBytes() {
+        assertThat(MimeMessageContent.inlined(MESSAGE))
+            .isEqualTo(MimeMessageContent.inlined(MESSAGE.clone()));
+    }
+
+    @Test
+    void storedContentShouldNotEqualInlinedContent() {
+        MimeMessagePartsId partsId = MimeMessagePartsId.builder()
+            .headerBlobId(BLOB_ID_FACTORY.from("header"))
+            .bodyBlobId(BLOB_ID_FACTORY.from("body"))
+            .build();
+
+        assertThat(MimeMessageContent.stored(partsId))
+            .isNotEqualTo(MimeMessageContent.inlined(MESSAGE));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void readShouldParseInlinedMessageWithoutReadingTheStore() throws Exception {
+        Store<MimeMessage, MimeMessagePartsId> store = mock(Store.class);
+
+        MimeMessage message = MimeMessageContent.inlined(MESSAGE).read(store).block();
+
+        assertThat(message.getSubject()).isEqualTo("test");
+        verifyZeroInteractions(store);
+    }
+}
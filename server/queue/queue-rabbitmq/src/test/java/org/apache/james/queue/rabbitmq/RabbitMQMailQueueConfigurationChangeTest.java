@@ -124,7 +124,8 @@ class RabbitMQMailQueueConfigurationChangeTest {
             mailQueueViewFactory,
             clock,
             new RawMailQueueItemDecoratorFactory(),
-            mailQueueSizeConfiguration);
+            mailQueueSizeConfiguration,
+            mqManagementApi);
         RabbitMQMailQueueFactory mailQueueFactory = new RabbitMQMailQueueFactory(rabbitClient, mqManagementApi, privateFactory);
         return mailQueueFactory.createQueue(SPOOL);
     }
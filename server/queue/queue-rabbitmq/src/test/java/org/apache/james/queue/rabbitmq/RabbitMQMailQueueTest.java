@@ -20,10 +20,18 @@
 package org.apache.james.queue.rabbitmq;
 
 import static java.time.temporal.ChronoUnit.HOURS;
+import static org.apache.james.queue.api.MailQueue.OLDEST_MAIL_AGE_METRIC_NAME_PREFIX;
 import static org.apache.james.queue.api.Mails.defaultMail;
+import static org.apache.james.queue.api.Mails.defaultMailNoRecipient;
+import static org.apache.mailet.base.MailAddressFixture.OTHER_AT_LOCAL;
+import static org.apache.mailet.base.MailAddressFixture.RECIPIENT1;
+import static org.apache.mailet.base.MailAddressFixture.SENDER;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.awaitility.Awaitility.await;
+import static org.awaitility.Duration.ONE_MINUTE;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
@@ -44,11 +52,13 @@ import org.apache.james.blob.cassandra.CassandraBlobStore;
 import org.apache.james.blob.mail.MimeMessageStore;
 import org.apache.james.eventsourcing.eventstore.cassandra.CassandraEventStoreModule;
 import org.apache.james.metrics.api.Gauge;
+import org.apache.james.queue.api.DelayedManageableMailQueueContract;
 import org.apache.james.queue.api.MailQueue;
 import org.apache.james.queue.api.MailQueueMetricContract;
 import org.apache.james.queue.api.MailQueueMetricExtension;
 import org.apache.james.queue.api.ManageableMailQueue;
 import org.apache.james.queue.api.ManageableMailQueueContract;
+import org.apache.james.queue.api.PriorityMailQueueContract;
 import org.apache.james.queue.api.RawMailQueueItemDecoratorFactory;
 import org.apache.james.queue.rabbitmq.view.RabbitMQMailQueueConfiguration;
 import org.apache.james.queue.rabbitmq.view.api.MailQueueView;
@@ -104,14 +114,16 @@ class RabbitMQMailQueueTest {
     }
 
     @Nested
-    class MailQueueSizeMetricsEnabled implements ManageableMailQueueContract, MailQueueMetricContract {
+    class MailQueueSizeMetricsEnabled implements DelayedManageableMailQueueContract, PriorityMailQueueContract, MailQueueMetricContract {
+        private MailQueueView.Factory mailQueueViewFactory;
+
         @BeforeEach
         void setup(CassandraCluster cassandra, MailQueueMetricExtension.MailQueueMetricTestSystem metricTestSystem) throws Exception {
             CassandraBlobStore blobStore = new CassandraBlobStore(cassandra.getConf());
             MimeMessageStore.Factory mimeMessageStoreFactory = MimeMessageStore.factory(blobStore);
             clock = new UpdatableTickingClock(IN_SLICE_1);
 
-            MailQueueView.Factory mailQueueViewFactory = CassandraMailQueueViewTestFactory.factory(clock, cassandra.getConf(),
+            mailQueueViewFactory = CassandraMailQueueViewTestFactory.factory(clock, cassandra.getConf(),
                 CassandraMailQueueViewConfiguration.builder()
                     .bucketCount(THREE_BUCKET_COUNT)
                     .updateBrowseStartPace(UPDATE_BROWSE_START_PACE)
@@ -124,6 +136,7 @@ class RabbitMQMailQueueTest {
                 .build();
 
             RabbitClient rabbitClient = new RabbitClient(rabbitMQExtension.getRabbitChannelPool());
+            mqManagementApi = new RabbitMQMailQueueManagement(rabbitMQExtension.managementAPI());
             RabbitMQMailQueueFactory.PrivateFactory factory = new RabbitMQMailQueueFactory.PrivateFactory(
                 metricTestSystem.getMetricFactory(),
                 metricTestSystem.getSpyGaugeRegistry(),
@@ -133,15 +146,15 @@ class RabbitMQMailQueueTest {
                 mailQueueViewFactory,
                 clock,
                 new RawMailQueueItemDecoratorFactory(),
-                configuration);
-            mqManagementApi = new RabbitMQMailQueueManagement(rabbitMQExtension.managementAPI());
+                configuration,
+                mqManagementApi);
             mailQueueFactory = new RabbitMQMailQueueFactory(rabbitClient, mqManagementApi, factory);
             mailQueue = mailQueueFactory.createQueue(SPOOL);
         }
 
         @Override
         public void enQueue(Mail mail) throws MailQueue.MailQueueException {
-            ManageableMailQueueContract.super.enQueue(mail);
+            DelayedManageableMailQueueContract.super.enQueue(mail);
             clock.tick();
         }
 
@@ -227,6 +240,98 @@ class RabbitMQMailQueueTest {
             assertThat(initialized).isTrue();
         }
 
+        @Test
+        void removeBySenderShouldRemoveMailsEnqueuedBeforeTheAddressIndex(CassandraCluster cassandra) throws Exception {
+            enQueue(defaultMail().name("name1").build());
+            enQueue(defaultMail().name("name2").build());
+            CassandraMailQueueViewTestFactory.forgetAddressIndex(cassandra.getConf());
+
+            getManageableMailQueue().remove(ManageableMailQueue.Type.Sender, SENDER.asString());
+
+            assertThat(getManageableMailQueue().browse()).toIterable().isEmpty();
+        }
+
+        @Test
+        void removeByRecipientShouldRemoveMailsEnqueuedBeforeTheAddressIndex(CassandraCluster cassandra) throws Exception {
+            enQueue(defaultMail().name("name1").build());
+            enQueue(defaultMailNoRecipient().name("name2").recipient(OTHER_AT_LOCAL).build());
+            CassandraMailQueueViewTestFactory.forgetAddressIndex(cassandra.getConf());
+
+            getManageableMailQueue().remove(ManageableMailQueue.Type.Recipient, RECIPIENT1.asString());
+
+            assertThat(getManageableMailQueue().browse())
+                .toIterable()
+                .extracting(item -> item.getMail().getName())
+                .containsExactly("name2");
+        }
+
+        @Test
+        void getExactSizeShouldCorrectTheMaintainedSize(CassandraCluster cassandra) throws Exception {
+            enQueue(defaultMail().name("name1").build());
+            enQueue(defaultMail().name("name2").build());
+            CassandraMailQueueViewTestFactory.alterMaintainedSize(cassandra.getConf(), MailQueueName.fromString(SPOOL), 5);
+
+            assertThat(getManageableMailQueue().getExactSize()).isEqualTo(2);
+            assertThat(getManageableMailQueue().getSize()).isEqualTo(2);
+        }
+
+        @Test
+        void getSizeShouldCorrectANegativeMaintainedSize(CassandraCluster cassandra) throws Exception {
+            enQueue(defaultMail().name("name1").build());
+            CassandraMailQueueViewTestFactory.alterMaintainedSize(cassandra.getConf(), MailQueueName.fromString(SPOOL), -5);
+
+            assertThat(getManageableMailQueue().getSize()).isEqualTo(1);
+            assertThat(CassandraMailQueueViewTestFactory.getMaintainedSize(cassandra.getConf(), MailQueueName.fromString(SPOOL)))
+                .isEqualTo(1);
+        }
+
+        @Test
+        void initializeShouldCountTheMailsOfMailQueuesCreatedBeforeTheSizeCounter(CassandraCluster cassandra) throws Exception {
+            enQueue(defaultMail().name("name1").build());
+            enQueue(defaultMail().name("name2").build());
+            CassandraMailQueueViewTestFactory.forgetMaintainedSizes(cassandra.getConf());
+
+            MailQueueName mailQueueName = MailQueueName.fromString(SPOOL);
+            mailQueueViewFactory.create(mailQueueName).initialize(mailQueueName);
+
+            assertThat(getManageableMailQueue().getSize()).isEqualTo(2);
+        }
+
+        @Test
+        void initializeShouldNotAlterTheMaintainedSizeOfCountedMailQueues(CassandraCluster cassandra) throws Exception {
+            enQueue(defaultMail().name("name1").build());
+            enQueue(defaultMail().name("name2").build());
+            MailQueueName mailQueueName = MailQueueName.fromString(SPOOL);
+            CassandraMailQueueViewTestFactory.alterMaintainedSize(cassandra.getConf(), mailQueueName, 5);
+
+            mailQueueViewFactory.create(mailQueueName).initialize(mailQueueName);
+
+            assertThat(getManageableMailQueue().getSize()).isEqualTo(7);
+        }
+
+        @Test
+        void oldestMailAgeGaugeShouldEventuallyReturnTheAgeOfTheOldestMail(MailQueueMetricExtension.MailQueueMetricTestSystem metricTestSystem) throws Exception {
+            enQueue(defaultMail().name("name1").build());
+            enQueue(defaultMail().name("name2").build());
+            clock.setInstant(IN_SLICE_1.plusSeconds(10));
+
+            Gauge<?> oldestMailAgeGauge = oldestMailAgeGauge(metricTestSystem);
+            await().atMost(ONE_MINUTE)
+                .untilAsserted(() -> assertThat(oldestMailAgeGauge.get()).isEqualTo(10000L));
+        }
+
+        @Test
+        void oldestMailAgeGaugeShouldIgnoreMailsNotYetDue(MailQueueMetricExtension.MailQueueMetricTestSystem metricTestSystem) throws Exception {
+            getMailQueue().enQueue(defaultMail().name("delayed").build(), Duration.ofMinutes(30));
+            clock.setInstant(IN_SLICE_1.plusSeconds(10));
+            enQueue(defaultMail().name("name1").build());
+            clock.setInstant(IN_SLICE_1.plusSeconds(20));
+
+            Gauge<?> oldestMailAgeGauge = oldestMailAgeGauge(metricTestSystem);
+            await().atMost(ONE_MINUTE)
+                .untilAsserted(() -> assertThat(oldestMailAgeGauge.get()).isEqualTo(10000L));
+        }
+
         @Test
         void enQueueShouldNotThrowOnMailNameWithNegativeHash() {
             String negativehashedString = "this sting will have a negative hash"; //hash value: -1256871313
@@ -243,6 +348,13 @@ class RabbitMQMailQueueTest {
 
         }
 
+        private Gauge<?> oldestMailAgeGauge(MailQueueMetricExtension.MailQueueMetricTestSystem metricTestSystem) {
+            ArgumentCaptor<Gauge<?>> gaugeCaptor = ArgumentCaptor.forClass(Gauge.class);
+            verify(metricTestSystem.getSpyGaugeRegistry())
+                .register(eq(OLDEST_MAIL_AGE_METRIC_NAME_PREFIX + SPOOL), gaugeCaptor.capture());
+            return gaugeCaptor.getValue();
+        }
+
         private void enqueueSomeMails(Function<Integer, String> namePattern, int emailCount) {
             IntStream.rangeClosed(1, emailCount)
                 .forEach(Throwing.intConsumer(i -> enQueue(defaultMail()
@@ -286,6 +398,7 @@ class RabbitMQMailQueueTest {
                 .build();
 
             RabbitClient rabbitClient = new RabbitClient(rabbitMQExtension.getRabbitChannelPool());
+            mqManagementApi = new RabbitMQMailQueueManagement(rabbitMQExtension.managementAPI());
             RabbitMQMailQueueFactory.PrivateFactory factory = new RabbitMQMailQueueFactory.PrivateFactory(
                 metricTestSystem.getMetricFactory(),
                 metricTestSystem.getSpyGaugeRegistry(),
@@ -295,8 +408,8 @@ class RabbitMQMailQueueTest {
                 mailQueueViewFactory,
                 clock,
                 new RawMailQueueItemDecoratorFactory(),
-                configuration);
-            mqManagementApi = new RabbitMQMailQueueManagement(rabbitMQExtension.managementAPI());
+                configuration,
+                mqManagementApi);
             mailQueueFactory = new RabbitMQMailQueueFactory(rabbitClient, mqManagementApi, factory);
             mailQueue = mailQueueFactory.createQueue(SPOOL);
         }
@@ -307,4 +420,175 @@ class RabbitMQMailQueueTest {
             verify(metricTestSystem.getSpyGaugeRegistry(), never()).register(any(), gaugeCaptor.capture());
         }
     }
+
+    @Nested
+    class DeletedMailsFilterEnabled implements ManageableMailQueueContract {
+        @RegisterExtension
+        MailQueueMetricExtension mailQueueMetricExtension = new MailQueueMetricExtension();
+
+        @BeforeEach
+        void setup(CassandraCluster cassandra, MailQueueMetricExtension.MailQueueMetricTestSystem metricTestSystem) throws Exception {
+            CassandraBlobStore blobStore = new CassandraBlobStore(cassandra.getConf());
+            MimeMessageStore.Factory mimeMessageStoreFactory = MimeMessageStore.factory(blobStore);
+            clock = new UpdatableTickingClock(IN_SLICE_1);
+
+            MailQueueView.Factory mailQueueViewFactory = CassandraMailQueueViewTestFactory.factory(clock, cassandra.getConf(),
+                CassandraMailQueueViewConfiguration.builder()
+                    .bucketCount(THREE_BUCKET_COUNT)
+                    .updateBrowseStartPace(UPDATE_BROWSE_START_PACE)
+                    .sliceWindow(ONE_HOUR_SLICE_WINDOW)
+                    .build(),
+                mimeMessageStoreFactory,
+                CassandraMailQueueViewTestFactory.DeletedMailsFilterMode.ENABLED);
+
+            RabbitMQMailQueueConfiguration configuration = RabbitMQMailQueueConfiguration.builder()
+                .build();
+
+            RabbitClient rabbitClient = new RabbitClient(rabbitMQExtension.getRabbitChannelPool());
+            mqManagementApi = new RabbitMQMailQueueManagement(rabbitMQExtension.managementAPI());
+            RabbitMQMailQueueFactory.PrivateFactory factory = new RabbitMQMailQueueFactory.PrivateFactory(
+                metricTestSystem.getMetricFactory(),
+                metricTestSystem.getSpyGaugeRegistry(),
+                rabbitClient,
+                mimeMessageStoreFactory,
+                BLOB_ID_FACTORY,
+                mailQueueViewFactory,
+                clock,
+                new RawMailQueueItemDecoratorFactory(),
+                configuration,
+                mqManagementApi);
+            mailQueueFactory = new RabbitMQMailQueueFactory(rabbitClient, mqManagementApi, factory);
+            mailQueue = mailQueueFactory.createQueue(SPOOL);
+        }
+
+        @Override
+        public void enQueue(Mail mail) throws MailQueue.MailQueueException {
+            ManageableMailQueueContract.super.enQueue(mail);
+            clock.tick();
+        }
+
+        @Override
+        public MailQueue getMailQueue() {
+            return mailQueue;
+        }
+
+        @Override
+        public ManageableMailQueue getManageableMailQueue() {
+            return mailQueue;
+        }
+    }
+
+    @Nested
+    class BinaryMailReferenceEnabled implements DelayedManageableMailQueueContract, PriorityMailQueueContract {
+        @RegisterExtension
+        MailQueueMetricExtension mailQueueMetricExtension = new MailQueueMetricExtension();
+
+        @BeforeEach
+        void setup(CassandraCluster cassandra, MailQueueMetricExtension.MailQueueMetricTestSystem metricTestSystem) throws Exception {
+            CassandraBlobStore blobStore = new CassandraBlobStore(cassandra.getConf());
+            MimeMessageStore.Factory mimeMessageStoreFactory = MimeMessageStore.factory(blobStore);
+            clock = new UpdatableTickingClock(IN_SLICE_1);
+
+            MailQueueView.Factory mailQueueViewFactory = CassandraMailQueueViewTestFactory.factory(clock, cassandra.getConf(),
+                CassandraMailQueueViewConfiguration.builder()
+                    .bucketCount(THREE_BUCKET_COUNT)
+                    .updateBrowseStartPace(UPDATE_BROWSE_START_PACE)
+                    .sliceWindow(ONE_HOUR_SLICE_WINDOW)
+                    .build(),
+                mimeMessageStoreFactory);
+
+            RabbitMQMailQueueConfiguration configuration = RabbitMQMailQueueConfiguration.builder()
+                .binaryMailReferenceEnabled(true)
+                .build();
+
+            RabbitClient rabbitClient = new RabbitClient(rabbitMQExtension.getRabbitChannelPool());
+            mqManagementApi = new RabbitMQMailQueueManagement(rabbitMQExtension.managementAPI());
+            RabbitMQMailQueueFactory.PrivateFactory factory = new RabbitMQMailQueueFactory.PrivateFactory(
+                metricTestSystem.getMetricFactory(),
+                metricTestSystem.getSpyGaugeRegistry(),
+                rabbitClient,
+                mimeMessageStoreFactory,
+                BLOB_ID_FACTORY,
+                mailQueueViewFactory,
+                clock,
+                new RawMailQueueItemDecoratorFactory(),
+                configuration,
+                mqManagementApi);
+            mailQueueFactory = new RabbitMQMailQueueFactory(rabbitClient, mqManagementApi, factory);
+            mailQueue = mailQueueFactory.createQueue(SPOOL);
+        }
+
+        @Override
+        public void enQueue(Mail mail) throws MailQueue.MailQueueException {
+            DelayedManageableMailQueueContract.super.enQueue(mail);
+            clock.tick();
+        }
+
+        @Override
+        public MailQueue getMailQueue() {
+            return mailQueue;
+        }
+
+        @Override
+        public ManageableMailQueue getManageableMailQueue() {
+            return mailQueue;
+        }
+    }
+
+    @Nested
+    class InlinedMessagesEnabled implements DelayedManageableMailQueueContract, PriorityMailQueueContract {
+        @RegisterExtension
+        MailQueueMetricExtension mailQueueMetricExtension = new MailQueueMetricExtension();
+
+        @BeforeEach
+        void setup(CassandraCluster cassandra, MailQueueMetricExtension.MailQueueMetricTestSystem metricTestSystem) throws Exception {
+            CassandraBlobStore blobStore = new CassandraBlobStore(cassandra.getConf());
+            MimeMessageStore.Factory mimeMessageStoreFactory = MimeMessageStore.factory(blobStore);
+            clock = new UpdatableTickingClock(IN_SLICE_1);
+
+            MailQueueView.Factory mailQueueViewFactory = CassandraMailQueueViewTestFactory.factory(clock, cassandra.getConf(),
+                CassandraMailQueueViewConfiguration.builder()
+                    .bucketCount(THREE_BUCKET_COUNT)
+                    .updateBrowseStartPace(UPDATE_BROWSE_START_PACE)
+                    .sliceWindow(ONE_HOUR_SLICE_WINDOW)
+                    .build(),
+                mimeMessageStoreFactory);
+
+            RabbitMQMailQueueConfiguration configuration = RabbitMQMailQueueConfiguration.builder()
+                .inlinedMessageMaxSize(1024 * 1024)
+                .build();
+
+            RabbitClient rabbitClient = new RabbitClient(rabbitMQExtension.getRabbitChannelPool());
+            mqManagementApi = new RabbitMQMailQueueManagement(rabbitMQExtension.managementAPI());
+            RabbitMQMailQueueFactory.PrivateFactory factory = new RabbitMQMailQueueFactory.PrivateFactory(
+                metricTestSystem.getMetricFactory(),
+                metricTestSystem.getSpyGaugeRegistry(),
+                rabbitClient,
+                mimeMessageStoreFactory,
+                BLOB_ID_FACTORY,
+                mailQueueViewFactory,
+                clock,
+                new RawMailQueueItemDecoratorFactory(),
+                configuration,
+                mqManagementApi);
+            mailQueueFactory = new RabbitMQMailQueueFactory(rabbitClient, mqManagementApi, factory);
+            mailQueue = mailQueueFactory.createQueue(SPOOL);
+        }
+
+        @Override
+        public void enQueue(Mail mail) throws MailQueue.MailQueueException {
+            DelayedManageableMailQueueContract.super.enQueue(mail);
+            clock.tick();
+        }
+
+        @Override
+        public MailQueue getMailQueue() {
+            return mailQueue;
+        }
+
+        @Override
+        public ManageableMailQueue getManageableMailQueue() {
+            return mailQueue;
+        }
+    }
 }
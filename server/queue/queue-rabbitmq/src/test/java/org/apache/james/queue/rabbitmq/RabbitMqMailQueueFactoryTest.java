@@ -19,6 +19,10 @@
 
 package org.apache.james.queue.rabbitmq;
 
+import static org.apache.james.backends.rabbitmq.Constants.AUTO_DELETE;
+import static org.apache.james.backends.rabbitmq.Constants.DURABLE;
+import static org.apache.james.backends.rabbitmq.Constants.EXCLUSIVE;
+import static org.apache.james.backends.rabbitmq.Constants.NO_ARGUMENTS;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
@@ -67,6 +71,7 @@ class RabbitMqMailQueueFactoryTest implements MailQueueFactoryContract<RabbitMQM
             .build();
 
         RabbitClient rabbitClient = new RabbitClient(rabbitMQExtension.getRabbitChannelPool());
+        mqManagementApi = new RabbitMQMailQueueManagement(rabbitMQExtension.managementAPI());
         RabbitMQMailQueueFactory.PrivateFactory factory = new RabbitMQMailQueueFactory.PrivateFactory(
             new NoopMetricFactory(),
             new NoopGaugeRegistry(),
@@ -76,8 +81,8 @@ class RabbitMqMailQueueFactoryTest implements MailQueueFactoryContract<RabbitMQM
             mailQueueViewFactory,
             Clock.systemUTC(),
             new RawMailQueueItemDecoratorFactory(),
-            configuration);
-        mqManagementApi = new RabbitMQMailQueueManagement(rabbitMQExtension.managementAPI());
+            configuration,
+            mqManagementApi);
         mailQueueFactory = new RabbitMQMailQueueFactory(rabbitClient, mqManagementApi, factory);
     }
 
@@ -108,4 +113,18 @@ class RabbitMqMailQueueFactoryTest implements MailQueueFactoryContract<RabbitMQM
             .extracting(RabbitMQMailQueue::getName)
             .hasOnlyOneElementSatisfying(queueName -> assertThat(queueName).isEqualTo("spool"));
     }
+
+    @Test
+    void createQueueShouldNotFailWhenWorkQueueWasDeclaredWithoutPriority() throws Exception {
+        MailQueueName name = MailQueueName.fromString("spool");
+        rabbitMQExtension.getRabbitChannelPool().execute(channel -> {
+            channel.queueDeclare(name.toWorkQueueName().asString(), DURABLE, !EXCLUSIVE, !AUTO_DELETE, NO_ARGUMENTS);
+        });
+
+        mailQueueFactory.createQueue("spool");
+
+        assertThat(mailQueueFactory.listCreatedMailQueues())
+            .extracting(RabbitMQMailQueue::getName)
+            .containsOnly("spool");
+    }
 }
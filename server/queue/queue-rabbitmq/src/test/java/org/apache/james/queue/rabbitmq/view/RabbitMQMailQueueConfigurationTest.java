@@ -20,6 +20,7 @@
 package org.apache.james.queue.rabbitmq.view;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import org.apache.commons.configuration2.PropertiesConfiguration;
 import org.junit.jupiter.api.Test;
@@ -49,4 +50,84 @@ class RabbitMQMailQueueConfigurationTest {
         assertThat(actual.isSizeMetricsEnabled())
             .isEqualTo(false);
     }
+
+    @Test
+    void fromShouldReturnConfiguredDequeueConcurrency() {
+        PropertiesConfiguration configuration = new PropertiesConfiguration();
+        configuration.addProperty(RabbitMQMailQueueConfiguration.DEQUEUE_CONCURRENCY_PROPERTY, 4);
+        RabbitMQMailQueueConfiguration actual = RabbitMQMailQueueConfiguration.from(configuration);
+
+        assertThat(actual.getDequeueConcurrency())
+            .isEqualTo(4);
+    }
+
+    @Test
+    void deletedMailsFilterShouldBeDisabledByDefault() {
+        RabbitMQMailQueueConfiguration actual = RabbitMQMailQueueConfiguration.from(new PropertiesConfiguration());
+
+        assertThat(actual.isDeletedMailsFilterEnabled())
+            .isFalse();
+    }
+
+    @Test
+    void fromShouldReturnConfiguredDeletedMailsFilterEnabled() {
+        PropertiesConfiguration configuration = new PropertiesConfiguration();
+        configuration.addProperty(RabbitMQMailQueueConfiguration.DELETED_MAILS_FILTER_ENABLED_PROPERTY, true);
+        RabbitMQMailQueueConfiguration actual = RabbitMQMailQueueConfiguration.from(configuration);
+
+        assertThat(actual.isDeletedMailsFilterEnabled())
+            .isTrue();
+    }
+
+    @Test
+    void binaryMailReferenceShouldBeDisabledByDefault() {
+        RabbitMQMailQueueConfiguration actual = RabbitMQMailQueueConfiguration.from(new PropertiesConfiguration());
+
+        assertThat(actual.isBinaryMailReferenceEnabled())
+            .isFalse();
+    }
+
+    @Test
+    void fromShouldReturnConfiguredBinaryMailReferenceEnabled() {
+        PropertiesConfiguration configuration = new PropertiesConfiguration();
+        configuration.addProperty(RabbitMQMailQueueConfiguration.BINARY_MAIL_REFERENCE_ENABLED_PROPERTY, true);
+        RabbitMQMailQueueConfiguration actual = RabbitMQMailQueueConfiguration.from(configuration);
+
+        assertThat(actual.isBinaryMailReferenceEnabled())
+            .isTrue();
+    }
+
+    @Test
+    void inlinedMessageMaxSizeShouldBeEmptyByDefault() {
+        RabbitMQMailQueueConfiguration actual = RabbitMQMailQueueConfiguration.from(new PropertiesConfiguration());
+
+        assertThat(actual.getInlinedMessageMaxSize())
+            .isEmpty();
+    }
+
+    @Test
+    void fromShouldReturnConfiguredInlinedMessageMaxSize() {
+        PropertiesConfiguration configuration = new PropertiesConfiguration();
+        configuration.addProperty(RabbitMQMailQueueConfiguration.INLINED_MESSAGE_MAX_SIZE_PROPERTY, "32K");
+        RabbitMQMailQueueConfiguration actual = RabbitMQMailQueueConfiguration.from(configuration);
+
+        assertThat(actual.getInlinedMessageMaxSize())
+            .contains(32L * 1024);
+    }
+
+    @Test
+    void buildShouldThrowWhenZeroInlinedMessageMaxSize() {
+        assertThatThrownBy(() -> RabbitMQMailQueueConfiguration.builder()
+                .inlinedMessageMaxSize(0)
+                .build())
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void buildShouldThrowWhenZeroDequeueConcurrency() {
+        assertThatThrownBy(() -> RabbitMQMailQueueConfiguration.builder()
+                .dequeueConcurrency(0)
+                .build())
+            .isInstanceOf(IllegalArgumentException.class);
+    }
 }
@@ -88,4 +88,18 @@ class BrowseStartDAOTest {
         assertThat(testee.findBrowseStart(OUT_GOING_1).flux().collectList().block())
             .contains(NOW.truncatedTo(ChronoUnit.MILLIS));
     }
-}
\ No newline at end of file
+
+    @Test
+    void insertInitialBrowseStartShouldReturnTrueWhenFirstInsert() {
+        assertThat(testee.insertInitialBrowseStart(OUT_GOING_1, NOW).block())
+            .isTrue();
+    }
+
+    @Test
+    void insertInitialBrowseStartShouldReturnFalseWhenAlreadyInitialized() {
+        testee.insertInitialBrowseStart(OUT_GOING_1, NOW).block();
+
+        assertThat(testee.insertInitialBrowseStart(OUT_GOING_1, NOW_PLUS_TEN_SECONDS).block())
+            .isFalse();
+    }
+}
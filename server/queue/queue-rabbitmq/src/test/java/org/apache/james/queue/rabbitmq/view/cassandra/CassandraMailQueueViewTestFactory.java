@@ -19,6 +19,8 @@
 
 package org.apache.james.queue.rabbitmq.view.cassandra;
 
+import static com.datastax.driver.core.querybuilder.QueryBuilder.truncate;
+
 import java.time.Clock;
 import java.util.Optional;
 
@@ -28,6 +30,9 @@ import org.apache.james.eventsourcing.eventstore.cassandra.CassandraEventStore;
 import org.apache.james.eventsourcing.eventstore.cassandra.EventStoreDao;
 import org.apache.james.eventsourcing.eventstore.cassandra.JsonEventSerializer;
 import org.apache.james.queue.rabbitmq.MailQueueName;
+import org.apache.james.queue.rabbitmq.view.cassandra.CassandraMailQueueViewModule.AddressIndexStartTable;
+import org.apache.james.queue.rabbitmq.view.cassandra.CassandraMailQueueViewModule.EnqueuedMailsByAddressTable;
+import org.apache.james.queue.rabbitmq.view.cassandra.CassandraMailQueueViewModule.MailQueueSizeTable;
 import org.apache.james.queue.rabbitmq.view.cassandra.configuration.CassandraMailQueueViewConfiguration;
 import org.apache.james.queue.rabbitmq.view.cassandra.configuration.CassandraMailQueueViewConfigurationModule;
 import org.apache.james.queue.rabbitmq.view.cassandra.configuration.EventsourcingConfigurationManagement;
@@ -38,19 +43,35 @@ import com.google.common.collect.ImmutableSet;
 import reactor.core.publisher.Mono;
 
 public class CassandraMailQueueViewTestFactory {
+    private static final int EXPECTED_DELETIONS = 1000;
 
     public static CassandraMailQueueView.Factory factory(Clock clock, Session session,
                                                          CassandraMailQueueViewConfiguration configuration,
                                                          MimeMessageStore.Factory mimeMessageStoreFactory) {
+        return factory(clock, session, configuration, mimeMessageStoreFactory, DeletedMailsFilterMode.DISABLED);
+    }
+
+    public enum DeletedMailsFilterMode {
+        ENABLED,
+        DISABLED
+    }
+
+    public static CassandraMailQueueView.Factory factory(Clock clock, Session session,
+                                                         CassandraMailQueueViewConfiguration configuration,
+                                                         MimeMessageStore.Factory mimeMessageStoreFactory,
+                                                         DeletedMailsFilterMode deletedMailsFilterMode) {
         HashBlobId.Factory blobIdFactory = new HashBlobId.Factory();
 
         EnqueuedMailsDAO enqueuedMailsDao = new EnqueuedMailsDAO(session, blobIdFactory);
+        EnqueuedMailsByAddressDAO enqueuedMailsByAddressDao = new EnqueuedMailsByAddressDAO(session);
         BrowseStartDAO browseStartDao = new BrowseStartDAO(session);
         DeletedMailsDAO deletedMailsDao = new DeletedMailsDAO(session);
+        MailQueueSizeDAO mailQueueSizeDao = new MailQueueSizeDAO(session);
+        DeletedMailsFilter deletedMailsFilter = new DeletedMailsFilter(deletedMailsFilterMode == DeletedMailsFilterMode.ENABLED, EXPECTED_DELETIONS);
 
-        CassandraMailQueueBrowser cassandraMailQueueBrowser = new CassandraMailQueueBrowser(browseStartDao, deletedMailsDao, enqueuedMailsDao, mimeMessageStoreFactory, configuration, clock);
-        CassandraMailQueueMailStore cassandraMailQueueMailStore = new CassandraMailQueueMailStore(enqueuedMailsDao, browseStartDao, configuration, clock);
-        CassandraMailQueueMailDelete cassandraMailQueueMailDelete = new CassandraMailQueueMailDelete(deletedMailsDao, browseStartDao, cassandraMailQueueBrowser, configuration);
+        CassandraMailQueueBrowser cassandraMailQueueBrowser = new CassandraMailQueueBrowser(browseStartDao, deletedMailsDao, deletedMailsFilter, enqueuedMailsDao, enqueuedMailsByAddressDao, mimeMessageStoreFactory, configuration, clock);
+        CassandraMailQueueMailStore cassandraMailQueueMailStore = new CassandraMailQueueMailStore(enqueuedMailsDao, enqueuedMailsByAddressDao, browseStartDao, mailQueueSizeDao, configuration, clock);
+        CassandraMailQueueMailDelete cassandraMailQueueMailDelete = new CassandraMailQueueMailDelete(deletedMailsDao, deletedMailsFilter, browseStartDao, mailQueueSizeDao, cassandraMailQueueBrowser, configuration);
 
 
         EventsourcingConfigurationManagement eventsourcingConfigurationManagement = new EventsourcingConfigurationManagement(new CassandraEventStore(new EventStoreDao(session,
@@ -60,6 +81,7 @@ public class CassandraMailQueueViewTestFactory {
             cassandraMailQueueMailStore,
             cassandraMailQueueBrowser,
             cassandraMailQueueMailDelete,
+            mailQueueSizeDao,
             eventsourcingConfigurationManagement,
             configuration);
     }
@@ -72,4 +94,21 @@ public class CassandraMailQueueViewTestFactory {
             .block()
             .isPresent();
     }
+
+    public static void alterMaintainedSize(Session session, MailQueueName mailQueueName, long delta) {
+        new MailQueueSizeDAO(session).add(mailQueueName, delta).block();
+    }
+
+    public static long getMaintainedSize(Session session, MailQueueName mailQueueName) {
+        return new MailQueueSizeDAO(session).getSize(mailQueueName).block();
+    }
+
+    public static void forgetMaintainedSizes(Session session) {
+        session.execute(truncate(MailQueueSizeTable.TABLE_NAME));
+    }
+
+    public static void forgetAddressIndex(Session session) {
+        session.execute(truncate(EnqueuedMailsByAddressTable.TABLE_NAME));
+        session.execute(truncate(AddressIndexStartTable.TABLE_NAME));
+    }
 }
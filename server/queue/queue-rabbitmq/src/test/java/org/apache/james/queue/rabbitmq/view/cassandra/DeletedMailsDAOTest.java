@@ -110,4 +110,18 @@ class DeletedMailsDAOTest {
 
         assertThat(isDeleted).isTrue();
     }
-}
\ No newline at end of file
+
+    @Test
+    void markAsDeletedShouldReturnTrueWhenNotYetDeleted() {
+        assertThat(testee.markAsDeleted(OUT_GOING_1, ENQUEUE_ID_1).block())
+            .isTrue();
+    }
+
+    @Test
+    void markAsDeletedShouldReturnFalseWhenAlreadyDeleted() {
+        testee.markAsDeleted(OUT_GOING_1, ENQUEUE_ID_1).block();
+
+        assertThat(testee.markAsDeleted(OUT_GOING_1, ENQUEUE_ID_1).block())
+            .isFalse();
+    }
+}
@@ -0,0 +1,182 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.queue.rabbitmq.view.cassandra;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.awaitility.Duration.ONE_MINUTE;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+
+import org.apache.james.queue.rabbitmq.EnqueueId;
+import org.apache.james.queue.rabbitmq.MailQueueName;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class DeletedMailsFilterTest {
+    private static final MailQueueName OUT_GOING_1 = MailQueueName.fromString("OUT_GOING_1");
+    private static final MailQueueName OUT_GOING_2 = MailQueueName.fromString("OUT_GOING_2");
+    private static final int EXPECTED_DELETIONS = 100;
+    private static final Instant BROWSE_START = Instant.parse("2007-12-03T10:00:00.00Z");
+    private static final Optional<Instant> SINCE_BROWSE_START = Optional.of(BROWSE_START.plusSeconds(10));
+
+    private DeletedMailsFilter testee;
+
+    @BeforeEach
+    void setUp() {
+        testee = new DeletedMailsFilter(true, EXPECTED_DELETIONS);
+    }
+
+    @Test
+    void mightBeDeletedShouldReturnTrueWhenDisabled() {
+        DeletedMailsFilter disabled = new DeletedMailsFilter(false, EXPECTED_DELETIONS);
+        disabled.build(OUT_GOING_1, () -> Mono.just(BROWSE_START), any -> Flux.empty());
+
+        assertThat(disabled.mightBeDeleted(OUT_GOING_1, EnqueueId.generate(), SINCE_BROWSE_START))
+            .isTrue();
+    }
+
+    @Test
+    void mightBeDeletedShouldReturnTrueWhenNotBuilt() {
+        assertThat(testee.mightBeDeleted(OUT_GOING_1, EnqueueId.generate(), SINCE_BROWSE_START))
+            .isTrue();
+    }
+
+    @Test
+    void mightBeDeletedShouldReturnTrueWhileBuilding() {
+        testee.build(OUT_GOING_1, () -> Mono.just(BROWSE_START), any -> Flux.never());
+
+        assertThat(testee.mightBeDeleted(OUT_GOING_1, EnqueueId.generate(), SINCE_BROWSE_START))
+            .isTrue();
+    }
+
+    @Test
+    void mightBeDeletedShouldReturnTrueWhenBuildFailed() {
+        testee.build(OUT_GOING_1, () -> Mono.just(BROWSE_START), any -> Flux.error(new RuntimeException()));
+
+        assertThat(testee.mightBeDeleted(OUT_GOING_1, EnqueueId.generate(), SINCE_BROWSE_START))
+            .isTrue();
+    }
+
+    @Test
+    void mightBeDeletedShouldReturnFalseForNotDeletedMailOnceBuilt() {
+        EnqueueId enqueueId = EnqueueId.generate();
+        testee.build(OUT_GOING_1, () -> Mono.just(BROWSE_START), any -> Flux.empty());
+
+        await().atMost(ONE_MINUTE)
+            .untilAsserted(() -> assertThat(testee.mightBeDeleted(OUT_GOING_1, enqueueId, SINCE_BROWSE_START)).isFalse());
+    }
+
+    @Test
+    void mightBeDeletedShouldReturnTrueForMailsDeletedBeforeBuild() {
+        EnqueueId enqueueId = EnqueueId.generate();
+        testee.build(OUT_GOING_1, () -> Mono.just(BROWSE_START), any -> Flux.just(enqueueId));
+        EnqueueId notDeleted = EnqueueId.generate();
+
+        await().atMost(ONE_MINUTE)
+            .untilAsserted(() -> assertThat(testee.mightBeDeleted(OUT_GOING_1, notDeleted, SINCE_BROWSE_START)).isFalse());
+        assertThat(testee.mightBeDeleted(OUT_GOING_1, enqueueId, SINCE_BROWSE_START))
+            .isTrue();
+    }
+
+    @Test
+    void mightBeDeletedShouldReturnTrueForMailsEnqueuedBeforeTheBrowseStart() {
+        EnqueueId enqueueId = EnqueueId.generate();
+        EnqueueId notDeleted = EnqueueId.generate();
+        testee.build(OUT_GOING_1, () -> Mono.just(BROWSE_START), any -> Flux.empty());
+        await().atMost(ONE_MINUTE)
+            .untilAsserted(() -> assertThat(testee.mightBeDeleted(OUT_GOING_1, notDeleted, SINCE_BROWSE_START)).isFalse());
+
+        assertThat(testee.mightBeDeleted(OUT_GOING_1, enqueueId, Optional.of(BROWSE_START.minusSeconds(10))))
+            .isTrue();
+    }
+
+    @Test
+    void mightBeDeletedShouldReturnTrueWhenEnqueueTimeIsUnknown() {
+        EnqueueId enqueueId = EnqueueId.generate();
+        EnqueueId notDeleted = EnqueueId.generate();
+        testee.build(OUT_GOING_1, () -> Mono.just(BROWSE_START), any -> Flux.empty());
+        await().atMost(ONE_MINUTE)
+            .untilAsserted(() -> assertThat(testee.mightBeDeleted(OUT_GOING_1, notDeleted, SINCE_BROWSE_START)).isFalse());
+
+        assertThat(testee.mightBeDeleted(OUT_GOING_1, enqueueId, Optional.empty()))
+            .isTrue();
+    }
+
+    @Test
+    void buildShouldBrowseDeletedMailsFromTheBrowseStart() {
+        AtomicReference<Instant> browsedFrom = new AtomicReference<>();
+        testee.build(OUT_GOING_1, () -> Mono.just(BROWSE_START), browseStart -> Flux.<EnqueueId>empty()
+            .doOnSubscribe(subscription -> browsedFrom.set(browseStart)));
+
+        await().atMost(ONE_MINUTE)
+            .untilAsserted(() -> assertThat(browsedFrom.get()).isEqualTo(BROWSE_START));
+    }
+
+    @Test
+    void mightBeDeletedShouldReturnTrueForMarkedMails() {
+        EnqueueId enqueueId = EnqueueId.generate();
+        EnqueueId notDeleted = EnqueueId.generate();
+        testee.build(OUT_GOING_1, () -> Mono.just(BROWSE_START), any -> Flux.empty());
+        await().atMost(ONE_MINUTE)
+            .untilAsserted(() -> assertThat(testee.mightBeDeleted(OUT_GOING_1, notDeleted, SINCE_BROWSE_START)).isFalse());
+
+        testee.markDeleted(OUT_GOING_1, enqueueId);
+
+        assertThat(testee.mightBeDeleted(OUT_GOING_1, enqueueId, SINCE_BROWSE_START))
+            .isTrue();
+    }
+
+    @Test
+    void markDeletedShouldBeScopedToItsMailQueue() {
+        EnqueueId enqueueId = EnqueueId.generate();
+        testee.build(OUT_GOING_1, () -> Mono.just(BROWSE_START), any -> Flux.empty());
+        testee.build(OUT_GOING_2, () -> Mono.just(BROWSE_START), any -> Flux.empty());
+        await().atMost(ONE_MINUTE)
+            .untilAsserted(() -> assertThat(testee.mightBeDeleted(OUT_GOING_2, enqueueId, SINCE_BROWSE_START)).isFalse());
+
+        testee.markDeleted(OUT_GOING_1, enqueueId);
+
+        assertThat(testee.mightBeDeleted(OUT_GOING_2, enqueueId, SINCE_BROWSE_START))
+            .isFalse();
+    }
+
+    @Test
+    void markDeletedShouldRebuildTheFilterWhenExpectedDeletionsAreExceeded() {
+        AtomicInteger buildCount = new AtomicInteger(0);
+        testee.build(OUT_GOING_1, () -> Mono.just(BROWSE_START), any -> Flux.<EnqueueId>empty()
+            .doOnSubscribe(subscription -> buildCount.incrementAndGet()));
+        await().atMost(ONE_MINUTE)
+            .untilAsserted(() -> assertThat(buildCount.get()).isEqualTo(1));
+
+        IntStream.range(0, EXPECTED_DELETIONS + EXPECTED_DELETIONS / 2)
+            .forEach(i -> testee.markDeleted(OUT_GOING_1, EnqueueId.generate()));
+
+        await().atMost(ONE_MINUTE)
+            .untilAsserted(() -> assertThat(buildCount.get()).isEqualTo(2));
+    }
+}
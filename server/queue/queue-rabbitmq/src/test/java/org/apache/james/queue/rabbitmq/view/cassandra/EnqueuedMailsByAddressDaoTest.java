@@ -0,0 +1,184 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.queue.rabbitmq.view.cassandra;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import org.apache.james.backends.cassandra.CassandraCluster;
+import org.apache.james.backends.cassandra.CassandraClusterExtension;
+import org.apache.james.backends.cassandra.components.CassandraModule;
+import org.apache.james.backends.cassandra.versions.CassandraSchemaVersionModule;
+import org.apache.james.blob.api.BlobId;
+import org.apache.james.blob.api.HashBlobId;
+import org.apache.james.blob.mail.MimeMessagePartsId;
+import org.apache.james.core.MailAddress;
+import org.apache.james.queue.rabbitmq.EnqueueId;
+import org.apache.james.queue.rabbitmq.EnqueuedItem;
+import org.apache.james.queue.rabbitmq.MailQueueName;
+import org.apache.james.queue.rabbitmq.view.cassandra.EnqueuedMailsByAddressDAO.AddressType;
+import org.apache.james.queue.rabbitmq.view.cassandra.model.BucketedSlices.BucketId;
+import org.apache.james.queue.rabbitmq.view.cassandra.model.BucketedSlices.Slice;
+import org.apache.james.queue.rabbitmq.view.cassandra.model.EnqueuedItemWithSlicingContext;
+import org.apache.mailet.base.MailAddressFixture;
+import org.apache.mailet.base.test.FakeMail;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+class EnqueuedMailsByAddressDaoTest {
+    private static final MailQueueName OUT_GOING_1 = MailQueueName.fromString("OUT_GOING_1");
+    private static final MailQueueName OUT_GOING_2 = MailQueueName.fromString("OUT_GOING_2");
+    private static final EnqueueId ENQUEUE_ID_1 = EnqueueId.ofSerialized("110e8400-e29b-11d4-a716-446655440000");
+    private static final EnqueueId ENQUEUE_ID_2 = EnqueueId.ofSerialized("464765a0-e4e7-11e4-aba4-710c1de3782b");
+    private static final Instant NOW = Instant.now();
+    private static final Slice SLICE_OF_NOW = Slice.of(NOW);
+    private static final BucketId BUCKET_ID = BucketId.of(1);
+
+    private static final BlobId.Factory BLOB_ID_FACTORY = new HashBlobId.Factory();
+    private static final MimeMessagePartsId MIME_MESSAGE_PARTS_ID = MimeMessagePartsId.builder()
+        .headerBlobId(BLOB_ID_FACTORY.from("header blob id"))
+        .bodyBlobId(BLOB_ID_FACTORY.from("body blob id"))
+        .build();
+
+    @RegisterExtension
+    static CassandraClusterExtension cassandraCluster = new CassandraClusterExtension(
+            CassandraModule.aggregateModules(CassandraSchemaVersionModule.MODULE, CassandraMailQueueViewModule.MODULE));
+
+    private EnqueuedMailsByAddressDAO testee;
+
+    @BeforeEach
+    void setUp(CassandraCluster cassandra) {
+        testee = new EnqueuedMailsByAddressDAO(cassandra.getConf());
+    }
+
+    @Test
+    void selectEnqueueIdsShouldReturnEmptyByDefault() {
+        assertThat(testee.selectEnqueueIds(OUT_GOING_1, SLICE_OF_NOW, AddressType.SENDER, MailAddressFixture.SENDER.asString())
+                .collectList().block())
+            .isEmpty();
+    }
+
+    @Test
+    void selectEnqueueIdsShouldReturnMailsOfTheSender() throws Exception {
+        insert(OUT_GOING_1, ENQUEUE_ID_1, NOW, MailAddressFixture.SENDER, MailAddressFixture.RECIPIENT1);
+        insert(OUT_GOING_1, ENQUEUE_ID_2, NOW, MailAddressFixture.OTHER_AT_LOCAL, MailAddressFixture.RECIPIENT1);
+
+        assertThat(testee.selectEnqueueIds(OUT_GOING_1, SLICE_OF_NOW, AddressType.SENDER, MailAddressFixture.SENDER.asString())
+                .collectList().block())
+            .containsOnly(ENQUEUE_ID_1);
+    }
+
+    @Test
+    void selectEnqueueIdsShouldReturnMailsOfTheRecipient() throws Exception {
+        insert(OUT_GOING_1, ENQUEUE_ID_1, NOW, MailAddressFixture.SENDER, MailAddressFixture.RECIPIENT1, MailAddressFixture.RECIPIENT2);
+        insert(OUT_GOING_1, ENQUEUE_ID_2, NOW, MailAddressFixture.SENDER, MailAddressFixture.RECIPIENT2);
+
+        assertThat(testee.selectEnqueueIds(OUT_GOING_1, SLICE_OF_NOW, AddressType.RECIPIENT, MailAddressFixture.RECIPIENT1.asString())
+                .collectList().block())
+            .containsOnly(ENQUEUE_ID_1);
+        assertThat(testee.selectEnqueueIds(OUT_GOING_1, SLICE_OF_NOW, AddressType.RECIPIENT, MailAddressFixture.RECIPIENT2.asString())
+                .collectList().block())
+            .containsOnly(ENQUEUE_ID_1, ENQUEUE_ID_2);
+    }
+
+    @Test
+    void selectEnqueueIdsShouldNotMixSendersAndRecipients() throws Exception {
+        insert(OUT_GOING_1, ENQUEUE_ID_1, NOW, MailAddressFixture.SENDER, MailAddressFixture.RECIPIENT1);
+
+        assertThat(testee.selectEnqueueIds(OUT_GOING_1, SLICE_OF_NOW, AddressType.RECIPIENT, MailAddressFixture.SENDER.asString())
+                .collectList().block())
+            .isEmpty();
+    }
+
+    @Test
+    void selectEnqueueIdsShouldBeScopedByMailQueue() throws Exception {
+        insert(OUT_GOING_1, ENQUEUE_ID_1, NOW, MailAddressFixture.SENDER, MailAddressFixture.RECIPIENT1);
+        insert(OUT_GOING_2, ENQUEUE_ID_2, NOW, MailAddressFixture.SENDER, MailAddressFixture.RECIPIENT1);
+
+        assertThat(testee.selectEnqueueIds(OUT_GOING_1, SLICE_OF_NOW, AddressType.SENDER, MailAddressFixture.SENDER.asString())
+                .collectList().block())
+            .containsOnly(ENQUEUE_ID_1);
+    }
+
+    @Test
+    void selectEnqueueIdsShouldBeScopedBySlice() throws Exception {
+        Instant anHourAgo = NOW.minus(1, ChronoUnit.HOURS);
+        insert(OUT_GOING_1, ENQUEUE_ID_1, NOW, MailAddressFixture.SENDER, MailAddressFixture.RECIPIENT1);
+        insert(OUT_GOING_1, ENQUEUE_ID_2, anHourAgo, MailAddressFixture.SENDER, MailAddressFixture.RECIPIENT1);
+
+        assertThat(testee.selectEnqueueIds(OUT_GOING_1, Slice.of(anHourAgo), AddressType.SENDER, MailAddressFixture.SENDER.asString())
+                .collectList().block())
+            .containsOnly(ENQUEUE_ID_2);
+    }
+
+    @Test
+    void findIndexStartShouldReturnEmptyByDefault() {
+        assertThat(testee.findIndexStart(OUT_GOING_1).blockOptional())
+            .isEmpty();
+    }
+
+    @Test
+    void findIndexStartShouldReturnTheInsertedInstant() {
+        testee.insertIndexStart(OUT_GOING_1, NOW).block();
+
+        assertThat(testee.findIndexStart(OUT_GOING_1).block())
+            .isEqualTo(NOW.truncatedTo(ChronoUnit.MILLIS));
+    }
+
+    @Test
+    void insertIndexStartShouldKeepTheFirstInstant() {
+        Instant anHourLater = NOW.plus(1, ChronoUnit.HOURS);
+        testee.insertIndexStart(OUT_GOING_1, NOW).block();
+        testee.insertIndexStart(OUT_GOING_1, anHourLater).block();
+
+        assertThat(testee.findIndexStart(OUT_GOING_1).block())
+            .isEqualTo(NOW.truncatedTo(ChronoUnit.MILLIS));
+    }
+
+    @Test
+    void findIndexStartShouldBeScopedByMailQueue() {
+        testee.insertIndexStart(OUT_GOING_1, NOW).block();
+
+        assertThat(testee.findIndexStart(OUT_GOING_2).blockOptional())
+            .isEmpty();
+    }
+
+    private void insert(MailQueueName mailQueueName, EnqueueId enqueueId, Instant timeRangeStart,
+                        MailAddress sender, MailAddress... recipients) throws Exception {
+        testee.insert(EnqueuedItemWithSlicingContext.builder()
+                .enqueuedItem(EnqueuedItem.builder()
+                    .enqueueId(enqueueId)
+                    .mailQueueName(mailQueueName)
+                    .mail(FakeMail.builder()
+                        .name("name")
+                        .sender(sender)
+                        .recipients(recipients)
+                        .build())
+                    .enqueuedTime(timeRangeStart)
+                    .mimeMessagePartsId(MIME_MESSAGE_PARTS_ID)
+                    .build())
+                .slicingContext(EnqueuedItemWithSlicingContext.SlicingContext.of(BUCKET_ID, timeRangeStart))
+                .build())
+            .block();
+    }
+}
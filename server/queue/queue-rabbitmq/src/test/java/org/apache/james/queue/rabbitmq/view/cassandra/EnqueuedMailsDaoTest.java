@@ -22,6 +22,7 @@ package org.apache.james.queue.rabbitmq.view.cassandra;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.SoftAssertions.assertSoftly;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
@@ -36,6 +37,8 @@ import org.apache.james.blob.mail.MimeMessagePartsId;
 import org.apache.james.queue.rabbitmq.EnqueueId;
 import org.apache.james.queue.rabbitmq.EnqueuedItem;
 import org.apache.james.queue.rabbitmq.MailQueueName;
+import org.apache.james.queue.rabbitmq.MimeMessageContent;
+import org.apache.james.queue.rabbitmq.view.RabbitMQMailQueueConfiguration;
 import org.apache.james.queue.rabbitmq.view.cassandra.model.BucketedSlices.BucketId;
 import org.apache.james.queue.rabbitmq.view.cassandra.model.BucketedSlices.Slice;
 import org.apache.james.queue.rabbitmq.view.cassandra.model.EnqueuedItemWithSlicingContext;
@@ -144,8 +147,86 @@ class EnqueuedMailsDaoTest {
                     softly.assertThat(enqueuedItem.getEnqueuedTime()).isEqualTo(NOW.truncatedTo(ChronoUnit.MILLIS));
                     softly.assertThat(enqueuedItem.getEnqueueId()).isEqualTo(ENQUEUE_ID);
                     softly.assertThat(enqueuedItem.getMail().getName()).isEqualTo(NAME);
-                    softly.assertThat(enqueuedItem.getPartsId()).isEqualTo(MIME_MESSAGE_PARTS_ID);
+                    softly.assertThat(enqueuedItem.getContent()).isEqualTo(MimeMessageContent.stored(MIME_MESSAGE_PARTS_ID));
                 });
             });
     }
-}
\ No newline at end of file
+
+    @Test
+    void selectEnqueuedMailsShouldReturnInlinedContent() {
+        MimeMessageContent inlinedContent = MimeMessageContent.inlined("Subject: test\r\n\r\nbody".getBytes(StandardCharsets.UTF_8));
+        testee.insert(EnqueuedItemWithSlicingContext.builder()
+                .enqueuedItem(EnqueuedItem.builder()
+                    .enqueueId(ENQUEUE_ID)
+                    .mailQueueName(OUT_GOING_1)
+                    .mail(FakeMail.builder()
+                        .name(NAME)
+                        .build())
+                    .enqueuedTime(NOW)
+                    .content(inlinedContent)
+                    .build())
+                .slicingContext(EnqueuedItemWithSlicingContext.SlicingContext.of(BucketId.of(BUCKET_ID_VALUE), NOW))
+                .build())
+            .block();
+
+        List<EnqueuedItemWithSlicingContext> selectedEnqueuedMails = testee.selectEnqueuedMails(OUT_GOING_1, SLICE_OF_NOW, BUCKET_ID)
+            .collectList().block();
+
+        assertThat(selectedEnqueuedMails)
+            .hasOnlyOneElementSatisfying(selectedEnqueuedMail -> assertThat(selectedEnqueuedMail.getEnqueuedItem().getContent())
+                .isEqualTo(inlinedContent));
+    }
+
+    @Test
+    void insertShouldNotRequireInlinedMessageWhenInliningIsDisabled(CassandraCluster cassandra) {
+        EnqueuedMailsDAO testee = new EnqueuedMailsDAO(cassandra.getConf(), new HashBlobId.Factory(),
+            RabbitMQMailQueueConfiguration.builder().build());
+
+        testee.insert(EnqueuedItemWithSlicingContext.builder()
+                .enqueuedItem(EnqueuedItem.builder()
+                    .enqueueId(ENQUEUE_ID)
+                    .mailQueueName(OUT_GOING_1)
+                    .mail(FakeMail.builder()
+                        .name(NAME)
+                        .build())
+                    .enqueuedTime(NOW)
+                    .mimeMessagePartsId(MIME_MESSAGE_PARTS_ID)
+                    .build())
+                .slicingContext(EnqueuedItemWithSlicingContext.SlicingContext.of(BucketId.of(BUCKET_ID_VALUE), NOW))
+                .build())
+            .block();
+
+        List<EnqueuedItemWithSlicingContext> selectedEnqueuedMails = testee.selectEnqueuedMails(OUT_GOING_1, SLICE_OF_NOW, BUCKET_ID)
+            .collectList().block();
+
+        assertThat(selectedEnqueuedMails)
+            .hasOnlyOneElementSatisfying(selectedEnqueuedMail -> assertThat(selectedEnqueuedMail.getEnqueuedItem().getContent())
+                .isEqualTo(MimeMessageContent.stored(MIME_MESSAGE_PARTS_ID)));
+    }
+
+    @Test
+    void selectEnqueuedMailsShouldReturnDeliveryTime() {
+        Instant deliveryTime = NOW.plus(1, ChronoUnit.HOURS);
+        testee.insert(EnqueuedItemWithSlicingContext.builder()
+                .enqueuedItem(EnqueuedItem.builder()
+                    .enqueueId(ENQUEUE_ID)
+                    .mailQueueName(OUT_GOING_1)
+                    .mail(FakeMail.builder()
+                        .name(NAME)
+                        .build())
+                    .enqueuedTime(NOW)
+                    .mimeMessagePartsId(MIME_MESSAGE_PARTS_ID)
+                    .deliveryTime(deliveryTime)
+                    .build())
+                .slicingContext(EnqueuedItemWithSlicingContext.SlicingContext.of(BucketId.of(BUCKET_ID_VALUE), NOW))
+                .build())
+            .block();
+
+        List<EnqueuedItemWithSlicingContext> selectedEnqueuedMails = testee.selectEnqueuedMails(OUT_GOING_1, SLICE_OF_NOW, BUCKET_ID)
+            .collectList().block();
+
+        assertThat(selectedEnqueuedMails)
+            .hasOnlyOneElementSatisfying(selectedEnqueuedMail -> assertThat(selectedEnqueuedMail.getEnqueuedItem().getDeliveryTime())
+                .isEqualTo(deliveryTime.truncatedTo(ChronoUnit.MILLIS)));
+    }
+}
@@ -0,0 +1,129 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.queue.rabbitmq.view.cassandra;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.apache.james.backends.cassandra.CassandraCluster;
+import org.apache.james.backends.cassandra.CassandraClusterExtension;
+import org.apache.james.backends.cassandra.components.CassandraModule;
+import org.apache.james.backends.cassandra.versions.CassandraSchemaVersionModule;
+import org.apache.james.queue.rabbitmq.MailQueueName;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import reactor.core.publisher.Flux;
+
+class MailQueueSizeDAOTest {
+
+    private static final MailQueueName OUT_GOING_1 = MailQueueName.fromString("OUT_GOING_1");
+    private static final MailQueueName OUT_GOING_2 = MailQueueName.fromString("OUT_GOING_2");
+
+    @RegisterExtension
+    static CassandraClusterExtension cassandraCluster = new CassandraClusterExtension(
+        CassandraModule.aggregateModules(
+            CassandraSchemaVersionModule.MODULE,
+            CassandraMailQueueViewModule.MODULE));
+
+    private MailQueueSizeDAO testee;
+
+    @BeforeEach
+    void setUp(CassandraCluster cassandra) {
+        testee = new MailQueueSizeDAO(cassandra.getConf());
+    }
+
+    @Test
+    void getSizeShouldReturnZeroByDefault() {
+        assertThat(testee.getSize(OUT_GOING_1).block())
+            .isEqualTo(0L);
+    }
+
+    @Test
+    void getSizeShouldReturnIncrementedValue() {
+        testee.increment(OUT_GOING_1).block();
+        testee.increment(OUT_GOING_1).block();
+
+        assertThat(testee.getSize(OUT_GOING_1).block())
+            .isEqualTo(2L);
+    }
+
+    @Test
+    void getSizeShouldTakeDecrementsIntoAccount() {
+        testee.increment(OUT_GOING_1).block();
+        testee.increment(OUT_GOING_1).block();
+        testee.decrement(OUT_GOING_1).block();
+
+        assertThat(testee.getSize(OUT_GOING_1).block())
+            .isEqualTo(1L);
+    }
+
+    @Test
+    void getSizeShouldSumAllShards() {
+        int updateCount = MailQueueSizeDAO.SHARD_COUNT * 10;
+        Flux.range(0, updateCount)
+            .flatMap(i -> testee.increment(OUT_GOING_1))
+            .blockLast();
+
+        assertThat(testee.getSize(OUT_GOING_1).block())
+            .isEqualTo(updateCount);
+    }
+
+    @Test
+    void addShouldApplyTheGivenDelta() {
+        testee.increment(OUT_GOING_1).block();
+
+        testee.add(OUT_GOING_1, -5).block();
+
+        assertThat(testee.getSize(OUT_GOING_1).block())
+            .isEqualTo(-4L);
+    }
+
+    @Test
+    void getSizeShouldNotReturnSizeOfOtherMailQueues() {
+        testee.increment(OUT_GOING_2).block();
+
+        assertThat(testee.getSize(OUT_GOING_1).block())
+            .isEqualTo(0L);
+    }
+
+    @Test
+    void isCountedShouldReturnFalseByDefault() {
+        assertThat(testee.isCounted(OUT_GOING_1).block())
+            .isFalse();
+    }
+
+    @Test
+    void isCountedShouldReturnTrueOnceUpdated() {
+        testee.increment(OUT_GOING_1).block();
+        testee.decrement(OUT_GOING_1).block();
+
+        assertThat(testee.isCounted(OUT_GOING_1).block())
+            .isTrue();
+    }
+
+    @Test
+    void isCountedShouldBeScopedByMailQueue() {
+        testee.increment(OUT_GOING_2).block();
+
+        assertThat(testee.isCounted(OUT_GOING_1).block())
+            .isFalse();
+    }
+}